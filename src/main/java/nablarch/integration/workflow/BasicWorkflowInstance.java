@@ -1,11 +1,17 @@
 package nablarch.integration.workflow;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 import nablarch.integration.workflow.definition.FlowNode;
 import nablarch.integration.workflow.definition.Task;
 import nablarch.integration.workflow.util.WorkflowUtil;
+import nablarch.integration.workflow.dao.ActiveGroupTaskEntity;
+import nablarch.integration.workflow.dao.ActiveUserTaskEntity;
+import nablarch.integration.workflow.dao.InstanceStateEntity;
+import nablarch.integration.workflow.dao.TaskAssignedGroupEntity;
+import nablarch.integration.workflow.dao.TaskAssignedUserEntity;
 import nablarch.integration.workflow.dao.WorkflowInstanceDao;
 import nablarch.integration.workflow.definition.BoundaryEvent;
 import nablarch.integration.workflow.definition.Event;
@@ -29,6 +35,9 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
     /** 管理対象ワークフローインスタンスのアクティブフローノード */
     private FlowNode active;
 
+    /** 一括で取得した進行状態(取得していない場合、または状態を変更した場合はnull) */
+    private InstanceStateEntity loadedState;
+
     /**
      * {@inheritDoc}
      * <p/>
@@ -41,10 +50,19 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
             throw new IllegalStateException("Workflow is already completed. " + this);
         }
 
-        boolean completed = active.processNodeByUser(instanceId, parameter, assigned);
+        loadedState = null;
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            boolean completed = active.processNodeByUser(instanceId, parameter, assigned);
 
-        if (completed) {
-            proceedToNextNode(parameter);
+            if (completed) {
+                proceedToNextNode(parameter);
+            }
+            success = true;
+        } finally {
+            dao.endUnitOfWork(success);
         }
     }
 
@@ -60,10 +78,19 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
             throw new IllegalStateException("Workflow is already completed. " + this);
         }
 
-        boolean completed = active.processNodeByGroup(instanceId, parameter, assigned);
+        loadedState = null;
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            boolean completed = active.processNodeByGroup(instanceId, parameter, assigned);
 
-        if (completed) {
-            proceedToNextNode(parameter);
+            if (completed) {
+                proceedToNextNode(parameter);
+            }
+            success = true;
+        } finally {
+            dao.endUnitOfWork(success);
         }
     }
 
@@ -80,8 +107,17 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
                     "Boundary Event is not found for the event trigger. event trigger id = [" + eventTriggerId + "], active flow node = ["
                             + active.getFlowNodeId() + "]. " + this);
         }
-        active = events.get(0);
-        proceedToNextNode(parameter);
+        loadedState = null;
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            active = events.get(0);
+            proceedToNextNode(parameter);
+            success = true;
+        } finally {
+            dao.endUnitOfWork(success);
+        }
     }
 
     @Override
@@ -91,10 +127,19 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
         }
 
         Task task = definition.findTask(taskId);
-        task.assignUsers(instanceId, users);
-
-        if (isActive(taskId)) {
-            task.refreshActiveUserTasks(instanceId, users);
+        loadedState = null;
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            task.assignUsers(instanceId, users);
+
+            if (isActive(taskId)) {
+                task.refreshActiveUserTasks(instanceId, users);
+            }
+            success = true;
+        } finally {
+            dao.endUnitOfWork(success);
         }
     }
 
@@ -105,10 +150,19 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
         }
 
         Task task = definition.findTask(taskId);
-        task.assignGroups(instanceId, groups);
-
-        if (isActive(taskId)) {
-            task.refreshActiveGroupTasks(instanceId, groups);
+        loadedState = null;
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            task.assignGroups(instanceId, groups);
+
+            if (isActive(taskId)) {
+                task.refreshActiveGroupTasks(instanceId, groups);
+            }
+            success = true;
+        } finally {
+            dao.endUnitOfWork(success);
         }
     }
 
@@ -131,6 +185,7 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
     @Override
     public void changeAssignedUser(String taskId, String oldUser, String newUser) throws IllegalArgumentException, IllegalStateException {
         Task task = definition.findTask(taskId);
+        loadedState = null;
         task.changeAssignedUser(instanceId, oldUser, newUser);
 
         if (isActive(taskId)) {
@@ -141,6 +196,7 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
     @Override
     public void changeAssignedGroup(String taskId, String oldGroup, String newGroup) throws IllegalArgumentException, IllegalStateException {
         Task task = definition.findTask(taskId);
+        loadedState = null;
         task.changeAssignedGroup(instanceId, oldGroup, newGroup);
 
         if (isActive(taskId)) {
@@ -148,24 +204,76 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * 進行状態を一括で取得している場合、アクティブタスクの担当ユーザはデータベースにアクセスせずに返却する。
+     */
     @Override
     public List<String> getAssignedUsers(String taskId) throws IllegalArgumentException {
-        return definition.findTask(taskId).getAssignedUsers(instanceId);
+        Task task = definition.findTask(taskId);
+        if (loadedState == null || !isActive(taskId)) {
+            return task.getAssignedUsers(instanceId);
+        }
+        List<String> users = new ArrayList<String>(loadedState.getAssignedUsers().size());
+        for (TaskAssignedUserEntity user : loadedState.getAssignedUsers()) {
+            users.add(user.getUserId());
+        }
+        return users;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * 進行状態を一括で取得している場合、アクティブタスクの担当グループはデータベースにアクセスせずに返却する。
+     */
     @Override
     public List<String> getAssignedGroups(String taskId) throws IllegalArgumentException {
-        return definition.findTask(taskId).getAssignedGroups(instanceId);
+        Task task = definition.findTask(taskId);
+        if (loadedState == null || !isActive(taskId)) {
+            return task.getAssignedGroups(instanceId);
+        }
+        List<String> groups = new ArrayList<String>(loadedState.getAssignedGroups().size());
+        for (TaskAssignedGroupEntity group : loadedState.getAssignedGroups()) {
+            groups.add(group.getAssignedGroupId());
+        }
+        return groups;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * 進行状態を一括で取得している場合は、データベースにアクセスせずに判定する。
+     */
     @Override
     public boolean hasActiveUserTask(String user) {
-        return getWorkflowInstanceDao().getActiveUserTaskCountByPk(instanceId, active.getFlowNodeId(), user) != 0;
+        if (loadedState == null) {
+            return getWorkflowInstanceDao().getActiveUserTaskCountByPk(instanceId, active.getFlowNodeId(), user) != 0;
+        }
+        for (ActiveUserTaskEntity activeUserTask : loadedState.getActiveUserTasks()) {
+            if (activeUserTask.getFlowNodeId().equals(active.getFlowNodeId()) && activeUserTask.getUserId().equals(user)) {
+                return true;
+            }
+        }
+        return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * 進行状態を一括で取得している場合は、データベースにアクセスせずに判定する。
+     */
     @Override
     public boolean hasActiveGroupTask(String group) {
-        return getWorkflowInstanceDao().getActiveGroupTaskCountByPk(instanceId, active.getFlowNodeId(), group) != 0;
+        if (loadedState == null) {
+            return getWorkflowInstanceDao().getActiveGroupTaskCountByPk(instanceId, active.getFlowNodeId(), group) != 0;
+        }
+        for (ActiveGroupTaskEntity activeGroupTask : loadedState.getActiveGroupTasks()) {
+            if (activeGroupTask.getFlowNodeId().equals(active.getFlowNodeId()) && activeGroupTask.getAssignedGroupId().equals(group)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -197,26 +305,46 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
      * 次のノードをアクティブにする。
      * <p/>
      * 次のノードが、終了イベントの場合にはワークフローインスタンス自体を処理完了に変更する。
+     * <p/>
+     * 遷移先がパラメータに依存しない中間のフローノードは、{@link WorkflowDefinition#findDestinationFlowNode(String)}により
+     * 事前に解決済みの到達先を使用して読み飛ばす。
      *
      * @param parameter パラメータ
      */
     void proceedToNextNode(Map<String, ?> parameter) {
-        FlowNode candidate = definition.findFlowNode(active.getNextFlowNodeId(instanceId, parameter));
-        while (!(candidate instanceof Task) && !isCompletedNode(candidate)) {
-            candidate = definition.findFlowNode(candidate.getNextFlowNodeId(instanceId, parameter));
-        }
+        loadedState = null;
+        FlowNode candidate = findNextActiveNode(definition, instanceId, active, parameter);
 
         candidate.activate(instanceId, parameter);
         active = candidate;
     }
 
+    /**
+     * 指定されたフローノードから進行した場合に、次にアクティブとなるフローノード(タスクもしくは停止イベント)を取得する。
+     * <p/>
+     * 本メソッドは進行先の判定のみを行い、フローノードのアクティブ化処理は行わない。
+     *
+     * @param definition ワークフロー定義
+     * @param instanceId インスタンスID
+     * @param from 進行元のフローノード
+     * @param parameter パラメータ
+     * @return 次にアクティブとなるフローノード
+     */
+    static FlowNode findNextActiveNode(WorkflowDefinition definition, String instanceId, FlowNode from, Map<String, ?> parameter) {
+        FlowNode candidate = definition.findDestinationFlowNode(from.getNextFlowNodeId(instanceId, parameter));
+        while (!(candidate instanceof Task) && !isCompletedNode(candidate)) {
+            candidate = definition.findDestinationFlowNode(candidate.getNextFlowNodeId(instanceId, parameter));
+        }
+        return candidate;
+    }
+
     /**
      * 指定されたフローノードがアクティブになった場合、ワークフローが完了状態になるかどうかを返却する。
      *
      * @param node 対象のフローノード
      * @return 対象のフローノードがアクティブになった場合、ワークフローを完了状態として扱う場合 {@code true}
      */
-    private boolean isCompletedNode(FlowNode node) {
+    private static boolean isCompletedNode(FlowNode node) {
         return (node instanceof Event) && (((Event) node).getEventType() == EventType.TERMINATE);
     }
 
@@ -228,9 +356,24 @@ public class BasicWorkflowInstance extends WorkflowInstanceSupport {
      * @param activeNode アクティブフローノード
      */
     public BasicWorkflowInstance(String instanceId, WorkflowDefinition definition, FlowNode activeNode) {
+        this(instanceId, definition, activeNode, null);
+    }
+
+    /**
+     * 一括で取得した進行状態を保持するワークフローインスタンスを生成する。
+     * <p/>
+     * 状態を変更する操作を行うまでの間、参照系のメソッドは{@code loadedState}を使用してデータベースにアクセスせずに応答する。
+     *
+     * @param instanceId インスタンスID
+     * @param definition ワークフロー定義
+     * @param activeNode アクティブフローノード
+     * @param loadedState 一括で取得した進行状態
+     */
+    BasicWorkflowInstance(String instanceId, WorkflowDefinition definition, FlowNode activeNode, InstanceStateEntity loadedState) {
         this.instanceId = instanceId;
         this.definition = definition;
         this.active = activeNode;
+        this.loadedState = loadedState;
     }
 
     /**
@@ -1,11 +1,20 @@
 package nablarch.integration.workflow;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 
 import nablarch.integration.workflow.dao.WorkflowInstanceEntity;
 import nablarch.integration.workflow.definition.FlowNode;
+import nablarch.integration.workflow.definition.Task;
 import nablarch.integration.workflow.dao.ActiveFlowNodeEntity;
+import nablarch.integration.workflow.dao.ActiveUserTaskEntity;
+import nablarch.integration.workflow.dao.InstanceActiveFlowNodeEntity;
+import nablarch.integration.workflow.dao.InstanceStateEntity;
 import nablarch.integration.workflow.dao.WorkflowInstanceDao;
 import nablarch.integration.workflow.definition.WorkflowDefinition;
 import nablarch.integration.workflow.definition.WorkflowDefinitionHolder;
@@ -16,7 +25,13 @@ import nablarch.integration.workflow.definition.WorkflowDefinitionHolder;
  * @author Ryo Tanaka
  * @since 1.4.2
  */
-public class BasicWorkflowInstanceFactory implements WorkflowInstanceFactory {
+public class BasicWorkflowInstanceFactory implements BulkWorkflowInstanceFactory {
+
+    /** {@link #startAll(String, List)}で1回のバッチ更新にまとめるワークフローインスタンスの数 */
+    private int startBatchSize = 1000;
+
+    /** {@link #find(String)}で進行状態を一括で取得するか否か */
+    private boolean eagerLoad;
 
     /**
      * {@inheritDoc}
@@ -33,14 +48,160 @@ public class BasicWorkflowInstanceFactory implements WorkflowInstanceFactory {
         WorkflowDefinition definition = getWorkflowDefinitionHolder().getWorkflowDefinition(workflowId);
 
         WorkflowInstanceDao dao = getWorkflowInstanceDao();
-        String instanceId = dao.createWorkflowInstance(definition.getWorkflowId(), definition.getVersion(), definition.getTasks());
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            String instanceId = dao.createWorkflowInstance(definition.getWorkflowId(), definition.getVersion(), definition.getTasks());
+
+            BasicWorkflowInstance started = new BasicWorkflowInstance(instanceId, definition, definition.getStartEvent());
+            started.proceedToNextNode(parameter);
+            success = true;
+            return started;
+        } finally {
+            dao.endUnitOfWork(success);
+        }
+    }
 
-        BasicWorkflowInstance started = new BasicWorkflowInstance(instanceId, definition, definition.getStartEvent());
-        started.proceedToNextNode(parameter);
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * ワークフローインスタンスは{@link #setStartBatchSize(int)}で指定された数ごとに開始し、
+     * インスタンスID採番後のインスタンステーブル、インスタンスフローノードテーブル、アクティブフローノードテーブルへの登録は、
+     * それぞれ1回のバッチ更新で行う。
+     * 開始直後のワークフローインスタンスには担当ユーザ/グループが割り当てられていないため、
+     * 最初のタスクのアクティブ化ではアクティブフローノードの登録のみを行う。
+     * 開始イベントから停止イベントまで進行したワークフローインスタンスは、{@link #start(String, Map)}と同様に完了状態となる。
+     */
+    @Override
+    public List<WorkflowInstance> startAll(String workflowId, List<? extends Map<String, ?>> parameters) {
+        WorkflowDefinition definition = getWorkflowDefinitionHolder().getWorkflowDefinition(workflowId);
 
+        List<WorkflowInstance> started = new ArrayList<WorkflowInstance>(parameters.size());
+        for (int from = 0; from < parameters.size(); from += startBatchSize) {
+            List<? extends Map<String, ?>> chunk = parameters.subList(from, Math.min(from + startBatchSize, parameters.size()));
+            started.addAll(startChunk(definition, chunk));
+        }
         return started;
     }
 
+    /**
+     * 1回のバッチ更新にまとめるワークフローインスタンスを開始する。
+     * <p/>
+     * 最初のアクティブフローノードがタスクの場合、{@link Task#activate(String, Map)}は呼び出さず、
+     * アクティブフローノードの登録のみをまとめて行う。
+     * これは、インスタンスID採番直後のワークフローインスタンスにはタスク担当ユーザ/グループが存在せず、
+     * {@link Task#activate(String, Map)}で作成されるアクティブユーザタスク/アクティブグループタスクが存在しないことを前提としている。
+     * {@link Task#activate(String, Map)}に担当者の割り当て以外の処理を追加する場合は、本メソッドも合わせて修正すること。
+     *
+     * @param definition ワークフロー定義
+     * @param parameters ワークフローインスタンスごとのパラメータ
+     * @return 開始されたワークフローインスタンスのリスト
+     */
+    private static List<WorkflowInstance> startChunk(WorkflowDefinition definition, List<? extends Map<String, ?>> parameters) {
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            List<String> instanceIds = dao.createWorkflowInstances(
+                    definition.getWorkflowId(), definition.getVersion(), definition.getTasks(), parameters.size());
+
+            List<WorkflowInstance> started = new ArrayList<WorkflowInstance>(parameters.size());
+            Map<String, FlowNode> activeFlowNodes = new LinkedHashMap<String, FlowNode>();
+            for (int i = 0; i < parameters.size(); i++) {
+                String instanceId = instanceIds.get(i);
+                Map<String, ?> parameter = parameters.get(i);
+                FlowNode active = BasicWorkflowInstance.findNextActiveNode(
+                        definition, instanceId, definition.getStartEvent(), parameter);
+                if (active instanceof Task) {
+                    activeFlowNodes.put(instanceId, active);
+                } else {
+                    active.activate(instanceId, parameter);
+                }
+                started.add(new BasicWorkflowInstance(instanceId, definition, active));
+            }
+            dao.createActiveFlowNodes(activeFlowNodes);
+            success = true;
+            return started;
+        } finally {
+            dao.endUnitOfWork(success);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * 処理は1つのユニットオブワーク({@link WorkflowInstanceDao#beginUnitOfWork()})内で、以下の順に行う。
+     * <ol>
+     * <li>指定されたユーザのアクティブユーザタスク及びワークフローインスタンスを、それぞれ1回の検索でまとめて取得する。</li>
+     * <li>全てのワークフローインスタンスのアクティブユーザタスクを完了させる。</li>
+     * <li>全てのワークフローインスタンスの完了条件を評価する。</li>
+     * <li>完了条件を満たしたワークフローインスタンスを、次のタスクもしくは停止イベントまで進行させる。</li>
+     * </ol>
+     * 同じ種類の更新を連続して行うため、{@link WorkflowInstanceDao#setWriteBehind(boolean)}が有効な場合は、
+     * 各更新はそれぞれ1回のバッチ更新で反映される。
+     * ワークフロー定義の取得は、ワークフローIDとバージョンの組み合わせごとに1回のみ行う。
+     * 重複したインスタンスIDが指定された場合は、1回のみ処理する。
+     */
+    @Override
+    public List<WorkflowInstance> completeUserTasks(List<String> instanceIds, Map<String, ?> parameter, String user) {
+        List<String> targetIds = new ArrayList<String>(new LinkedHashSet<String>(instanceIds));
+
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        dao.beginUnitOfWork();
+        boolean success = false;
+        try {
+            Map<String, ActiveUserTaskEntity> activeUserTasks = new HashMap<String, ActiveUserTaskEntity>();
+            for (ActiveUserTaskEntity activeUserTask : dao.findActiveUserTasksByUserId(targetIds, user)) {
+                if (!activeUserTasks.containsKey(activeUserTask.getInstanceId())) {
+                    activeUserTasks.put(activeUserTask.getInstanceId(), activeUserTask);
+                }
+            }
+            List<String> notFound = new ArrayList<String>();
+            for (String instanceId : targetIds) {
+                if (!activeUserTasks.containsKey(instanceId)) {
+                    notFound.add(instanceId);
+                }
+            }
+            if (!notFound.isEmpty()) {
+                throw new IllegalStateException(
+                        "Active task is not found for user = [" + user + "]. instance ids = " + notFound + ".");
+            }
+
+            Map<String, WorkflowInstanceEntity> instances = new HashMap<String, WorkflowInstanceEntity>();
+            for (WorkflowInstanceEntity instance : dao.findInstances(targetIds)) {
+                instances.put(instance.getInstanceId(), instance);
+            }
+
+            Map<String, WorkflowDefinition> definitions = new HashMap<String, WorkflowDefinition>();
+            List<BasicWorkflowInstance> workflows = new ArrayList<BasicWorkflowInstance>(targetIds.size());
+            List<Task> tasks = new ArrayList<Task>(targetIds.size());
+            for (String instanceId : targetIds) {
+                WorkflowDefinition definition = getWorkflowDefinition(definitions, instances.get(instanceId));
+                Task task = definition.findTask(activeUserTasks.get(instanceId).getFlowNodeId());
+                tasks.add(task);
+                workflows.add(new BasicWorkflowInstance(instanceId, definition, task));
+            }
+
+            // 同じ種類の更新・参照が連続するよう、ワークフローインスタンスごとではなく処理ごとにまとめて行う。
+            for (int i = 0; i < targetIds.size(); i++) {
+                tasks.get(i).completeActiveUserTask(activeUserTasks.get(targetIds.get(i)));
+            }
+            boolean[] completed = new boolean[targetIds.size()];
+            for (int i = 0; i < targetIds.size(); i++) {
+                completed[i] = tasks.get(i).isCompletedUserTask(targetIds.get(i), parameter);
+            }
+            for (int i = 0; i < targetIds.size(); i++) {
+                if (completed[i]) {
+                    workflows.get(i).proceedToNextNode(parameter);
+                }
+            }
+            success = true;
+            return new ArrayList<WorkflowInstance>(workflows);
+        } finally {
+            dao.endUnitOfWork(success);
+        }
+    }
+
     /**
      * {@inheritDoc}
      * <p/>
@@ -49,10 +210,21 @@ public class BasicWorkflowInstanceFactory implements WorkflowInstanceFactory {
      * 返却する。このインスタンスは、 {@link WorkflowInstance#isCompleted()} に対して常に {@code true} を返却し、
      * {@link WorkflowInstance#isActive(String)} は、常に {@code false} を返却する。
      * また、このインスタンスに対してタスクの進行や担当ユーザ/グループの割り当てを行うことはできない。（実行時例外が送出される。）
+     * <p/>
+     * {@link #setEagerLoad(boolean)}に{@code true}が設定されている場合は、ワークフローインスタンスの進行状態を1回の検索でまとめて取得する。
      */
     @Override
     public WorkflowInstance find(String instanceId) {
         WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        if (eagerLoad) {
+            InstanceStateEntity state = dao.findInstanceState(instanceId);
+            if (state == null) {
+                return new WorkflowInstance.CompletedWorkflowInstance(instanceId);
+            }
+            WorkflowDefinition definition = getWorkflowDefinitionHolder().getWorkflowDefinition(state.getWorkflowId(), state.getVersion());
+            return new BasicWorkflowInstance(instanceId, definition, definition.findFlowNode(state.getFlowNodeId()), state);
+        }
+
         WorkflowInstanceEntity found = dao.findInstance(instanceId);
 
         if (found == null) {
@@ -67,6 +239,90 @@ public class BasicWorkflowInstanceFactory implements WorkflowInstanceFactory {
         return new BasicWorkflowInstance(instanceId, definition, activeNode);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * インスタンス情報とアクティブフローノードは、インスタンステーブルとアクティブフローノードテーブルを結合した検索で
+     * まとめて取得する。ワークフロー定義の取得は、ワークフローIDとバージョンの組み合わせごとに1回のみ行う。
+     * 存在しないインスタンスIDに対しては、{@link #find(String)}と同様に完了状態をあらわすワークフローインスタンスを返却する。
+     */
+    @Override
+    public List<WorkflowInstance> findAll(List<String> instanceIds) {
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        Map<String, InstanceActiveFlowNodeEntity> found = new HashMap<String, InstanceActiveFlowNodeEntity>();
+        for (InstanceActiveFlowNodeEntity instance : dao.findInstancesWithActiveFlowNode(
+                new ArrayList<String>(new LinkedHashSet<String>(instanceIds)))) {
+            found.put(instance.getInstanceId(), instance);
+        }
+
+        Map<String, WorkflowDefinition> definitions = new HashMap<String, WorkflowDefinition>();
+        List<WorkflowInstance> result = new ArrayList<WorkflowInstance>(instanceIds.size());
+        for (String instanceId : instanceIds) {
+            InstanceActiveFlowNodeEntity instance = found.get(instanceId);
+            if (instance == null) {
+                result.add(new WorkflowInstance.CompletedWorkflowInstance(instanceId));
+                continue;
+            }
+            WorkflowDefinition definition = getWorkflowDefinition(definitions, instance);
+            result.add(new BasicWorkflowInstance(instanceId, definition, definition.findFlowNode(instance.getFlowNodeId())));
+        }
+        return result;
+    }
+
+    /**
+     * ワークフローインスタンスのワークフロー定義を取得する。
+     * <p/>
+     * 取得したワークフロー定義は、ワークフローIDとバージョンの組み合わせごとに{@code definitions}に保持し、
+     * 同じ組み合わせの2回目以降の取得では保持しているものを返却する。
+     *
+     * @param definitions 取得済みのワークフロー定義
+     * @param instance ワークフローインスタンス
+     * @return ワークフロー定義
+     */
+    private static WorkflowDefinition getWorkflowDefinition(Map<String, WorkflowDefinition> definitions, WorkflowInstanceEntity instance) {
+        String key = instance.getWorkflowId() + ':' + instance.getVersion();
+        WorkflowDefinition definition = definitions.get(key);
+        if (definition == null) {
+            definition = getWorkflowDefinitionHolder().getWorkflowDefinition(instance.getWorkflowId(), instance.getVersion());
+            definitions.put(key, definition);
+        }
+        return definition;
+    }
+
+    /**
+     * {@link #startAll(String, List)}で1回のバッチ更新にまとめるワークフローインスタンスの数を設定する。
+     * <p/>
+     * 設定を省略した場合は、1000件ごとにバッチ更新を行う。
+     *
+     * @param startBatchSize 1回のバッチ更新にまとめるワークフローインスタンスの数
+     * @throws IllegalArgumentException 1未満の値が指定された場合
+     */
+    public void setStartBatchSize(int startBatchSize) throws IllegalArgumentException {
+        if (startBatchSize < 1) {
+            throw new IllegalArgumentException(
+                    String.format("start batch size must be greater than 0. start batch size = [%d]", startBatchSize));
+        }
+        this.startBatchSize = startBatchSize;
+    }
+
+    /**
+     * {@link #find(String)}で、ワークフローインスタンスの進行状態を一括で取得するか否かを設定する。
+     * <p/>
+     * {@code true}を設定した場合、インスタンス情報、アクティブフローノード、アクティブユーザ/グループタスク及び
+     * アクティブタスクの担当ユーザ/グループを1回の検索でまとめて取得する。
+     * 取得したワークフローインスタンスは、状態を変更する操作を行うまでの間、
+     * {@link WorkflowInstance#hasActiveUserTask(String)}、{@link WorkflowInstance#hasActiveGroupTask(String)}、
+     * アクティブタスクに対する{@link WorkflowInstance#getAssignedUsers(String)}及び{@link WorkflowInstance#getAssignedGroups(String)}に、
+     * データベースにアクセスせずに応答する。
+     * <p/>
+     * 設定を省略した場合は{@code false}となり、各メソッドの呼び出し時にデータベースから取得する。
+     *
+     * @param eagerLoad 進行状態を一括で取得する場合は{@code true}
+     */
+    public void setEagerLoad(boolean eagerLoad) {
+        this.eagerLoad = eagerLoad;
+    }
+
     /**
      * ワークフローインスタンス系テーブルへのアクセスクラスを取得する。
      *
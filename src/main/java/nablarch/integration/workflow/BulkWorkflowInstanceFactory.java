@@ -0,0 +1,54 @@
+package nablarch.integration.workflow;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 複数の {@link WorkflowInstance} に対する操作をまとめて行うことができる {@link WorkflowInstanceFactory}。
+ * <p/>
+ * {@link WorkflowManager} は、設定されたファクトリがこのインタフェースを実装している場合にのみ一括操作を委譲する。
+ * 実装していない場合は、{@link WorkflowInstanceFactory} のメソッドをワークフローインスタンスごとに呼び出して処理する。
+ *
+ * @since 1.4.2
+ */
+public interface BulkWorkflowInstanceFactory extends WorkflowInstanceFactory {
+
+    /**
+     * 指定されたワークフローIDのワークフローを、パラメータの数だけ開始する。
+     * <p/>
+     * 各ワークフローインスタンスは、{@link WorkflowInstanceFactory#start(String, Map)}と同様に、対応するパラメータを使用して最初のタスクまで進行する。
+     *
+     * @param workflowId 新規に開始するワークフローのワークフローID
+     * @param parameters ワークフローインスタンスごとの、開始イベントから次のタスクまで進行させる際に使用するパラメータ
+     * @return 開始されたワークフローのインスタンスのリスト(パラメータと同じ順)
+     * @throws IllegalArgumentException 指定されたワークフローIDに対応するワークフロー定義が存在しない場合。
+     */
+    List<WorkflowInstance> startAll(String workflowId, List<? extends Map<String, ?>> parameters) throws IllegalArgumentException;
+
+    /**
+     * 指定された複数のワークフローインスタンスについて、ユーザのアクティブタスクをまとめて完了させる。
+     * <p/>
+     * 各ワークフローインスタンスは、{@link WorkflowInstance#completeUserTask(Map, String)}と同様に、
+     * 完了条件を満たした場合は次のタスクもしくは停止イベントまで進行する。
+     * いずれかのワークフローインスタンスに指定されたユーザのアクティブタスクが存在しない場合は、
+     * どのワークフローインスタンスのタスクも完了させずに例外を送出する。
+     *
+     * @param instanceIds タスクを完了させるワークフローインスタンスのインスタンスID
+     * @param parameter ワークフローを進行させる際に、各フローノードで使用するパラメータ
+     * @param user タスクを完了させるユーザ
+     * @return 処理後のワークフローインスタンスのリスト(インスタンスIDと同じ順)
+     * @throws IllegalStateException 指定されたユーザのアクティブタスクが存在しないワークフローインスタンスが含まれる場合。
+     */
+    List<WorkflowInstance> completeUserTasks(List<String> instanceIds, Map<String, ?> parameter, String user)
+            throws IllegalStateException;
+
+    /**
+     * すでに開始されている複数のワークフローのインスタンスを取得する。
+     * <p/>
+     * 各ワークフローインスタンスは、{@link WorkflowInstanceFactory#find(String)}と同様に取得する。
+     *
+     * @param instanceIds 取得するワークフローインスタンスのインスタンスID
+     * @return 取得されたワークフローインスタンスのリスト(インスタンスIDと同じ順)
+     */
+    List<WorkflowInstance> findAll(List<String> instanceIds);
+}
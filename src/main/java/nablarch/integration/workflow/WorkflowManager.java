@@ -1,6 +1,13 @@
 package nablarch.integration.workflow;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import nablarch.integration.workflow.dao.ActiveTaskEntity;
 
 /**
  * ワークフローの管理を行うクラス。
@@ -33,6 +40,72 @@ public final class WorkflowManager {
         return getWorkflowInstanceFactory().start(workflowId, parameter);
     }
 
+    /**
+     * 指定されたワークフローIDのワークフローを、パラメータの数だけまとめて開始する。
+     * <p/>
+     * 大量のワークフローを開始する場合に使用する。
+     * 設定されたファクトリが {@link BulkWorkflowInstanceFactory} を実装している場合、
+     * インスタンス系テーブルへの登録は、複数のワークフローインスタンス分をまとめてバッチ更新で行う。
+     * 実装していない場合は、パラメータごとに {@link WorkflowInstanceFactory#start(String, Map)} を呼び出す。
+     *
+     * @param workflowId 新規に開始するワークフローのワークフローID
+     * @param parameters ワークフローインスタンスごとの、開始イベントから次のタスクまで進行させる際に使用するパラメータ
+     * @return 開始されたワークフローのインスタンスをあらわす {@link WorkflowInstance} のリスト(パラメータと同じ順)
+     * @throws IllegalArgumentException 指定されたワークフローIDに対応するワークフロー定義が存在しない場合。
+     */
+    public static List<WorkflowInstance> startInstances(String workflowId, List<? extends Map<String, ?>> parameters)
+            throws IllegalArgumentException {
+        WorkflowInstanceFactory factory = getWorkflowInstanceFactory();
+        if (factory instanceof BulkWorkflowInstanceFactory) {
+            return ((BulkWorkflowInstanceFactory) factory).startAll(workflowId, parameters);
+        }
+        List<WorkflowInstance> result = new ArrayList<WorkflowInstance>(parameters.size());
+        for (Map<String, ?> parameter : parameters) {
+            result.add(factory.start(workflowId, parameter));
+        }
+        return result;
+    }
+
+    /**
+     * 指定された複数のワークフローインスタンスについて、ユーザのアクティブタスクをまとめて完了させる。
+     * <p/>
+     * 大量のワークフローインスタンスのタスクを一括で完了させる場合に使用する。
+     * 設定されたファクトリが {@link BulkWorkflowInstanceFactory} を実装している場合、
+     * アクティブタスクの存在チェックは1回の検索でまとめて行い、インスタンス系テーブルへの更新はまとめてバッチ更新で行う。
+     * 実装していない場合は、全てのワークフローインスタンスのアクティブタスクの存在をチェックした後、
+     * ワークフローインスタンスごとに {@link WorkflowInstance#completeUserTask(Map, String)} を呼び出す。
+     *
+     * @param instanceIds タスクを完了させるワークフローインスタンスのインスタンスID
+     * @param parameter ワークフローを進行させる際に、各フローノードで使用するパラメータ
+     * @param user タスクを完了させるユーザ
+     * @return 処理後のワークフローインスタンスのリスト(インスタンスIDと同じ順)
+     * @throws IllegalStateException 指定されたユーザのアクティブタスクが存在しないワークフローインスタンスが含まれる場合。
+     */
+    public static List<WorkflowInstance> completeUserTasks(List<String> instanceIds, Map<String, ?> parameter, String user)
+            throws IllegalStateException {
+        WorkflowInstanceFactory factory = getWorkflowInstanceFactory();
+        if (factory instanceof BulkWorkflowInstanceFactory) {
+            return ((BulkWorkflowInstanceFactory) factory).completeUserTasks(instanceIds, parameter, user);
+        }
+        List<WorkflowInstance> instances = new ArrayList<WorkflowInstance>();
+        List<String> notFound = new ArrayList<String>();
+        for (String instanceId : new LinkedHashSet<String>(instanceIds)) {
+            WorkflowInstance instance = factory.find(instanceId);
+            if (!instance.hasActiveUserTask(user)) {
+                notFound.add(instanceId);
+            }
+            instances.add(instance);
+        }
+        if (!notFound.isEmpty()) {
+            throw new IllegalStateException(
+                    "Active task is not found for user = [" + user + "]. instance ids = " + notFound + ".");
+        }
+        for (WorkflowInstance instance : instances) {
+            instance.completeUserTask(parameter, user);
+        }
+        return instances;
+    }
+
     /**
      * すでに開始されているワークフローのインスタンスを取得する。
      *
@@ -43,6 +116,89 @@ public final class WorkflowManager {
         return getWorkflowInstanceFactory().find(instanceId);
     }
 
+    /**
+     * すでに開始されている複数のワークフローのインスタンスをまとめて取得する。
+     * <p/>
+     * 一覧画面などで、多数のワークフローインスタンスの状態を表示する場合に使用する。
+     * 完了済みなど、存在しないインスタンスIDに対しては、完了状態をあらわすワークフローインスタンスを返却する。
+     * 設定されたファクトリが {@link BulkWorkflowInstanceFactory} を実装していない場合は、
+     * インスタンスIDごとに {@link WorkflowInstanceFactory#find(String)} を呼び出す。
+     *
+     * @param instanceIds 取得するワークフローインスタンスのインスタンスID
+     * @return 取得されたワークフローインスタンスのリスト(インスタンスIDと同じ順)
+     */
+    public static List<WorkflowInstance> findInstances(List<String> instanceIds) {
+        WorkflowInstanceFactory factory = getWorkflowInstanceFactory();
+        if (factory instanceof BulkWorkflowInstanceFactory) {
+            return ((BulkWorkflowInstanceFactory) factory).findAll(instanceIds);
+        }
+        List<WorkflowInstance> result = new ArrayList<WorkflowInstance>(instanceIds.size());
+        for (String instanceId : instanceIds) {
+            result.add(factory.find(instanceId));
+        }
+        return result;
+    }
+
+    /**
+     * ユーザまたはグループが処理すべきアクティブタスクを、ワークフローインスタンスを横断して取得する。
+     * <p/>
+     * 取得結果はインスタンスID、タスクIDの順に並ぶ。次ページを取得する場合は、前ページの最後のアクティブタスクを{@code after}に指定する。
+     * ページングはシーク方式で行うため、後ろのページほど検索が遅くなることはない。
+     *
+     * @param user ユーザID(ユーザのアクティブタスクを検索しない場合はnull)
+     * @param groups グループIDリスト(グループのアクティブタスクを検索しない場合は空のリスト)
+     * @param after 前ページの最後のアクティブタスク(先頭ページを取得する場合はnull)
+     * @param limit 最大取得件数
+     * @return アクティブタスクのリスト
+     * @throws IllegalArgumentException 最大取得件数に1未満の値が指定された場合。
+     */
+    public static List<ActiveTaskEntity> findActiveTasks(String user, List<String> groups, ActiveTaskEntity after, int limit)
+            throws IllegalArgumentException {
+        return WorkflowConfig.get().getWorkflowInstanceDao().findActiveTasks(user, groups, after, limit);
+    }
+
+    /**
+     * 指定されたインスタンスIDのうち、ユーザのアクティブユーザタスクが存在するインスタンスIDを取得する。
+     * <p/>
+     * 一覧画面などで、インスタンスごとに {@link WorkflowInstance#hasActiveUserTask(String)} を呼び出す代わりに使用する。
+     * 判定は指定されたインスタンスIDに対してまとめて行い、データベースへのアクセスはインスタンスID1000件ごとに1回となる。
+     * 取得結果は、指定されたインスタンスIDの順に並ぶ。同じインスタンスIDが重複して指定された場合は、最初の1件のみを返却する。
+     *
+     * @param user ユーザID
+     * @param instanceIds インスタンスIDのコレクション
+     * @return アクティブユーザタスクが存在するインスタンスIDのリスト
+     */
+    public static List<String> filterInstancesWithActiveUserTask(String user, Collection<String> instanceIds) {
+        if (instanceIds.isEmpty()) {
+            return new ArrayList<String>();
+        }
+        Set<String> distinct = new LinkedHashSet<String>(instanceIds);
+        Set<String> found = WorkflowConfig.get().getWorkflowInstanceDao()
+                .findInstanceIdsWithActiveUserTask(new ArrayList<String>(distinct), user);
+        return filter(distinct, found);
+    }
+
+    /**
+     * 指定されたインスタンスIDのうち、グループのアクティブグループタスクが存在するインスタンスIDを取得する。
+     * <p/>
+     * 一覧画面などで、インスタンスごとに {@link WorkflowInstance#hasActiveGroupTask(String)} を呼び出す代わりに使用する。
+     * 判定は指定されたインスタンスIDに対してまとめて行い、データベースへのアクセスはインスタンスID1000件ごとに1回となる。
+     * 取得結果は、指定されたインスタンスIDの順に並ぶ。同じインスタンスIDが重複して指定された場合は、最初の1件のみを返却する。
+     *
+     * @param group グループID
+     * @param instanceIds インスタンスIDのコレクション
+     * @return アクティブグループタスクが存在するインスタンスIDのリスト
+     */
+    public static List<String> filterInstancesWithActiveGroupTask(String group, Collection<String> instanceIds) {
+        if (instanceIds.isEmpty()) {
+            return new ArrayList<String>();
+        }
+        Set<String> distinct = new LinkedHashSet<String>(instanceIds);
+        Set<String> found = WorkflowConfig.get().getWorkflowInstanceDao()
+                .findInstanceIdsWithActiveGroupTask(new ArrayList<String>(distinct), group);
+        return filter(distinct, found);
+    }
+
     /**
      * 指定されたワークフローIDのワークフロー定義で、現在有効なバージョンを取得する。
      *
@@ -54,6 +210,23 @@ public final class WorkflowManager {
         return WorkflowConfig.get().getWorkflowDefinitionHolder().getWorkflowDefinition(workflowId).getVersion();
     }
 
+    /**
+     * 重複を除いたインスタンスIDから、条件に合致するインスタンスIDのみを順序を保って抽出する。
+     *
+     * @param instanceIds 重複を除いたインスタンスID
+     * @param matched 条件に合致したインスタンスID
+     * @return 抽出したインスタンスIDのリスト
+     */
+    private static List<String> filter(Set<String> instanceIds, Set<String> matched) {
+        List<String> result = new ArrayList<String>(matched.size());
+        for (String instanceId : instanceIds) {
+            if (matched.contains(instanceId)) {
+                result.add(instanceId);
+            }
+        }
+        return result;
+    }
+
     /**
      * ワークフローインスタンスのファクトリクラスを取得する。
      *
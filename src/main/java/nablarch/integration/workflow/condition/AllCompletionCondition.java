@@ -3,6 +3,7 @@ package nablarch.integration.workflow.condition;
 import java.util.Map;
 
 import nablarch.integration.workflow.WorkflowConfig;
+import nablarch.integration.workflow.dao.TaskProgressEntity;
 import nablarch.integration.workflow.dao.WorkflowInstanceDao;
 import nablarch.integration.workflow.definition.Task;
 
@@ -19,10 +20,18 @@ public class AllCompletionCondition implements CompletionCondition {
      * <p/>
      *
      * 全てのアクティブユーザタスクが処理済み（レコードが存在しない）状態の場合、タスク終了としtrueを返す。
+     * タスク進捗を管理している場合は、タスク進捗の処理済み数が担当数に達しているかで判定する。
+     * ただし、タスク進捗が登録されていない場合は、アクティブタスクの件数で判定する。
      */
     @Override
     public boolean isCompletedUserTask(Map<String, ?> param, String instanceId, Task task) {
         WorkflowInstanceDao workflowInstanceDao = WorkflowConfig.get().getWorkflowInstanceDao();
+        if (workflowInstanceDao.isTaskProgressEnabled()) {
+            TaskProgressEntity progress = workflowInstanceDao.findTaskProgress(instanceId, task.getFlowNodeId());
+            if (progress != null) {
+                return progress.isAllCompleted();
+            }
+        }
         return workflowInstanceDao.getActiveUserTaskCount(instanceId) == 0;
     }
 
@@ -30,10 +39,18 @@ public class AllCompletionCondition implements CompletionCondition {
      * {@inheritDoc}
      * <p/>
      * 全てのアクティブグループタスクが処理済み（レコードが存在しない）状態の場合、タスク終了としtrueを返す。
+     * タスク進捗を管理している場合は、タスク進捗の処理済み数が担当数に達しているかで判定する。
+     * ただし、タスク進捗が登録されていない場合は、アクティブタスクの件数で判定する。
      */
     @Override
     public boolean isCompletedGroupTask(Map<String, ?> param, String instanceId, Task task) {
         WorkflowInstanceDao workflowInstanceDao = WorkflowConfig.get().getWorkflowInstanceDao();
+        if (workflowInstanceDao.isTaskProgressEnabled()) {
+            TaskProgressEntity progress = workflowInstanceDao.findTaskProgress(instanceId, task.getFlowNodeId());
+            if (progress != null) {
+                return progress.isAllCompleted();
+            }
+        }
         return workflowInstanceDao.getActiveGroupTaskCount(instanceId) == 0;
     }
 }
@@ -0,0 +1,794 @@
+package nablarch.integration.workflow.condition;
+
+import java.util.Map;
+
+/**
+ * 解析済みの条件式を表すクラス。
+ * <p/>
+ * 条件式の構文は{@link ExpressionFlowProceedCondition}を参照。
+ * 比較方法(数値比較、文字列比較など)は解析時に決定し、評価時には型の判定やオペランドのボクシングを行わない。
+ *
+ * @since 1.4.2
+ */
+abstract class ConditionExpression {
+
+    /**
+     * 条件式を評価する。
+     *
+     * @param param パラメータ
+     * @return 評価結果
+     */
+    abstract boolean evaluate(Map<String, ?> param);
+
+    /**
+     * 条件式を解析する。
+     *
+     * @param expression 条件式
+     * @return 解析済みの条件式
+     * @throws IllegalArgumentException 条件式が不正な場合
+     */
+    static ConditionExpression parse(String expression) throws IllegalArgumentException {
+        if (expression == null) {
+            throw new IllegalArgumentException("expression must not be null.");
+        }
+        return new Parser(expression).parse();
+    }
+
+    /**
+     * パラメータ値を数値に変換する。
+     * <p/>
+     * 変換規則は{@link NumberFlowProceedConditionSupport}と同じ。
+     *
+     * @param value パラメータ値
+     * @return 変換結果
+     * @throws NumberFormatException 数値に変換できない場合
+     */
+    private static long toLong(Object value) throws NumberFormatException {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        if (value instanceof String) {
+            return Long.parseLong((String) value);
+        }
+        throw new NumberFormatException();
+    }
+
+    /**
+     * 比較演算子。
+     */
+    private enum Operator {
+
+        /** 等しい */
+        EQ("=="),
+        /** 等しくない */
+        NE("!="),
+        /** より大きい */
+        GT(">"),
+        /** 以上 */
+        GE(">="),
+        /** より小さい */
+        LT("<"),
+        /** 以下 */
+        LE("<=");
+
+        /** 演算子の表記 */
+        private final String symbol;
+
+        /**
+         * 比較演算子を生成する。
+         *
+         * @param symbol 演算子の表記
+         */
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * 大小比較の演算子か否か。
+         *
+         * @return 大小比較の演算子の場合はtrue
+         */
+        boolean isRelational() {
+            return (this != EQ) && (this != NE);
+        }
+
+        /**
+         * 左右のオペランドを入れ替えた場合の演算子を取得する。
+         *
+         * @return 左右のオペランドを入れ替えた場合の演算子
+         */
+        Operator reverse() {
+            switch (this) {
+                case GT:
+                    return LT;
+                case GE:
+                    return LE;
+                case LT:
+                    return GT;
+                case LE:
+                    return GE;
+                default:
+                    return this;
+            }
+        }
+
+        /**
+         * 数値を比較する。
+         *
+         * @param left 左辺
+         * @param right 右辺
+         * @return 比較結果
+         */
+        boolean compare(long left, long right) {
+            switch (this) {
+                case EQ:
+                    return left == right;
+                case NE:
+                    return left != right;
+                case GT:
+                    return left > right;
+                case GE:
+                    return left >= right;
+                case LT:
+                    return left < right;
+                default:
+                    return left <= right;
+            }
+        }
+    }
+
+    /**
+     * 定数。
+     */
+    private static final class Constant extends ConditionExpression {
+
+        /** 値 */
+        private final boolean value;
+
+        /**
+         * 定数を生成する。
+         *
+         * @param value 値
+         */
+        private Constant(boolean value) {
+            this.value = value;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            return value;
+        }
+    }
+
+    /**
+     * 論理積。
+     */
+    private static final class And extends ConditionExpression {
+
+        /** 左辺 */
+        private final ConditionExpression left;
+
+        /** 右辺 */
+        private final ConditionExpression right;
+
+        /**
+         * 論理積を生成する。
+         *
+         * @param left 左辺
+         * @param right 右辺
+         */
+        private And(ConditionExpression left, ConditionExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            return left.evaluate(param) && right.evaluate(param);
+        }
+    }
+
+    /**
+     * 論理和。
+     */
+    private static final class Or extends ConditionExpression {
+
+        /** 左辺 */
+        private final ConditionExpression left;
+
+        /** 右辺 */
+        private final ConditionExpression right;
+
+        /**
+         * 論理和を生成する。
+         *
+         * @param left 左辺
+         * @param right 右辺
+         */
+        private Or(ConditionExpression left, ConditionExpression right) {
+            this.left = left;
+            this.right = right;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            return left.evaluate(param) || right.evaluate(param);
+        }
+    }
+
+    /**
+     * 否定。
+     */
+    private static final class Not extends ConditionExpression {
+
+        /** 否定対象 */
+        private final ConditionExpression operand;
+
+        /**
+         * 否定を生成する。
+         *
+         * @param operand 否定対象
+         */
+        private Not(ConditionExpression operand) {
+            this.operand = operand;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            return !operand.evaluate(param);
+        }
+    }
+
+    /**
+     * パラメータ値と数値リテラルの比較。
+     */
+    private static final class NumberComparison extends ConditionExpression {
+
+        /** パラメータのキー値 */
+        private final String paramKey;
+
+        /** 比較演算子 */
+        private final Operator operator;
+
+        /** 数値リテラル */
+        private final long value;
+
+        /**
+         * パラメータ値と数値リテラルの比較を生成する。
+         *
+         * @param paramKey パラメータのキー値
+         * @param operator 比較演算子
+         * @param value 数値リテラル
+         */
+        private NumberComparison(String paramKey, Operator operator, long value) {
+            this.paramKey = paramKey;
+            this.operator = operator;
+            this.value = value;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            long paramValue;
+            try {
+                paramValue = toLong(param.get(paramKey));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            return operator.compare(paramValue, value);
+        }
+    }
+
+    /**
+     * パラメータ値同士の数値比較。
+     */
+    private static final class ParamNumberComparison extends ConditionExpression {
+
+        /** 左辺のパラメータのキー値 */
+        private final String leftKey;
+
+        /** 比較演算子 */
+        private final Operator operator;
+
+        /** 右辺のパラメータのキー値 */
+        private final String rightKey;
+
+        /**
+         * パラメータ値同士の数値比較を生成する。
+         *
+         * @param leftKey 左辺のパラメータのキー値
+         * @param operator 比較演算子
+         * @param rightKey 右辺のパラメータのキー値
+         */
+        private ParamNumberComparison(String leftKey, Operator operator, String rightKey) {
+            this.leftKey = leftKey;
+            this.operator = operator;
+            this.rightKey = rightKey;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            long left;
+            long right;
+            try {
+                left = toLong(param.get(leftKey));
+                right = toLong(param.get(rightKey));
+            } catch (NumberFormatException e) {
+                return false;
+            }
+            return operator.compare(left, right);
+        }
+    }
+
+    /**
+     * パラメータ値と文字列リテラルの等値比較。
+     */
+    private static final class StringEquality extends ConditionExpression {
+
+        /** パラメータのキー値 */
+        private final String paramKey;
+
+        /** 文字列リテラル */
+        private final String value;
+
+        /** 一致しないことを判定する場合はtrue */
+        private final boolean negate;
+
+        /**
+         * パラメータ値と文字列リテラルの等値比較を生成する。
+         *
+         * @param paramKey パラメータのキー値
+         * @param value 文字列リテラル
+         * @param negate 一致しないことを判定する場合はtrue
+         */
+        private StringEquality(String paramKey, String value, boolean negate) {
+            this.paramKey = paramKey;
+            this.value = value;
+            this.negate = negate;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            return value.equals(param.get(paramKey)) != negate;
+        }
+    }
+
+    /**
+     * パラメータ値同士、またはパラメータ値とnullの等値比較。
+     */
+    private static final class ParamEquality extends ConditionExpression {
+
+        /** 左辺のパラメータのキー値 */
+        private final String leftKey;
+
+        /** 右辺のパラメータのキー値(nullとの比較の場合はnull) */
+        private final String rightKey;
+
+        /** 一致しないことを判定する場合はtrue */
+        private final boolean negate;
+
+        /**
+         * パラメータ値同士、またはパラメータ値とnullの等値比較を生成する。
+         *
+         * @param leftKey 左辺のパラメータのキー値
+         * @param rightKey 右辺のパラメータのキー値(nullとの比較の場合はnull)
+         * @param negate 一致しないことを判定する場合はtrue
+         */
+        private ParamEquality(String leftKey, String rightKey, boolean negate) {
+            this.leftKey = leftKey;
+            this.rightKey = rightKey;
+            this.negate = negate;
+        }
+
+        @Override
+        boolean evaluate(Map<String, ?> param) {
+            Object left = param.get(leftKey);
+            Object right = (rightKey == null) ? null : param.get(rightKey);
+            boolean equal = (left == null) ? (right == null) : left.equals(right);
+            return equal != negate;
+        }
+    }
+
+    /**
+     * 字句の種類。
+     */
+    private enum TokenType {
+        /** パラメータのキー値 */
+        IDENTIFIER,
+        /** 数値リテラル */
+        NUMBER,
+        /** 文字列リテラル */
+        STRING,
+        /** nullリテラル */
+        NULL,
+        /** 比較演算子 */
+        OPERATOR,
+        /** 論理積 */
+        AND,
+        /** 論理和 */
+        OR,
+        /** 否定 */
+        NOT,
+        /** 開き括弧 */
+        LEFT_PAREN,
+        /** 閉じ括弧 */
+        RIGHT_PAREN,
+        /** 終端 */
+        END
+    }
+
+    /**
+     * 比較のオペランド。
+     */
+    private static final class Operand {
+
+        /** 種類 */
+        private final TokenType type;
+
+        /** 値(パラメータのキー値、または文字列リテラル) */
+        private final String text;
+
+        /** 数値リテラルの値 */
+        private final long number;
+
+        /**
+         * オペランドを生成する。
+         *
+         * @param type 種類
+         * @param text 値
+         * @param number 数値リテラルの値
+         */
+        private Operand(TokenType type, String text, long number) {
+            this.type = type;
+            this.text = text;
+            this.number = number;
+        }
+    }
+
+    /**
+     * 条件式の解析を行うクラス。
+     * <p/>
+     * 演算子の優先順位は、比較演算子、{@code !}、{@code &&}、{@code ||}の順に高い。
+     */
+    private static final class Parser {
+
+        /** 条件式 */
+        private final String expression;
+
+        /** 現在の解析位置 */
+        private int position;
+
+        /** 現在の字句の種類 */
+        private TokenType tokenType;
+
+        /** 現在の字句の開始位置 */
+        private int tokenStart;
+
+        /** 現在の字句の値 */
+        private String tokenText;
+
+        /**
+         * 条件式の解析を行うクラスを生成する。
+         *
+         * @param expression 条件式
+         */
+        private Parser(String expression) {
+            this.expression = expression;
+        }
+
+        /**
+         * 条件式を解析する。
+         *
+         * @return 解析済みの条件式
+         */
+        private ConditionExpression parse() {
+            next();
+            ConditionExpression result = parseOr();
+            if (tokenType != TokenType.END) {
+                throw error("unexpected token");
+            }
+            return result;
+        }
+
+        /**
+         * 論理和を解析する。
+         *
+         * @return 解析結果
+         */
+        private ConditionExpression parseOr() {
+            ConditionExpression left = parseAnd();
+            while (tokenType == TokenType.OR) {
+                next();
+                left = new Or(left, parseAnd());
+            }
+            return left;
+        }
+
+        /**
+         * 論理積を解析する。
+         *
+         * @return 解析結果
+         */
+        private ConditionExpression parseAnd() {
+            ConditionExpression left = parseNot();
+            while (tokenType == TokenType.AND) {
+                next();
+                left = new And(left, parseNot());
+            }
+            return left;
+        }
+
+        /**
+         * 否定を解析する。
+         *
+         * @return 解析結果
+         */
+        private ConditionExpression parseNot() {
+            if (tokenType == TokenType.NOT) {
+                next();
+                return new Not(parseNot());
+            }
+            if (tokenType == TokenType.LEFT_PAREN) {
+                next();
+                ConditionExpression result = parseOr();
+                if (tokenType != TokenType.RIGHT_PAREN) {
+                    throw error("')' is expected");
+                }
+                next();
+                return result;
+            }
+            return parseComparison();
+        }
+
+        /**
+         * 比較を解析する。
+         *
+         * @return 解析結果
+         */
+        private ConditionExpression parseComparison() {
+            int start = tokenStart;
+            Operand left = parseOperand();
+            if (tokenType != TokenType.OPERATOR) {
+                throw error("comparison operator is expected");
+            }
+            Operator operator = toOperator(tokenText);
+            next();
+            Operand right = parseOperand();
+            return createComparison(left, operator, right, start);
+        }
+
+        /**
+         * オペランドを解析する。
+         *
+         * @return オペランド
+         */
+        private Operand parseOperand() {
+            Operand result;
+            switch (tokenType) {
+                case IDENTIFIER:
+                case STRING:
+                case NULL:
+                    result = new Operand(tokenType, tokenText, 0L);
+                    break;
+                case NUMBER:
+                    try {
+                        result = new Operand(tokenType, tokenText, Long.parseLong(tokenText));
+                    } catch (NumberFormatException e) {
+                        throw error("number is out of range");
+                    }
+                    break;
+                default:
+                    throw error("operand is expected");
+            }
+            next();
+            return result;
+        }
+
+        /**
+         * オペランドの種類から比較方法を決定し、比較を生成する。
+         *
+         * @param left 左辺
+         * @param operator 比較演算子
+         * @param right 右辺
+         * @param start 比較の開始位置
+         * @return 比較
+         */
+        private ConditionExpression createComparison(Operand left, Operator operator, Operand right, int start) {
+            if (left.type != TokenType.IDENTIFIER && right.type == TokenType.IDENTIFIER) {
+                return createComparison(right, operator.reverse(), left, start);
+            }
+            if (left.type != TokenType.IDENTIFIER) {
+                return createConstant(left, operator, right, start);
+            }
+            switch (right.type) {
+                case NUMBER:
+                    return new NumberComparison(left.text, operator, right.number);
+                case IDENTIFIER:
+                    if (operator.isRelational()) {
+                        return new ParamNumberComparison(left.text, operator, right.text);
+                    }
+                    return new ParamEquality(left.text, right.text, operator == Operator.NE);
+                case STRING:
+                    if (operator.isRelational()) {
+                        throw error(operator, start);
+                    }
+                    return new StringEquality(left.text, right.text, operator == Operator.NE);
+                default:
+                    if (operator.isRelational()) {
+                        throw error(operator, start);
+                    }
+                    return new ParamEquality(left.text, null, operator == Operator.NE);
+            }
+        }
+
+        /**
+         * リテラル同士の比較を評価し、定数を生成する。
+         *
+         * @param left 左辺
+         * @param operator 比較演算子
+         * @param right 右辺
+         * @param start 比較の開始位置
+         * @return 定数
+         */
+        private ConditionExpression createConstant(Operand left, Operator operator, Operand right, int start) {
+            if (left.type == TokenType.NUMBER && right.type == TokenType.NUMBER) {
+                return new Constant(operator.compare(left.number, right.number));
+            }
+            if (operator.isRelational()) {
+                throw error(operator, start);
+            }
+            boolean equal = (left.type == right.type)
+                    && ((left.text == null) ? (right.text == null) : left.text.equals(right.text));
+            return new Constant(equal != (operator == Operator.NE));
+        }
+
+        /**
+         * 比較演算子の表記から比較演算子を取得する。
+         *
+         * @param symbol 比較演算子の表記
+         * @return 比較演算子
+         */
+        private static Operator toOperator(String symbol) {
+            for (Operator operator : Operator.values()) {
+                if (operator.symbol.equals(symbol)) {
+                    return operator;
+                }
+            }
+            throw new IllegalStateException("unknown operator. operator = [" + symbol + ']');
+        }
+
+        /**
+         * 次の字句を読み込む。
+         */
+        private void next() {
+            int length = expression.length();
+            while (position < length && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+            tokenStart = position;
+            tokenText = null;
+            if (position >= length) {
+                tokenType = TokenType.END;
+                return;
+            }
+            char c = expression.charAt(position);
+            if (c == '(') {
+                position++;
+                tokenType = TokenType.LEFT_PAREN;
+            } else if (c == ')') {
+                position++;
+                tokenType = TokenType.RIGHT_PAREN;
+            } else if (expression.startsWith("&&", position)) {
+                position += 2;
+                tokenType = TokenType.AND;
+            } else if (expression.startsWith("||", position)) {
+                position += 2;
+                tokenType = TokenType.OR;
+            } else if (c == '=' || c == '!' || c == '<' || c == '>') {
+                readOperator(c);
+            } else if (c == '\'') {
+                readString();
+            } else if (Character.isDigit(c)
+                    || (c == '-' && position + 1 < length && Character.isDigit(expression.charAt(position + 1)))) {
+                position++;
+                while (position < length && Character.isDigit(expression.charAt(position))) {
+                    position++;
+                }
+                tokenType = TokenType.NUMBER;
+                tokenText = expression.substring(tokenStart, position);
+            } else if (Character.isLetter(c) || c == '_') {
+                position++;
+                while (position < length && isIdentifierPart(expression.charAt(position))) {
+                    position++;
+                }
+                tokenText = expression.substring(tokenStart, position);
+                tokenType = "null".equals(tokenText) ? TokenType.NULL : TokenType.IDENTIFIER;
+                if (tokenType == TokenType.NULL) {
+                    tokenText = null;
+                }
+            } else {
+                throw error("unexpected character");
+            }
+        }
+
+        /**
+         * 比較演算子、または否定を読み込む。
+         *
+         * @param c 現在の文字
+         */
+        private void readOperator(char c) {
+            boolean followedByEqual = position + 1 < expression.length() && expression.charAt(position + 1) == '=';
+            if (followedByEqual) {
+                position += 2;
+                tokenType = TokenType.OPERATOR;
+                tokenText = expression.substring(tokenStart, position);
+            } else if (c == '!') {
+                position++;
+                tokenType = TokenType.NOT;
+            } else if (c == '=') {
+                throw error("'==' is expected");
+            } else {
+                position++;
+                tokenType = TokenType.OPERATOR;
+                tokenText = String.valueOf(c);
+            }
+        }
+
+        /**
+         * 文字列リテラルを読み込む。
+         */
+        private void readString() {
+            StringBuilder value = new StringBuilder();
+            position++;
+            while (true) {
+                int end = expression.indexOf('\'', position);
+                if (end < 0) {
+                    throw error("string literal is not closed");
+                }
+                value.append(expression, position, end);
+                position = end + 1;
+                if (position < expression.length() && expression.charAt(position) == '\'') {
+                    value.append('\'');
+                    position++;
+                } else {
+                    break;
+                }
+            }
+            tokenType = TokenType.STRING;
+            tokenText = value.toString();
+        }
+
+        /**
+         * パラメータのキー値を構成する文字か否か。
+         *
+         * @param c 文字
+         * @return パラメータのキー値を構成する文字の場合はtrue
+         */
+        private static boolean isIdentifierPart(char c) {
+            return Character.isLetterOrDigit(c) || c == '_' || c == '.';
+        }
+
+        /**
+         * 現在の字句の位置で解析エラーを生成する。
+         *
+         * @param reason エラーの理由
+         * @return 例外
+         */
+        private IllegalArgumentException error(String reason) {
+            return new IllegalArgumentException(String.format(
+                    "invalid expression. %s. expression = [%s], position = [%d]", reason, expression, tokenStart));
+        }
+
+        /**
+         * 比較演算子とオペランドの組み合わせが不正な場合の解析エラーを生成する。
+         *
+         * @param operator 比較演算子
+         * @param start 比較の開始位置
+         * @return 例外
+         */
+        private IllegalArgumentException error(Operator operator, int start) {
+            return new IllegalArgumentException(String.format(
+                    "invalid expression. operator '%s' requires numeric operands. expression = [%s], position = [%d]",
+                    operator.symbol, expression, start));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package nablarch.integration.workflow.condition;
+
+import java.util.List;
+
+/**
+ * フロー進行条件({@link FlowProceedCondition})または終了条件({@link CompletionCondition})を生成するインタフェース。
+ * <p/>
+ * 本インタフェースの実装は、{@link ConditionProvider}によりエイリアスと紐づけて登録する。
+ *
+ * @since 1.4.2
+ */
+public interface ConditionFactory {
+
+    /**
+     * 条件を生成する。
+     *
+     * @param args 条件の引数(エイリアスの後に括弧で囲って指定された値)
+     * @return 生成した条件
+     * @throws IllegalArgumentException 引数が不正な場合
+     */
+    Object create(List<String> args) throws IllegalArgumentException;
+}
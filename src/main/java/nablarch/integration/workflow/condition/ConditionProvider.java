@@ -0,0 +1,23 @@
+package nablarch.integration.workflow.condition;
+
+import java.util.Map;
+
+/**
+ * エイリアスと条件の生成処理({@link ConditionFactory})の組み合わせを提供するインタフェース。
+ * <p/>
+ * 本インタフェースの実装クラスは、{@link java.util.ServiceLoader}の仕組みにより登録する。
+ * 登録する場合は、クラスパス上の「META-INF/services/nablarch.integration.workflow.condition.ConditionProvider」に
+ * 実装クラスの完全修飾名を記述すること。
+ *
+ * @since 1.4.2
+ * @see ConditionRegistry
+ */
+public interface ConditionProvider {
+
+    /**
+     * エイリアスをキーとした条件の生成処理を取得する。
+     *
+     * @return エイリアスをキーとした条件の生成処理
+     */
+    Map<String, ConditionFactory> getConditionFactories();
+}
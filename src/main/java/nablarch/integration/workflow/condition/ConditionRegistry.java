@@ -0,0 +1,63 @@
+package nablarch.integration.workflow.condition;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+
+/**
+ * エイリアスから条件の生成処理({@link ConditionFactory})を取得するクラス。
+ * <p/>
+ * 条件の生成処理は、{@link ServiceLoader}により登録された{@link ConditionProvider}から初回アクセス時に一度だけ収集する。
+ * 同じエイリアスが複数の{@link ConditionProvider}から提供された場合は、例外を送出する。
+ *
+ * @since 1.4.2
+ */
+public final class ConditionRegistry {
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private ConditionRegistry() {
+    }
+
+    /**
+     * エイリアスに紐づく条件の生成処理を取得する。
+     *
+     * @param alias エイリアス
+     * @return 条件の生成処理(エイリアスが登録されていない場合はnull)
+     */
+    public static ConditionFactory getConditionFactory(String alias) {
+        return FactoriesHolder.FACTORIES.get(alias);
+    }
+
+    /**
+     * {@link ServiceLoader}により登録された条件の生成処理を収集する。
+     *
+     * @return エイリアスをキーとした条件の生成処理
+     * @throws IllegalStateException エイリアスが重複している場合
+     */
+    private static Map<String, ConditionFactory> loadFactories() throws IllegalStateException {
+        Map<String, ConditionFactory> result = new HashMap<String, ConditionFactory>();
+        for (ConditionProvider provider : ServiceLoader.load(ConditionProvider.class)) {
+            for (Map.Entry<String, ConditionFactory> entry : provider.getConditionFactories().entrySet()) {
+                if (result.containsKey(entry.getKey())) {
+                    throw new IllegalStateException(String.format(
+                            "condition alias is duplicated. alias = [%s], provider = [%s]",
+                            entry.getKey(), provider.getClass().getName()));
+                }
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * 条件の生成処理を初回アクセス時に収集するためのクラス。
+     */
+    private static final class FactoriesHolder {
+
+        /** エイリアスをキーとした条件の生成処理 */
+        private static final Map<String, ConditionFactory> FACTORIES = loadFactories();
+    }
+}
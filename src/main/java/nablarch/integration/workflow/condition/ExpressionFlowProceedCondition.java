@@ -0,0 +1,74 @@
+package nablarch.integration.workflow.condition;
+
+import java.util.Collections;
+import java.util.Map;
+
+import nablarch.integration.workflow.definition.SequenceFlow;
+
+/**
+ * 条件式によりフロー進行の判定を行うフロー進行条件クラス。
+ * <p/>
+ * 条件式は本クラスの生成時(ワークフロー定義のロード時)に一度だけ解析し、評価用のツリーに変換する。
+ * 判定時は、解析済みのツリーをパラメータに対して評価するのみで、条件式の再解析は行わない。
+ * <p/>
+ * 条件式は以下の要素から構成する。
+ * <ul>
+ * <li>パラメータのキー値: {@code amount}、{@code user.dept} など(英字、数字、アンダースコア、ドット)</li>
+ * <li>数値リテラル: {@code 1000}、{@code -1}({@link Long#MIN_VALUE}から{@link Long#MAX_VALUE}まで)</li>
+ * <li>文字列リテラル: {@code 'SALES'}(シングルクォートは{@code ''}と記述する)</li>
+ * <li>nullリテラル: {@code null}</li>
+ * <li>比較演算子: {@code ==}、{@code !=}、{@code >}、{@code >=}、{@code <}、{@code <=}</li>
+ * <li>論理演算子: {@code &&}、{@code ||}、{@code !}、及び括弧によるグループ化</li>
+ * </ul>
+ * 例: {@code amount >= 1000 && (dept == 'SALES' || dept == 'ADMIN')}
+ * <p/>
+ * 比較の方法は、条件式の解析時にオペランドの種類から決定する。
+ * <ul>
+ * <li>大小比較、及び数値リテラルとの比較は、数値として比較する。
+ * 数値への変換は{@link NumberFlowProceedConditionSupport}と同じ規則で行い、変換できない場合の比較結果はfalseとなる。</li>
+ * <li>文字列リテラルとの比較は、パラメータ値が文字列であり、かつ一致するかで判定する。</li>
+ * <li>nullリテラルとの比較は、パラメータ値が存在しないかで判定する。</li>
+ * <li>パラメータ同士の等値比較は、{@link Object#equals(Object)}で判定する。</li>
+ * </ul>
+ *
+ * @since 1.4.2
+ */
+public class ExpressionFlowProceedCondition implements FlowProceedCondition {
+
+    /** 条件式 */
+    private final String expression;
+
+    /** 解析済みの条件式 */
+    private final ConditionExpression compiled;
+
+    /**
+     * 条件式によるフロー進行条件を生成する。
+     *
+     * @param expression 条件式
+     * @throws IllegalArgumentException 条件式が不正な場合
+     */
+    public ExpressionFlowProceedCondition(String expression) throws IllegalArgumentException {
+        this.expression = expression;
+        compiled = ConditionExpression.parse(expression);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * 条件式の評価結果がtrueの場合は、本シーケンスフローで遷移可能と判断する。
+     */
+    @Override
+    public boolean isMatch(String instanceId, Map<String, ?> param, SequenceFlow sequenceFlow) {
+        Map<String, ?> target = (param == null) ? Collections.<String, Object>emptyMap() : param;
+        return compiled.evaluate(target);
+    }
+
+    /**
+     * 条件式を取得する。
+     *
+     * @return 条件式
+     */
+    public String getExpression() {
+        return expression;
+    }
+}
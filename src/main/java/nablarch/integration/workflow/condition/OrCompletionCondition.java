@@ -3,6 +3,7 @@ package nablarch.integration.workflow.condition;
 import java.util.Map;
 
 import nablarch.integration.workflow.WorkflowConfig;
+import nablarch.integration.workflow.dao.TaskProgressEntity;
 import nablarch.integration.workflow.dao.WorkflowInstanceDao;
 import nablarch.integration.workflow.definition.Task;
 
@@ -35,10 +36,18 @@ public class OrCompletionCondition implements CompletionCondition {
      * <p/>
      * コンストラクタで指定された一定数のユーザが処理済みの場合、
      * タスク完了としtrueを返却する。
+     * タスク進捗を管理している場合は、タスク進捗の担当数と処理済み数で判定する。
+     * ただし、タスク進捗が登録されていない場合は、担当者とアクティブタスクの件数で判定する。
      */
     @Override
     public boolean isCompletedUserTask(Map<String, ?> param, String instanceId, Task task) {
         WorkflowInstanceDao workflowInstanceDao = WorkflowConfig.get().getWorkflowInstanceDao();
+        if (workflowInstanceDao.isTaskProgressEnabled()) {
+            TaskProgressEntity progress = workflowInstanceDao.findTaskProgress(instanceId, task.getFlowNodeId());
+            if (progress != null) {
+                return isCompleted(progress);
+            }
+        }
 
         int assignedUserCount = workflowInstanceDao.getTaskAssignedUserCount(instanceId, task.getFlowNodeId());
         int activeUserTaskCount = workflowInstanceDao.getActiveUserTaskCount(instanceId);
@@ -50,14 +59,32 @@ public class OrCompletionCondition implements CompletionCondition {
      * <p/>
      * コンストラクタで指定された一定数のグループが処理済みの場合、
      * タスク完了としtrueを返却する。
+     * タスク進捗を管理している場合は、タスク進捗の担当数と処理済み数で判定する。
+     * ただし、タスク進捗が登録されていない場合は、担当者とアクティブタスクの件数で判定する。
      */
     @Override
     public boolean isCompletedGroupTask(Map<String, ?> param, String instanceId, Task task) {
         WorkflowInstanceDao workflowInstanceDao = WorkflowConfig.get().getWorkflowInstanceDao();
+        if (workflowInstanceDao.isTaskProgressEnabled()) {
+            TaskProgressEntity progress = workflowInstanceDao.findTaskProgress(instanceId, task.getFlowNodeId());
+            if (progress != null) {
+                return isCompleted(progress);
+            }
+        }
 
         int assignedGroupCount = workflowInstanceDao.getTaskAssignedGroupCount(instanceId, task.getFlowNodeId());
         int activeGroupTaskCount = workflowInstanceDao.getActiveGroupTaskCount(instanceId);
         return (activeGroupTaskCount == 0) || ((assignedGroupCount - activeGroupTaskCount) >= threshold);
     }
+
+    /**
+     * タスク進捗から、タスク完了か否かを判定する。
+     *
+     * @param progress タスク進捗
+     * @return 全ての担当者が処理済み、または処理済み数が閾値以上の場合はtrue
+     */
+    private boolean isCompleted(TaskProgressEntity progress) {
+        return progress.isAllCompleted() || (progress.getCompletedCount() >= threshold);
+    }
 }
 
@@ -0,0 +1,135 @@
+package nablarch.integration.workflow.condition;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本機能が提供する条件のエイリアスを登録する{@link ConditionProvider}。
+ * <p/>
+ * 登録するエイリアスは以下のとおり。
+ * <ul>
+ * <li>eq(paramKey, expectedValue): {@link EqFlowProceedCondition}</li>
+ * <li>ne(paramKey, expectedValue): {@link NeFlowProceedCondition}</li>
+ * <li>gt(paramKey, expectedValue): {@link GtFlowProceedCondition}</li>
+ * <li>ge(paramKey, expectedValue): {@link GeFlowProceedCondition}</li>
+ * <li>lt(paramKey, expectedValue): {@link LtFlowProceedCondition}</li>
+ * <li>le(paramKey, expectedValue): {@link LeFlowProceedCondition}</li>
+ * <li>streq(paramKey, expectedValue): {@link StringEqualFlowProceedCondition}</li>
+ * <li>strne(paramKey, expectedValue): {@link StringNotEqualFlowProceedCondition}</li>
+ * <li>expr(expression): {@link ExpressionFlowProceedCondition}</li>
+ * <li>case(paramKey, caseValue): {@link SwitchCaseFlowProceedCondition}</li>
+ * <li>all: {@link AllCompletionCondition}</li>
+ * <li>or(threshold): {@link OrCompletionCondition}</li>
+ * </ul>
+ *
+ * @since 1.4.2
+ */
+public class StandardConditionProvider implements ConditionProvider {
+
+    @Override
+    public Map<String, ConditionFactory> getConditionFactories() {
+        Map<String, ConditionFactory> result = new HashMap<String, ConditionFactory>();
+        result.put("eq", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("eq", args, 2);
+                return new EqFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("ne", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("ne", args, 2);
+                return new NeFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("gt", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("gt", args, 2);
+                return new GtFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("ge", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("ge", args, 2);
+                return new GeFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("lt", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("lt", args, 2);
+                return new LtFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("le", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("le", args, 2);
+                return new LeFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("streq", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("streq", args, 2);
+                return new StringEqualFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("strne", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("strne", args, 2);
+                return new StringNotEqualFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("expr", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("expr", args, 1);
+                return new ExpressionFlowProceedCondition(args.get(0));
+            }
+        });
+        result.put("case", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("case", args, 2);
+                return new SwitchCaseFlowProceedCondition(args.get(0), args.get(1));
+            }
+        });
+        result.put("all", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("all", args, 0);
+                return new AllCompletionCondition();
+            }
+        });
+        result.put("or", new ConditionFactory() {
+            @Override
+            public Object create(List<String> args) {
+                requireArgs("or", args, 1);
+                return new OrCompletionCondition(args.get(0));
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 引数の数が期待する数と一致することを検証する。
+     *
+     * @param alias エイリアス
+     * @param args 引数
+     * @param size 期待する引数の数
+     * @throws IllegalArgumentException 引数の数が一致しない場合
+     */
+    private static void requireArgs(String alias, List<String> args, int size) throws IllegalArgumentException {
+        if (args.size() != size) {
+            throw new IllegalArgumentException(String.format(
+                    "invalid number of condition arguments. alias = [%s], expected = [%d], actual = [%d]",
+                    alias, size, args.size()));
+        }
+    }
+}
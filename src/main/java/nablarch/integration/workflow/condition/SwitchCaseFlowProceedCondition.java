@@ -0,0 +1,68 @@
+package nablarch.integration.workflow.condition;
+
+import java.util.Map;
+
+import nablarch.integration.workflow.definition.SequenceFlow;
+
+/**
+ * {@link nablarch.integration.workflow.definition.Gateway.GatewayType#SWITCH}のゲートウェイで、
+ * 分岐先を表すフロー進行条件クラス。
+ * <p/>
+ * パラメータ値の文字列表現({@link Object#toString()})が、期待する値と一致する場合に遷移可能と判断する。
+ * <p/>
+ * SWITCHのゲートウェイでは、本クラスの条件を個別に評価するのではなく、
+ * ゲートウェイの生成時に期待する値と遷移先のフローノードの対応表を作成し、分岐先を1回の検索で特定する。
+ *
+ * @since 1.4.2
+ */
+public class SwitchCaseFlowProceedCondition implements FlowProceedCondition {
+
+    /** パラメータ値を特定するためのキー値 */
+    private final String paramKey;
+
+    /** 期待する値 */
+    private final String caseValue;
+
+    /**
+     * 分岐先を表すフロー進行条件を生成する。
+     *
+     * @param paramKey 分岐に使用するパラメータを特定するためのキー値
+     * @param caseValue 期待する値
+     */
+    public SwitchCaseFlowProceedCondition(String paramKey, String caseValue) {
+        this.paramKey = paramKey;
+        this.caseValue = caseValue;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * パラメータ値の文字列表現が期待する値と一致する場合は、本シーケンスフローで遷移可能と判断する。
+     */
+    @Override
+    public boolean isMatch(String instanceId, Map<String, ?> param, SequenceFlow sequenceFlow) {
+        if (param == null) {
+            return false;
+        }
+        Object value = param.get(paramKey);
+        return (value != null) && caseValue.equals(value.toString());
+    }
+
+    /**
+     * 分岐に使用するパラメータのキー値を取得する。
+     *
+     * @return パラメータのキー値
+     */
+    public String getParamKey() {
+        return paramKey;
+    }
+
+    /**
+     * 期待する値を取得する。
+     *
+     * @return 期待する値
+     */
+    public String getCaseValue() {
+        return caseValue;
+    }
+}
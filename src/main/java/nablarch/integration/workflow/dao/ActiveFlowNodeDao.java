@@ -1,5 +1,10 @@
 package nablarch.integration.workflow.dao;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
 import nablarch.core.db.statement.SqlPStatement;
 import nablarch.core.db.statement.SqlResultSet;
 import nablarch.core.db.statement.SqlRow;
@@ -26,16 +31,38 @@ public class ActiveFlowNodeDao extends DaoSupport {
     /** SELECT文 */
     private final String selectSql;
 
+    /** UPSERT文(ダイアレクトが指定されていない場合はnull) */
+    private final String upsertSql;
+
     /**
      * アクティブフローノードテーブルアクセスを生成する。
      *
      * @param schema テーブル定義情報
      */
     public ActiveFlowNodeDao(WorkflowInstanceSchema schema) {
+        this(schema, null);
+    }
+
+    /**
+     * アクティブフローノードテーブルアクセスを生成する。
+     *
+     * @param schema テーブル定義情報
+     * @param upsertDialect UPSERT文を生成するダイアレクト(nullの場合は削除後に登録を行う)
+     */
+    public ActiveFlowNodeDao(WorkflowInstanceSchema schema, UpsertDialect upsertDialect) {
         this.schema = schema;
         insertSql = createInsertSql();
         deleteSql = createDeleteSql();
         selectSql = createSelectSql();
+        upsertSql = (upsertDialect == null) ? null : upsertDialect.createUpsertSql(
+                schema.getActiveFlowNodeTableName(),
+                Arrays.asList(schema.getInstanceIdColumnName()),
+                Arrays.asList(schema.getFlowNodeIdColumnName()));
+    }
+
+    @Override
+    protected String getTableName() {
+        return schema.getActiveFlowNodeTableName();
     }
 
     /**
@@ -67,10 +94,37 @@ public class ActiveFlowNodeDao extends DaoSupport {
      * @param flowNode フローノード
      */
     public void insert(String instanceId, FlowNode flowNode) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNode.getFlowNodeId());
-        statement.executeUpdate();
+        executeInsert(insertSql, instanceId, flowNode.getFlowNodeId());
+    }
+
+    /**
+     * 複数のインスタンスのアクティブフローノードを、バッチ更新で登録する。
+     *
+     * @param activeFlowNodes インスタンスIDをキーとしたアクティブフローノード
+     */
+    public void insert(Map<String, ? extends FlowNode> activeFlowNodes) {
+        List<Object[]> params = new ArrayList<Object[]>(activeFlowNodes.size());
+        for (Map.Entry<String, ? extends FlowNode> entry : activeFlowNodes.entrySet()) {
+            params.add(new Object[] {entry.getKey(), entry.getValue().getFlowNodeId()});
+        }
+        executeBatchInsert(insertSql, params);
+    }
+
+    /**
+     * アクティブフローノードを登録する。既に登録されている場合は、指定されたフローノードで置き換える。
+     * <p/>
+     * ダイアレクトが指定されている場合はUPSERT文1文で、指定されていない場合は削除後に登録を行う。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNode フローノード
+     */
+    public void save(String instanceId, FlowNode flowNode) {
+        if (upsertSql == null) {
+            delete(instanceId);
+            insert(instanceId, flowNode);
+        } else {
+            executeUpsert(upsertSql, instanceId, flowNode.getFlowNodeId());
+        }
     }
 
     /**
@@ -79,9 +133,7 @@ public class ActiveFlowNodeDao extends DaoSupport {
      * @param instanceId インスタンスID
      */
     public void delete(String instanceId) {
-        SqlPStatement statement = createStatement(deleteSql);
-        statement.setString(1, instanceId);
-        statement.executeUpdate();
+        executeDelete(deleteSql, instanceId);
     }
 
     /**
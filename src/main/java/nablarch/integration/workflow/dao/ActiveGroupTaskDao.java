@@ -30,6 +30,9 @@ public class ActiveGroupTaskDao extends DaoSupport {
     /** 主キーを条件にレコードを削除するDELETE文。 */
     private final String deleteByPk;
 
+    /** UPDATE文(主キーが条件) */
+    private final String updateByPkSql;
+
     /** テーブル定義情報 */
     private final WorkflowInstanceSchema schema;
 
@@ -52,9 +55,15 @@ public class ActiveGroupTaskDao extends DaoSupport {
         insertSql = createInsertSql();
         deleteSql = createDeleteSql();
         deleteByPk = createDeleteByPkSql();
+        updateByPkSql = createUpdateByPkSql();
         countByPkSql = createCountByPkSql();
     }
 
+    @Override
+    protected String getTableName() {
+        return schema.getActiveGroupTaskTableName();
+    }
+
     /**
      * インスタンスIDに紐づくアクティブグループタスクを取得する。
      *
@@ -102,6 +111,27 @@ public class ActiveGroupTaskDao extends DaoSupport {
         );
     }
 
+    /**
+     * 複数のインスタンスIDのうち、グループのアクティブグループタスクが存在するインスタンスIDを取得する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param group グループID
+     * @return アクティブグループタスクが存在するインスタンスID
+     */
+    public List<String> findInstanceIds(List<String> instanceIds, String group) {
+        SqlPStatement statement = createStatement(createSelectInstanceIdsSql(instanceIds.size()));
+        statement.setString(1, group);
+        for (int i = 0; i < instanceIds.size(); i++) {
+            statement.setString(i + 2, instanceIds.get(i));
+        }
+
+        List<String> result = new ArrayList<String>();
+        for (SqlRow row : statement.executeQuery()) {
+            result.add(row.getString(schema.getInstanceIdColumnName()));
+        }
+        return result;
+    }
+
     /**
      * インスタンスIDに対応するレコード数を取得する。
      *
@@ -140,15 +170,12 @@ public class ActiveGroupTaskDao extends DaoSupport {
      * @param groups 担当グループ
      */
     public void insert(String instanceId, String flowNodeId, List<String> groups) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setInt(4, 0);
+
+        List<Object[]> params = new ArrayList<Object[]>();
         for (String group : groups) {
-            statement.setString(3, group);
-            statement.addBatch();
+            params.add(new Object[] {instanceId, flowNodeId, group, 0});
         }
-        statement.executeBatch();
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -160,12 +187,7 @@ public class ActiveGroupTaskDao extends DaoSupport {
      * @param executionOrder 実行順
      */
     public void insert(String instanceId, String flowNodeId, String group, int executionOrder) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, group);
-        statement.setInt(4, executionOrder);
-        statement.executeUpdate();
+        executeInsert(insertSql, instanceId, flowNodeId, group, executionOrder);
     }
 
     /**
@@ -174,9 +196,7 @@ public class ActiveGroupTaskDao extends DaoSupport {
      * @param instanceId インスタンスID
      */
     public void delete(String instanceId) {
-        SqlPStatement statement = createStatement(deleteSql);
-        statement.setString(1, instanceId);
-        statement.executeUpdate();
+        executeDelete(deleteSql, instanceId);
     }
 
 
@@ -188,11 +208,21 @@ public class ActiveGroupTaskDao extends DaoSupport {
      * @param groupId グループID
      */
     public void delete(String instanceId, String flowNodeId, String groupId) {
-        SqlPStatement statement = createStatement(deleteByPk);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, groupId);
-        statement.executeUpdate();
+        executeDelete(deleteByPk, instanceId, flowNodeId, groupId);
+    }
+
+    /**
+     * アクティブグループタスクのグループを別のグループに変更する。
+     * <p/>
+     * 実行順などの他の項目は変更しない。変更対象が存在しない場合は、何もしない。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param oldGroup 元のグループ
+     * @param newGroup 新しいグループ
+     */
+    public void update(String instanceId, String flowNodeId, String oldGroup, String newGroup) {
+        executeUpdate(updateByPkSql, newGroup, instanceId, flowNodeId, oldGroup);
     }
 
     /**
@@ -222,6 +252,22 @@ public class ActiveGroupTaskDao extends DaoSupport {
                 .replaceAll("#groupId#", schema.getAssignedGroupColumnName());
     }
 
+    /**
+     * グループIDと複数のインスタンスIDを条件に、インスタンスIDを取得するSELECT文を生成する。
+     *
+     * @param count インスタンスIDの数
+     * @return 生成したSQL文
+     */
+    private String createSelectInstanceIdsSql(int count) {
+        String templateSql = "SELECT DISTINCT #instanceId# FROM #tableName#"
+                + " WHERE #groupId# = ?"
+                + " AND #instanceId# IN (#placeholders#)";
+        return templateSql.replaceAll("#tableName#", schema.getActiveGroupTaskTableName())
+                .replaceAll("#groupId#", schema.getAssignedGroupColumnName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#placeholders#", createInPlaceholders(count));
+    }
+
     /**
      * インスタンスIDに紐づくレコード数を取得するcount文を生成する。
      * @return 生成したSQL文
@@ -295,4 +341,21 @@ public class ActiveGroupTaskDao extends DaoSupport {
                 .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
                 .replaceAll("#groupId#", schema.getAssignedGroupColumnName());
     }
+
+    /**
+     * 主キーを条件にグループを変更するUPDATE文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createUpdateByPkSql() {
+        String templateSql = "UPDATE #tableName#"
+                + " SET #groupId# = ?"
+                + " WHERE #instanceId# = ?"
+                + " AND #flowNodeId# = ?"
+                + " AND #groupId# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getActiveGroupTaskTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#groupId#", schema.getAssignedGroupColumnName());
+    }
 }
@@ -0,0 +1,172 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nablarch.core.db.connection.DbConnectionContext;
+import nablarch.core.db.dialect.Dialect;
+import nablarch.core.db.statement.SelectOption;
+import nablarch.core.db.statement.SqlPStatement;
+import nablarch.core.db.statement.SqlRow;
+
+/**
+ * ユーザまたはグループが処理すべきアクティブタスクを、ワークフローインスタンスを横断して検索するクラス。
+ * <p/>
+ * アクティブユーザタスクテーブル及びアクティブグループタスクテーブルを、インスタンスID、フローノードIDの順に検索する。
+ * ページングはシーク方式(前ページの最後のタスクより後ろのタスクを検索する方式)で行うため、
+ * 件数が多い場合でも、後ろのページほど検索が遅くなることはない。
+ * シーク条件は各テーブルの検索に含め、ダイアレクトがページングをサポートしている場合は、
+ * 各テーブルの検索結果も最大取得件数までに制限する。
+ * <p/>
+ * 検索を索引のみで行えるよう、各テーブルに以下の索引を作成すること。
+ * <ul>
+ * <li>アクティブユーザタスクテーブル:(ユーザID, インスタンスID, フローノードID)</li>
+ * <li>アクティブグループタスクテーブル:(グループID, インスタンスID, フローノードID)</li>
+ * </ul>
+ *
+ * @since 1.4.2
+ */
+public class ActiveTaskDao extends DaoSupport {
+
+    /** テーブル定義情報 */
+    private final WorkflowInstanceSchema schema;
+
+    /**
+     * アクティブタスク検索を生成する。
+     *
+     * @param schema テーブル定義情報
+     */
+    public ActiveTaskDao(WorkflowInstanceSchema schema) {
+        this.schema = schema;
+    }
+
+    /**
+     * ユーザまたはグループのアクティブタスクを、インスタンスID、フローノードIDの順に取得する。
+     * <p/>
+     * タスクにはユーザとグループのいずれか一方しか割り当てられないため、
+     * アクティブユーザタスクとアクティブグループタスクの検索結果は重複しない。
+     * 複数のグループにアクティブグループタスクが存在するタスクは、1件として取得する。
+     *
+     * @param user ユーザID(ユーザのアクティブタスクを検索しない場合はnull)
+     * @param groups グループIDリスト(グループのアクティブタスクを検索しない場合は空のリスト)
+     * @param after 前ページの最後のアクティブタスク(先頭ページを取得する場合はnull)
+     * @param limit 最大取得件数
+     * @return 取得したアクティブタスク
+     */
+    public List<ActiveTaskEntity> find(String user, List<String> groups, ActiveTaskEntity after, int limit) {
+        SqlPStatement statement = createStatement(createSelectSql(user != null, groups.size(), after != null, limit));
+        int index = 1;
+        if (user != null) {
+            statement.setString(index++, user);
+            index = setSeekCondition(statement, index, after);
+        }
+        if (!groups.isEmpty()) {
+            for (String group : groups) {
+                statement.setString(index++, group);
+            }
+            setSeekCondition(statement, index, after);
+        }
+
+        List<ActiveTaskEntity> result = new ArrayList<ActiveTaskEntity>();
+        for (SqlRow row : statement.retrieve(1, limit)) {
+            result.add(new ActiveTaskEntity(
+                    row.getString(schema.getInstanceIdColumnName()),
+                    row.getString(schema.getWorkflowIdColumnName()),
+                    row.getBigDecimal(schema.getVersionColumnName()).longValue(),
+                    row.getString(schema.getFlowNodeIdColumnName())
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * シーク条件のバインド変数を設定する。
+     *
+     * @param statement ステートメント
+     * @param index 設定を開始するバインド変数の位置
+     * @param after 前ページの最後のアクティブタスク(先頭ページの場合はnull)
+     * @return 次に設定するバインド変数の位置
+     */
+    private static int setSeekCondition(SqlPStatement statement, int index, ActiveTaskEntity after) {
+        if (after == null) {
+            return index;
+        }
+        statement.setString(index, after.getInstanceId());
+        statement.setString(index + 1, after.getInstanceId());
+        statement.setString(index + 2, after.getFlowNodeId());
+        return index + 3;
+    }
+
+    /**
+     * SELECT文を生成する。
+     *
+     * @param hasUser ユーザのアクティブタスクを検索する場合はtrue
+     * @param groupCount グループIDの数
+     * @param hasCursor 前ページの最後のアクティブタスクを指定する場合はtrue
+     * @param limit 最大取得件数
+     * @return 生成したSQL文
+     */
+    private String createSelectSql(boolean hasUser, int groupCount, boolean hasCursor, int limit) {
+        String seekCondition = hasCursor ? " AND #instanceId# >= ? AND (#instanceId# > ? OR #flowNodeId# > ?)" : "";
+        Dialect dialect = getDialect();
+        List<String> subQueries = new ArrayList<String>();
+        if (hasUser) {
+            subQueries.add(limitRows(dialect,
+                    ("SELECT #instanceId#, #flowNodeId# FROM #userTaskTableName# WHERE #userId# = ?" + seekCondition)
+                            .replaceAll("#userTaskTableName#", schema.getActiveUserTaskTableName())
+                            .replaceAll("#userId#", schema.getAssignedUserColumnName()), limit));
+        }
+        if (groupCount > 0) {
+            subQueries.add(limitRows(dialect,
+                    ("SELECT DISTINCT #instanceId#, #flowNodeId# FROM #groupTaskTableName# WHERE #groupId# IN (#placeholders#)" + seekCondition)
+                            .replaceAll("#groupTaskTableName#", schema.getActiveGroupTaskTableName())
+                            .replaceAll("#groupId#", schema.getAssignedGroupColumnName())
+                            .replaceAll("#placeholders#", createInPlaceholders(groupCount)), limit));
+        }
+
+        StringBuilder unionSql = new StringBuilder();
+        for (String subQuery : subQueries) {
+            if (unionSql.length() != 0) {
+                unionSql.append(" UNION ALL ");
+            }
+            unionSql.append(subQuery);
+        }
+
+        String templateSql = "SELECT T.#instanceId#, T.#flowNodeId#, I.#workflowId#, I.#version#"
+                + " FROM (#unionSql#) T"
+                + " INNER JOIN #instanceTableName# I ON I.#instanceId# = T.#instanceId#"
+                + " ORDER BY T.#instanceId#, T.#flowNodeId#";
+        return templateSql.replace("#unionSql#", unionSql)
+                .replaceAll("#instanceTableName#", schema.getInstanceTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName());
+    }
+
+    /**
+     * テーブルごとの検索結果を、インスタンスID、フローノードIDの順に最大取得件数までに制限する。
+     * <p/>
+     * ダイアレクトがページングをサポートしていない場合は、検索結果を制限しない。
+     *
+     * @param dialect ダイアレクト
+     * @param sql テーブルごとの検索SQL文
+     * @param limit 最大取得件数
+     * @return 括弧で囲んだ検索SQL文
+     */
+    private static String limitRows(Dialect dialect, String sql, int limit) {
+        if (!dialect.supportsOffset()) {
+            return '(' + sql + ')';
+        }
+        return '(' + dialect.convertPaginationSql(sql + " ORDER BY #instanceId#, #flowNodeId#", new SelectOption(1, limit)) + ')';
+    }
+
+    /**
+     * 検索に使用するダイアレクトを取得する。
+     *
+     * @return 現在のデータベース接続のダイアレクト
+     */
+    protected Dialect getDialect() {
+        return DbConnectionContext.getTransactionManagerConnection().getDialect();
+    }
+}
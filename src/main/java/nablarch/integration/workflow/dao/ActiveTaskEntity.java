@@ -0,0 +1,36 @@
+package nablarch.integration.workflow.dao;
+
+/**
+ * ユーザまたはグループが処理すべきアクティブタスクのエンティティ。
+ * <p/>
+ * アクティブユーザタスク及びアクティブグループタスクに、ワークフローインスタンスの情報を付加したもの。
+ *
+ * @since 1.4.2
+ */
+public class ActiveTaskEntity extends WorkflowInstanceEntity {
+
+    /** フローノードID(タスクID) */
+    private final String flowNodeId;
+
+    /**
+     * アクティブタスクエンティティを生成する。
+     *
+     * @param instanceId インスタンスID
+     * @param workflowId ワークフローID
+     * @param version バージョン
+     * @param flowNodeId フローノードID(タスクID)
+     */
+    public ActiveTaskEntity(String instanceId, String workflowId, long version, String flowNodeId) {
+        super(instanceId, workflowId, version);
+        this.flowNodeId = flowNodeId;
+    }
+
+    /**
+     * フローノードID(タスクID)を取得する。
+     *
+     * @return フローノードID
+     */
+    public String getFlowNodeId() {
+        return flowNodeId;
+    }
+}
@@ -39,6 +39,9 @@ public class ActiveUserTaskDao extends DaoSupport {
     /** DELETE文(インスタンスID、フローノードID、ユーザを条件に) */
     private final String deleteByPkSql;
 
+    /** UPDATE文(主キーが条件) */
+    private final String updateByPkSql;
+
     /**
      * アクティブユーザタスクテーブルアクセスを生成する。
      *
@@ -53,6 +56,12 @@ public class ActiveUserTaskDao extends DaoSupport {
         insertSql = createInsertSql();
         deleteSql = createDeleteSql();
         deleteByPkSql = createDeleteByPkSql();
+        updateByPkSql = createUpdateByPkSql();
+    }
+
+    @Override
+    protected String getTableName() {
+        return schema.getActiveUserTaskTableName();
     }
 
     /**
@@ -104,6 +113,55 @@ public class ActiveUserTaskDao extends DaoSupport {
         );
     }
 
+    /**
+     * 複数のインスタンスIDとユーザに紐づくアクティブユーザタスクを取得する。
+     * <p/>
+     * 取得結果はインスタンスID、実行順の順に並ぶ。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param user ユーザID
+     * @return 取得したアクティブユーザタスク情報
+     */
+    public List<ActiveUserTaskEntity> find(List<String> instanceIds, String user) {
+        SqlPStatement statement = createStatement(createSelectByInstanceIdsSql(instanceIds.size()));
+        statement.setString(1, user);
+        for (int i = 0; i < instanceIds.size(); i++) {
+            statement.setString(i + 2, instanceIds.get(i));
+        }
+
+        List<ActiveUserTaskEntity> result = new ArrayList<ActiveUserTaskEntity>();
+        for (SqlRow row : statement.executeQuery()) {
+            result.add(new ActiveUserTaskEntity(
+                    row.getString(schema.getInstanceIdColumnName()),
+                    row.getString(schema.getFlowNodeIdColumnName()),
+                    row.getString(schema.getAssignedUserColumnName()),
+                    row.getBigDecimal(schema.getExecutionOrderColumnName()).intValue()
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * 複数のインスタンスIDのうち、ユーザのアクティブユーザタスクが存在するインスタンスIDを取得する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param user ユーザID
+     * @return アクティブユーザタスクが存在するインスタンスID
+     */
+    public List<String> findInstanceIds(List<String> instanceIds, String user) {
+        SqlPStatement statement = createStatement(createSelectInstanceIdsSql(instanceIds.size()));
+        statement.setString(1, user);
+        for (int i = 0; i < instanceIds.size(); i++) {
+            statement.setString(i + 2, instanceIds.get(i));
+        }
+
+        List<String> result = new ArrayList<String>();
+        for (SqlRow row : statement.executeQuery()) {
+            result.add(row.getString(schema.getInstanceIdColumnName()));
+        }
+        return result;
+    }
+
     /**
      * インスタンスIDに対応するレコード数を取得する。
      *
@@ -142,16 +200,11 @@ public class ActiveUserTaskDao extends DaoSupport {
      * @param users 担当ユーザ
      */
     public void insert(String instanceId, String flowNodeId, List<String> users) {
-
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setInt(4, 0);
+        List<Object[]> params = new ArrayList<Object[]>();
         for (String user : users) {
-            statement.setString(3, user);
-            statement.addBatch();
+            params.add(new Object[] {instanceId, flowNodeId, user, 0});
         }
-        statement.executeBatch();
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -163,12 +216,7 @@ public class ActiveUserTaskDao extends DaoSupport {
      * @param executionOrder 実行順
      */
     public void insert(String instanceId, String flowNodeId, String user, int executionOrder) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, user);
-        statement.setInt(4, executionOrder);
-        statement.executeUpdate();
+        executeInsert(insertSql, instanceId, flowNodeId, user, executionOrder);
     }
 
     /**
@@ -177,9 +225,7 @@ public class ActiveUserTaskDao extends DaoSupport {
      * @param instanceId インスタンスID
      */
     public void delete(String instanceId) {
-        SqlPStatement statement = createStatement(deleteSql);
-        statement.setString(1, instanceId);
-        statement.executeUpdate();
+        executeDelete(deleteSql, instanceId);
     }
 
     /**
@@ -190,11 +236,21 @@ public class ActiveUserTaskDao extends DaoSupport {
      * @param user ユーザ
      */
     public void delete(String instanceId, String flowNodeId, String user) {
-        SqlPStatement statement = createStatement(deleteByPkSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, user);
-        statement.executeUpdate();
+        executeDelete(deleteByPkSql, instanceId, flowNodeId, user);
+    }
+
+    /**
+     * アクティブユーザタスクのユーザを別のユーザに変更する。
+     * <p/>
+     * 実行順などの他の項目は変更しない。変更対象が存在しない場合は、何もしない。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param oldUser 元のユーザ
+     * @param newUser 新しいユーザ
+     */
+    public void update(String instanceId, String flowNodeId, String oldUser, String newUser) {
+        executeUpdate(updateByPkSql, newUser, instanceId, flowNodeId, oldUser);
     }
 
     /**
@@ -226,6 +282,40 @@ public class ActiveUserTaskDao extends DaoSupport {
                 .replaceAll("#userId#", schema.getAssignedUserColumnName());
     }
 
+    /**
+     * ユーザIDと複数のインスタンスIDを条件としたSELECT文を生成する。
+     *
+     * @param count インスタンスIDの数
+     * @return 生成したSQL文
+     */
+    private String createSelectByInstanceIdsSql(int count) {
+        String templateSql = "SELECT * FROM #tableName#"
+                + " WHERE #userId# = ?"
+                + " AND #instanceId# IN (#placeholders#)"
+                + " ORDER BY #instanceId#, #executionOrder#";
+        return templateSql.replaceAll("#tableName#", schema.getActiveUserTaskTableName())
+                .replaceAll("#userId#", schema.getAssignedUserColumnName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#executionOrder#", schema.getExecutionOrderColumnName())
+                .replaceAll("#placeholders#", createInPlaceholders(count));
+    }
+
+    /**
+     * ユーザIDと複数のインスタンスIDを条件に、インスタンスIDを取得するSELECT文を生成する。
+     *
+     * @param count インスタンスIDの数
+     * @return 生成したSQL文
+     */
+    private String createSelectInstanceIdsSql(int count) {
+        String templateSql = "SELECT DISTINCT #instanceId# FROM #tableName#"
+                + " WHERE #userId# = ?"
+                + " AND #instanceId# IN (#placeholders#)";
+        return templateSql.replaceAll("#tableName#", schema.getActiveUserTaskTableName())
+                .replaceAll("#userId#", schema.getAssignedUserColumnName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#placeholders#", createInPlaceholders(count));
+    }
+
     /**
      * COUNT文を生成する。
      *
@@ -299,5 +389,20 @@ public class ActiveUserTaskDao extends DaoSupport {
                 .replaceAll("#assignedUserId#", schema.getAssignedUserColumnName());
     }
 
+    /**
+     * 主キーを条件にユーザを変更するUPDATE文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createUpdateByPkSql() {
+        String templateSql = "UPDATE #tableName#"
+                + " SET #userId# = ?"
+                + " WHERE #instanceId# = ?"
+                + " AND #flowNodeId# = ?"
+                + " AND #userId# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getActiveUserTaskTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#userId#", schema.getAssignedUserColumnName());
+    }
 }
-
@@ -1,11 +1,23 @@
 package nablarch.integration.workflow.dao;
 
+import java.util.List;
+
 import nablarch.core.db.connection.AppDbConnection;
 import nablarch.core.db.connection.DbConnectionContext;
 import nablarch.core.db.statement.SqlPStatement;
 
+import nablarch.integration.workflow.dao.WriteBehindUnitOfWork.Kind;
+import nablarch.integration.workflow.dao.WriteBehindUnitOfWork.PendingUpdate;
+
 /**
  * データベースアクセスクラスのサポートクラス。
+ * <p/>
+ * 登録・更新・削除は{@link #executeInsert(String, Object...)}、{@link #executeBatchInsert(String, List)}、
+ * {@link #executeUpsert(String, Object...)}、{@link #executeUpdate(String, Object...)}、
+ * {@link #executeDelete(String, Object...)}を使用して行う。
+ * ユニットオブワーク({@link WorkflowInstanceDao#beginUnitOfWork()})の開始中は、
+ * 登録・更新・削除は即時には実行されず、ユニットオブワークの終了時にまとめて反映される。
+ * この場合に冗長な削除・登録を取り除けるよう、削除条件のカラムはINSERT文(UPSERT文)のカラムの先頭と同じ順に指定すること。
  *
  * @author hisaaki sioiri
  * @since 1.4.2
@@ -14,13 +26,141 @@ public abstract class DaoSupport {
 
     /**
      * SQL実行用のスタートメントを生成する。
+     * <p/>
+     * ユニットオブワークの開始中は、ステートメントの生成前に本クラスがアクセスするテーブルへの保持中の更新を反映する。
      *
      * @param sql SQL
      * @return 生成したステートメント
      */
     protected SqlPStatement createStatement(String sql) {
+        return createStatement(sql, getTableName());
+    }
+
+    /**
+     * 複数のテーブルを参照するSQL実行用のスタートメントを生成する。
+     * <p/>
+     * ユニットオブワークの開始中は、ステートメントの生成前に指定されたテーブルへの保持中の更新を反映する。
+     *
+     * @param sql SQL
+     * @param tableNames 参照するテーブル名(nullを指定した場合は、保持中の全ての更新を反映する)
+     * @return 生成したステートメント
+     */
+    protected SqlPStatement createStatement(String sql, String... tableNames) {
+        WriteBehindUnitOfWork unitOfWork = WriteBehindUnitOfWork.current();
+        if (unitOfWork != null) {
+            for (String tableName : tableNames) {
+                unitOfWork.beforeRead(tableName);
+            }
+        }
         AppDbConnection connection = DbConnectionContext.getConnection();
         return connection.prepareStatement(sql);
     }
-}
 
+    /**
+     * 本クラスがアクセスするテーブル名を取得する。
+     * <p/>
+     * デフォルト実装ではnullを返す。この場合、参照時にはユニットオブワークで保持中の全ての更新を反映する。
+     *
+     * @return テーブル名
+     */
+    protected String getTableName() {
+        return null;
+    }
+
+    /**
+     * IN句に指定するバインド変数のプレースホルダ({@code ?, ?, ...})を生成する。
+     *
+     * @param count バインド変数の数
+     * @return 生成したプレースホルダ
+     */
+    protected static String createInPlaceholders(int count) {
+        StringBuilder placeholders = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i != 0) {
+                placeholders.append(", ");
+            }
+            placeholders.append('?');
+        }
+        return placeholders.toString();
+    }
+
+    /**
+     * 登録を行う。
+     *
+     * @param sql INSERT文
+     * @param params バインド変数(String、Integer、Longのいずれか)
+     */
+    protected void executeInsert(String sql, Object... params) {
+        execute(new PendingUpdate(getTableName(), sql, Kind.INSERT, params));
+    }
+
+    /**
+     * 登録または更新(UPSERT)を行う。
+     * <p/>
+     * ユニットオブワーク内では登録として扱うため、バインド変数はキー項目を先頭に指定すること。
+     *
+     * @param sql UPSERT文(MERGE文など)
+     * @param params バインド変数(String、Integer、Longのいずれか)
+     */
+    protected void executeUpsert(String sql, Object... params) {
+        execute(new PendingUpdate(getTableName(), sql, Kind.INSERT, params));
+    }
+
+    /**
+     * 更新を行う。
+     *
+     * @param sql UPDATE文
+     * @param params バインド変数(String、Integer、Longのいずれか)
+     */
+    protected void executeUpdate(String sql, Object... params) {
+        execute(new PendingUpdate(getTableName(), sql, Kind.UPDATE, params));
+    }
+
+    /**
+     * 複数レコードの登録をバッチ更新で行う。
+     *
+     * @param sql INSERT文
+     * @param paramsList レコードごとのバインド変数(String、Integer、Longのいずれか)
+     */
+    protected void executeBatchInsert(String sql, List<Object[]> paramsList) {
+        WriteBehindUnitOfWork unitOfWork = WriteBehindUnitOfWork.current();
+        if (unitOfWork != null) {
+            for (Object[] params : paramsList) {
+                unitOfWork.add(new PendingUpdate(getTableName(), sql, Kind.INSERT, params));
+            }
+            return;
+        }
+        SqlPStatement statement = createStatement(sql);
+        for (Object[] params : paramsList) {
+            new PendingUpdate(getTableName(), sql, Kind.INSERT, params).bind(statement);
+            statement.addBatch();
+        }
+        statement.executeBatch();
+    }
+
+    /**
+     * 削除を行う。
+     *
+     * @param sql DELETE文
+     * @param params 削除条件のバインド変数(String、Integer、Longのいずれか)
+     */
+    protected void executeDelete(String sql, Object... params) {
+        execute(new PendingUpdate(getTableName(), sql, Kind.DELETE, params));
+    }
+
+    /**
+     * 更新を実行する。ユニットオブワークの開始中は、更新を保持する。
+     *
+     * @param update 更新
+     */
+    private void execute(PendingUpdate update) {
+        WriteBehindUnitOfWork unitOfWork = WriteBehindUnitOfWork.current();
+        if (unitOfWork != null) {
+            unitOfWork.add(update);
+            return;
+        }
+        SqlPStatement statement = createStatement(update.getSql());
+        update.bind(statement);
+        statement.executeUpdate();
+    }
+}
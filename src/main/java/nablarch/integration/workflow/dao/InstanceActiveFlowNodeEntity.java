@@ -0,0 +1,34 @@
+package nablarch.integration.workflow.dao;
+
+/**
+ * アクティブフローノードを含むワークフローインスタンスエンティティ。
+ *
+ * @since 1.4.2
+ */
+public class InstanceActiveFlowNodeEntity extends WorkflowInstanceEntity {
+
+    /** アクティブフローノードのフローノードID */
+    private final String flowNodeId;
+
+    /**
+     * アクティブフローノードを含むワークフローインスタンスエンティティを生成する。
+     *
+     * @param instanceId インスタンスID
+     * @param workflowId ワークフローID
+     * @param version バージョン
+     * @param flowNodeId アクティブフローノードのフローノードID
+     */
+    public InstanceActiveFlowNodeEntity(String instanceId, String workflowId, long version, String flowNodeId) {
+        super(instanceId, workflowId, version);
+        this.flowNodeId = flowNodeId;
+    }
+
+    /**
+     * アクティブフローノードのフローノードIDを取得する。
+     *
+     * @return フローノードID
+     */
+    public String getFlowNodeId() {
+        return flowNodeId;
+    }
+}
@@ -1,7 +1,11 @@
 package nablarch.integration.workflow.dao;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import nablarch.core.db.statement.SqlPStatement;
 import nablarch.core.db.statement.SqlResultSet;
+import nablarch.core.db.statement.SqlRow;
 
 /**
  * ワークフローインスタンステーブルへアクセスするクラス。
@@ -35,6 +39,11 @@ public class InstanceDao extends DaoSupport {
         selectSql = createSelectSql();
     }
 
+    @Override
+    protected String getTableName() {
+        return schema.getInstanceTableName();
+    }
+
     /**
      * インスタンス情報を検索する。
      *
@@ -57,6 +66,59 @@ public class InstanceDao extends DaoSupport {
         );
     }
 
+    /**
+     * 複数のインスタンスIDに紐づくインスタンス情報を検索する。
+     * <p/>
+     * 存在しないインスタンスIDに対応する情報は、結果に含まれない。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @return インスタンス情報
+     */
+    public List<WorkflowInstanceEntity> find(List<String> instanceIds) {
+        SqlPStatement statement = createStatement(createSelectByInstanceIdsSql(instanceIds.size()));
+        for (int i = 0; i < instanceIds.size(); i++) {
+            statement.setString(i + 1, instanceIds.get(i));
+        }
+
+        List<WorkflowInstanceEntity> result = new ArrayList<WorkflowInstanceEntity>();
+        for (SqlRow row : statement.executeQuery()) {
+            result.add(new WorkflowInstanceEntity(
+                    row.getString(schema.getInstanceIdColumnName()),
+                    row.getString(schema.getWorkflowIdColumnName()),
+                    row.getBigDecimal(schema.getVersionColumnName()).longValue()
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * 複数のインスタンスIDに紐づくインスタンス情報を、アクティブフローノードと合わせて検索する。
+     * <p/>
+     * インスタンステーブルとアクティブフローノードテーブルを結合した1回の検索で取得する。
+     * 存在しないインスタンスIDに対応する情報は、結果に含まれない。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @return アクティブフローノードを含むインスタンス情報
+     */
+    public List<InstanceActiveFlowNodeEntity> findWithActiveFlowNode(List<String> instanceIds) {
+        SqlPStatement statement = createStatement(createSelectWithActiveFlowNodeSql(instanceIds.size()),
+                schema.getInstanceTableName(), schema.getActiveFlowNodeTableName());
+        for (int i = 0; i < instanceIds.size(); i++) {
+            statement.setString(i + 1, instanceIds.get(i));
+        }
+
+        List<InstanceActiveFlowNodeEntity> result = new ArrayList<InstanceActiveFlowNodeEntity>();
+        for (SqlRow row : statement.executeQuery()) {
+            result.add(new InstanceActiveFlowNodeEntity(
+                    row.getString(schema.getInstanceIdColumnName()),
+                    row.getString(schema.getWorkflowIdColumnName()),
+                    row.getBigDecimal(schema.getVersionColumnName()).longValue(),
+                    row.getString(schema.getFlowNodeIdColumnName())
+            ));
+        }
+        return result;
+    }
+
     /**
      * ワークフローインスタンス情報を登録する。
      *
@@ -65,11 +127,22 @@ public class InstanceDao extends DaoSupport {
      * @param version バージョン番号
      */
     public void insert(String instanceId, String workflowId, int version) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, workflowId);
-        statement.setInt(3, version);
-        statement.executeUpdate();
+        executeInsert(insertSql, instanceId, workflowId, version);
+    }
+
+    /**
+     * 同一ワークフローの複数のワークフローインスタンス情報を、バッチ更新で登録する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param workflowId ワークフローID
+     * @param version バージョン番号
+     */
+    public void insert(List<String> instanceIds, String workflowId, int version) {
+        List<Object[]> params = new ArrayList<Object[]>(instanceIds.size());
+        for (String instanceId : instanceIds) {
+            params.add(new Object[] {instanceId, workflowId, version});
+        }
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -78,9 +151,7 @@ public class InstanceDao extends DaoSupport {
      * @param instanceId インスタンスID
      */
     public void delete(String instanceId) {
-        SqlPStatement statement = createStatement(deleteSql);
-        statement.setString(1, instanceId);
-        statement.executeUpdate();
+        executeDelete(deleteSql, instanceId);
     }
 
     /**
@@ -94,6 +165,39 @@ public class InstanceDao extends DaoSupport {
                 .replaceAll("#instanceId#", schema.getInstanceIdColumnName());
     }
 
+    /**
+     * 複数のインスタンスIDを条件としたSELECT文を生成する。
+     *
+     * @param count インスタンスIDの数
+     * @return 生成したSQL文
+     */
+    private String createSelectByInstanceIdsSql(int count) {
+        String templateSql = "SELECT * FROM #tableName# WHERE #instanceId# IN (#placeholders#)";
+        return templateSql.replaceAll("#tableName#", schema.getInstanceTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#placeholders#", createInPlaceholders(count));
+    }
+
+    /**
+     * 複数のインスタンスIDを条件に、アクティブフローノードテーブルと結合したSELECT文を生成する。
+     *
+     * @param count インスタンスIDの数
+     * @return 生成したSQL文
+     */
+    private String createSelectWithActiveFlowNodeSql(int count) {
+        String templateSql = "SELECT I.#instanceId#, I.#workflowId#, I.#version#, A.#flowNodeId#"
+                + " FROM #tableName# I"
+                + " INNER JOIN #activeFlowNodeTableName# A ON A.#instanceId# = I.#instanceId#"
+                + " WHERE I.#instanceId# IN (#placeholders#)";
+        return templateSql.replaceAll("#tableName#", schema.getInstanceTableName())
+                .replaceAll("#activeFlowNodeTableName#", schema.getActiveFlowNodeTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#placeholders#", createInPlaceholders(count));
+    }
+
     /**
      * INSERT文を生成する。
      *
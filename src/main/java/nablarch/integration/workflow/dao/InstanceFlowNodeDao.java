@@ -1,9 +1,8 @@
 package nablarch.integration.workflow.dao;
 
+import java.util.ArrayList;
 import java.util.List;
 
-import nablarch.core.db.statement.SqlPStatement;
-
 import nablarch.integration.workflow.definition.FlowNode;
 import nablarch.integration.workflow.definition.Task;
 
@@ -35,6 +34,11 @@ public class InstanceFlowNodeDao extends DaoSupport {
         deleteSql = createDeleteSql();
     }
 
+    @Override
+    protected String getTableName() {
+        return schema.getInstanceFlowNodeTableName();
+    }
+
     /**
      * フローノードの情報を登録する。
      *
@@ -44,16 +48,29 @@ public class InstanceFlowNodeDao extends DaoSupport {
      * @param tasks タスクリスト
      */
     public void insert(String instanceId, String workflowId, long version, List<Task> tasks) {
-        SqlPStatement statement = createStatement(insertSql);
-
-        statement.setString(1, instanceId);
-        statement.setString(2, workflowId);
-        statement.setLong(3, version);
+        List<Object[]> params = new ArrayList<Object[]>();
         for (FlowNode flowNode : tasks) {
-            statement.setString(4, flowNode.getFlowNodeId());
-            statement.addBatch();
+            params.add(new Object[] {instanceId, workflowId, version, flowNode.getFlowNodeId()});
+        }
+        executeBatchInsert(insertSql, params);
+    }
+
+    /**
+     * 同一ワークフローの複数のインスタンスについて、フローノードの情報を1回のバッチ更新で登録する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param workflowId ワークフローID
+     * @param version バージョン
+     * @param tasks タスクリスト
+     */
+    public void insert(List<String> instanceIds, String workflowId, long version, List<Task> tasks) {
+        List<Object[]> params = new ArrayList<Object[]>(instanceIds.size() * tasks.size());
+        for (String instanceId : instanceIds) {
+            for (FlowNode flowNode : tasks) {
+                params.add(new Object[] {instanceId, workflowId, version, flowNode.getFlowNodeId()});
+            }
         }
-        statement.executeBatch();
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -62,9 +79,7 @@ public class InstanceFlowNodeDao extends DaoSupport {
      * @param instanceId インスタンスID
      */
     public void delete(String instanceId) {
-        SqlPStatement statement = createStatement(deleteSql);
-        statement.setString(1, instanceId);
-        statement.executeUpdate();
+        executeDelete(deleteSql, instanceId);
     }
 
     /**
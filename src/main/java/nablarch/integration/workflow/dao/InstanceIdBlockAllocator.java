@@ -0,0 +1,120 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import nablarch.common.idgenerator.IdGenerator;
+
+/**
+ * インスタンスIDをブロック単位に確保し、メモリ上で払い出すクラス(hi-lo方式)。
+ * <p/>
+ * {@link IdGenerator}で採番した値(hi)1つにつき、{@code hi * ブロックサイズ}から{@code (hi + 1) * ブロックサイズ - 1}までの
+ * 範囲のIDを確保する。確保した範囲のIDは、データベースにアクセスせずに払い出す。
+ * <p/>
+ * 確保済みの範囲はトランザクションのロールバックでは戻らないため、
+ * {@link IdGenerator}には、業務のトランザクションとは独立して採番結果を確定させる実装を使用すること。
+ *
+ * @since 1.4.2
+ */
+final class InstanceIdBlockAllocator {
+
+    /** ブロックサイズ */
+    private final int blockSize;
+
+    /** 払い出し中のブロック */
+    private volatile Block block;
+
+    /**
+     * インスタンスIDの払い出しを行うクラスを生成する。
+     *
+     * @param blockSize ブロックサイズ
+     */
+    InstanceIdBlockAllocator(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
+    /**
+     * インスタンスIDを払い出す。
+     * <p/>
+     * 払い出し中のブロックを使い切った場合は、{@link IdGenerator}で採番を行い、新たなブロックを確保する。
+     *
+     * @param generator ブロックの確保に使用するジェネレーター
+     * @param generateId 採番対象ID
+     * @param idLength インスタンスIDの桁数
+     * @return インスタンスID
+     * @throws IllegalStateException 確保したブロックのIDが、インスタンスIDの桁数に収まらない場合
+     */
+    long allocate(IdGenerator generator, String generateId, int idLength) throws IllegalStateException {
+        while (true) {
+            Block current = block;
+            if (current != null) {
+                long id = current.next.getAndIncrement();
+                if (id < current.end) {
+                    return id;
+                }
+            }
+            synchronized (this) {
+                if (block == current) {
+                    block = reserve(generator, generateId, idLength);
+                }
+            }
+        }
+    }
+
+    /**
+     * 新たなブロックを確保する。
+     * <p/>
+     * ブロックの終端がlongの範囲を超える場合や、ブロック内の最大のIDがインスタンスIDの桁数を超える場合は、
+     * 既存のインスタンスIDと重複したり、切り詰められたりしないよう、ブロックを確保せずに例外を送出する。
+     *
+     * @param generator ジェネレーター
+     * @param generateId 採番対象ID
+     * @param idLength インスタンスIDの桁数
+     * @return 確保したブロック
+     * @throws IllegalStateException 採番した値が数値でない場合、またはブロックのIDがインスタンスIDの桁数に収まらない場合
+     */
+    private Block reserve(IdGenerator generator, String generateId, int idLength) throws IllegalStateException {
+        String hi = generator.generateId(generateId);
+        long value;
+        try {
+            value = Long.parseLong(hi);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException(String.format(
+                    "instance id generator must generate numeric id for block allocation. generated id = [%s]", hi), e);
+        }
+        if (value < 0 || value > Long.MAX_VALUE / blockSize - 1) {
+            throw new IllegalStateException(String.format(
+                    "instance id block overflowed. generated id = [%s], block size = [%d]", hi, blockSize));
+        }
+        long start = value * blockSize;
+        long end = start + blockSize;
+        if (String.valueOf(end - 1).length() > idLength) {
+            throw new IllegalStateException(String.format(
+                    "instance id block exceeded instance id length. generated id = [%s], block size = [%d], "
+                            + "instance id length = [%d]", hi, blockSize, idLength));
+        }
+        return new Block(start, end);
+    }
+
+    /**
+     * 確保したIDの範囲を表すクラス。
+     */
+    private static final class Block {
+
+        /** 次に払い出すID */
+        private final AtomicLong next;
+
+        /** 範囲の終端(このIDは含まない) */
+        private final long end;
+
+        /**
+         * ブロックを生成する。
+         *
+         * @param start 範囲の始端
+         * @param end 範囲の終端(このIDは含まない)
+         */
+        private Block(long start, long end) {
+            next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
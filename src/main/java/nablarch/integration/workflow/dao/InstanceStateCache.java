@@ -0,0 +1,224 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ユニットオブワーク内で参照したワークフローインスタンスの状態を保持するクラス(一次キャッシュ)。
+ * <p/>
+ * 以下の参照結果をインスタンスID単位に保持する。
+ * <ul>
+ * <li>タスク担当ユーザ(フローノードID単位)</li>
+ * <li>タスク担当グループ(フローノードID単位)</li>
+ * <li>アクティブフローノード</li>
+ * </ul>
+ * キャッシュはスレッド単位に管理し、ネストした場合は最も外側のユニットオブワークの終了時に破棄する。
+ * 保持している状態の整合性は、{@link WorkflowInstanceDao}が更新時に無効化(または置き換え)することで維持する。
+ *
+ * @since 1.4.2
+ */
+final class InstanceStateCache {
+
+    /** スレッドごとのキャッシュ */
+    private static final ThreadLocal<InstanceStateCache> CURRENT = new ThreadLocal<InstanceStateCache>();
+
+    /** インスタンスIDごとのタスク担当ユーザ(キーはフローノードID) */
+    private final Map<String, Map<String, List<TaskAssignedUserEntity>>> assignedUsers =
+            new HashMap<String, Map<String, List<TaskAssignedUserEntity>>>();
+
+    /** インスタンスIDごとのタスク担当グループ(キーはフローノードID) */
+    private final Map<String, Map<String, List<TaskAssignedGroupEntity>>> assignedGroups =
+            new HashMap<String, Map<String, List<TaskAssignedGroupEntity>>>();
+
+    /** インスタンスIDごとのアクティブフローノード */
+    private final Map<String, ActiveFlowNodeEntity> activeFlowNodes = new HashMap<String, ActiveFlowNodeEntity>();
+
+    /** ネストの深さ */
+    private int depth;
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private InstanceStateCache() {
+    }
+
+    /**
+     * 現在のスレッドのキャッシュを取得する。
+     *
+     * @return キャッシュ(ユニットオブワークが開始されていない場合はnull)
+     */
+    static InstanceStateCache current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 現在のスレッドでキャッシュを開始する。
+     * <p/>
+     * 既に開始されている場合は、ネストの深さのみを加算する。
+     */
+    static void begin() {
+        InstanceStateCache cache = CURRENT.get();
+        if (cache == null) {
+            cache = new InstanceStateCache();
+            CURRENT.set(cache);
+        }
+        cache.depth++;
+    }
+
+    /**
+     * 現在のスレッドのキャッシュを終了する。
+     * <p/>
+     * 最も外側のユニットオブワークの場合は、保持している状態を破棄する。
+     */
+    static void end() {
+        InstanceStateCache cache = CURRENT.get();
+        if (cache == null) {
+            return;
+        }
+        cache.depth--;
+        if (cache.depth <= 0) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * タスク担当ユーザを取得する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @return タスク担当ユーザ(保持していない場合はnull)
+     */
+    List<TaskAssignedUserEntity> getAssignedUsers(String instanceId, String flowNodeId) {
+        return get(assignedUsers, instanceId, flowNodeId);
+    }
+
+    /**
+     * タスク担当ユーザを保持する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param users タスク担当ユーザ
+     * @return 保持したタスク担当ユーザ(変更不可)
+     */
+    List<TaskAssignedUserEntity> putAssignedUsers(String instanceId, String flowNodeId, List<TaskAssignedUserEntity> users) {
+        return put(assignedUsers, instanceId, flowNodeId, users);
+    }
+
+    /**
+     * タスク担当グループを取得する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @return タスク担当グループ(保持していない場合はnull)
+     */
+    List<TaskAssignedGroupEntity> getAssignedGroups(String instanceId, String flowNodeId) {
+        return get(assignedGroups, instanceId, flowNodeId);
+    }
+
+    /**
+     * タスク担当グループを保持する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param groups タスク担当グループ
+     * @return 保持したタスク担当グループ(変更不可)
+     */
+    List<TaskAssignedGroupEntity> putAssignedGroups(String instanceId, String flowNodeId, List<TaskAssignedGroupEntity> groups) {
+        return put(assignedGroups, instanceId, flowNodeId, groups);
+    }
+
+    /**
+     * タスク担当ユーザ及びタスク担当グループを無効化する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     */
+    void invalidateAssigned(String instanceId, String flowNodeId) {
+        remove(assignedUsers, instanceId, flowNodeId);
+        remove(assignedGroups, instanceId, flowNodeId);
+    }
+
+    /**
+     * アクティブフローノードを取得する。
+     *
+     * @param instanceId インスタンスID
+     * @return アクティブフローノード(保持していない場合はnull)
+     */
+    ActiveFlowNodeEntity getActiveFlowNode(String instanceId) {
+        return activeFlowNodes.get(instanceId);
+    }
+
+    /**
+     * アクティブフローノードを保持する。
+     *
+     * @param activeFlowNode アクティブフローノード
+     */
+    void putActiveFlowNode(ActiveFlowNodeEntity activeFlowNode) {
+        activeFlowNodes.put(activeFlowNode.getInstanceId(), activeFlowNode);
+    }
+
+    /**
+     * インスタンスIDに紐づく全ての状態を無効化する。
+     *
+     * @param instanceId インスタンスID
+     */
+    void invalidateInstance(String instanceId) {
+        assignedUsers.remove(instanceId);
+        assignedGroups.remove(instanceId);
+        activeFlowNodes.remove(instanceId);
+    }
+
+    /**
+     * インスタンスID及びフローノードIDに紐づく値を取得する。
+     *
+     * @param cache キャッシュ
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param <T> 値の型
+     * @return 値(保持していない場合はnull)
+     */
+    private static <T> List<T> get(Map<String, Map<String, List<T>>> cache, String instanceId, String flowNodeId) {
+        Map<String, List<T>> values = cache.get(instanceId);
+        return (values == null) ? null : values.get(flowNodeId);
+    }
+
+    /**
+     * インスタンスID及びフローノードIDに紐づく値を保持する。
+     * <p/>
+     * 呼び出し元による変更がキャッシュに波及しないよう、変更不可のリストとして保持する。
+     *
+     * @param cache キャッシュ
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param value 値
+     * @param <T> 値の型
+     * @return 保持した値
+     */
+    private static <T> List<T> put(Map<String, Map<String, List<T>>> cache, String instanceId, String flowNodeId, List<T> value) {
+        Map<String, List<T>> values = cache.get(instanceId);
+        if (values == null) {
+            values = new HashMap<String, List<T>>();
+            cache.put(instanceId, values);
+        }
+        List<T> unmodifiable = Collections.unmodifiableList(value);
+        values.put(flowNodeId, unmodifiable);
+        return unmodifiable;
+    }
+
+    /**
+     * インスタンスID及びフローノードIDに紐づく値を破棄する。
+     *
+     * @param cache キャッシュ
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param <T> 値の型
+     */
+    private static <T> void remove(Map<String, Map<String, List<T>>> cache, String instanceId, String flowNodeId) {
+        Map<String, List<T>> values = cache.get(instanceId);
+        if (values != null) {
+            values.remove(flowNodeId);
+        }
+    }
+}
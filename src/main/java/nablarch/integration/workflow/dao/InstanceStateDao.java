@@ -0,0 +1,143 @@
+package nablarch.integration.workflow.dao;
+
+import nablarch.core.db.statement.SqlPStatement;
+import nablarch.core.db.statement.SqlResultSet;
+import nablarch.core.db.statement.SqlRow;
+
+/**
+ * ワークフローインスタンスの進行状態を、1回の検索でまとめて取得するクラス。
+ * <p/>
+ * インスタンステーブル(アクティブフローノードと結合)、アクティブユーザタスクテーブル、アクティブグループタスクテーブル、
+ * 担当ユーザテーブル及び担当グループテーブルを{@code UNION ALL}で連結した1つのSELECT文で取得する。
+ * 各行は種別カラムで取得元のテーブルを識別し、以下の汎用カラムに値を格納する。
+ * NULLリテラルを使用するとデータベースによっては型の不一致となるため、全ての行で実カラムの値を格納する。
+ * <pre>
+ * 種別  KEY1           KEY2                   NUM
+ * IN    ワークフローID   アクティブフローノードID   バージョン
+ * AU    フローノードID   ユーザID                実行順
+ * AG    フローノードID   グループID              実行順
+ * TU    フローノードID   ユーザID                実行順
+ * TG    フローノードID   グループID              実行順
+ * </pre>
+ *
+ * @since 1.4.2
+ */
+public class InstanceStateDao extends DaoSupport {
+
+    /** 種別: インスタンス */
+    private static final String KIND_INSTANCE = "IN";
+
+    /** 種別: アクティブユーザタスク */
+    private static final String KIND_ACTIVE_USER = "AU";
+
+    /** 種別: アクティブグループタスク */
+    private static final String KIND_ACTIVE_GROUP = "AG";
+
+    /** 種別: 担当ユーザ */
+    private static final String KIND_ASSIGNED_USER = "TU";
+
+    /** 種別: 担当グループ */
+    private static final String KIND_ASSIGNED_GROUP = "TG";
+
+    /** テーブル定義情報 */
+    private final WorkflowInstanceSchema schema;
+
+    /** SELECT文 */
+    private final String selectSql;
+
+    /**
+     * ワークフローインスタンスの進行状態の取得クラスを生成する。
+     *
+     * @param schema テーブル定義情報
+     */
+    public InstanceStateDao(WorkflowInstanceSchema schema) {
+        this.schema = schema;
+        selectSql = createSelectSql();
+    }
+
+    /**
+     * インスタンスIDに紐づくワークフローインスタンスの進行状態を取得する。
+     *
+     * @param instanceId インスタンスID
+     * @return 進行状態(インスタンスが存在しない場合はnull)
+     */
+    public InstanceStateEntity find(String instanceId) {
+        SqlPStatement statement = createStatement(selectSql);
+        for (int i = 1; i <= 5; i++) {
+            statement.setString(i, instanceId);
+        }
+        SqlResultSet rows = statement.retrieve();
+
+        InstanceStateEntity state = null;
+        for (SqlRow row : rows) {
+            if (KIND_INSTANCE.equals(row.getString("ROW_KIND"))) {
+                state = new InstanceStateEntity(
+                        instanceId, row.getString("KEY1"), row.getBigDecimal("NUM").longValue(), row.getString("KEY2"));
+            }
+        }
+        if (state == null) {
+            return null;
+        }
+
+        for (SqlRow row : rows) {
+            String kind = row.getString("ROW_KIND");
+            String flowNodeId = row.getString("KEY1");
+            String assignee = row.getString("KEY2");
+            int executionOrder = row.getBigDecimal("NUM").intValue();
+            if (KIND_ACTIVE_USER.equals(kind)) {
+                state.addActiveUserTask(new ActiveUserTaskEntity(instanceId, flowNodeId, assignee, executionOrder));
+            } else if (KIND_ACTIVE_GROUP.equals(kind)) {
+                state.addActiveGroupTask(new ActiveGroupTaskEntity(instanceId, flowNodeId, assignee, executionOrder));
+            } else if (KIND_ASSIGNED_USER.equals(kind)) {
+                state.addAssignedUser(new TaskAssignedUserEntity(instanceId, flowNodeId, assignee, executionOrder));
+            } else if (KIND_ASSIGNED_GROUP.equals(kind)) {
+                state.addAssignedGroup(new TaskAssignedGroupEntity(instanceId, flowNodeId, assignee, executionOrder));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * SELECT文を生成する。
+     * <p/>
+     * 担当ユーザ及び担当グループを実行順に取得するため、種別、実行順の順にソートする。
+     *
+     * @return 生成したSQL文
+     */
+    private String createSelectSql() {
+        String templateSql = "SELECT '" + KIND_INSTANCE + "' ROW_KIND, I.#workflowId# KEY1, A.#flowNodeId# KEY2, I.#version# NUM"
+                + " FROM #instanceTableName# I"
+                + " INNER JOIN #activeFlowNodeTableName# A ON A.#instanceId# = I.#instanceId#"
+                + " WHERE I.#instanceId# = ?"
+                + " UNION ALL"
+                + " SELECT '" + KIND_ACTIVE_USER + "', #flowNodeId#, #userId#, #executionOrder#"
+                + " FROM #activeUserTaskTableName# WHERE #instanceId# = ?"
+                + " UNION ALL"
+                + " SELECT '" + KIND_ACTIVE_GROUP + "', #flowNodeId#, #groupId#, #executionOrder#"
+                + " FROM #activeGroupTaskTableName# WHERE #instanceId# = ?"
+                + " UNION ALL"
+                + " SELECT '" + KIND_ASSIGNED_USER + "', T.#flowNodeId#, T.#userId#, T.#executionOrder#"
+                + " FROM #assignedUserTableName# T"
+                + " INNER JOIN #activeFlowNodeTableName# A ON A.#instanceId# = T.#instanceId# AND A.#flowNodeId# = T.#flowNodeId#"
+                + " WHERE T.#instanceId# = ?"
+                + " UNION ALL"
+                + " SELECT '" + KIND_ASSIGNED_GROUP + "', T.#flowNodeId#, T.#groupId#, T.#executionOrder#"
+                + " FROM #assignedGroupTableName# T"
+                + " INNER JOIN #activeFlowNodeTableName# A ON A.#instanceId# = T.#instanceId# AND A.#flowNodeId# = T.#flowNodeId#"
+                + " WHERE T.#instanceId# = ?"
+                + " ORDER BY ROW_KIND, NUM";
+        return templateSql.replaceAll("#instanceTableName#", schema.getInstanceTableName())
+                .replaceAll("#activeFlowNodeTableName#", schema.getActiveFlowNodeTableName())
+                .replaceAll("#activeUserTaskTableName#", schema.getActiveUserTaskTableName())
+                .replaceAll("#activeGroupTaskTableName#", schema.getActiveGroupTaskTableName())
+                .replaceAll("#assignedUserTableName#", schema.getAssignedUserTableName())
+                .replaceAll("#assignedGroupTableName#", schema.getAssignedGroupTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#userId#", schema.getAssignedUserColumnName())
+                .replaceAll("#groupId#", schema.getAssignedGroupColumnName())
+                .replaceAll("#executionOrder#", schema.getExecutionOrderColumnName());
+    }
+}
@@ -0,0 +1,117 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * ワークフローインスタンスの進行状態をまとめて保持するエンティティ。
+ * <p/>
+ * アクティブフローノードを含むインスタンス情報に加えて、以下の情報を保持する。
+ * <ul>
+ * <li>アクティブユーザタスク</li>
+ * <li>アクティブグループタスク</li>
+ * <li>アクティブフローノードの担当ユーザ(実行順)</li>
+ * <li>アクティブフローノードの担当グループ(実行順)</li>
+ * </ul>
+ *
+ * @since 1.4.2
+ */
+public class InstanceStateEntity extends InstanceActiveFlowNodeEntity {
+
+    /** アクティブユーザタスク */
+    private final List<ActiveUserTaskEntity> activeUserTasks = new ArrayList<ActiveUserTaskEntity>();
+
+    /** アクティブグループタスク */
+    private final List<ActiveGroupTaskEntity> activeGroupTasks = new ArrayList<ActiveGroupTaskEntity>();
+
+    /** アクティブフローノードの担当ユーザ */
+    private final List<TaskAssignedUserEntity> assignedUsers = new ArrayList<TaskAssignedUserEntity>();
+
+    /** アクティブフローノードの担当グループ */
+    private final List<TaskAssignedGroupEntity> assignedGroups = new ArrayList<TaskAssignedGroupEntity>();
+
+    /**
+     * ワークフローインスタンスの進行状態を生成する。
+     *
+     * @param instanceId インスタンスID
+     * @param workflowId ワークフローID
+     * @param version バージョン
+     * @param flowNodeId アクティブフローノードのフローノードID
+     */
+    public InstanceStateEntity(String instanceId, String workflowId, long version, String flowNodeId) {
+        super(instanceId, workflowId, version, flowNodeId);
+    }
+
+    /**
+     * アクティブユーザタスクを取得する。
+     *
+     * @return アクティブユーザタスク(変更不可)
+     */
+    public List<ActiveUserTaskEntity> getActiveUserTasks() {
+        return Collections.unmodifiableList(activeUserTasks);
+    }
+
+    /**
+     * アクティブグループタスクを取得する。
+     *
+     * @return アクティブグループタスク(変更不可)
+     */
+    public List<ActiveGroupTaskEntity> getActiveGroupTasks() {
+        return Collections.unmodifiableList(activeGroupTasks);
+    }
+
+    /**
+     * アクティブフローノードの担当ユーザを、実行順に取得する。
+     *
+     * @return 担当ユーザ(変更不可)
+     */
+    public List<TaskAssignedUserEntity> getAssignedUsers() {
+        return Collections.unmodifiableList(assignedUsers);
+    }
+
+    /**
+     * アクティブフローノードの担当グループを、実行順に取得する。
+     *
+     * @return 担当グループ(変更不可)
+     */
+    public List<TaskAssignedGroupEntity> getAssignedGroups() {
+        return Collections.unmodifiableList(assignedGroups);
+    }
+
+    /**
+     * アクティブユーザタスクを追加する。
+     *
+     * @param activeUserTask アクティブユーザタスク
+     */
+    void addActiveUserTask(ActiveUserTaskEntity activeUserTask) {
+        activeUserTasks.add(activeUserTask);
+    }
+
+    /**
+     * アクティブグループタスクを追加する。
+     *
+     * @param activeGroupTask アクティブグループタスク
+     */
+    void addActiveGroupTask(ActiveGroupTaskEntity activeGroupTask) {
+        activeGroupTasks.add(activeGroupTask);
+    }
+
+    /**
+     * 担当ユーザを追加する。
+     *
+     * @param assignedUser 担当ユーザ
+     */
+    void addAssignedUser(TaskAssignedUserEntity assignedUser) {
+        assignedUsers.add(assignedUser);
+    }
+
+    /**
+     * 担当グループを追加する。
+     *
+     * @param assignedGroup 担当グループ
+     */
+    void addAssignedGroup(TaskAssignedGroupEntity assignedGroup) {
+        assignedGroups.add(assignedGroup);
+    }
+}
@@ -0,0 +1,71 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * MERGE文によりUPSERTを行う{@link UpsertDialect}実装クラス。
+ * <p/>
+ * 以下の形式のSQL文を生成する。
+ * <pre>
+ * MERGE INTO テーブル USING (SELECT ? AS キー項目, ? AS 値項目 [FROM ダミーテーブル]) SRC
+ *   ON (テーブル.キー項目 = SRC.キー項目)
+ *   WHEN MATCHED THEN UPDATE SET 値項目 = SRC.値項目
+ *   WHEN NOT MATCHED THEN INSERT (キー項目, 値項目) VALUES (SRC.キー項目, SRC.値項目)
+ * </pre>
+ * FROM句が必須のデータベース(Oracleなど)では、{@link #setDualTableName(String)}にダミーテーブル名(DUALなど)を設定すること。
+ *
+ * @since 1.4.2
+ */
+public class MergeUpsertDialect implements UpsertDialect {
+
+    /** ダミーテーブル名 */
+    private String dualTableName;
+
+    @Override
+    public String createUpsertSql(String tableName, List<String> keyColumnNames, List<String> valueColumnNames) {
+        List<String> columnNames = new ArrayList<String>(keyColumnNames);
+        columnNames.addAll(valueColumnNames);
+
+        StringBuilder sql = new StringBuilder("MERGE INTO ").append(tableName).append(" USING (SELECT ");
+        for (int i = 0; i < columnNames.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("? AS ").append(columnNames.get(i));
+        }
+        if (dualTableName != null) {
+            sql.append(" FROM ").append(dualTableName);
+        }
+        sql.append(") SRC ON (");
+        for (int i = 0; i < keyColumnNames.size(); i++) {
+            String column = keyColumnNames.get(i);
+            sql.append(i == 0 ? "" : " AND ").append(tableName).append('.').append(column)
+               .append(" = SRC.").append(column);
+        }
+        sql.append(')');
+        if (!valueColumnNames.isEmpty()) {
+            sql.append(" WHEN MATCHED THEN UPDATE SET ");
+            for (int i = 0; i < valueColumnNames.size(); i++) {
+                String column = valueColumnNames.get(i);
+                sql.append(i == 0 ? "" : ", ").append(column).append(" = SRC.").append(column);
+            }
+        }
+        sql.append(" WHEN NOT MATCHED THEN INSERT (");
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < columnNames.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columnNames.get(i));
+            values.append(i == 0 ? "" : ", ").append("SRC.").append(columnNames.get(i));
+        }
+        sql.append(") VALUES (").append(values).append(')');
+        return sql.toString();
+    }
+
+    /**
+     * FROM句に指定するダミーテーブル名を設定する。
+     * <p/>
+     * 設定を省略した場合は、FROM句を出力しない。
+     *
+     * @param dualTableName ダミーテーブル名(例: DUAL、SYSIBM.SYSDUMMY1)
+     */
+    public void setDualTableName(String dualTableName) {
+        this.dualTableName = dualTableName;
+    }
+}
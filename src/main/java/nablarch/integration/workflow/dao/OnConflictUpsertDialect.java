@@ -0,0 +1,49 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * INSERT ... ON CONFLICT文によりUPSERTを行う{@link UpsertDialect}実装クラス。
+ * <p/>
+ * PostgreSQL(9.5以降)などで使用する。以下の形式のSQL文を生成する。
+ * <pre>
+ * INSERT INTO テーブル (キー項目, 値項目) VALUES (?, ?)
+ *   ON CONFLICT (キー項目) DO UPDATE SET 値項目 = EXCLUDED.値項目
+ * </pre>
+ * キー項目には、主キー(または一意制約)のカラムを指定すること。
+ * キー項目と完全に一致する主キーまたは一意制約が存在しない場合、データベースはSQL文の実行時にエラーとする。
+ * 例えば、アクティブフローノードテーブルはインスタンスIDをキー項目とするため、
+ * 主キー(インスタンスID, フローノードID)とは別に、インスタンスIDへの一意制約を定義すること。
+ *
+ * @since 1.4.2
+ */
+public class OnConflictUpsertDialect implements UpsertDialect {
+
+    @Override
+    public String createUpsertSql(String tableName, List<String> keyColumnNames, List<String> valueColumnNames) {
+        List<String> columnNames = new ArrayList<String>(keyColumnNames);
+        columnNames.addAll(valueColumnNames);
+
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(tableName).append(" (");
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < columnNames.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(columnNames.get(i));
+            values.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(") VALUES (").append(values).append(") ON CONFLICT (");
+        for (int i = 0; i < keyColumnNames.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append(keyColumnNames.get(i));
+        }
+        sql.append(')');
+        if (valueColumnNames.isEmpty()) {
+            return sql.append(" DO NOTHING").toString();
+        }
+        sql.append(" DO UPDATE SET ");
+        for (int i = 0; i < valueColumnNames.size(); i++) {
+            String column = valueColumnNames.get(i);
+            sql.append(i == 0 ? "" : ", ").append(column).append(" = EXCLUDED.").append(column);
+        }
+        return sql.toString();
+    }
+}
@@ -39,6 +39,9 @@ public class TaskAssignedGroupDao extends DaoSupport {
     /** DELETE文(主キーが条件) */
     private final String deleteByPkSql;
 
+    /** UPDATE文(主キーが条件) */
+    private final String updateByPkSql;
+
     /**
      * タスク担当グループテーブルアクセスを生成する。
      *
@@ -54,6 +57,12 @@ public class TaskAssignedGroupDao extends DaoSupport {
         deleteSql = createDeleteSql();
         deleteByInstanceIdAndFlowNodeIdSql = createDeleteAssignedGroupByInstanceIdAndFlowNodeIdSql();
         deleteByPkSql = createDeleteByPkSql();
+        updateByPkSql = createUpdateByPkSql();
+    }
+
+    @Override
+    protected String getTableName() {
+        return schema.getAssignedGroupTableName();
     }
 
     /**
@@ -134,15 +143,12 @@ public class TaskAssignedGroupDao extends DaoSupport {
      * @param groups 担当グループ
      */
     public void insert(String instanceId, String flowNodeId, List<String> groups) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setInt(4, 0);
+
+        List<Object[]> params = new ArrayList<Object[]>();
         for (String group : groups) {
-            statement.setString(3, group);
-            statement.addBatch();
+            params.add(new Object[] {instanceId, flowNodeId, group, 0});
         }
-        statement.executeBatch();
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -153,18 +159,13 @@ public class TaskAssignedGroupDao extends DaoSupport {
      * @param groups 担当グループ
      */
     public void insertSequential(String instanceId, String flowNodeId, List<String> groups) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-
+        List<Object[]> params = new ArrayList<Object[]>();
         int executionOrder = 0;
         for (String group : groups) {
             executionOrder++;
-            statement.setString(3, group);
-            statement.setInt(4, executionOrder);
-            statement.addBatch();
+            params.add(new Object[] {instanceId, flowNodeId, group, executionOrder});
         }
-        statement.executeBatch();
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -175,12 +176,7 @@ public class TaskAssignedGroupDao extends DaoSupport {
      * @param executionOrder 実行順
      */
     public void insert(String instanceId, String flowNodeId, String group, int executionOrder) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, group);
-        statement.setInt(4, executionOrder);
-        statement.executeUpdate();
+        executeInsert(insertSql, instanceId, flowNodeId, group, executionOrder);
     }
 
     /**
@@ -189,9 +185,7 @@ public class TaskAssignedGroupDao extends DaoSupport {
      * @param instanceId インスタンスID
      */
     public void delete(String instanceId) {
-        SqlPStatement statement = createStatement(deleteSql);
-        statement.setString(1, instanceId);
-        statement.executeUpdate();
+        executeDelete(deleteSql, instanceId);
     }
 
     /**
@@ -201,10 +195,7 @@ public class TaskAssignedGroupDao extends DaoSupport {
      * @param flowNodeId フローノードID
      */
     public void delete(String instanceId, String flowNodeId) {
-        SqlPStatement statement = createStatement(deleteByInstanceIdAndFlowNodeIdSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.executeUpdate();
+        executeDelete(deleteByInstanceIdAndFlowNodeIdSql, instanceId, flowNodeId);
     }
 
     /**
@@ -215,11 +206,21 @@ public class TaskAssignedGroupDao extends DaoSupport {
      * @param group グループ
      */
     public void delete(String instanceId, String flowNodeId, String group) {
-        SqlPStatement statement = createStatement(deleteByPkSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, group);
-        statement.executeUpdate();
+        executeDelete(deleteByPkSql, instanceId, flowNodeId, group);
+    }
+
+    /**
+     * 担当グループを別の担当グループに変更する。
+     * <p/>
+     * 実行順などの他の項目は変更しない。変更対象が存在しない場合は、何もしない。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param oldGroup 元の担当グループ
+     * @param newGroup 新しい担当グループ
+     */
+    public void update(String instanceId, String flowNodeId, String oldGroup, String newGroup) {
+        executeUpdate(updateByPkSql, newGroup, instanceId, flowNodeId, oldGroup);
     }
 
     /**
@@ -326,5 +327,20 @@ public class TaskAssignedGroupDao extends DaoSupport {
                 .replaceAll("#assignedGroup#", schema.getAssignedGroupColumnName());
     }
 
+    /**
+     * 主キーを条件に担当グループを変更するUPDATE文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createUpdateByPkSql() {
+        String templateSql = "UPDATE #tableName#"
+                + " SET #assignedGroup# = ?"
+                + " WHERE #instanceId# = ?"
+                + " AND #flowNodeId# = ?"
+                + " AND #assignedGroup# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getAssignedGroupTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#assignedGroup#", schema.getAssignedGroupColumnName());
+    }
 }
-
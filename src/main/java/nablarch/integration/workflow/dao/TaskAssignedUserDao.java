@@ -40,6 +40,9 @@ public class TaskAssignedUserDao extends DaoSupport {
     /** delete文(主キーが条件) */
     private final String deleteByPk;
 
+    /** UPDATE文(主キーが条件) */
+    private final String updateByPkSql;
+
 
     /**
      * タスク担当ユーザテーブルアクセスを生成する。
@@ -55,6 +58,12 @@ public class TaskAssignedUserDao extends DaoSupport {
         deleteSql = createDeleteSql();
         deleteByInstanceIdAndFlowNodeId = createDeleteByInstanceIdAndFlowNodeIdSql();
         deleteByPk = createDeleteByPkSql();
+        updateByPkSql = createUpdateByPkSql();
+    }
+
+    @Override
+    protected String getTableName() {
+        return schema.getAssignedUserTableName();
     }
 
     /**
@@ -130,15 +139,11 @@ public class TaskAssignedUserDao extends DaoSupport {
      * @param users 担当ユーザリスト
      */
     public void insert(String instanceId, String flowNodeId, Collection<String> users) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
+        List<Object[]> params = new ArrayList<Object[]>();
         for (String user : users) {
-            statement.setString(3, user);
-            statement.setInt(4, 0);
-            statement.addBatch();
+            params.add(new Object[] {instanceId, flowNodeId, user, 0});
         }
-        statement.executeBatch();
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -149,17 +154,13 @@ public class TaskAssignedUserDao extends DaoSupport {
      * @param users 担当ユーザリスト(格納順が実行順となる)
      */
     public void insertSequential(String instanceId, String flowNodeId, List<String> users) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
+        List<Object[]> params = new ArrayList<Object[]>();
         int executionOrder = 0;
         for (String user : users) {
-            statement.setString(3, user);
             executionOrder++;
-            statement.setInt(4, executionOrder);
-            statement.addBatch();
+            params.add(new Object[] {instanceId, flowNodeId, user, executionOrder});
         }
-        statement.executeBatch();
+        executeBatchInsert(insertSql, params);
     }
 
     /**
@@ -171,12 +172,7 @@ public class TaskAssignedUserDao extends DaoSupport {
      * @param executionOrder 実行順
      */
     public void insert(String instanceId, String flowNodeId, String user, int executionOrder) {
-        SqlPStatement statement = createStatement(insertSql);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, user);
-        statement.setInt(4, executionOrder);
-        statement.executeUpdate();
+        executeInsert(insertSql, instanceId, flowNodeId, user, executionOrder);
     }
 
     /**
@@ -185,9 +181,7 @@ public class TaskAssignedUserDao extends DaoSupport {
      * @param instanceId インスタンスID
      */
     public void delete(String instanceId) {
-        SqlPStatement statement = createStatement(deleteSql);
-        statement.setString(1, instanceId);
-        statement.executeUpdate();
+        executeDelete(deleteSql, instanceId);
     }
 
     /**
@@ -197,10 +191,7 @@ public class TaskAssignedUserDao extends DaoSupport {
      * @param flowNodeId フローノードID
      */
     public void delete(String instanceId, String flowNodeId) {
-        SqlPStatement statement = createStatement(deleteByInstanceIdAndFlowNodeId);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.executeUpdate();
+        executeDelete(deleteByInstanceIdAndFlowNodeId, instanceId, flowNodeId);
     }
 
     /**
@@ -211,11 +202,21 @@ public class TaskAssignedUserDao extends DaoSupport {
      * @param user ユーザ
      */
     public void delete(String instanceId, String flowNodeId, String user) {
-        SqlPStatement statement = createStatement(deleteByPk);
-        statement.setString(1, instanceId);
-        statement.setString(2, flowNodeId);
-        statement.setString(3, user);
-        statement.executeUpdate();
+        executeDelete(deleteByPk, instanceId, flowNodeId, user);
+    }
+
+    /**
+     * 担当ユーザを別の担当ユーザに変更する。
+     * <p/>
+     * 実行順などの他の項目は変更しない。変更対象が存在しない場合は、何もしない。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param oldUser 元の担当ユーザ
+     * @param newUser 新しい担当ユーザ
+     */
+    public void update(String instanceId, String flowNodeId, String oldUser, String newUser) {
+        executeUpdate(updateByPkSql, newUser, instanceId, flowNodeId, oldUser);
     }
 
     /**
@@ -328,6 +329,20 @@ public class TaskAssignedUserDao extends DaoSupport {
                 .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName());
     }
 
+    /**
+     * 主キーを条件に担当ユーザを変更するUPDATE文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createUpdateByPkSql() {
+        String templateSql = "UPDATE #tableName#"
+                + " SET #assignedUser# = ?"
+                + " WHERE #instanceId# = ?"
+                + " AND #flowNodeId# = ?"
+                + " AND #assignedUser# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getAssignedUserTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#assignedUser#", schema.getAssignedUserColumnName());
+    }
 }
-
-
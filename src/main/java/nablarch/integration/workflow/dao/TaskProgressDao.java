@@ -0,0 +1,234 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.Arrays;
+
+import nablarch.core.db.statement.SqlPStatement;
+import nablarch.core.db.statement.SqlResultSet;
+import nablarch.core.db.statement.SqlRow;
+
+/**
+ * タスク進捗テーブルアクセスクラス。
+ * <p/>
+ * タスク進捗テーブルは、インスタンスIDとフローノードIDごとに、担当数と処理済み数を保持する。
+ * 処理済み数は、アクティブタスクの完了と同時に加算するため、終了条件の判定では本テーブルの1レコードを参照するだけでよい。
+ *
+ * @since 1.4.2
+ */
+public class TaskProgressDao extends DaoSupport {
+
+    /** テーブル定義情報 */
+    private final WorkflowInstanceSchema schema;
+
+    /** SELECT文 */
+    private final String selectSql;
+
+    /** INSERT文 */
+    private final String insertSql;
+
+    /** DELETE文 */
+    private final String deleteSql;
+
+    /** DELETE文(インスタンスIDとフローノードIDが条件) */
+    private final String deleteByPkSql;
+
+    /** 未処理数を設定するUPDATE文 */
+    private final String updateRemainingSql;
+
+    /** 処理済み数を加算するUPDATE文 */
+    private final String incrementCompletedSql;
+
+    /** UPSERT文(ダイアレクトが指定されていない場合はnull) */
+    private final String upsertSql;
+
+    /**
+     * タスク進捗テーブルアクセスを生成する。
+     *
+     * @param schema テーブル定義情報
+     * @param upsertDialect UPSERT文を生成するダイアレクト(nullの場合は削除後に登録を行う)
+     */
+    public TaskProgressDao(WorkflowInstanceSchema schema, UpsertDialect upsertDialect) {
+        this.schema = schema;
+        selectSql = createSelectSql();
+        insertSql = createInsertSql();
+        deleteSql = createDeleteSql();
+        deleteByPkSql = createDeleteByPkSql();
+        updateRemainingSql = createUpdateRemainingSql();
+        incrementCompletedSql = createIncrementCompletedSql();
+        upsertSql = (upsertDialect == null) ? null : upsertDialect.createUpsertSql(
+                schema.getTaskProgressTableName(),
+                Arrays.asList(schema.getInstanceIdColumnName(), schema.getFlowNodeIdColumnName()),
+                Arrays.asList(schema.getAssignedCountColumnName(), schema.getCompletedCountColumnName()));
+    }
+
+    @Override
+    protected String getTableName() {
+        return schema.getTaskProgressTableName();
+    }
+
+    /**
+     * タスク進捗を取得する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @return タスク進捗(存在しない場合はnull)
+     */
+    public TaskProgressEntity find(String instanceId, String flowNodeId) {
+        SqlPStatement statement = createStatement(selectSql);
+        statement.setString(1, instanceId);
+        statement.setString(2, flowNodeId);
+        SqlResultSet resultSet = statement.retrieve();
+        if (resultSet.isEmpty()) {
+            return null;
+        }
+        SqlRow row = resultSet.get(0);
+        return new TaskProgressEntity(
+                row.getString(schema.getInstanceIdColumnName()),
+                row.getString(schema.getFlowNodeIdColumnName()),
+                row.getBigDecimal(schema.getAssignedCountColumnName()).intValue(),
+                row.getBigDecimal(schema.getCompletedCountColumnName()).intValue()
+        );
+    }
+
+    /**
+     * 担当数を登録する。既に登録されている場合は置き換える。
+     * <p/>
+     * 登録時点ではアクティブタスクが存在しないため、処理済み数には担当数と同じ値を登録する。
+     * ダイアレクトが指定されている場合はUPSERT文1文で、指定されていない場合は削除後に登録を行う。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param assignedCount 担当数
+     */
+    public void save(String instanceId, String flowNodeId, int assignedCount) {
+        if (upsertSql == null) {
+            executeDelete(deleteByPkSql, instanceId, flowNodeId);
+            executeInsert(insertSql, instanceId, flowNodeId, assignedCount, assignedCount);
+        } else {
+            executeUpsert(upsertSql, instanceId, flowNodeId, assignedCount, assignedCount);
+        }
+    }
+
+    /**
+     * 未処理数を設定する。処理済み数は、担当数から未処理数を引いた値となる。
+     * <p/>
+     * アクティブタスクを作成した際に、作成したアクティブタスクの数を指定して呼び出す。
+     * タスク進捗が存在しない場合は、何もしない。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param remainingCount 未処理数
+     */
+    public void updateRemaining(String instanceId, String flowNodeId, int remainingCount) {
+        executeUpdate(updateRemainingSql, remainingCount, instanceId, flowNodeId);
+    }
+
+    /**
+     * 処理済み数を1加算する。
+     * <p/>
+     * 加算はデータベース上で行うため、複数の担当者が同時にタスクを完了させた場合でも、処理済み数が失われることはない。
+     * タスク進捗が存在しない場合は、何もしない。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     */
+    public void incrementCompleted(String instanceId, String flowNodeId) {
+        executeUpdate(incrementCompletedSql, instanceId, flowNodeId);
+    }
+
+    /**
+     * インスタンスIDに紐づくタスク進捗を削除する。
+     *
+     * @param instanceId インスタンスID
+     */
+    public void delete(String instanceId) {
+        executeDelete(deleteSql, instanceId);
+    }
+
+    /**
+     * SELECT文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createSelectSql() {
+        String templateSql = "SELECT * FROM #tableName# WHERE #instanceId# = ? AND #flowNodeId# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getTaskProgressTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName());
+    }
+
+    /**
+     * INSERT文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createInsertSql() {
+        String templateSql = "INSERT INTO #tableName# ("
+                + " #instanceId#,"
+                + " #flowNodeId#,"
+                + " #assignedCount#,"
+                + " #completedCount#"
+                + " ) VALUES ("
+                + " ?, ?, ?, ?)";
+        return templateSql.replaceAll("#tableName#", schema.getTaskProgressTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#assignedCount#", schema.getAssignedCountColumnName())
+                .replaceAll("#completedCount#", schema.getCompletedCountColumnName());
+    }
+
+    /**
+     * DELETE文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createDeleteSql() {
+        String templateSql = "DELETE FROM #tableName# WHERE #instanceId# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getTaskProgressTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName());
+    }
+
+    /**
+     * DELETE文(インスタンスIDとフローノードIDが条件)を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createDeleteByPkSql() {
+        String templateSql = "DELETE FROM #tableName# WHERE #instanceId# = ? AND #flowNodeId# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getTaskProgressTableName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName());
+    }
+
+    /**
+     * 未処理数を設定するUPDATE文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createUpdateRemainingSql() {
+        String templateSql = "UPDATE #tableName#"
+                + " SET #completedCount# = #assignedCount# - ?"
+                + " WHERE #instanceId# = ?"
+                + " AND #flowNodeId# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getTaskProgressTableName())
+                .replaceAll("#completedCount#", schema.getCompletedCountColumnName())
+                .replaceAll("#assignedCount#", schema.getAssignedCountColumnName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName());
+    }
+
+    /**
+     * 処理済み数を加算するUPDATE文を生成する。
+     *
+     * @return 生成したSQL文
+     */
+    private String createIncrementCompletedSql() {
+        String templateSql = "UPDATE #tableName#"
+                + " SET #completedCount# = #completedCount# + 1"
+                + " WHERE #instanceId# = ?"
+                + " AND #flowNodeId# = ?";
+        return templateSql.replaceAll("#tableName#", schema.getTaskProgressTableName())
+                .replaceAll("#completedCount#", schema.getCompletedCountColumnName())
+                .replaceAll("#instanceId#", schema.getInstanceIdColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName());
+    }
+}
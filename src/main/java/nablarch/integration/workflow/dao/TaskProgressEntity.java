@@ -0,0 +1,83 @@
+package nablarch.integration.workflow.dao;
+
+/**
+ * タスク進捗エンティティ。
+ * <p/>
+ * タスクの担当数(担当ユーザ数または担当グループ数)と、そのうち処理済みの数を保持する。
+ *
+ * @since 1.4.2
+ */
+public class TaskProgressEntity {
+
+    /** インスタンスID */
+    private final String instanceId;
+
+    /** フローノードID */
+    private final String flowNodeId;
+
+    /** 担当数 */
+    private final int assignedCount;
+
+    /** 処理済み数 */
+    private final int completedCount;
+
+    /**
+     * タスク進捗エンティティを生成する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param assignedCount 担当数
+     * @param completedCount 処理済み数
+     */
+    public TaskProgressEntity(String instanceId, String flowNodeId, int assignedCount, int completedCount) {
+        this.instanceId = instanceId;
+        this.flowNodeId = flowNodeId;
+        this.assignedCount = assignedCount;
+        this.completedCount = completedCount;
+    }
+
+    /**
+     * インスタンスIDを取得する。
+     *
+     * @return インスタンスID
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * フローノードIDを取得する。
+     *
+     * @return フローノードID
+     */
+    public String getFlowNodeId() {
+        return flowNodeId;
+    }
+
+    /**
+     * 担当数を取得する。
+     *
+     * @return 担当数
+     */
+    public int getAssignedCount() {
+        return assignedCount;
+    }
+
+    /**
+     * 処理済み数を取得する。
+     *
+     * @return 処理済み数
+     */
+    public int getCompletedCount() {
+        return completedCount;
+    }
+
+    /**
+     * 全ての担当者が処理済みか否か。
+     *
+     * @return 未処理の担当者が存在しない場合はtrue
+     */
+    public boolean isAllCompleted() {
+        return completedCount >= assignedCount;
+    }
+}
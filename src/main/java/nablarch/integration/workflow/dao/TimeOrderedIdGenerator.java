@@ -0,0 +1,149 @@
+package nablarch.integration.workflow.dao;
+
+import nablarch.common.idgenerator.IdFormatter;
+import nablarch.common.idgenerator.IdGenerator;
+import nablarch.core.util.StringUtil;
+
+/**
+ * 時刻順に並ぶIDを、データベースにアクセスせずに採番するクラス。
+ * <p/>
+ * 以下の値を上位ビットから順に連結した63ビットの値を、19桁の10進数文字列(前ゼロ埋め)として採番する。
+ * <ul>
+ * <li>基準時刻からの経過ミリ秒(41ビット)</li>
+ * <li>ノードID(10ビット)</li>
+ * <li>同一ミリ秒内の連番(12ビット)</li>
+ * </ul>
+ * ノードIDをプロセスごとに重複しないよう設定することで、プロセス間で調整することなく一意なIDを採番できる。
+ * 採番したIDは文字列としても数値としても採番順(時刻順)に並ぶため、インスタンステーブルへの登録は常に索引の末尾への追加となる。
+ * <p/>
+ * 採番対象IDは採番結果に影響しない。
+ * インスタンスIDの採番に使用する場合は、{@link WorkflowInstanceDao#setInstanceIdLength(int)}に19以上の値を設定し、
+ * インスタンスIDのカラム長もそれに合わせること。
+ *
+ * @since 1.4.2
+ */
+public class TimeOrderedIdGenerator implements IdGenerator {
+
+    /** 基準時刻のデフォルト値(2014-01-01T00:00:00Z) */
+    private static final long DEFAULT_EPOCH = 1388534400000L;
+
+    /** ノードIDのビット数 */
+    private static final int NODE_ID_BITS = 10;
+
+    /** 連番のビット数 */
+    private static final int SEQUENCE_BITS = 12;
+
+    /** ノードIDの最大値 */
+    private static final int MAX_NODE_ID = (1 << NODE_ID_BITS) - 1;
+
+    /** 連番の最大値 */
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+
+    /** 採番するIDの桁数 */
+    private static final int ID_LENGTH = String.valueOf(Long.MAX_VALUE).length();
+
+    /** 基準時刻(エポックミリ秒) */
+    private long epoch = DEFAULT_EPOCH;
+
+    /** ノードID(未設定の場合は-1) */
+    private int nodeId = -1;
+
+    /** 最後に採番した時刻(基準時刻からの経過ミリ秒) */
+    private long lastTimestamp = -1L;
+
+    /** 最後に採番した連番 */
+    private int sequence;
+
+    /**
+     * IDを採番する。
+     *
+     * @param id 採番対象ID(採番結果には影響しない)
+     * @return 採番したID
+     */
+    @Override
+    public String generateId(String id) {
+        return StringUtil.lpad(String.valueOf(nextId()), ID_LENGTH, '0');
+    }
+
+    /**
+     * IDを採番し、フォーマッタでフォーマットする。
+     *
+     * @param id 採番対象ID(採番結果には影響しない)
+     * @param formatter フォーマッタ(nullの場合はフォーマットしない)
+     * @return 採番したID
+     */
+    @Override
+    public String generateId(String id, IdFormatter formatter) {
+        String generated = generateId(id);
+        return (formatter == null) ? generated : formatter.format(id, generated);
+    }
+
+    /**
+     * 次のIDを生成する。
+     * <p/>
+     * システム時刻が最後に採番した時刻より戻った場合は、最後に採番した時刻を使用して採番を継続する。
+     * 同一ミリ秒内の連番を使い切った場合は、システム時刻が進むのを待たずに、最後に採番した時刻の次のミリ秒を使用する。
+     * これにより、システム時刻が戻っている間に連番を使い切った場合でも、ロックを保持したまま待機し続けることはない。
+     *
+     * @return 生成したID
+     */
+    private synchronized long nextId() {
+        if (nodeId < 0) {
+            throw new IllegalStateException("node id was not set. must set node id before generating id.");
+        }
+        long timestamp = Math.max(currentTimeMillis() - epoch, lastTimestamp);
+        if (timestamp < 0) {
+            throw new IllegalStateException(String.format(
+                    "current time must be after the epoch. epoch = [%d], current time = [%d]", epoch, currentTimeMillis()));
+        }
+        if (timestamp == lastTimestamp) {
+            if (sequence == MAX_SEQUENCE) {
+                timestamp = lastTimestamp + 1;
+                sequence = 0;
+            } else {
+                sequence++;
+            }
+        } else {
+            sequence = 0;
+        }
+        lastTimestamp = timestamp;
+        return (timestamp << (NODE_ID_BITS + SEQUENCE_BITS)) | ((long) nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    /**
+     * 現在時刻(エポックミリ秒)を取得する。
+     *
+     * @return 現在時刻
+     */
+    protected long currentTimeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    /**
+     * ノードIDを設定する。
+     * <p/>
+     * 同時に採番を行うプロセス間で重複しない値(0から1023)を設定すること。
+     *
+     * @param nodeId ノードID
+     */
+    public void setNodeId(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException(String.format(
+                    "node id must be between 0 and %d. node id = [%d]", MAX_NODE_ID, nodeId));
+        }
+        this.nodeId = nodeId;
+    }
+
+    /**
+     * 基準時刻(エポックミリ秒)を設定する。
+     * <p/>
+     * 基準時刻から約69年間、採番を行うことができる。
+     * 運用開始後に変更した場合、採番済みのIDと重複する可能性があるため、変更しないこと。
+     * デフォルトは2014-01-01T00:00:00Z。
+     *
+     * @param epoch 基準時刻
+     */
+    public void setEpoch(long epoch) {
+        this.epoch = epoch;
+    }
+}
@@ -0,0 +1,24 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.List;
+
+/**
+ * 登録または更新(UPSERT)を1文で行うSQL文を生成するダイアレクト。
+ * <p/>
+ * データベース製品ごとに異なるUPSERTの構文(MERGE文、INSERT ... ON CONFLICTなど)を吸収する。
+ * 生成するSQL文のバインド変数は、キー項目、値項目の順に、それぞれ引数で指定されたカラムの順とすること。
+ *
+ * @since 1.4.2
+ */
+public interface UpsertDialect {
+
+    /**
+     * UPSERT文を生成する。
+     *
+     * @param tableName テーブル名
+     * @param keyColumnNames キー項目のカラム名
+     * @param valueColumnNames 値項目のカラム名
+     * @return 生成したSQL文
+     */
+    String createUpsertSql(String tableName, List<String> keyColumnNames, List<String> valueColumnNames);
+}
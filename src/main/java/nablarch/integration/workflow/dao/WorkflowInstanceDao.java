@@ -1,6 +1,10 @@
 package nablarch.integration.workflow.dao;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import nablarch.common.idgenerator.IdGenerator;
 import nablarch.core.repository.initialization.Initializable;
@@ -17,6 +21,9 @@ import nablarch.integration.workflow.definition.Task;
  */
 public class WorkflowInstanceDao implements Initializable {
 
+    /** IN句に1回で指定するインスタンスIDの最大数 */
+    private static final int MAX_IN_LIST_SIZE = 1000;
+
     /** インスタンステーブル定義 */
     private WorkflowInstanceSchema workflowInstanceSchema;
 
@@ -29,6 +36,9 @@ public class WorkflowInstanceDao implements Initializable {
     /** インスタンスIDを採番するために使用する採番対象ID */
     private String instanceIdGenerateId;
 
+    /** インスタンスIDをブロック単位に払い出すクラス(ブロック単位に確保しない場合はnull) */
+    private InstanceIdBlockAllocator instanceIdBlockAllocator;
+
     /** インスタンステーブルアクセス */
     private InstanceDao instanceDao;
 
@@ -50,6 +60,67 @@ public class WorkflowInstanceDao implements Initializable {
     /** アクティブグループタスク */
     private ActiveGroupTaskDao activeGroupTaskDao;
 
+    /** アクティブタスク検索 */
+    private ActiveTaskDao activeTaskDao;
+
+    /** 進行状態の一括取得 */
+    private InstanceStateDao instanceStateDao;
+
+    /** タスク進捗テーブルアクセス(タスク進捗を管理しない場合はnull) */
+    private TaskProgressDao taskProgressDao;
+
+    /** ユニットオブワーク内の更新をまとめて反映するか否か */
+    private boolean writeBehind;
+
+    /** ユニットオブワーク内の参照結果をキャッシュするか否か */
+    private boolean readCache;
+
+    /** UPSERT文を生成するダイアレクト */
+    private UpsertDialect upsertDialect;
+
+    /**
+     * ユニットオブワークを開始する。
+     * <p/>
+     * {@link #setWriteBehind(boolean)}に{@code true}が設定されている場合、
+     * {@link #endUnitOfWork(boolean)}までの間に行われた登録・削除はメモリ上に保持され、
+     * 冗長な削除・登録を取り除いた上で、ユニットオブワークの終了時にまとめて反映される。
+     * 保持中の更新は、更新対象のテーブルを参照する前に反映されるため、参照結果は即時に更新した場合と変わらない。
+     * <p/>
+     * {@link #setReadCache(boolean)}に{@code true}が設定されている場合、
+     * {@link #endUnitOfWork(boolean)}までの間は、タスク担当ユーザ、タスク担当グループ及びアクティブフローノードの参照結果を
+     * インスタンスID単位にキャッシュし、同じ参照ではデータベースにアクセスしない。
+     * キャッシュは本クラスを通じた更新時に無効化(または置き換え)されるため、参照結果は更新と矛盾しない。
+     * <p/>
+     * ユニットオブワークはスレッド単位に管理し、ネストした場合は最も外側のユニットオブワークの終了時に反映する。
+     * {@code writeBehind}と{@code readCache}がいずれも{@code false}の場合は、本メソッドは何もしない。
+     */
+    public void beginUnitOfWork() {
+        if (writeBehind) {
+            WriteBehindUnitOfWork.begin();
+        }
+        if (readCache) {
+            InstanceStateCache.begin();
+        }
+    }
+
+    /**
+     * ユニットオブワークを終了する。
+     * <p/>
+     * 最も外側のユニットオブワークの場合、処理が成功していれば保持している更新を反映し、失敗していれば破棄する。
+     * (失敗時はトランザクションがロールバックされることを前提とする。)
+     * 参照結果のキャッシュは、処理の成否に関わらず破棄する。
+     *
+     * @param success 処理が成功した場合は{@code true}
+     */
+    public void endUnitOfWork(boolean success) {
+        if (readCache) {
+            InstanceStateCache.end();
+        }
+        if (writeBehind) {
+            WriteBehindUnitOfWork.end(success);
+        }
+    }
+
     /**
      * ワークフローインスタンの進行状態を登録する。
      *
@@ -59,13 +130,54 @@ public class WorkflowInstanceDao implements Initializable {
      * @return ワークフローインスタンスID
      */
     public String createWorkflowInstance(String workflowId, int version, List<Task> tasks) {
-        String instanceId = StringUtil.lpad(
-                instanceIdGenerator.generateId(instanceIdGenerateId), instanceIdLength, '0');
+        String instanceId = generateInstanceId();
         instanceDao.insert(instanceId, workflowId, version);
         instanceFlowNodeDao.insert(instanceId, workflowId, version, tasks);
         return instanceId;
     }
 
+    /**
+     * 同一ワークフローの複数のワークフローインスタンスの進行状態を登録する。
+     * <p/>
+     * 大量のインスタンスを登録する場合は、{@link #setInstanceIdBlockSize(int)}によりインスタンスIDをブロック単位に確保することで、
+     * インスタンスIDの採番にかかるデータベースアクセスを削減できる。
+     * <p/>
+     * インスタンステーブル、インスタンスフローノードテーブルへの登録は、
+     * 全てのインスタンス分をテーブルごとに1回のバッチ更新で行う。
+     *
+     * @param workflowId ワークフローID
+     * @param version バージョン
+     * @param tasks タスクリスト
+     * @param count 登録するワークフローインスタンスの数
+     * @return 採番したワークフローインスタンスIDのリスト(採番順)
+     */
+    public List<String> createWorkflowInstances(String workflowId, int version, List<Task> tasks, int count) {
+        List<String> instanceIds = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            instanceIds.add(generateInstanceId());
+        }
+        if (!instanceIds.isEmpty()) {
+            instanceDao.insert(instanceIds, workflowId, version);
+            instanceFlowNodeDao.insert(instanceIds, workflowId, version, tasks);
+        }
+        return instanceIds;
+    }
+
+    /**
+     * インスタンスIDを採番する。
+     * <p/>
+     * {@link #setInstanceIdBlockSize(int)}が設定されている場合は、確保済みのブロックからインスタンスIDを払い出す。
+     *
+     * @return インスタンスID
+     */
+    private String generateInstanceId() {
+        String id = (instanceIdBlockAllocator == null)
+                ? instanceIdGenerator.generateId(instanceIdGenerateId)
+                : String.valueOf(instanceIdBlockAllocator.allocate(
+                        instanceIdGenerator, instanceIdGenerateId, instanceIdLength));
+        return StringUtil.lpad(id, instanceIdLength, '0');
+    }
+
     /**
      * 担当者を登録する。
      * <p/>
@@ -77,9 +189,11 @@ public class WorkflowInstanceDao implements Initializable {
      * @param users ユーザ情報
      */
     public void saveAssignedUser(String instanceId, String flowNodeId, List<String> users) {
+        invalidateAssigned(instanceId, flowNodeId);
         taskAssignedGroupDao.delete(instanceId, flowNodeId);
         taskAssignedUserDao.delete(instanceId, flowNodeId);
         taskAssignedUserDao.insert(instanceId, flowNodeId, users);
+        saveTaskProgress(instanceId, flowNodeId, users.size());
     }
 
     /**
@@ -93,8 +207,10 @@ public class WorkflowInstanceDao implements Initializable {
      * @param users ユーザ情報
      */
     public void saveAssignedSequentialUser(String instanceId, String flowNodeId, List<String> users) {
+        invalidateAssigned(instanceId, flowNodeId);
         taskAssignedUserDao.delete(instanceId, flowNodeId);
         taskAssignedUserDao.insertSequential(instanceId, flowNodeId, users);
+        saveTaskProgress(instanceId, flowNodeId, users.size());
     }
 
     /**
@@ -108,9 +224,11 @@ public class WorkflowInstanceDao implements Initializable {
      * @param group グループ
      */
     public void saveAssignedGroup(String instanceId, String flowNodeId, List<String> group) {
+        invalidateAssigned(instanceId, flowNodeId);
         taskAssignedUserDao.delete(instanceId, flowNodeId);
         taskAssignedGroupDao.delete(instanceId, flowNodeId);
         taskAssignedGroupDao.insert(instanceId, flowNodeId, group);
+        saveTaskProgress(instanceId, flowNodeId, group.size());
     }
 
     /**
@@ -124,16 +242,18 @@ public class WorkflowInstanceDao implements Initializable {
      * @param groups グループ情報
      */
     public void saveAssignedSequentialGroup(String instanceId, String flowNodeId, List<String> groups) {
+        invalidateAssigned(instanceId, flowNodeId);
         taskAssignedUserDao.delete(instanceId, flowNodeId);
         taskAssignedGroupDao.delete(instanceId, flowNodeId);
         taskAssignedGroupDao.insertSequential(instanceId, flowNodeId, groups);
+        saveTaskProgress(instanceId, flowNodeId, groups.size());
     }
 
     /**
      * アクティブなフローノードの状態を登録する。
      * <p/>
      * すでにインスタンスIDに対応するアクティブなノードが登録されていた場合には、
-     * その情報を削除後に登録を行う。
+     * その情報を置き換える。({@link #setUpsertDialect(UpsertDialect)}が設定されていない場合は、削除後に登録を行う。)
      *
      * @param instanceId インスタンスID
      * @param flowNode アクティブなフローノード
@@ -141,8 +261,33 @@ public class WorkflowInstanceDao implements Initializable {
     public void saveActiveFlowNode(String instanceId, FlowNode flowNode) {
         activeUserTaskDao.delete(instanceId);
         activeGroupTaskDao.delete(instanceId);
-        activeFlowNodeDao.delete(instanceId);
-        activeFlowNodeDao.insert(instanceId, flowNode);
+        activeFlowNodeDao.save(instanceId, flowNode);
+
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache != null) {
+            cache.putActiveFlowNode(new ActiveFlowNodeEntity(instanceId, flowNode.getFlowNodeId()));
+        }
+    }
+
+    /**
+     * 開始直後の複数のワークフローインスタンスについて、アクティブなフローノードをバッチ更新で登録する。
+     * <p/>
+     * 登録済みのアクティブフローノード、アクティブユーザタスク及びアクティブグループタスクが存在しないことを前提とし、
+     * {@link #saveActiveFlowNode(String, FlowNode)}とは異なり既存データの削除は行わない。
+     *
+     * @param activeFlowNodes インスタンスIDをキーとしたアクティブなフローノード
+     */
+    public void createActiveFlowNodes(Map<String, ? extends FlowNode> activeFlowNodes) {
+        if (activeFlowNodes.isEmpty()) {
+            return;
+        }
+        activeFlowNodeDao.insert(activeFlowNodes);
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache != null) {
+            for (Map.Entry<String, ? extends FlowNode> entry : activeFlowNodes.entrySet()) {
+                cache.putActiveFlowNode(new ActiveFlowNodeEntity(entry.getKey(), entry.getValue().getFlowNodeId()));
+            }
+        }
     }
 
     /**
@@ -157,6 +302,7 @@ public class WorkflowInstanceDao implements Initializable {
     public void saveActiveUserTask(String instanceId, String flowNodeId, List<String> users) {
         activeUserTaskDao.delete(instanceId);
         activeUserTaskDao.insert(instanceId, flowNodeId, users);
+        updateTaskProgressRemaining(instanceId, flowNodeId, users.size());
     }
 
     /**
@@ -175,6 +321,7 @@ public class WorkflowInstanceDao implements Initializable {
      */
     public void deleteActiveUserTaskByUserId(String instanceId, String flowNodeId, String user) {
         activeUserTaskDao.delete(instanceId, flowNodeId, user);
+        incrementTaskProgressCompleted(instanceId, flowNodeId);
     }
 
     /**
@@ -190,6 +337,7 @@ public class WorkflowInstanceDao implements Initializable {
     public void saveActiveUserTask(String instanceId, String flowNodeId, String user, int executionOrder) {
         activeUserTaskDao.delete(instanceId);
         activeUserTaskDao.insert(instanceId, flowNodeId, user, executionOrder);
+        updateTaskProgressRemaining(instanceId, flowNodeId, 1);
     }
 
     /**
@@ -204,6 +352,7 @@ public class WorkflowInstanceDao implements Initializable {
     public void saveActiveGroupTask(String instanceId, String flowNodeId, List<String> groups) {
         activeGroupTaskDao.delete(instanceId);
         activeGroupTaskDao.insert(instanceId, flowNodeId, groups);
+        updateTaskProgressRemaining(instanceId, flowNodeId, groups.size());
     }
 
     /**
@@ -219,6 +368,7 @@ public class WorkflowInstanceDao implements Initializable {
     public void saveActiveGroupTask(String instanceId, String flowNodeId, String group, int executionOrder) {
         activeGroupTaskDao.delete(instanceId);
         activeGroupTaskDao.insert(instanceId, flowNodeId, group, executionOrder);
+        updateTaskProgressRemaining(instanceId, flowNodeId, 1);
     }
 
     /**
@@ -230,6 +380,7 @@ public class WorkflowInstanceDao implements Initializable {
      */
     public void deleteActiveGroupTaskByGroupId(String instanceId, String flowNodeId, String groupId) {
         activeGroupTaskDao.delete(instanceId, flowNodeId, groupId);
+        incrementTaskProgressCompleted(instanceId, flowNodeId);
     }
 
     /**
@@ -243,12 +394,8 @@ public class WorkflowInstanceDao implements Initializable {
      * @param newUser 新しいグループ
      */
     public void changeAssignedUser(String instanceId, String flowNodeId, String oldUser, String newUser) {
-        TaskAssignedUserEntity oldUserInfo = taskAssignedUserDao.find(instanceId, flowNodeId, oldUser);
-        if (oldUserInfo == null) {
-            return;
-        }
-        taskAssignedUserDao.delete(instanceId, flowNodeId, oldUser);
-        taskAssignedUserDao.insert(instanceId, flowNodeId, newUser, oldUserInfo.getExecutionOrder());
+        invalidateAssigned(instanceId, flowNodeId);
+        taskAssignedUserDao.update(instanceId, flowNodeId, oldUser, newUser);
     }
 
     /**
@@ -262,12 +409,7 @@ public class WorkflowInstanceDao implements Initializable {
      * @param newUser 新しいユーザ
      */
     public void changeActiveUser(String instanceId, String flowNodeId, String oldUser, String newUser) {
-        ActiveUserTaskEntity oldUserInfo = activeUserTaskDao.find(instanceId, flowNodeId, oldUser);
-        if (oldUserInfo == null) {
-            return;
-        }
-        activeUserTaskDao.delete(instanceId, flowNodeId, oldUser);
-        activeUserTaskDao.insert(instanceId, flowNodeId, newUser, oldUserInfo.getExecutionOrder());
+        activeUserTaskDao.update(instanceId, flowNodeId, oldUser, newUser);
     }
 
     /**
@@ -281,12 +423,8 @@ public class WorkflowInstanceDao implements Initializable {
      * @param newGroup 新しいグループ
      */
     public void changeAssignedGroup(String instanceId, String flowNodeId, String oldGroup, String newGroup) {
-        TaskAssignedGroupEntity oldGroupInfo = taskAssignedGroupDao.find(instanceId, flowNodeId, oldGroup);
-        if (oldGroupInfo == null) {
-            return;
-        }
-        taskAssignedGroupDao.delete(instanceId, flowNodeId, oldGroup);
-        taskAssignedGroupDao.insert(instanceId, flowNodeId, newGroup, oldGroupInfo.getExecutionOrder());
+        invalidateAssigned(instanceId, flowNodeId);
+        taskAssignedGroupDao.update(instanceId, flowNodeId, oldGroup, newGroup);
     }
 
     /**
@@ -300,15 +438,60 @@ public class WorkflowInstanceDao implements Initializable {
      * @param newGroup 新しいグループ
      */
     public void changeActiveGroup(String instanceId, String flowNodeId, String oldGroup, String newGroup) {
-        ActiveGroupTaskEntity oldGroupInfo = activeGroupTaskDao.find(instanceId, flowNodeId, oldGroup);
-        if (oldGroupInfo == null) {
-            return;
+        activeGroupTaskDao.update(instanceId, flowNodeId, oldGroup, newGroup);
+    }
+
+
+    /**
+     * タスク進捗を管理している場合、担当数を登録する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param assignedCount 担当数
+     */
+    private void saveTaskProgress(String instanceId, String flowNodeId, int assignedCount) {
+        if (taskProgressDao != null) {
+            taskProgressDao.save(instanceId, flowNodeId, assignedCount);
         }
-        // アクティブグループが存在する場合のみ更新
-        activeGroupTaskDao.delete(instanceId, flowNodeId, oldGroup);
-        activeGroupTaskDao.insert(instanceId, flowNodeId, newGroup, oldGroupInfo.getExecutionOrder());
     }
 
+    /**
+     * タスク進捗を管理している場合、アクティブタスクの作成に合わせて未処理数を設定する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @param remainingCount 作成したアクティブタスクの数
+     */
+    private void updateTaskProgressRemaining(String instanceId, String flowNodeId, int remainingCount) {
+        if (taskProgressDao != null) {
+            taskProgressDao.updateRemaining(instanceId, flowNodeId, remainingCount);
+        }
+    }
+
+    /**
+     * タスク進捗を管理している場合、アクティブタスクの完了に合わせて処理済み数を加算する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     */
+    private void incrementTaskProgressCompleted(String instanceId, String flowNodeId) {
+        if (taskProgressDao != null) {
+            taskProgressDao.incrementCompleted(instanceId, flowNodeId);
+        }
+    }
+
+    /**
+     * 参照結果のキャッシュから、タスク担当ユーザ及びタスク担当グループを無効化する。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     */
+    private static void invalidateAssigned(String instanceId, String flowNodeId) {
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache != null) {
+            cache.invalidateAssigned(instanceId, flowNodeId);
+        }
+    }
 
     /**
      * インスタンスIDに紐づくデータを全て削除する。
@@ -316,11 +499,18 @@ public class WorkflowInstanceDao implements Initializable {
      * @param instanceId インスタンスID
      */
     public void deleteInstance(String instanceId) {
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache != null) {
+            cache.invalidateInstance(instanceId);
+        }
         activeUserTaskDao.delete(instanceId);
         activeGroupTaskDao.delete(instanceId);
         activeFlowNodeDao.delete(instanceId);
         taskAssignedUserDao.delete(instanceId);
         taskAssignedGroupDao.delete(instanceId);
+        if (taskProgressDao != null) {
+            taskProgressDao.delete(instanceId);
+        }
         instanceFlowNodeDao.delete(instanceId);
         instanceDao.delete(instanceId);
     }
@@ -335,6 +525,90 @@ public class WorkflowInstanceDao implements Initializable {
         return instanceDao.find(instanceId);
     }
 
+    /**
+     * 複数のインスタンスIDに紐づくインスタンス情報を取得する。
+     * <p/>
+     * 存在しないインスタンスIDに対応する情報は、結果に含まれない。
+     * インスタンスIDが多い場合は、{@value #MAX_IN_LIST_SIZE}件ごとに分けて取得する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @return インスタンス情報
+     */
+    public List<WorkflowInstanceEntity> findInstances(List<String> instanceIds) {
+        List<WorkflowInstanceEntity> result = new ArrayList<WorkflowInstanceEntity>(instanceIds.size());
+        for (int from = 0; from < instanceIds.size(); from += MAX_IN_LIST_SIZE) {
+            result.addAll(instanceDao.find(instanceIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, instanceIds.size()))));
+        }
+        return result;
+    }
+
+    /**
+     * 複数のインスタンスIDに紐づくインスタンス情報を、アクティブフローノードと合わせて取得する。
+     * <p/>
+     * 存在しないインスタンスIDに対応する情報は、結果に含まれない。
+     * インスタンスIDが多い場合は、{@value #MAX_IN_LIST_SIZE}件ごとに分けて取得する。
+     * ユニットオブワークの開始中は、取得したアクティブフローノードを参照結果のキャッシュにも保持する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @return アクティブフローノードを含むインスタンス情報
+     */
+    public List<InstanceActiveFlowNodeEntity> findInstancesWithActiveFlowNode(List<String> instanceIds) {
+        List<InstanceActiveFlowNodeEntity> result = new ArrayList<InstanceActiveFlowNodeEntity>(instanceIds.size());
+        for (int from = 0; from < instanceIds.size(); from += MAX_IN_LIST_SIZE) {
+            result.addAll(instanceDao.findWithActiveFlowNode(
+                    instanceIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, instanceIds.size()))));
+        }
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache != null) {
+            for (InstanceActiveFlowNodeEntity instance : result) {
+                cache.putActiveFlowNode(new ActiveFlowNodeEntity(instance.getInstanceId(), instance.getFlowNodeId()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * インスタンスIDに紐づくワークフローインスタンスの進行状態を、1回の検索でまとめて取得する。
+     * <p/>
+     * インスタンス情報、アクティブフローノード、アクティブユーザ/グループタスク、
+     * アクティブフローノードの担当ユーザ/グループを取得する。
+     *
+     * @param instanceId インスタンスID
+     * @return 進行状態(インスタンスが存在しない場合はnull)
+     */
+    public InstanceStateEntity findInstanceState(String instanceId) {
+        return instanceStateDao.find(instanceId);
+    }
+
+    /**
+     * タスク進捗を管理しているか否か。
+     * <p/>
+     * {@link WorkflowInstanceSchema#setTaskProgressTableName(String)}が設定されている場合に、タスク進捗を管理する。
+     *
+     * @return タスク進捗を管理している場合は{@code true}
+     */
+    public boolean isTaskProgressEnabled() {
+        return taskProgressDao != null;
+    }
+
+    /**
+     * インスタンスIDとフローノードIDに紐づくタスク進捗を取得する。
+     * <p/>
+     * タスク進捗テーブルを設定する前に担当者が割り当てられたタスクなど、タスク進捗が登録されていない場合は{@code null}を返却する。
+     * この場合、呼び出し元はアクティブタスクの件数など、タスク進捗以外の情報から判定すること。
+     *
+     * @param instanceId インスタンスID
+     * @param flowNodeId フローノードID
+     * @return タスク進捗(存在しない場合は{@code null})
+     * @throws IllegalStateException タスク進捗を管理していない場合
+     */
+    public TaskProgressEntity findTaskProgress(String instanceId, String flowNodeId) throws IllegalStateException {
+        if (taskProgressDao == null) {
+            throw new IllegalStateException("task progress table name was not set. must set task progress table name to workflow instance schema.");
+        }
+        return taskProgressDao.find(instanceId, flowNodeId);
+    }
+
     /**
      * インスタンスIDとフローノードIDに紐づく担当ユーザ情報を取得する。
      *
@@ -343,7 +617,15 @@ public class WorkflowInstanceDao implements Initializable {
      * @return 担当ユーザ情報
      */
     public List<TaskAssignedUserEntity> findTaskAssignedUser(String instanceId, String flowNodeId) {
-        return taskAssignedUserDao.find(instanceId, flowNodeId);
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache == null) {
+            return taskAssignedUserDao.find(instanceId, flowNodeId);
+        }
+        List<TaskAssignedUserEntity> users = cache.getAssignedUsers(instanceId, flowNodeId);
+        if (users == null) {
+            users = cache.putAssignedUsers(instanceId, flowNodeId, taskAssignedUserDao.find(instanceId, flowNodeId));
+        }
+        return users;
     }
 
     /**
@@ -354,7 +636,15 @@ public class WorkflowInstanceDao implements Initializable {
      * @return 担当グループ情報
      */
     public List<TaskAssignedGroupEntity> findTaskAssignedGroup(String instanceId, String flowNodeId) {
-        return taskAssignedGroupDao.find(instanceId, flowNodeId);
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache == null) {
+            return taskAssignedGroupDao.find(instanceId, flowNodeId);
+        }
+        List<TaskAssignedGroupEntity> groups = cache.getAssignedGroups(instanceId, flowNodeId);
+        if (groups == null) {
+            groups = cache.putAssignedGroups(instanceId, flowNodeId, taskAssignedGroupDao.find(instanceId, flowNodeId));
+        }
+        return groups;
     }
 
     /**
@@ -364,7 +654,16 @@ public class WorkflowInstanceDao implements Initializable {
      * @return アクティブフローノード
      */
     public ActiveFlowNodeEntity findActiveFlowNode(String instanceId) {
-        return activeFlowNodeDao.find(instanceId);
+        InstanceStateCache cache = InstanceStateCache.current();
+        if (cache == null) {
+            return activeFlowNodeDao.find(instanceId);
+        }
+        ActiveFlowNodeEntity activeFlowNode = cache.getActiveFlowNode(instanceId);
+        if (activeFlowNode == null) {
+            activeFlowNode = activeFlowNodeDao.find(instanceId);
+            cache.putActiveFlowNode(activeFlowNode);
+        }
+        return activeFlowNode;
     }
 
     /**
@@ -391,6 +690,85 @@ public class WorkflowInstanceDao implements Initializable {
         return activeUserTaskDao.find(instanceId, flowNodeId, user);
     }
 
+    /**
+     * 複数のインスタンスIDについて、ユーザID指定でアクティブユーザタスクを取得する。
+     * <p/>
+     * 指定したユーザに対応するアクティブユーザタスクが存在しないインスタンスIDの情報は、結果に含まれない。
+     * インスタンスIDが多い場合は、{@value #MAX_IN_LIST_SIZE}件ごとに分けて取得する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param user ユーザ
+     * @return 取得結果
+     */
+    public List<ActiveUserTaskEntity> findActiveUserTasksByUserId(List<String> instanceIds, String user) {
+        List<ActiveUserTaskEntity> result = new ArrayList<ActiveUserTaskEntity>(instanceIds.size());
+        for (int from = 0; from < instanceIds.size(); from += MAX_IN_LIST_SIZE) {
+            result.addAll(activeUserTaskDao.find(
+                    instanceIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, instanceIds.size())), user));
+        }
+        return result;
+    }
+
+    /**
+     * 複数のインスタンスIDのうち、ユーザのアクティブユーザタスクが存在するインスタンスIDを取得する。
+     * <p/>
+     * インスタンスIDが多い場合は、{@value #MAX_IN_LIST_SIZE}件ごとに分けて取得する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param user ユーザ
+     * @return アクティブユーザタスクが存在するインスタンスID
+     */
+    public Set<String> findInstanceIdsWithActiveUserTask(List<String> instanceIds, String user) {
+        Set<String> result = new HashSet<String>();
+        for (int from = 0; from < instanceIds.size(); from += MAX_IN_LIST_SIZE) {
+            result.addAll(activeUserTaskDao.findInstanceIds(
+                    instanceIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, instanceIds.size())), user));
+        }
+        return result;
+    }
+
+    /**
+     * 複数のインスタンスIDのうち、グループのアクティブグループタスクが存在するインスタンスIDを取得する。
+     * <p/>
+     * インスタンスIDが多い場合は、{@value #MAX_IN_LIST_SIZE}件ごとに分けて取得する。
+     *
+     * @param instanceIds インスタンスIDリスト
+     * @param group グループ
+     * @return アクティブグループタスクが存在するインスタンスID
+     */
+    public Set<String> findInstanceIdsWithActiveGroupTask(List<String> instanceIds, String group) {
+        Set<String> result = new HashSet<String>();
+        for (int from = 0; from < instanceIds.size(); from += MAX_IN_LIST_SIZE) {
+            result.addAll(activeGroupTaskDao.findInstanceIds(
+                    instanceIds.subList(from, Math.min(from + MAX_IN_LIST_SIZE, instanceIds.size())), group));
+        }
+        return result;
+    }
+
+    /**
+     * ユーザまたはグループが処理すべきアクティブタスクを、ワークフローインスタンスを横断して取得する。
+     * <p/>
+     * 取得結果はインスタンスID、フローノードIDの順に並ぶ。
+     * 次ページを取得する場合は、前ページの最後のアクティブタスクを{@code after}に指定する。
+     *
+     * @param user ユーザID(ユーザのアクティブタスクを検索しない場合はnull)
+     * @param groups グループIDリスト(グループのアクティブタスクを検索しない場合は空のリスト)
+     * @param after 前ページの最後のアクティブタスク(先頭ページを取得する場合はnull)
+     * @param limit 最大取得件数
+     * @return 取得したアクティブタスク
+     * @throws IllegalArgumentException 最大取得件数に1未満の値が指定された場合
+     */
+    public List<ActiveTaskEntity> findActiveTasks(String user, List<String> groups, ActiveTaskEntity after, int limit)
+            throws IllegalArgumentException {
+        if (limit < 1) {
+            throw new IllegalArgumentException(String.format("limit must be greater than 0. limit = [%d]", limit));
+        }
+        if (user == null && groups.isEmpty()) {
+            return new ArrayList<ActiveTaskEntity>();
+        }
+        return activeTaskDao.find(user, groups, after, limit);
+    }
+
     /**
      * インスタンスIDに紐づくアクティブグループタスクを取得する。
      *
@@ -445,7 +823,9 @@ public class WorkflowInstanceDao implements Initializable {
      * @return タスクに割り当てされたユーザ数
      */
     public int getTaskAssignedUserCount(String instanceId, String flowNodeId) {
-        return taskAssignedUserDao.count(instanceId, flowNodeId);
+        InstanceStateCache cache = InstanceStateCache.current();
+        List<TaskAssignedUserEntity> users = (cache == null) ? null : cache.getAssignedUsers(instanceId, flowNodeId);
+        return (users == null) ? taskAssignedUserDao.count(instanceId, flowNodeId) : users.size();
     }
 
     /**
@@ -477,7 +857,9 @@ public class WorkflowInstanceDao implements Initializable {
      * @return タスクに割り当てられたグループ数
      */
     public int getTaskAssignedGroupCount(String instanceId, String flowNodeId) {
-        return taskAssignedGroupDao.count(instanceId, flowNodeId);
+        InstanceStateCache cache = InstanceStateCache.current();
+        List<TaskAssignedGroupEntity> groups = (cache == null) ? null : cache.getAssignedGroups(instanceId, flowNodeId);
+        return (groups == null) ? taskAssignedGroupDao.count(instanceId, flowNodeId) : groups.size();
     }
 
     /**
@@ -520,6 +902,73 @@ public class WorkflowInstanceDao implements Initializable {
         this.instanceIdLength = instanceIdLength;
     }
 
+    /**
+     * インスタンスIDをブロック単位に確保する場合の、ブロックサイズを設定する。
+     * <p/>
+     * 2以上を設定した場合、インスタンスIDはhi-lo方式で採番する。
+     * {@link IdGenerator}による採番は、ブロックサイズ分のインスタンスIDを使い切るごとに1回となり、
+     * 採番した値(hi)に対して{@code hi * ブロックサイズ}からの範囲のインスタンスIDをメモリ上で払い出す。
+     * インスタンスIDの形式(先頭を"0"で埋めた{@link #setInstanceIdLength(int)}桁)は変わらない。
+     * <p/>
+     * この場合、{@link IdGenerator}は数値を採番するものであり、
+     * かつ業務のトランザクションとは独立して採番結果を確定させるものであること。
+     * また、ブロックサイズを変更したり、ブロック単位の確保をやめたりすると、採番済みのインスタンスIDと重複する可能性がある。
+     * 確保するブロックのインスタンスIDが{@link #setInstanceIdLength(int)}桁に収まらない場合は、
+     * インスタンスIDの採番時に{@link IllegalStateException}を送出する。
+     * <p/>
+     * 設定を省略した場合は、インスタンスごとに{@link IdGenerator}で採番する。
+     *
+     * @param instanceIdBlockSize ブロックサイズ
+     * @throws IllegalArgumentException 1未満の値が指定された場合
+     */
+    public void setInstanceIdBlockSize(int instanceIdBlockSize) throws IllegalArgumentException {
+        if (instanceIdBlockSize < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "instance id block size must be greater than 0. instance id block size = [%d]", instanceIdBlockSize));
+        }
+        instanceIdBlockAllocator = (instanceIdBlockSize == 1) ? null : new InstanceIdBlockAllocator(instanceIdBlockSize);
+    }
+
+    /**
+     * ユニットオブワーク内の更新をまとめて反映するか否かを設定する。
+     * <p/>
+     * 設定を省略した場合は、更新は即時に実行される。
+     *
+     * @param writeBehind ユニットオブワーク内の更新をまとめて反映する場合は{@code true}
+     */
+    public void setWriteBehind(boolean writeBehind) {
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * ユニットオブワーク内の参照結果をキャッシュするか否かを設定する。
+     * <p/>
+     * 設定を省略した場合は、参照の都度データベースにアクセスする。
+     *
+     * @param readCache ユニットオブワーク内の参照結果をキャッシュする場合は{@code true}
+     */
+    public void setReadCache(boolean readCache) {
+        this.readCache = readCache;
+    }
+
+    /**
+     * UPSERT文を生成するダイアレクトを設定する。
+     * <p/>
+     * 設定した場合、アクティブフローノードの置き換えはUPSERT文1文で行う。
+     * 設定を省略した場合は、削除後に登録を行う。
+     * <p/>
+     * アクティブフローノードのUPSERTは、インスタンスIDカラムをキー項目とする。
+     * {@link OnConflictUpsertDialect}を使用する場合は、キー項目と一致する一意制約が必要となるため、
+     * アクティブフローノードテーブルのインスタンスIDカラムに一意制約を定義すること。
+     *
+     * @param upsertDialect UPSERT文を生成するダイアレクト
+     * @see MergeUpsertDialect
+     * @see OnConflictUpsertDialect
+     */
+    public void setUpsertDialect(UpsertDialect upsertDialect) {
+        this.upsertDialect = upsertDialect;
+    }
+
     /**
      * 初期化処理を行う。
      */
@@ -529,9 +978,14 @@ public class WorkflowInstanceDao implements Initializable {
         instanceFlowNodeDao = new InstanceFlowNodeDao(workflowInstanceSchema);
         taskAssignedUserDao = new TaskAssignedUserDao(workflowInstanceSchema);
         taskAssignedGroupDao = new TaskAssignedGroupDao(workflowInstanceSchema);
-        activeFlowNodeDao = new ActiveFlowNodeDao(workflowInstanceSchema);
+        activeFlowNodeDao = new ActiveFlowNodeDao(workflowInstanceSchema, upsertDialect);
         activeUserTaskDao = new ActiveUserTaskDao(workflowInstanceSchema);
         activeGroupTaskDao = new ActiveGroupTaskDao(workflowInstanceSchema);
+        activeTaskDao = new ActiveTaskDao(workflowInstanceSchema);
+        instanceStateDao = new InstanceStateDao(workflowInstanceSchema);
+        if (workflowInstanceSchema.getTaskProgressTableName() != null) {
+            taskProgressDao = new TaskProgressDao(workflowInstanceSchema, upsertDialect);
+        }
     }
 
 }
@@ -31,6 +31,9 @@ public class WorkflowInstanceSchema {
     /** アクティブグループタスクテーブル名 */
     private String activeGroupTaskTableName;
 
+    /** タスク進捗テーブル名(タスク進捗を管理しない場合はnull) */
+    private String taskProgressTableName;
+
     // ----- column name -----
 
     /** インスタンスIDカラム名 */
@@ -54,6 +57,12 @@ public class WorkflowInstanceSchema {
     /** 担当グループのカラム名 */
     private String assignedGroupColumnName;
 
+    /** 担当数カラム名 */
+    private String assignedCountColumnName;
+
+    /** 処理済み数カラム名 */
+    private String completedCountColumnName;
+
     /**
      * ワークフローインスタンステーブル名を取得する。
      *
@@ -180,6 +189,28 @@ public class WorkflowInstanceSchema {
         this.activeGroupTaskTableName = activeGroupTaskTableName;
     }
 
+    /**
+     * タスク進捗テーブル名を取得する。
+     *
+     * @return タスク進捗テーブル名(タスク進捗を管理しない場合はnull)
+     */
+    public String getTaskProgressTableName() {
+        return taskProgressTableName;
+    }
+
+    /**
+     * タスク進捗テーブル名を設定する。
+     * <p/>
+     * 設定した場合、マルチインスタンスタスクの担当数と処理済み数をタスク進捗テーブルで管理し、
+     * 終了条件の判定はタスク進捗テーブルの1レコードを参照して行う。
+     * 設定を省略した場合は、終了条件の判定の都度、担当ユーザ(グループ)とアクティブタスクの件数を取得する。
+     *
+     * @param taskProgressTableName タスク進捗テーブル名
+     */
+    public void setTaskProgressTableName(String taskProgressTableName) {
+        this.taskProgressTableName = taskProgressTableName;
+    }
+
     /**
      * インスタンスIDカラム名を取得する。
      *
@@ -306,5 +337,41 @@ public class WorkflowInstanceSchema {
         this.assignedGroupColumnName = assignedGroupColumnName;
     }
 
+    /**
+     * 担当数カラム名を取得する。
+     *
+     * @return 担当数カラム名
+     */
+    public String getAssignedCountColumnName() {
+        return assignedCountColumnName;
+    }
+
+    /**
+     * 担当数カラム名を設定する。
+     *
+     * @param assignedCountColumnName 担当数カラム名
+     */
+    public void setAssignedCountColumnName(String assignedCountColumnName) {
+        this.assignedCountColumnName = assignedCountColumnName;
+    }
+
+    /**
+     * 処理済み数カラム名を取得する。
+     *
+     * @return 処理済み数カラム名
+     */
+    public String getCompletedCountColumnName() {
+        return completedCountColumnName;
+    }
+
+    /**
+     * 処理済み数カラム名を設定する。
+     *
+     * @param completedCountColumnName 処理済み数カラム名
+     */
+    public void setCompletedCountColumnName(String completedCountColumnName) {
+        this.completedCountColumnName = completedCountColumnName;
+    }
+
 }
 
@@ -0,0 +1,287 @@
+package nablarch.integration.workflow.dao;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import nablarch.core.db.connection.AppDbConnection;
+import nablarch.core.db.connection.DbConnectionContext;
+import nablarch.core.db.statement.SqlPStatement;
+
+/**
+ * ワークフローインスタンス系テーブルへの更新をメモリ上に保持し、まとめて反映するクラス。
+ * <p/>
+ * 更新は登録された順に保持し、以下の規則で冗長な更新を取り除く。
+ * <ul>
+ * <li>削除を登録した場合、同一テーブルに保持している登録のうち、削除条件に該当するものを取り除く。</li>
+ * <li>同一テーブルに、登録した削除の条件を包含する削除を既に保持している場合、登録した削除は取り除く。</li>
+ * </ul>
+ * ただし、同一テーブルへのUPDATEを保持している場合は、UPDATEより前の更新は取り除かない。
+ * (UPDATEにより、削除条件に該当するレコードが変わる可能性があるため。)
+ * 削除条件の判定は、削除のバインド変数がINSERTのバインド変数(または他の削除のバインド変数)の先頭と一致するかで行う。
+ * このため、各テーブルアクセスクラスは、削除条件のカラムをINSERT文のカラムの先頭と同じ順に指定すること。
+ * <p/>
+ * 保持している更新は、登録された順に反映する。
+ * 連続する同一SQLの更新はJDBCのバッチ更新として1回で反映する。
+ * テーブルの参照時には、参照するテーブルへの更新を含む先頭からの更新を反映するため、参照結果に保持中の更新が反映されないことはない。
+ *
+ * @since 1.4.2
+ */
+final class WriteBehindUnitOfWork {
+
+    /** スレッドごとのユニットオブワーク */
+    private static final ThreadLocal<WriteBehindUnitOfWork> CURRENT = new ThreadLocal<WriteBehindUnitOfWork>();
+
+    /** 保持している更新 */
+    private final List<PendingUpdate> pendingUpdates = new ArrayList<PendingUpdate>();
+
+    /** ネストの深さ */
+    private int depth;
+
+    /**
+     * 隠蔽コンストラクタ。
+     */
+    private WriteBehindUnitOfWork() {
+    }
+
+    /**
+     * 現在のスレッドのユニットオブワークを取得する。
+     *
+     * @return ユニットオブワーク(開始されていない場合はnull)
+     */
+    static WriteBehindUnitOfWork current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 現在のスレッドでユニットオブワークを開始する。
+     * <p/>
+     * 既に開始されている場合は、ネストの深さのみを加算する。
+     */
+    static void begin() {
+        WriteBehindUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            unitOfWork = new WriteBehindUnitOfWork();
+            CURRENT.set(unitOfWork);
+        }
+        unitOfWork.depth++;
+    }
+
+    /**
+     * 現在のスレッドのユニットオブワークを終了する。
+     * <p/>
+     * 最も外側のユニットオブワークの場合は、保持している更新を反映(成功時)または破棄(失敗時)する。
+     *
+     * @param success 処理が成功した場合はtrue
+     */
+    static void end(boolean success) {
+        WriteBehindUnitOfWork unitOfWork = CURRENT.get();
+        if (unitOfWork == null) {
+            return;
+        }
+        unitOfWork.depth--;
+        if (unitOfWork.depth > 0) {
+            return;
+        }
+        CURRENT.remove();
+        if (success) {
+            unitOfWork.flush();
+        }
+    }
+
+    /**
+     * 更新を登録する。
+     *
+     * @param update 更新
+     */
+    void add(PendingUpdate update) {
+        if (update.kind == Kind.DELETE) {
+            int start = 0;
+            for (int i = 0; i < pendingUpdates.size(); i++) {
+                PendingUpdate pending = pendingUpdates.get(i);
+                if (pending.kind == Kind.UPDATE && isSameTable(pending.tableName, update.tableName)) {
+                    start = i + 1;
+                }
+            }
+            List<PendingUpdate> candidates = pendingUpdates.subList(start, pendingUpdates.size());
+            for (Iterator<PendingUpdate> it = candidates.iterator(); it.hasNext();) {
+                PendingUpdate pending = it.next();
+                if (pending.kind == Kind.INSERT && isSameTable(pending.tableName, update.tableName) && update.covers(pending)) {
+                    it.remove();
+                }
+            }
+            for (PendingUpdate pending : candidates) {
+                if (pending.kind == Kind.DELETE && isSameTable(pending.tableName, update.tableName) && pending.covers(update)) {
+                    return;
+                }
+            }
+        }
+        pendingUpdates.add(update);
+    }
+
+    /**
+     * 指定されたテーブルを参照する前に、そのテーブルへの更新を反映する。
+     * <p/>
+     * 登録順を維持するため、対象テーブルへの最後の更新までの全ての更新を反映する。
+     * テーブル名がnullの場合は、全ての更新を反映する。
+     *
+     * @param tableName 参照するテーブル名
+     */
+    void beforeRead(String tableName) {
+        int last = -1;
+        for (int i = 0; i < pendingUpdates.size(); i++) {
+            String pendingTableName = pendingUpdates.get(i).tableName;
+            if (tableName == null || pendingTableName == null || pendingTableName.equals(tableName)) {
+                last = i;
+            }
+        }
+        if (last >= 0) {
+            execute(pendingUpdates.subList(0, last + 1));
+        }
+    }
+
+    /**
+     * 保持している全ての更新を反映する。
+     */
+    void flush() {
+        execute(pendingUpdates);
+    }
+
+    /**
+     * 更新を反映し、保持している更新から取り除く。
+     * <p/>
+     * 連続する同一SQLの更新は、バッチ更新として実行する。
+     *
+     * @param updates 反映する更新
+     */
+    private static void execute(List<PendingUpdate> updates) {
+        AppDbConnection connection = DbConnectionContext.getConnection();
+        int index = 0;
+        while (index < updates.size()) {
+            String sql = updates.get(index).sql;
+            int end = index + 1;
+            while (end < updates.size() && updates.get(end).sql.equals(sql)) {
+                end++;
+            }
+            SqlPStatement statement = connection.prepareStatement(sql);
+            if (end - index == 1) {
+                updates.get(index).bind(statement);
+                statement.executeUpdate();
+            } else {
+                for (int i = index; i < end; i++) {
+                    updates.get(i).bind(statement);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            index = end;
+        }
+        updates.clear();
+    }
+
+    /**
+     * 同一のテーブルか否かを判定する。
+     * <p/>
+     * テーブル名が不明(null)な場合は、同一のテーブルとはみなさない。
+     *
+     * @param tableName テーブル名
+     * @param other 比較対象のテーブル名
+     * @return 同一のテーブルの場合はtrue
+     */
+    private static boolean isSameTable(String tableName, String other) {
+        return (tableName != null) && tableName.equals(other);
+    }
+
+    /**
+     * 更新の種類。
+     */
+    enum Kind {
+
+        /** 登録(UPSERTを含む) */
+        INSERT,
+
+        /** 更新 */
+        UPDATE,
+
+        /** 削除 */
+        DELETE
+    }
+
+    /**
+     * 保持する更新を表すクラス。
+     */
+    static final class PendingUpdate {
+
+        /** テーブル名 */
+        private final String tableName;
+
+        /** SQL */
+        private final String sql;
+
+        /** 更新の種類 */
+        private final Kind kind;
+
+        /** バインド変数 */
+        private final Object[] params;
+
+        /**
+         * 保持する更新を生成する。
+         *
+         * @param tableName テーブル名
+         * @param sql SQL
+         * @param kind 更新の種類
+         * @param params バインド変数
+         */
+        PendingUpdate(String tableName, String sql, Kind kind, Object... params) {
+            this.tableName = tableName;
+            this.sql = sql;
+            this.kind = kind;
+            this.params = params;
+        }
+
+        /**
+         * SQLを取得する。
+         *
+         * @return SQL
+         */
+        String getSql() {
+            return sql;
+        }
+
+        /**
+         * 本更新(削除)の条件が、指定された更新の対象を包含するか否か。
+         *
+         * @param other 更新
+         * @return 包含する場合はtrue
+         */
+        private boolean covers(PendingUpdate other) {
+            if (params.length > other.params.length) {
+                return false;
+            }
+            for (int i = 0; i < params.length; i++) {
+                if ((params[i] == null) ? (other.params[i] != null) : !params[i].equals(other.params[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * ステートメントにバインド変数を設定する。
+         *
+         * @param statement ステートメント
+         */
+        void bind(SqlPStatement statement) {
+            for (int i = 0; i < params.length; i++) {
+                Object param = params[i];
+                if (param instanceof Integer) {
+                    statement.setInt(i + 1, (Integer) param);
+                } else if (param instanceof Long) {
+                    statement.setLong(i + 1, (Long) param);
+                } else {
+                    statement.setString(i + 1, (String) param);
+                }
+            }
+        }
+    }
+}
@@ -70,6 +70,19 @@ public class Event extends FlowNode {
         return super.getNextFlowNodeId(instanceId, parameter);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * イベントタイプが停止({@link EventType#TERMINATE})の場合には、後続フローノードは存在しないためnullを返す。
+     */
+    @Override
+    public String getUnconditionalNextFlowNodeId() {
+        if (eventType == EventType.TERMINATE) {
+            return null;
+        }
+        return super.getUnconditionalNextFlowNodeId();
+    }
+
     /**
      * {@inheritDoc}
      * <p/>
@@ -101,6 +101,25 @@ public abstract class FlowNode {
         return sequenceFlows.get(0).getTargetFlowNodeId();
     }
 
+    /**
+     * パラメータに依存せずに決定できる遷移先のフローノードIDを取得する。
+     * <p/>
+     * 自身を遷移元とするシーケンスフローが1つしか存在しない場合は、そのシーケンスフローの遷移先を返却する。
+     * それ以外の場合はnullを返却する。
+     * <p/>
+     * 本メソッドの結果は、ワークフロー定義のロード時に遷移先を事前に解決するために使用する。
+     * {@link #getNextFlowNodeId(String, Map)}をパラメータに依存する処理でオーバーライドする場合には、
+     * 本メソッドもオーバーライドしてnullを返却すること。
+     *
+     * @return パラメータに依存せずに決定できる遷移先のフローノードID(決定できない場合はnull)
+     */
+    public String getUnconditionalNextFlowNodeId() {
+        if ((sequenceFlows == null) || (sequenceFlows.size() != 1)) {
+            return null;
+        }
+        return sequenceFlows.get(0).getTargetFlowNodeId();
+    }
+
     /**
      * フローノードのアクティブ化処理を行う。
      *
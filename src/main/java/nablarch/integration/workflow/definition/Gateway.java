@@ -1,8 +1,13 @@
 package nablarch.integration.workflow.definition;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import nablarch.integration.workflow.condition.FlowProceedCondition;
+import nablarch.integration.workflow.condition.SwitchCaseFlowProceedCondition;
+
 /**
  * ゲートウェイ定義を表すクラス。
  *
@@ -19,12 +24,23 @@ public class Gateway extends FlowNode {
      */
     public enum GatewayType {
         /** exclusive gateway */
-        EXCLUSIVE
+        EXCLUSIVE,
+        /**
+         * switch gateway
+         * <p/>
+         * 1つのパラメータの値により分岐先を決定する。
+         * 分岐先のシーケンスフローには{@link SwitchCaseFlowProceedCondition}を、
+         * 一致する分岐先が存在しない場合の遷移先(デフォルトフロー)にはフローコンディション無しのシーケンスフローを指定する。
+         */
+        SWITCH
     }
 
     /** ゲートウェイタイプ */
     private final GatewayType gatewayType;
 
+    /** 分岐表({@link GatewayType#SWITCH}以外の場合はnull) */
+    private final SwitchTable switchTable;
+
     /**
      * ゲートウェイ定義を生成する。
      *
@@ -42,6 +58,7 @@ public class Gateway extends FlowNode {
             List<SequenceFlow> sequenceFlows) {
         super(flowNodeId, flowNodeName, laneId, sequenceFlows);
         this.gatewayType = GatewayType.valueOf(gatewayType);
+        switchTable = (this.gatewayType == GatewayType.SWITCH) ? new SwitchTable(flowNodeId, sequenceFlows) : null;
     }
 
     /**
@@ -60,9 +77,23 @@ public class Gateway extends FlowNode {
      * その遷移先フローノードIDを次のフローノードIDとする。
      *
      * 全てのシーケンスフローをチェックした結果、遷移先が見つからなかった場合には{@link IllegalStateException}を送出する。
+     * <p/>
+     * ゲートウェイタイプが{@link GatewayType#SWITCH}の場合は、シーケンスフローを順に評価せず、
+     * 分岐に使用するパラメータの値から分岐表を1回検索して遷移先を特定する。
+     * 一致する分岐先が存在しない場合はデフォルトフローの遷移先を、
+     * デフォルトフローも存在しない場合は{@link IllegalStateException}を送出する。
      */
     @Override
     public String getNextFlowNodeId(String instanceId, Map<String, ?> parameter) {
+        if (switchTable != null) {
+            String target = switchTable.findTargetFlowNodeId(parameter);
+            if (target != null) {
+                return target;
+            }
+            throw new IllegalStateException(String.format(
+                    "The sequence flow to proceed was not found. instance id = [%s], gateway id = [%s]",
+                    instanceId, getFlowNodeId()));
+        }
         for (SequenceFlow sequenceFlow : getSequenceFlows()) {
             if (sequenceFlow.canProceed(instanceId, parameter)) {
                 return sequenceFlow.getTargetFlowNodeId();
@@ -72,5 +103,104 @@ public class Gateway extends FlowNode {
                 "The sequence flow to proceed was not found. instance id = [%s], gateway id = [%s]",
                 instanceId, getFlowNodeId()));
     }
-}
 
+    /**
+     * {@inheritDoc}
+     * <p/>
+     * 先頭のシーケンスフローにフローコンディションが存在しない場合は、常にそのシーケンスフローで遷移するため、その遷移先を返却する。
+     * ゲートウェイタイプが{@link GatewayType#SWITCH}の場合は、分岐先が存在せずデフォルトフローのみの場合に、その遷移先を返却する。
+     * それ以外の場合は、遷移先がパラメータに依存するためnullを返却する。
+     */
+    @Override
+    public String getUnconditionalNextFlowNodeId() {
+        if (switchTable != null) {
+            return switchTable.targets.isEmpty() ? switchTable.defaultTargetFlowNodeId : null;
+        }
+        List<SequenceFlow> sequenceFlows = getSequenceFlows();
+        if ((sequenceFlows == null) || sequenceFlows.isEmpty()
+                || (sequenceFlows.get(0).getFlowProceedCondition() != null)) {
+            return null;
+        }
+        return sequenceFlows.get(0).getTargetFlowNodeId();
+    }
+
+    /**
+     * {@link GatewayType#SWITCH}のゲートウェイの分岐表。
+     */
+    private static final class SwitchTable {
+
+        /** 分岐に使用するパラメータのキー値 */
+        private final String paramKey;
+
+        /** 期待する値をキーとした遷移先フローノードID */
+        private final Map<String, String> targets;
+
+        /** デフォルトフローの遷移先フローノードID */
+        private final String defaultTargetFlowNodeId;
+
+        /**
+         * シーケンスフローから分岐表を生成する。
+         *
+         * @param gatewayId ゲートウェイのフローノードID
+         * @param sequenceFlows 自身を遷移元とするシーケンスフローのリスト
+         * @throws IllegalArgumentException シーケンスフローの定義が分岐表として不正な場合
+         */
+        private SwitchTable(String gatewayId, List<SequenceFlow> sequenceFlows) throws IllegalArgumentException {
+            String key = null;
+            String defaultTarget = null;
+            Map<String, String> map = new HashMap<String, String>();
+            List<SequenceFlow> flows = (sequenceFlows == null) ? Collections.<SequenceFlow>emptyList() : sequenceFlows;
+            for (SequenceFlow sequenceFlow : flows) {
+                FlowProceedCondition condition = sequenceFlow.getFlowProceedCondition();
+                if (condition == null) {
+                    if (defaultTarget != null) {
+                        throw new IllegalArgumentException(String.format(
+                                "switch gateway must have at most one default sequence flow. gateway id = [%s]",
+                                gatewayId));
+                    }
+                    defaultTarget = sequenceFlow.getTargetFlowNodeId();
+                    continue;
+                }
+                if (!(condition instanceof SwitchCaseFlowProceedCondition)) {
+                    throw new IllegalArgumentException(String.format(
+                            "switch gateway supports only %s. gateway id = [%s], sequence flow id = [%s]",
+                            SwitchCaseFlowProceedCondition.class.getName(), gatewayId,
+                            sequenceFlow.getSequenceFlowId()));
+                }
+                SwitchCaseFlowProceedCondition caseCondition = (SwitchCaseFlowProceedCondition) condition;
+                if (key == null) {
+                    key = caseCondition.getParamKey();
+                } else if (!key.equals(caseCondition.getParamKey())) {
+                    throw new IllegalArgumentException(String.format(
+                            "switch gateway must route on a single parameter key. gateway id = [%s], keys = [%s, %s]",
+                            gatewayId, key, caseCondition.getParamKey()));
+                }
+                if (map.put(caseCondition.getCaseValue(), sequenceFlow.getTargetFlowNodeId()) != null) {
+                    throw new IllegalArgumentException(String.format(
+                            "switch gateway case value is duplicated. gateway id = [%s], case value = [%s]",
+                            gatewayId, caseCondition.getCaseValue()));
+                }
+            }
+            paramKey = key;
+            targets = map;
+            defaultTargetFlowNodeId = defaultTarget;
+        }
+
+        /**
+         * パラメータの値から遷移先フローノードIDを特定する。
+         *
+         * @param parameter パラメータ
+         * @return 遷移先フローノードID(遷移先が存在しない場合はnull)
+         */
+        private String findTargetFlowNodeId(Map<String, ?> parameter) {
+            Object value = (parameter == null || paramKey == null) ? null : parameter.get(paramKey);
+            if (value != null) {
+                String target = targets.get(value.toString());
+                if (target != null) {
+                    return target;
+                }
+            }
+            return defaultTargetFlowNodeId;
+        }
+    }
+}
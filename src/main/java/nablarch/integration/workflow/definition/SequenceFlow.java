@@ -28,6 +28,9 @@ public class SequenceFlow {
     /** フローコンディション */
     private final FlowProceedCondition flowProceedCondition;
 
+    /** フローコンディションの型名 */
+    private final String flowProceedConditionName;
+
     /**
      * シーケンスフロー定義を生成する。
      *
@@ -48,6 +51,27 @@ public class SequenceFlow {
         this.sourceFlowNodeId = sourceFlowNodeId;
         this.targetFlowNodeId = targetFlowNodeId;
         flowProceedCondition = WorkflowUtil.createInstance(flowCondition);
+        flowProceedConditionName = flowCondition;
+    }
+
+    /**
+     * フローコンディションの型名を取得する。
+     * <p/>
+     * コンストラクタで指定された値(コンストラクタ引数の指定を含む)をそのまま返却する。
+     *
+     * @return フローコンディションの型名(フローコンディションが存在しない場合はnull)
+     */
+    public String getFlowProceedConditionName() {
+        return flowProceedConditionName;
+    }
+
+    /**
+     * フローコンディションを取得する。
+     *
+     * @return フローコンディション(フローコンディションが存在しない場合はnull)
+     */
+    public FlowProceedCondition getFlowProceedCondition() {
+        return flowProceedCondition;
     }
 
     /**
@@ -45,6 +45,9 @@ public class Task extends FlowNode {
     /** 完了条件 */
     private final CompletionCondition completionCondition;
 
+    /** 完了条件の型名 */
+    private final String completionConditionName;
+
     /**
      * タスク定義を生成する。
      *
@@ -64,6 +67,7 @@ public class Task extends FlowNode {
         super(flowNodeId, flowNodeName, laneId, sequenceFlows);
         this.multiInstanceType = MultiInstanceType.valueOf(multiInstanceType);
         this.completionCondition = createInstance(completionCondition);
+        completionConditionName = completionCondition;
         validate();
     }
 
@@ -92,6 +96,17 @@ public class Task extends FlowNode {
         return multiInstanceType;
     }
 
+    /**
+     * 終了条件の型名を取得する。
+     * <p/>
+     * コンストラクタで指定された値(コンストラクタ引数の指定を含む)をそのまま返却する。
+     *
+     * @return 終了条件の型名(終了条件が存在しない場合はnull)
+     */
+    public String getCompletionConditionName() {
+        return completionConditionName;
+    }
+
     /**
      * 終了条件を取得する。
      *
@@ -178,12 +193,37 @@ public class Task extends FlowNode {
                     "Active task is not found for user = [" + executor + "]. instance id = [" + instanceId + "], task id = [" + taskId + "].");
         }
 
-        dao.deleteActiveUserTaskByUserId(instanceId, taskId, executor);
+        completeActiveUserTask(activeUserTask);
+        return isCompletedUserTask(instanceId, parameter);
+    }
+
+    /**
+     * 取得済みのアクティブユーザタスクを完了させ、シーケンシャルタイプの場合は、実行順が次のユーザのアクティブタスクを作成する。
+     * <p/>
+     * 本メソッドはアクティブユーザタスクの存在チェック及び完了条件の評価を行わない。
+     * 複数のワークフローインスタンスのタスクをまとめて完了させる場合に、
+     * 存在チェックと完了条件の評価をそれぞれまとめて行うために使用する。
+     *
+     * @param activeUserTask 完了させるアクティブユーザタスク
+     */
+    public void completeActiveUserTask(ActiveUserTaskEntity activeUserTask) {
+        String instanceId = activeUserTask.getInstanceId();
+        getWorkflowInstanceDao().deleteActiveUserTaskByUserId(instanceId, getFlowNodeId(), activeUserTask.getUserId());
 
         // シーケンシャルの場合のみ、実行順が次になっている担当ユーザのアクティブユーザタスクを作成しておく。
         if (isSequentialType()) {
             activateNextUserTask(instanceId, activeUserTask.getExecutionOrder());
         }
+    }
+
+    /**
+     * {@link CompletionCondition#isCompletedUserTask(Map, String, Task)} を評価し、ユーザタスクが完了しているかを返却する。
+     *
+     * @param instanceId 対象のワークフローインスタンスID
+     * @param parameter ワークフローの進行時に使用するパラメータ
+     * @return 次のフローノードにワークフローを進行させて良い場合は {@code true}
+     */
+    public boolean isCompletedUserTask(String instanceId, Map<String, ?> parameter) {
         return getCompletionCondition().isCompletedUserTask(parameter, instanceId, this);
     }
 
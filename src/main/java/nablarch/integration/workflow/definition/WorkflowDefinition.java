@@ -1,9 +1,14 @@
 package nablarch.integration.workflow.definition;
 
 import static java.util.Collections.unmodifiableList;
+import static java.util.Collections.unmodifiableMap;
 
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import nablarch.integration.workflow.util.WorkflowUtil;
 
@@ -48,6 +53,24 @@ public class WorkflowDefinition {
     /** 中間イベント定義情報 */
     private List<BoundaryEvent> boundaryEvents;
 
+    /** フローノードIDをキーとしたタスク定義 */
+    private Map<String, Task> taskIndex = Collections.emptyMap();
+
+    /** フローノードIDをキーとしたゲートウェイ定義 */
+    private Map<String, Gateway> gatewayIndex = Collections.emptyMap();
+
+    /** フローノードIDをキーとしたイベント定義 */
+    private Map<String, Event> eventIndex = Collections.emptyMap();
+
+    /** フローノードIDをキーとした境界イベント定義 */
+    private Map<String, BoundaryEvent> boundaryEventIndex = Collections.emptyMap();
+
+    /** フローノードIDをキーとしたフローノード定義(全種類、未構築の場合はnull) */
+    private volatile Map<String, FlowNode> flowNodeIndex;
+
+    /** フローノードIDをキーとした、パラメータに依存せずに解決済みの到達先フローノード定義(未構築の場合はnull) */
+    private volatile Map<String, FlowNode> transitionIndex;
+
     /**
      * ワークフロー定義情報を生成する。
      *
@@ -135,12 +158,12 @@ public class WorkflowDefinition {
      * @throws IllegalArgumentException タスクIDに対応するタスク定義が存在しない場合
      */
     public Task findTask(String taskId) throws IllegalArgumentException {
-        List<Task> definitions = WorkflowUtil.filterList(tasks, new FlowNodeFilter<Task>(taskId));
-        if (definitions.isEmpty()) {
+        Task task = taskIndex.get(taskId);
+        if (task == null) {
             throw new IllegalArgumentException(String.format("task definition was not found. workflow id = [%s], version = [%s], task id = [%s]",
                     workflowId, version, taskId));
         }
-        return definitions.get(0);
+        return task;
     }
 
     /**
@@ -168,6 +191,8 @@ public class WorkflowDefinition {
      */
     public void setEvents(List<Event> events) {
         this.events = unmodifiableList(events);
+        eventIndex = createIndex(events);
+        clearFlowNodeIndex();
     }
 
     /**
@@ -186,6 +211,8 @@ public class WorkflowDefinition {
      */
     public void setTasks(List<Task> tasks) {
         this.tasks = unmodifiableList(tasks);
+        taskIndex = createIndex(tasks);
+        clearFlowNodeIndex();
     }
 
     /**
@@ -204,6 +231,8 @@ public class WorkflowDefinition {
      */
     public void setGateways(List<Gateway> gateways) {
         this.gateways = unmodifiableList(gateways);
+        gatewayIndex = createIndex(gateways);
+        clearFlowNodeIndex();
     }
 
     /**
@@ -222,6 +251,8 @@ public class WorkflowDefinition {
      */
     public void setBoundaryEvents(List<BoundaryEvent> boundaryEvents) {
         this.boundaryEvents = unmodifiableList(boundaryEvents);
+        boundaryEventIndex = createIndex(boundaryEvents);
+        clearFlowNodeIndex();
     }
 
     /**
@@ -270,18 +301,35 @@ public class WorkflowDefinition {
      * @return フローノード定義情報
      */
     public FlowNode findFlowNode(String flowNodeId) {
-        List<FlowNode> result = new ArrayList<FlowNode>();
-        FlowNodeFilter<FlowNode> filter = new FlowNodeFilter<FlowNode>(flowNodeId);
-        result.addAll(WorkflowUtil.filterList(tasks, filter));
-        result.addAll(WorkflowUtil.filterList(gateways, filter));
-        result.addAll(WorkflowUtil.filterList(events, filter));
-        result.addAll(WorkflowUtil.filterList(boundaryEvents, filter));
-        if (result.isEmpty()) {
+        FlowNode flowNode = getFlowNodeIndex().get(flowNodeId);
+        if (flowNode == null) {
             throw new IllegalArgumentException(
                     String.format("flow node definitions was not found. workflow id = [%s], version = [%s], flow node id = [%s]",
                             workflowId, version, flowNodeId));
         }
-        return result.get(0);
+        return flowNode;
+    }
+
+    /**
+     * 指定されたフローノードIDから、パラメータに依存せずに到達するフローノード定義を取得する。
+     * <p/>
+     * 指定されたフローノードがタスク、停止イベント、または遷移先がパラメータに依存するフローノードの場合は、そのフローノードを返却する。
+     * それ以外の場合は、遷移先が一意に決まる間シーケンスフローをたどり、最初に到達したタスク、停止イベント、
+     * または遷移先がパラメータに依存するフローノードを返却する。
+     * <p/>
+     * 到達先は{@link #initialize()}の呼び出し時に全てのフローノードについて解決済みのため、中間のフローノードの検索は行わない。
+     *
+     * @param flowNodeId フローノードID
+     * @return 到達先のフローノード定義
+     * @throws IllegalArgumentException 指定されたフローノードIDの定義が存在しない場合
+     * @throws IllegalStateException パラメータに依存せずに同じフローノードに戻るループが存在する場合
+     */
+    public FlowNode findDestinationFlowNode(String flowNodeId) throws IllegalArgumentException, IllegalStateException {
+        FlowNode destination = getTransitionIndex().get(flowNodeId);
+        if (destination == null) {
+            return findFlowNode(flowNodeId);
+        }
+        return destination;
     }
 
     /**
@@ -301,31 +349,141 @@ public class WorkflowDefinition {
     }
 
     /**
-     * フローノード定義情報を検索するためのフィルター条件クラス。
+     * フローノードIDをキーとしたフローノード定義のインデックスを生成する。
+     * <p/>
+     * 同一のフローノードIDが複数存在する場合は、リスト内で先に定義されているものを優先する。
      *
-     * @author hisaaki sioiri
-     * @since 1.4.2
+     * @param flowNodes フローノード定義リスト
+     * @param <T> フローノードの型
+     * @return フローノードIDをキーとしたフローノード定義
      */
-    private static final class FlowNodeFilter<T extends FlowNode> implements WorkflowUtil.ListFilter<T> {
-
-        /**
-         * 検索条件のフローノードID
-         */
-        private final String flowNodeId;
-
-        /**
-         * コンストラクタ。
-         *
-         * @param flowNodeId フローノードID
-         */
-        private FlowNodeFilter(String flowNodeId) {
-            this.flowNodeId = flowNodeId;
+    private static <T extends FlowNode> Map<String, T> createIndex(List<T> flowNodes) {
+        Map<String, T> index = new HashMap<String, T>();
+        for (T flowNode : flowNodes) {
+            if (!index.containsKey(flowNode.getFlowNodeId())) {
+                index.put(flowNode.getFlowNodeId(), flowNode);
+            }
         }
+        return unmodifiableMap(index);
+    }
 
-        @Override
-        public boolean isMatch(T other) {
-            return flowNodeId.equals(other.getFlowNodeId());
+    /**
+     * 定義情報の設定完了後に、フローノード定義のインデックスの構築と定義の検証を行う。
+     * <p/>
+     * ワークフロー定義をロードするクラスは、全ての定義情報を設定した後に本メソッドを呼び出すこと。
+     * これにより、パラメータに依存せずに同じフローノードに戻るループなどの定義の誤りを、ロード時に検出できる。
+     * 本メソッドを呼び出さずにフローノードを検索した場合は、最初の検索時にインデックスの構築と定義の検証を行う。
+     *
+     * @throws IllegalStateException パラメータに依存せずに同じフローノードに戻るループが存在する場合
+     */
+    public void initialize() throws IllegalStateException {
+        buildFlowNodeIndex();
+    }
+
+    /**
+     * 全種類のフローノード定義を対象としたインデックスを破棄する。
+     * <p/>
+     * インデックスは、定義情報が全て設定された後に{@link #initialize()}で構築する。
+     */
+    private synchronized void clearFlowNodeIndex() {
+        flowNodeIndex = null;
+        transitionIndex = null;
+    }
+
+    /**
+     * 全種類のフローノード定義を対象としたインデックスを取得する。
+     *
+     * @return フローノードIDをキーとしたフローノード定義
+     */
+    private Map<String, FlowNode> getFlowNodeIndex() {
+        Map<String, FlowNode> index = flowNodeIndex;
+        if (index == null) {
+            index = buildFlowNodeIndex();
         }
+        return index;
+    }
+
+    /**
+     * パラメータに依存せずに到達するフローノード定義のインデックスを取得する。
+     *
+     * @return フローノードIDをキーとした到達先のフローノード定義
+     * @throws IllegalStateException パラメータに依存せずに同じフローノードに戻るループが存在する場合
+     */
+    private Map<String, FlowNode> getTransitionIndex() throws IllegalStateException {
+        Map<String, FlowNode> index = transitionIndex;
+        if (index == null) {
+            buildFlowNodeIndex();
+            index = transitionIndex;
+        }
+        return index;
+    }
+
+    /**
+     * 全種類のフローノード定義を対象としたインデックスと、到達先のインデックスを構築する。
+     * <p/>
+     * 同一のフローノードIDが複数の種類に存在する場合は、タスク、ゲートウェイ、イベント、境界イベントの順に優先する。
+     * 既に構築済みの場合は、構築済みのインデックスをそのまま使用する。
+     *
+     * @return フローノードIDをキーとしたフローノード定義
+     * @throws IllegalStateException パラメータに依存せずに同じフローノードに戻るループが存在する場合
+     */
+    private synchronized Map<String, FlowNode> buildFlowNodeIndex() throws IllegalStateException {
+        if (flowNodeIndex != null) {
+            return flowNodeIndex;
+        }
+        Map<String, FlowNode> index = new HashMap<String, FlowNode>();
+        index.putAll(boundaryEventIndex);
+        index.putAll(eventIndex);
+        index.putAll(gatewayIndex);
+        index.putAll(taskIndex);
+        Map<String, FlowNode> result = unmodifiableMap(index);
+        transitionIndex = createTransitionIndex(result);
+        flowNodeIndex = result;
+        return result;
+    }
+
+    /**
+     * フローノードIDをキーとした、パラメータに依存せずに到達するフローノード定義のインデックスを生成する。
+     * <p/>
+     * 遷移先が定義されていないフローノードに到達した場合は、そのフローノードを到達先とする。
+     * (実行時に遷移先を検索した時点で、従来どおり例外が送出される。)
+     *
+     * @param index フローノードIDをキーとしたフローノード定義
+     * @return フローノードIDをキーとした到達先のフローノード定義
+     * @throws IllegalStateException パラメータに依存せずに同じフローノードに戻るループが存在する場合
+     */
+    private Map<String, FlowNode> createTransitionIndex(Map<String, FlowNode> index) throws IllegalStateException {
+        Map<String, FlowNode> result = new HashMap<String, FlowNode>();
+        for (FlowNode flowNode : index.values()) {
+            FlowNode current = flowNode;
+            Set<String> visited = new HashSet<String>();
+            visited.add(current.getFlowNodeId());
+            while (!isStopNode(current)) {
+                String nextFlowNodeId = current.getUnconditionalNextFlowNodeId();
+                FlowNode next = (nextFlowNodeId == null) ? null : index.get(nextFlowNodeId);
+                if (next == null) {
+                    break;
+                }
+                if (!visited.add(next.getFlowNodeId())) {
+                    throw new IllegalStateException(String.format(
+                            "unconditional sequence flow loop was detected. workflow id = [%s], version = [%s], flow node id = [%s]",
+                            workflowId, version, flowNode.getFlowNodeId()));
+                }
+                current = next;
+            }
+            result.put(flowNode.getFlowNodeId(), current);
+        }
+        return unmodifiableMap(result);
     }
-}
 
+    /**
+     * 遷移の到達先となるフローノード(タスク、または停止イベント)か否かを判定する。
+     *
+     * @param flowNode フローノード定義
+     * @return 遷移の到達先となるフローノードの場合はtrue
+     */
+    private static boolean isStopNode(FlowNode flowNode) {
+        return (flowNode instanceof Task)
+                || ((flowNode instanceof Event) && (((Event) flowNode).getEventType() == Event.EventType.TERMINATE));
+    }
+}
@@ -3,16 +3,29 @@ package nablarch.integration.workflow.definition;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Calendar;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
 
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
 import nablarch.core.util.DateUtil;
 import nablarch.core.date.SystemTimeProvider;
 import nablarch.core.repository.initialization.Initializable;
 
+import nablarch.integration.workflow.definition.loader.LazyWorkflowDefinitionLoader;
 import nablarch.integration.workflow.definition.loader.WorkflowDefinitionLoader;
-import nablarch.integration.workflow.util.WorkflowUtil;
 
 /**
  * ワークフローの定義情報を保持するクラス。
@@ -21,14 +34,50 @@ import nablarch.integration.workflow.util.WorkflowUtil;
  * <p/>
  * ワークフローのバージョン番号が特定できている場合には、
  * ワークフローIDとバージョン番号を共に指定してワークフロー定義情報を取得することができる。
+ * <p/>
+ * ワークフロー定義情報は、ワークフローID及びバージョン番号をキーとしたインデックスで保持する。
+ * また、ワークフローIDに対応する適用期間内のワークフロー定義は、基準日単位でキャッシュする。
+ * <p/>
+ * ワークフロー定義情報は、{@link #reload()}または{@link #reloadInBackground()}により、
+ * アプリケーションを停止せずに再読み込みできる。
+ * 再読み込みでは、全てのワークフロー定義をロードし終えた後にインデックスを一度に差し替えるため、
+ * 再読み込み中のワークフロー定義の取得処理がブロックされることや、ロード途中の状態を参照することはない。
+ * <p/>
+ * 遅延ロードモード({@link #setLazyLoad(boolean)})を有効にした場合は、
+ * 基準日時点で適用期間内のワークフロー定義と適用開始前のワークフロー定義のみを事前にロードする。
+ * それより古いバージョンのワークフロー定義は、バージョン番号を指定して初めて取得された時点でロードし、
+ * 上限件数({@link #setOldVersionCacheSize(int)})を超えた場合は最も長く参照されていないものから破棄する。
+ * この場合、ワークフロー定義のロードクラスは{@link LazyWorkflowDefinitionLoader}を実装している必要がある。
  *
  * @author hisaaki sioiri
  * @since 1.4.2
  */
 public class WorkflowDefinitionHolder implements Initializable {
 
-    /** ワークフロー定義情報 */
-    private List<WorkflowDefinition> workflowDefinitions = new ArrayList<WorkflowDefinition>();
+    /** ロガー */
+    private static final Logger LOG = LoggerManager.get(WorkflowDefinitionHolder.class);
+
+    /** ワークフロー定義情報のインデックス */
+    private final AtomicReference<DefinitionIndex> definitionIndex =
+            new AtomicReference<DefinitionIndex>(new DefinitionIndex(new ArrayList<WorkflowDefinition>()));
+
+    /** 再読み込み処理の排他制御に使用するロック */
+    private final Object reloadLock = new Object();
+
+    /** 基準日時点で適用期間内のワークフロー定義のキャッシュ */
+    private volatile EffectiveDefinitionCache effectiveDefinitionCache;
+
+    /** 基準日 */
+    private volatile ReferenceDay referenceDay;
+
+    /** 遅延ロードした古いバージョンのワークフロー定義のキャッシュ */
+    private volatile OldVersionCache oldVersionCache;
+
+    /** 遅延ロードモードか否か */
+    private boolean lazyLoad;
+
+    /** 遅延ロードした古いバージョンのワークフロー定義を保持する上限件数 */
+    private int oldVersionCacheSize = 100;
 
     /** ワークフロー定義のロードクラス */
     private WorkflowDefinitionLoader workflowDefinitionLoader;
@@ -47,40 +96,25 @@ public class WorkflowDefinitionHolder implements Initializable {
      * @throws IllegalArgumentException ワークフロー定義が存在しない場合
      */
     public WorkflowDefinition getWorkflowDefinition(final String workflowId) throws IllegalArgumentException {
-
-        List<WorkflowDefinition> filtered = WorkflowUtil.filterList(workflowDefinitions,
-                new WorkflowUtil.ListFilter<WorkflowDefinition>() {
-                    @Override
-                    public boolean isMatch(WorkflowDefinition other) {
-                        return other.getWorkflowId().equals(workflowId)
-                                && isEffectiveWorkflow(other.getEffectiveDate());
-                    }
-
-                    /**
-                     * 適用期間内のワークフローか否かを判定する。
-                     * @param effectiveDate 適用日
-                     * @return 有効な場合はtrue
-                     */
-                    private boolean isEffectiveWorkflow(String effectiveDate) {
-                        return DateUtil.getDays(getReferenceDate(), effectiveDate) <= 0;
-                    }
-                });
-
-        if (filtered.isEmpty()) {
+        DefinitionIndex index = definitionIndex.get();
+        if (!index.contains(workflowId)) {
             throw new IllegalArgumentException("Workflow definition was not found. workflow id = [" + workflowId + "]");
         }
 
-        // 最大のバージョン番号を持つワークフロー定義を返却
-        return Collections.max(filtered, new Comparator<WorkflowDefinition>() {
-            @Override
-            public int compare(WorkflowDefinition o1, WorkflowDefinition o2) {
-                return o1.getVersion() - o2.getVersion();
-            }
-        });
+        String referenceDate = getReferenceDate();
+        EffectiveDefinitionCache cache = effectiveDefinitionCache;
+        if (cache == null || !cache.isFor(index, referenceDate)) {
+            cache = new EffectiveDefinitionCache(index, referenceDate);
+            effectiveDefinitionCache = cache;
+        }
+        return cache.get(workflowId);
     }
 
     /**
      * ワークフローID及びバージョン番号に紐づくワークフロー定義を取得する。
+     * <p/>
+     * 遅延ロードモードの場合で、事前にロードしたワークフロー定義に該当するものが存在しない場合は、
+     * ワークフロー定義のロードクラスからロードしてキャッシュする。
      *
      * @param workflowId ワークフローID
      * @param version バージョン番号
@@ -89,21 +123,37 @@ public class WorkflowDefinitionHolder implements Initializable {
      */
     public WorkflowDefinition getWorkflowDefinition(final String workflowId, final long version)
             throws IllegalArgumentException {
-        List<WorkflowDefinition> filtered = WorkflowUtil.filterList(workflowDefinitions,
-                new WorkflowUtil.ListFilter<WorkflowDefinition>() {
-                    @Override
-                    public boolean isMatch(WorkflowDefinition other) {
-                        return (other.getWorkflowId().equals(workflowId))
-                                && (other.getVersion() == version);
-                    }
-                });
-
-        if (filtered.isEmpty()) {
+        WorkflowDefinition definition = definitionIndex.get().find(workflowId, version);
+        if (definition == null && lazyLoad) {
+            definition = findOldVersion(workflowId, version);
+        }
+        if (definition == null) {
             throw new IllegalArgumentException(
                     String.format("Workflow definition was not found. workflow id = [%s], version = [%d]",
                             workflowId, version));
         }
-        return filtered.get(0);
+        return definition;
+    }
+
+    /**
+     * 古いバージョンのワークフロー定義を取得する。
+     * <p/>
+     * キャッシュに存在しない場合は、ワークフロー定義のロードクラスからロードしてキャッシュする。
+     *
+     * @param workflowId ワークフローID
+     * @param version バージョン番号
+     * @return ワークフロー定義(存在しない場合はnull)
+     */
+    private WorkflowDefinition findOldVersion(String workflowId, long version) {
+        OldVersionCache cache = oldVersionCache;
+        WorkflowDefinition definition = cache.get(workflowId, version);
+        if (definition == null) {
+            definition = ((LazyWorkflowDefinitionLoader) workflowDefinitionLoader).load(workflowId, version);
+            if (definition != null) {
+                cache.put(workflowId, version, definition);
+            }
+        }
+        return definition;
     }
 
     /**
@@ -124,12 +174,96 @@ public class WorkflowDefinitionHolder implements Initializable {
         this.systemTimeProvider = systemTimeProvider;
     }
 
+    /**
+     * 遅延ロードモードを設定する。
+     * <p/>
+     * trueを設定した場合、基準日時点で適用期間内のワークフロー定義と適用開始前のワークフロー定義のみを事前にロードし、
+     * それより古いバージョンのワークフロー定義は初めて取得された時点でロードする。
+     * デフォルトはfalse(全てのワークフロー定義を事前にロードする)。
+     *
+     * @param lazyLoad 遅延ロードモードの場合はtrue
+     */
+    public void setLazyLoad(boolean lazyLoad) {
+        this.lazyLoad = lazyLoad;
+    }
+
+    /**
+     * 遅延ロードした古いバージョンのワークフロー定義を保持する上限件数を設定する。
+     * <p/>
+     * デフォルトは100件。
+     *
+     * @param oldVersionCacheSize 保持する上限件数
+     */
+    public void setOldVersionCacheSize(int oldVersionCacheSize) {
+        this.oldVersionCacheSize = oldVersionCacheSize;
+    }
+
     /**
      * 初期化処理を行う。
      */
     @Override
     public void initialize() {
-        workflowDefinitions = workflowDefinitionLoader.load();
+        if (lazyLoad && !(workflowDefinitionLoader instanceof LazyWorkflowDefinitionLoader)) {
+            throw new IllegalStateException(String.format(
+                    "workflowDefinitionLoader must implement %s when lazyLoad is true. workflowDefinitionLoader = [%s]",
+                    LazyWorkflowDefinitionLoader.class.getName(),
+                    workflowDefinitionLoader == null ? null : workflowDefinitionLoader.getClass().getName()));
+        }
+        if (oldVersionCacheSize < 1) {
+            throw new IllegalStateException(String.format(
+                    "oldVersionCacheSize must be greater than 0. oldVersionCacheSize = [%d]", oldVersionCacheSize));
+        }
+        reload();
+    }
+
+    /**
+     * ワークフロー定義情報を再読み込みする。
+     * <p/>
+     * {@link WorkflowDefinitionLoader}で全てのワークフロー定義をロードしてインデックスを構築した後、
+     * 保持しているインデックスを差し替える。
+     * ロード中もワークフロー定義の取得処理は差し替え前のインデックスを参照して継続できる。
+     * <p/>
+     * 遅延ロードモードの場合は、基準日時点で適用期間内のワークフロー定義と適用開始前のワークフロー定義のみをロードし、
+     * 遅延ロードした古いバージョンのワークフロー定義のキャッシュは破棄する。
+     * <p/>
+     * ロードに失敗した場合は、差し替え前のワークフロー定義情報を保持したまま例外を送出する。
+     * 再読み込みが同時に要求された場合は、順に実行する。
+     */
+    public void reload() {
+        synchronized (reloadLock) {
+            List<WorkflowDefinition> loaded;
+            if (lazyLoad) {
+                loaded = ((LazyWorkflowDefinitionLoader) workflowDefinitionLoader).loadEffective(getReferenceDate());
+                oldVersionCache = new OldVersionCache(oldVersionCacheSize);
+            } else {
+                loaded = workflowDefinitionLoader.load();
+            }
+            definitionIndex.set(new DefinitionIndex(new ArrayList<WorkflowDefinition>(loaded)));
+            LOG.logInfo(String.format("workflow definitions were reloaded. definition count = [%d]", loaded.size()));
+        }
+    }
+
+    /**
+     * ワークフロー定義情報の再読み込みを、呼び出し元とは別のスレッドで実行する。
+     * <p/>
+     * 再読み込みの内容は{@link #reload()}と同じである。
+     * 呼び出し元は再読み込みの完了を待たずに処理を継続できる。
+     * 再読み込みの完了や、再読み込み中に発生した例外は、戻り値の{@link Future}から取得できる。
+     *
+     * @return 再読み込み処理の結果
+     */
+    public Future<Void> reloadInBackground() {
+        FutureTask<Void> task = new FutureTask<Void>(new Callable<Void>() {
+            @Override
+            public Void call() {
+                reload();
+                return null;
+            }
+        });
+        Thread thread = new Thread(task, "workflow-definition-reloader");
+        thread.setDaemon(true);
+        thread.start();
+        return task;
     }
 
     /**
@@ -138,17 +272,283 @@ public class WorkflowDefinitionHolder implements Initializable {
      * @param workflowDefinition ワークフロー定義
      */
     void addWorkflow(WorkflowDefinition workflowDefinition) {
-        workflowDefinitions.add(workflowDefinition);
+        synchronized (reloadLock) {
+            List<WorkflowDefinition> definitions =
+                    new ArrayList<WorkflowDefinition>(definitionIndex.get().workflowDefinitions);
+            definitions.add(workflowDefinition);
+            definitionIndex.set(new DefinitionIndex(definitions));
+        }
     }
 
     /**
      * 適用期間判断のための基準日を取得する。
+     * <p/>
+     * 基準日の文字列表現は日単位でキャッシュし、日付が変わった場合にのみ再生成する。
      *
      * @return 基準日
      */
     protected String getReferenceDate() {
-        DateFormat dateFormat = new SimpleDateFormat("yyyyMMdd");
-        return dateFormat.format(systemTimeProvider.getDate());
+        long now = systemTimeProvider.getDate().getTime();
+        ReferenceDay day = referenceDay;
+        if (day == null || !day.contains(now)) {
+            day = new ReferenceDay(now);
+            referenceDay = day;
+        }
+        return day.date;
     }
-}
 
+    /**
+     * ワークフロー定義情報のインデックス。
+     * <p/>
+     * 生成後に内容が変更されることはない。
+     */
+    private static final class DefinitionIndex {
+
+        /** バージョン番号の降順に比較する{@link Comparator} */
+        private static final Comparator<WorkflowDefinition> VERSION_DESC = new Comparator<WorkflowDefinition>() {
+            @Override
+            public int compare(WorkflowDefinition o1, WorkflowDefinition o2) {
+                return o2.getVersion() - o1.getVersion();
+            }
+        };
+
+        /** ワークフロー定義情報 */
+        private final List<WorkflowDefinition> workflowDefinitions;
+
+        /** ワークフローIDをキーとした、バージョン番号の降順にソートされたワークフロー定義 */
+        private final Map<String, List<WorkflowDefinition>> versions = new HashMap<String, List<WorkflowDefinition>>();
+
+        /** ワークフローID及びバージョン番号をキーとしたワークフロー定義 */
+        private final Map<String, Map<Long, WorkflowDefinition>> definitions = new HashMap<String, Map<Long, WorkflowDefinition>>();
+
+        /**
+         * ワークフロー定義情報のインデックスを生成する。
+         *
+         * @param workflowDefinitions ワークフロー定義情報
+         */
+        private DefinitionIndex(List<WorkflowDefinition> workflowDefinitions) {
+            this.workflowDefinitions = Collections.unmodifiableList(workflowDefinitions);
+            for (WorkflowDefinition definition : workflowDefinitions) {
+                String workflowId = definition.getWorkflowId();
+                List<WorkflowDefinition> list = versions.get(workflowId);
+                if (list == null) {
+                    list = new ArrayList<WorkflowDefinition>();
+                    versions.put(workflowId, list);
+                    definitions.put(workflowId, new HashMap<Long, WorkflowDefinition>());
+                }
+                list.add(definition);
+
+                // 同一バージョンが複数存在する場合は、先に定義されているものを優先する。
+                Map<Long, WorkflowDefinition> byVersion = definitions.get(workflowId);
+                Long version = (long) definition.getVersion();
+                if (!byVersion.containsKey(version)) {
+                    byVersion.put(version, definition);
+                }
+            }
+            for (List<WorkflowDefinition> list : versions.values()) {
+                Collections.sort(list, VERSION_DESC);
+            }
+        }
+
+        /**
+         * ワークフローIDに紐づくワークフロー定義が存在するか否か。
+         *
+         * @param workflowId ワークフローID
+         * @return 存在する場合はtrue
+         */
+        private boolean contains(String workflowId) {
+            return versions.containsKey(workflowId);
+        }
+
+        /**
+         * ワークフローID及びバージョン番号に紐づくワークフロー定義を取得する。
+         *
+         * @param workflowId ワークフローID
+         * @param version バージョン番号
+         * @return ワークフロー定義(存在しない場合はnull)
+         */
+        private WorkflowDefinition find(String workflowId, long version) {
+            Map<Long, WorkflowDefinition> byVersion = definitions.get(workflowId);
+            return byVersion == null ? null : byVersion.get(version);
+        }
+
+        /**
+         * ワークフローIDに紐づく、基準日時点で適用期間内かつバージョン番号が最大のワークフロー定義を取得する。
+         *
+         * @param workflowId ワークフローID
+         * @param referenceDate 基準日
+         * @return ワークフロー定義(存在しない場合はnull)
+         */
+        private WorkflowDefinition findEffective(String workflowId, String referenceDate) {
+            List<WorkflowDefinition> list = versions.get(workflowId);
+            if (list == null) {
+                return null;
+            }
+            for (WorkflowDefinition definition : list) {
+                if (DateUtil.getDays(referenceDate, definition.getEffectiveDate()) <= 0) {
+                    return definition;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 基準日時点で適用期間内のワークフロー定義をワークフローID単位に保持するキャッシュ。
+     */
+    private static final class EffectiveDefinitionCache {
+
+        /** キャッシュ対象のインデックス */
+        private final DefinitionIndex index;
+
+        /** 基準日 */
+        private final String referenceDate;
+
+        /** ワークフローIDをキーとした適用期間内のワークフロー定義 */
+        private final ConcurrentMap<String, WorkflowDefinition> cache = new ConcurrentHashMap<String, WorkflowDefinition>();
+
+        /**
+         * キャッシュを生成する。
+         *
+         * @param index キャッシュ対象のインデックス
+         * @param referenceDate 基準日
+         */
+        private EffectiveDefinitionCache(DefinitionIndex index, String referenceDate) {
+            this.index = index;
+            this.referenceDate = referenceDate;
+        }
+
+        /**
+         * 指定されたインデックス及び基準日に対応するキャッシュか否か。
+         *
+         * @param index インデックス
+         * @param referenceDate 基準日
+         * @return 対応するキャッシュの場合はtrue
+         */
+        private boolean isFor(DefinitionIndex index, String referenceDate) {
+            return this.index == index && this.referenceDate.equals(referenceDate);
+        }
+
+        /**
+         * ワークフローIDに紐づく適用期間内のワークフロー定義を取得する。
+         *
+         * @param workflowId ワークフローID
+         * @return ワークフロー定義
+         * @throws IllegalArgumentException ワークフロー定義が存在しない場合
+         */
+        private WorkflowDefinition get(String workflowId) throws IllegalArgumentException {
+            WorkflowDefinition definition = cache.get(workflowId);
+            if (definition == null) {
+                definition = index.findEffective(workflowId, referenceDate);
+                if (definition == null) {
+                    throw new IllegalArgumentException("Workflow definition was not found. workflow id = [" + workflowId + "]");
+                }
+                cache.put(workflowId, definition);
+            }
+            return definition;
+        }
+    }
+
+    /**
+     * 遅延ロードした古いバージョンのワークフロー定義を保持するキャッシュ。
+     * <p/>
+     * 上限件数を超えた場合は、最も長く参照されていないワークフロー定義から破棄する。
+     */
+    private static final class OldVersionCache {
+
+        /** ワークフローID及びバージョン番号をキーとしたワークフロー定義(参照順) */
+        private final Map<String, WorkflowDefinition> cache;
+
+        /**
+         * キャッシュを生成する。
+         *
+         * @param maxSize 保持する上限件数
+         */
+        private OldVersionCache(final int maxSize) {
+            cache = new LinkedHashMap<String, WorkflowDefinition>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, WorkflowDefinition> eldest) {
+                    return size() > maxSize;
+                }
+            };
+        }
+
+        /**
+         * ワークフローID及びバージョン番号に紐づくワークフロー定義を取得する。
+         *
+         * @param workflowId ワークフローID
+         * @param version バージョン番号
+         * @return ワークフロー定義(存在しない場合はnull)
+         */
+        private synchronized WorkflowDefinition get(String workflowId, long version) {
+            return cache.get(toKey(workflowId, version));
+        }
+
+        /**
+         * ワークフロー定義を追加する。
+         *
+         * @param workflowId ワークフローID
+         * @param version バージョン番号
+         * @param definition ワークフロー定義
+         */
+        private synchronized void put(String workflowId, long version, WorkflowDefinition definition) {
+            cache.put(toKey(workflowId, version), definition);
+        }
+
+        /**
+         * ワークフローID及びバージョン番号からキャッシュのキーを生成する。
+         *
+         * @param workflowId ワークフローID
+         * @param version バージョン番号
+         * @return キャッシュのキー
+         */
+        private static String toKey(String workflowId, long version) {
+            return workflowId + ':' + version;
+        }
+    }
+
+    /**
+     * 基準日と、その日の開始・終了日時を保持するクラス。
+     */
+    private static final class ReferenceDay {
+
+        /** 基準日(yyyyMMdd形式) */
+        private final String date;
+
+        /** 基準日の開始日時(この値を含む) */
+        private final long from;
+
+        /** 基準日の終了日時(この値を含まない) */
+        private final long to;
+
+        /**
+         * 指定された日時を含む日の基準日を生成する。
+         *
+         * @param time 日時
+         */
+        private ReferenceDay(long time) {
+            Calendar calendar = Calendar.getInstance();
+            calendar.setTimeInMillis(time);
+            calendar.set(Calendar.HOUR_OF_DAY, 0);
+            calendar.set(Calendar.MINUTE, 0);
+            calendar.set(Calendar.SECOND, 0);
+            calendar.set(Calendar.MILLISECOND, 0);
+            from = calendar.getTimeInMillis();
+            calendar.add(Calendar.DATE, 1);
+            to = calendar.getTimeInMillis();
+
+            DateFormat dateFormat = new SimpleDateFormat("yyyyMMdd");
+            date = dateFormat.format(new Date(time));
+        }
+
+        /**
+         * 指定された日時が基準日に含まれるか否か。
+         *
+         * @param time 日時
+         * @return 含まれる場合はtrue
+         */
+        private boolean contains(long time) {
+            return from <= time && time < to;
+        }
+    }
+}
@@ -0,0 +1,558 @@
+package nablarch.integration.workflow.definition.loader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+import nablarch.core.util.FileUtil;
+
+import nablarch.integration.workflow.definition.BoundaryEvent;
+import nablarch.integration.workflow.definition.Event;
+import nablarch.integration.workflow.definition.Gateway;
+import nablarch.integration.workflow.definition.Lane;
+import nablarch.integration.workflow.definition.SequenceFlow;
+import nablarch.integration.workflow.definition.Task;
+import nablarch.integration.workflow.definition.WorkflowDefinition;
+
+/**
+ * BPMN 2.0形式のファイルからワークフローの定義情報をロードするクラス。
+ * <p/>
+ * ファイルはStAXにより先頭から順に読み込み、DOMを構築せずにワークフロー定義を生成する。
+ * ファイル内のprocess要素ごとに1つのワークフロー定義を生成し、
+ * ワークフローIDにはprocess要素のid属性を、ワークフロー名にはname属性を使用する。
+ * <p/>
+ * バージョン番号と適用開始日は、ファイル名から取得する。
+ * ファイル名は「任意の文字列_ver{バージョン番号}_{適用開始日(yyyyMMdd形式)}.bpmn」の形式とすること。
+ * <p/>
+ * サポートする要素は以下のとおり。これ以外のフローノードが定義されている場合は例外を送出する。
+ * <ul>
+ * <li>lane(flowNodeRefによりフローノードのレーンを決定する。
+ * childLaneSetにより入れ子になっている場合は、最も内側のレーンをフローノードのレーンとする)</li>
+ * <li>startEvent、endEvent(terminateEventDefinitionを持つもののみ)</li>
+ * <li>userTask(multiInstanceLoopCharacteristicsのisSequential属性及びcompletionConditionを含む)</li>
+ * <li>exclusiveGateway</li>
+ * <li>boundaryEvent(messageEventDefinitionを持つもののみ。メッセージのid及びnameを境界イベントトリガーとする)</li>
+ * <li>sequenceFlow(conditionExpressionの値をフローコンディションの型名とする)</li>
+ * </ul>
+ *
+ * @since 1.4.2
+ */
+public class BpmnWorkflowDefinitionLoader implements WorkflowDefinitionLoader {
+
+    /** ロガー */
+    private static final Logger LOG = LoggerManager.get(BpmnWorkflowDefinitionLoader.class);
+
+    /** BPMN 2.0の名前空間 */
+    private static final String BPMN_NAMESPACE = "http://www.omg.org/spec/BPMN/20100524/MODEL";
+
+    /** バージョン番号と適用開始日を取得するためのファイル名のパターン */
+    private static final Pattern FILE_NAME_PATTERN = Pattern.compile("^.*_ver(\\d+)_(\\d{8})\\.bpmn$");
+
+    /** process要素内で読み飛ばす要素 */
+    private static final Set<String> IGNORED_ELEMENTS = new HashSet<String>(Arrays.asList(
+            "documentation", "extensionElements", "incoming", "outgoing",
+            "textAnnotation", "association", "dataObject", "dataObjectReference"));
+
+    /** BPMNファイルのパス */
+    private List<String> bpmnFiles = Collections.emptyList();
+
+    /**
+     * ワークフロー定義をロードする。
+     *
+     * @return ワークフロー定義
+     */
+    @Override
+    public List<WorkflowDefinition> load() {
+        List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>();
+        for (String bpmnFile : bpmnFiles) {
+            for (WorkflowDefinition workflowDefinition : load(bpmnFile)) {
+                LOG.logInfo(String.format(
+                        "load workflow definition. workflowId = [%s], workflowName = [%s], version = [%d], effectiveDate = [%S]",
+                        workflowDefinition.getWorkflowId(), workflowDefinition.getWorkflowName(),
+                        workflowDefinition.getVersion(), workflowDefinition.getEffectiveDate()));
+                result.add(workflowDefinition);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * BPMNファイルからワークフロー定義をロードする。
+     *
+     * @param bpmnFile BPMNファイルのパス
+     * @return ワークフロー定義
+     */
+    protected List<WorkflowDefinition> load(String bpmnFile) {
+        String fileName = bpmnFile.substring(Math.max(bpmnFile.lastIndexOf('/'), bpmnFile.lastIndexOf('\\')) + 1);
+        Matcher matcher = FILE_NAME_PATTERN.matcher(fileName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException(String.format(
+                    "bpmn file name must be [name]_ver[version]_[yyyyMMdd].bpmn. file = [%s]", bpmnFile));
+        }
+        int version = Integer.parseInt(matcher.group(1));
+        String effectiveDate = matcher.group(2);
+
+        InputStream in = FileUtil.getResource(bpmnFile);
+        try {
+            XMLStreamReader reader = createInputFactory().createXMLStreamReader(in);
+            try {
+                return new BpmnParser(reader, version, effectiveDate).parse();
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            throw new IllegalArgumentException(String.format("failed to parse bpmn file. file = [%s]", bpmnFile), e);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format("%s file = [%s]", e.getMessage(), bpmnFile), e);
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+    }
+
+    /**
+     * BPMNファイルの読み込みに使用する{@link XMLInputFactory}を生成する。
+     *
+     * @return {@link XMLInputFactory}
+     */
+    private static XMLInputFactory createInputFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        return factory;
+    }
+
+    /**
+     * BPMNファイルのパスを設定する。
+     * <p/>
+     * パスには、「classpath:」または「file:」から始まる形式を指定できる。
+     *
+     * @param bpmnFiles BPMNファイルのパス
+     */
+    public void setBpmnFiles(List<String> bpmnFiles) {
+        this.bpmnFiles = bpmnFiles;
+    }
+
+    /**
+     * BPMNファイルを読み込み、ワークフロー定義を生成するクラス。
+     */
+    private static final class BpmnParser {
+
+        /** 読み込み元 */
+        private final XMLStreamReader reader;
+
+        /** バージョン番号 */
+        private final int version;
+
+        /** 適用開始日 */
+        private final String effectiveDate;
+
+        /** メッセージIDをキーとしたメッセージ名 */
+        private final Map<String, String> messages = new HashMap<String, String>();
+
+        /** 読み込んだプロセス */
+        private final List<ProcessDefinition> processes = new ArrayList<ProcessDefinition>();
+
+        /** 読み込み中のプロセス */
+        private ProcessDefinition process;
+
+        /** 読み込み中のレーンID(入れ子になっている場合は外側のレーンから順に保持する) */
+        private final LinkedList<String> laneIds = new LinkedList<String>();
+
+        /** 読み込み中のフローノード */
+        private FlowNodeDefinition flowNode;
+
+        /** 読み込み中のシーケンスフロー */
+        private String[] sequenceFlow;
+
+        /**
+         * パーサを生成する。
+         *
+         * @param reader 読み込み元
+         * @param version バージョン番号
+         * @param effectiveDate 適用開始日
+         */
+        private BpmnParser(XMLStreamReader reader, int version, String effectiveDate) {
+            this.reader = reader;
+            this.version = version;
+            this.effectiveDate = effectiveDate;
+        }
+
+        /**
+         * BPMNファイルを読み込み、ワークフロー定義を生成する。
+         *
+         * @return ワークフロー定義
+         * @throws XMLStreamException 読み込みに失敗した場合
+         */
+        private List<WorkflowDefinition> parse() throws XMLStreamException {
+            while (reader.hasNext()) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    if (BPMN_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        startElement(reader.getLocalName());
+                    } else {
+                        skipElement();
+                    }
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    if (BPMN_NAMESPACE.equals(reader.getNamespaceURI())) {
+                        endElement(reader.getLocalName());
+                    }
+                }
+            }
+
+            List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>(processes.size());
+            for (ProcessDefinition definition : processes) {
+                result.add(definition.build(version, effectiveDate, messages));
+            }
+            return result;
+        }
+
+        /**
+         * 要素の開始を処理する。
+         *
+         * @param name 要素名
+         * @throws XMLStreamException 読み込みに失敗した場合
+         */
+        private void startElement(String name) throws XMLStreamException {
+            if ("message".equals(name)) {
+                messages.put(attribute("id"), attribute("name"));
+                skipElement();
+            } else if ("process".equals(name)) {
+                process = new ProcessDefinition(attribute("id"), attribute("name"));
+            } else if (process == null) {
+                // process要素外はmessage要素のみを使用する。
+                if (!"definitions".equals(name)) {
+                    skipElement();
+                }
+            } else if ("laneSet".equals(name) || "childLaneSet".equals(name)) {
+                // レーンはlane要素で処理する。
+            } else if ("lane".equals(name)) {
+                laneIds.addLast(attribute("id"));
+                process.lanes.add(new Lane(laneIds.getLast(), attribute("name")));
+            } else if ("flowNodeRef".equals(name)) {
+                process.putLaneId(reader.getElementText().trim(), laneIds.getLast(), laneIds.size());
+            } else if ("startEvent".equals(name)) {
+                startFlowNode(FlowNodeType.START_EVENT);
+            } else if ("endEvent".equals(name)) {
+                startFlowNode(FlowNodeType.END_EVENT);
+            } else if ("terminateEventDefinition".equals(name) && flowNode != null
+                    && flowNode.type == FlowNodeType.END_EVENT) {
+                flowNode.terminate = true;
+                skipElement();
+            } else if ("userTask".equals(name)) {
+                startFlowNode(FlowNodeType.USER_TASK);
+            } else if ("multiInstanceLoopCharacteristics".equals(name) && flowNode != null
+                    && flowNode.type == FlowNodeType.USER_TASK) {
+                flowNode.multiInstanceType = Boolean.parseBoolean(attribute("isSequential"))
+                        ? Task.MultiInstanceType.SEQUENTIAL.name()
+                        : Task.MultiInstanceType.PARALLEL.name();
+            } else if ("completionCondition".equals(name) && flowNode != null
+                    && flowNode.type == FlowNodeType.USER_TASK) {
+                flowNode.completionCondition = trimToNull(reader.getElementText());
+            } else if ("exclusiveGateway".equals(name)) {
+                startFlowNode(FlowNodeType.EXCLUSIVE_GATEWAY);
+            } else if ("boundaryEvent".equals(name)) {
+                startFlowNode(FlowNodeType.BOUNDARY_EVENT);
+                flowNode.attachedTaskId = attribute("attachedToRef");
+            } else if ("messageEventDefinition".equals(name) && flowNode != null
+                    && flowNode.type == FlowNodeType.BOUNDARY_EVENT) {
+                flowNode.triggerId = attribute("messageRef");
+                skipElement();
+            } else if ("sequenceFlow".equals(name)) {
+                sequenceFlow = new String[] {
+                        attribute("id"), attribute("name"), attribute("sourceRef"), attribute("targetRef"), null};
+                process.sequenceFlows.add(sequenceFlow);
+            } else if ("conditionExpression".equals(name) && sequenceFlow != null) {
+                sequenceFlow[4] = trimToNull(reader.getElementText());
+            } else if (IGNORED_ELEMENTS.contains(name)) {
+                skipElement();
+            } else {
+                throw new IllegalArgumentException(String.format(
+                        "unsupported bpmn element. element = [%s], process id = [%s]", name, process.id));
+            }
+        }
+
+        /**
+         * 要素の終了を処理する。
+         *
+         * @param name 要素名
+         */
+        private void endElement(String name) {
+            if ("process".equals(name)) {
+                processes.add(process);
+                process = null;
+            } else if ("lane".equals(name)) {
+                laneIds.removeLast();
+            } else if ("sequenceFlow".equals(name)) {
+                sequenceFlow = null;
+            } else if (flowNode != null && flowNode.type.elementName.equals(name)) {
+                process.flowNodes.add(flowNode);
+                flowNode = null;
+            }
+        }
+
+        /**
+         * フローノードの読み込みを開始する。
+         *
+         * @param type フローノードの種類
+         */
+        private void startFlowNode(FlowNodeType type) {
+            flowNode = new FlowNodeDefinition(type, attribute("id"), attribute("name"));
+        }
+
+        /**
+         * 現在の要素の属性値を取得する。
+         *
+         * @param name 属性名
+         * @return 属性値(存在しない場合はnull)
+         */
+        private String attribute(String name) {
+            return reader.getAttributeValue(null, name);
+        }
+
+        /**
+         * 現在の要素を子要素を含めて読み飛ばす。
+         *
+         * @throws XMLStreamException 読み込みに失敗した場合
+         */
+        private void skipElement() throws XMLStreamException {
+            int depth = 1;
+            while (depth > 0) {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT) {
+                    depth++;
+                } else if (event == XMLStreamConstants.END_ELEMENT) {
+                    depth--;
+                }
+            }
+        }
+
+        /**
+         * 前後の空白を除去し、空文字列の場合はnullを返却する。
+         *
+         * @param value 文字列
+         * @return 前後の空白を除去した文字列
+         */
+        private static String trimToNull(String value) {
+            String trimmed = value.trim();
+            return trimmed.length() == 0 ? null : trimmed;
+        }
+    }
+
+    /**
+     * サポートするフローノードの種類。
+     */
+    private enum FlowNodeType {
+        /** 開始イベント */
+        START_EVENT("startEvent"),
+        /** 終了イベント */
+        END_EVENT("endEvent"),
+        /** ユーザタスク */
+        USER_TASK("userTask"),
+        /** 排他ゲートウェイ */
+        EXCLUSIVE_GATEWAY("exclusiveGateway"),
+        /** 境界イベント */
+        BOUNDARY_EVENT("boundaryEvent");
+
+        /** 要素名 */
+        private final String elementName;
+
+        /**
+         * フローノードの種類を生成する。
+         *
+         * @param elementName 要素名
+         */
+        FlowNodeType(String elementName) {
+            this.elementName = elementName;
+        }
+    }
+
+    /**
+     * 読み込んだフローノードの定義。
+     */
+    private static final class FlowNodeDefinition {
+
+        /** フローノードの種類 */
+        private final FlowNodeType type;
+
+        /** フローノードID */
+        private final String id;
+
+        /** フローノード名 */
+        private final String name;
+
+        /** 終了イベントが停止終了イベントか否か */
+        private boolean terminate;
+
+        /** マルチインスタンスタイプ */
+        private String multiInstanceType = Task.MultiInstanceType.NONE.name();
+
+        /** 完了条件 */
+        private String completionCondition;
+
+        /** 境界イベントトリガーID */
+        private String triggerId;
+
+        /** 境界イベントの接続先タスクID */
+        private String attachedTaskId;
+
+        /**
+         * フローノードの定義を生成する。
+         *
+         * @param type フローノードの種類
+         * @param id フローノードID
+         * @param name フローノード名
+         */
+        private FlowNodeDefinition(FlowNodeType type, String id, String name) {
+            this.type = type;
+            this.id = id;
+            this.name = name;
+        }
+    }
+
+    /**
+     * 読み込んだプロセスの定義。
+     */
+    private static final class ProcessDefinition {
+
+        /** プロセスID */
+        private final String id;
+
+        /** プロセス名 */
+        private final String name;
+
+        /** レーン */
+        private final List<Lane> lanes = new ArrayList<Lane>();
+
+        /** フローノードIDをキーとしたレーンID */
+        private final Map<String, String> laneIds = new HashMap<String, String>();
+
+        /** フローノードIDをキーとした、レーンの入れ子の深さ */
+        private final Map<String, Integer> laneDepths = new HashMap<String, Integer>();
+
+        /** フローノード */
+        private final List<FlowNodeDefinition> flowNodes = new ArrayList<FlowNodeDefinition>();
+
+        /** シーケンスフロー(ID、名前、遷移元、遷移先、フローコンディション) */
+        private final List<String[]> sequenceFlows = new ArrayList<String[]>();
+
+        /**
+         * プロセスの定義を生成する。
+         *
+         * @param id プロセスID
+         * @param name プロセス名
+         */
+        private ProcessDefinition(String id, String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        /**
+         * フローノードのレーンIDを設定する。
+         * <p/>
+         * 入れ子になったレーンの両方から参照されている場合は、要素の出現順によらず内側のレーンを優先する。
+         *
+         * @param flowNodeId フローノードID
+         * @param laneId レーンID
+         * @param depth レーンの入れ子の深さ
+         */
+        private void putLaneId(String flowNodeId, String laneId, int depth) {
+            Integer current = laneDepths.get(flowNodeId);
+            if (current == null || current < depth) {
+                laneIds.put(flowNodeId, laneId);
+                laneDepths.put(flowNodeId, depth);
+            }
+        }
+
+        /**
+         * ワークフロー定義を生成する。
+         *
+         * @param version バージョン番号
+         * @param effectiveDate 適用開始日
+         * @param messages メッセージIDをキーとしたメッセージ名
+         * @return ワークフロー定義
+         */
+        private WorkflowDefinition build(int version, String effectiveDate, Map<String, String> messages) {
+            WorkflowDefinition definition = new WorkflowDefinition(id, version, name, effectiveDate);
+            definition.setLanes(lanes);
+
+            List<SequenceFlow> flows = new ArrayList<SequenceFlow>(sequenceFlows.size());
+            Map<String, List<SequenceFlow>> outgoingFlows = new HashMap<String, List<SequenceFlow>>();
+            for (String[] values : sequenceFlows) {
+                SequenceFlow sequenceFlow = new SequenceFlow(values[0], values[1], values[2], values[3], values[4]);
+                flows.add(sequenceFlow);
+                List<SequenceFlow> outgoing = outgoingFlows.get(sequenceFlow.getSourceFlowNodeId());
+                if (outgoing == null) {
+                    outgoing = new ArrayList<SequenceFlow>();
+                    outgoingFlows.put(sequenceFlow.getSourceFlowNodeId(), outgoing);
+                }
+                outgoing.add(sequenceFlow);
+            }
+            definition.setSequenceFlows(flows);
+
+            List<Event> events = new ArrayList<Event>();
+            List<Task> tasks = new ArrayList<Task>();
+            List<Gateway> gateways = new ArrayList<Gateway>();
+            List<BoundaryEvent> boundaryEvents = new ArrayList<BoundaryEvent>();
+            for (FlowNodeDefinition node : flowNodes) {
+                String laneId = laneIds.get(node.id);
+                List<SequenceFlow> outgoing = outgoingFlows.get(node.id);
+                if (outgoing == null) {
+                    outgoing = Collections.emptyList();
+                }
+                switch (node.type) {
+                    case START_EVENT:
+                        events.add(new Event(node.id, node.name, laneId, Event.EventType.START.name(), outgoing));
+                        break;
+                    case END_EVENT:
+                        if (!node.terminate) {
+                            throw new IllegalArgumentException(String.format(
+                                    "end event must be terminate end event. process id = [%s], flow node id = [%s]",
+                                    id, node.id));
+                        }
+                        events.add(new Event(node.id, node.name, laneId, Event.EventType.TERMINATE.name(), outgoing));
+                        break;
+                    case USER_TASK:
+                        tasks.add(new Task(node.id, node.name, laneId, node.multiInstanceType,
+                                node.completionCondition, outgoing));
+                        break;
+                    case EXCLUSIVE_GATEWAY:
+                        gateways.add(new Gateway(node.id, node.name, laneId,
+                                Gateway.GatewayType.EXCLUSIVE.name(), outgoing));
+                        break;
+                    default:
+                        if (node.triggerId == null) {
+                            throw new IllegalArgumentException(String.format(
+                                    "boundary event must be message boundary event. process id = [%s], flow node id = [%s]",
+                                    id, node.id));
+                        }
+                        boundaryEvents.add(new BoundaryEvent(node.id, node.name, laneId, node.triggerId,
+                                messages.get(node.triggerId), node.attachedTaskId, outgoing));
+                        break;
+                }
+            }
+            definition.setEvents(events);
+            definition.setTasks(tasks);
+            definition.setGateways(gateways);
+            definition.setBoundaryEvents(boundaryEvents);
+            definition.initialize();
+            return definition;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package nablarch.integration.workflow.definition.loader;
+
+/**
+ * ロード元の定義情報のチェックサムを算出できるワークフロー定義のロード処理のインタフェース。
+ * <p/>
+ * チェックサムは、ロード元の定義情報が変更されたか否かの判断に使用する。
+ *
+ * @since 1.4.2
+ */
+public interface ChecksumWorkflowDefinitionLoader extends WorkflowDefinitionLoader {
+
+    /**
+     * ロード元の定義情報のチェックサムを算出する。
+     * <p/>
+     * ロード元の定義情報が変更されていない場合は、同じ値を返却すること。
+     *
+     * @return チェックサム
+     */
+    String getChecksum();
+}
@@ -1,7 +1,16 @@
 package nablarch.integration.workflow.definition.loader;
 
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import nablarch.core.db.connection.AppDbConnection;
 import nablarch.core.db.statement.ResultSetIterator;
@@ -11,6 +20,7 @@ import nablarch.core.db.transaction.SimpleDbTransactionExecutor;
 import nablarch.core.db.transaction.SimpleDbTransactionManager;
 import nablarch.core.log.Logger;
 import nablarch.core.log.LoggerManager;
+import nablarch.core.util.DateUtil;
 
 import nablarch.integration.workflow.definition.BoundaryEvent;
 import nablarch.integration.workflow.definition.Event;
@@ -18,22 +28,34 @@ import nablarch.integration.workflow.definition.Gateway;
 import nablarch.integration.workflow.definition.Lane;
 import nablarch.integration.workflow.definition.SequenceFlow;
 import nablarch.integration.workflow.definition.Task;
-import nablarch.integration.workflow.util.WorkflowUtil;
 import nablarch.integration.workflow.definition.WorkflowDefinition;
 
 /**
  * データベースからワークフローの定義情報をロードするクラス。
  * <p/>
+ * 一括ロードモード({@link #setBulkLoad(boolean)})を有効にした場合は、
+ * ワークフロー及びバージョン単位に定義テーブルを検索するのではなく、
+ * 定義テーブルごとに1回だけ全レコードを検索し、メモリ上でワークフロー及びバージョン単位に振り分ける。
+ * これにより、ワークフロー定義のバージョン数に関わらずデータベースへのアクセス回数が一定となる。
+ * <p/>
+ * 本クラスは{@link LazyWorkflowDefinitionLoader}を実装しているため、
+ * 基準日時点で使用されるワークフロー定義のみのロードや、ワークフローID及びバージョン番号を指定したロードも行える。
+ * <p/>
+ * また、{@link ChecksumWorkflowDefinitionLoader}を実装しているため、
+ * {@link SnapshotWorkflowDefinitionLoader}のロード元として使用できる。
  *
  * @author hisaaki sioiri
  * @since 1.4.2
  */
 public class DatabaseWorkflowDefinitionLoader
-        implements WorkflowDefinitionLoader {
+        implements LazyWorkflowDefinitionLoader, ChecksumWorkflowDefinitionLoader {
 
     /** ロガー */
     private static final Logger LOG = LoggerManager.get(DatabaseWorkflowDefinitionLoader.class);
 
+    /** チェックサムの算出時に使用する文字コード */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     /** 初期化済みか否か */
     private boolean isInitialized;
 
@@ -46,6 +68,9 @@ public class DatabaseWorkflowDefinitionLoader
     /** ワークフローテーブルから全情報を取得するためのSQL文 */
     private String findAllWorkflowSql;
 
+    /** ワークフローID及びバージョン番号を条件にワークフローテーブルの情報を取得するためのSQL文 */
+    private String findWorkflowSql;
+
     /** レーン情報を取得するためのSQL文 */
     private String findLaneSql;
 
@@ -64,6 +89,30 @@ public class DatabaseWorkflowDefinitionLoader
     /** イベント定義情報を取得するためのSQL文 */
     private String findBoundaryEventSql;
 
+    /** チェックサムの算出に使用するSQL文 */
+    private List<String> checksumSqls;
+
+    /** 一括ロードモードか否か */
+    private boolean bulkLoad;
+
+    /** 全ワークフローのレーン情報を取得するためのSQL文 */
+    private String findAllLaneSql;
+
+    /** 全ワークフローのイベントノード情報を取得するためのSQL文 */
+    private String findAllEventSql;
+
+    /** 全ワークフローのタスク情報を取得するためのSQL文 */
+    private String findAllTaskSql;
+
+    /** 全ワークフローのシーケンスフロー情報を取得するためのSQL文 */
+    private String findAllSequenceFlowSql;
+
+    /** 全ワークフローのゲートウェイ情報を取得するためのSQL文 */
+    private String findAllGatewaySql;
+
+    /** 全ワークフローの境界イベント情報を取得するためのSQL文 */
+    private String findAllBoundaryEventSql;
+
     /**
      * ワークフロー定義をロードする。
      *
@@ -77,42 +126,82 @@ public class DatabaseWorkflowDefinitionLoader
             isInitialized = true;
         }
 
+        if (bulkLoad) {
+            return new SimpleDbTransactionExecutor<List<WorkflowDefinition>>(transactionManager) {
+                @Override
+                public List<WorkflowDefinition> execute(AppDbConnection connection) {
+                    return loadAll(connection);
+                }
+            }
+                    .doTransaction();
+        }
+
         return new SimpleDbTransactionExecutor<List<WorkflowDefinition>>(transactionManager) {
             @Override
             public List<WorkflowDefinition> execute(AppDbConnection connection) {
                 List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>();
                 for (SqlRow workflow : findAllWorkflowDefinition(connection)) {
+                    WorkflowDefinition workflowDefinition = createWorkflowDefinition(connection, workflow);
+                    logLoaded(workflowDefinition);
+                    result.add(workflowDefinition);
+                }
+                return result;
+            }
+        }
+                .doTransaction();
+    }
 
-                    String workflowId = workflow.getString(
-                            workflowDefinitionSchema.getWorkflowIdColumnName());
-                    int version = workflow.getBigDecimal(
-                            workflowDefinitionSchema.getVersionColumnName()).intValue();
-
-                    WorkflowDefinition workflowDefinition = new WorkflowDefinition(
-                            workflowId,
-                            version,
-                            workflow.getString(workflowDefinitionSchema.getWorkflowNameColumnName()),
-                            workflow.getString(workflowDefinitionSchema.getEffectiveDateColumnName())
-                    );
-
-                    workflowDefinition.setLanes(
-                            findLane(connection, workflowId, version));
-                    List<SequenceFlow> sequenceFlows = findSequenceFlow(connection, workflowId, version);
-                    workflowDefinition.setSequenceFlows(sequenceFlows);
-                    workflowDefinition.setEvents(
-                            findEvent(connection, workflowId, version, sequenceFlows));
-                    workflowDefinition.setTasks(
-                            findTask(connection, workflowId, version, sequenceFlows));
-                    workflowDefinition.setGateways(
-                            findGateway(connection, workflowId, version, sequenceFlows));
-                    workflowDefinition.setBoundaryEvents(
-                            findBoundaryEvent(connection, workflowId, version, sequenceFlows)
-                    );
-
-                    LOG.logInfo(String.format(
-                            "load workflow definition. workflowId = [%s], workflowName = [%s], version = [%d], effectiveDate = [%S]",
-                            workflowId, workflowDefinition.getWorkflowName(), version,
-                            workflowDefinition.getEffectiveDate()));
+    /**
+     * 基準日時点で適用期間内のワークフロー定義をロードする。
+     * <p/>
+     * ワークフローIDごとに、基準日時点で適用期間内かつバージョン番号が最大のワークフロー定義と、
+     * 適用開始日が基準日より後のワークフロー定義をロードする。
+     * それ以外の古いバージョンのワークフロー定義はロードしない。
+     * <p/>
+     * 本メソッドでは、一括ロードモードの設定に関わらずワークフロー及びバージョン単位に定義テーブルを検索する。
+     *
+     * @param referenceDate 基準日(yyyyMMdd形式)
+     * @return ワークフロー定義
+     */
+    @Override
+    public List<WorkflowDefinition> loadEffective(final String referenceDate) {
+        if (!isInitialized) {
+            // 初期化が行われていない場合には、強制的に初期化処理を実施する。
+            initialize();
+            isInitialized = true;
+        }
+
+        return new SimpleDbTransactionExecutor<List<WorkflowDefinition>>(transactionManager) {
+            @Override
+            public List<WorkflowDefinition> execute(AppDbConnection connection) {
+                List<SqlRow> targets = new ArrayList<SqlRow>();
+                String currentWorkflowId = null;
+                SqlRow effective = null;
+                for (SqlRow workflow : findAllWorkflowDefinition(connection)) {
+                    String workflowId = workflow.getString(workflowDefinitionSchema.getWorkflowIdColumnName());
+                    if (!workflowId.equals(currentWorkflowId)) {
+                        if (effective != null) {
+                            targets.add(effective);
+                        }
+                        currentWorkflowId = workflowId;
+                        effective = null;
+                    }
+                    String effectiveDate = workflow.getString(workflowDefinitionSchema.getEffectiveDateColumnName());
+                    if (DateUtil.getDays(referenceDate, effectiveDate) <= 0) {
+                        // バージョン番号の昇順に取得しているため、最後に見つかったものが適用期間内の最新バージョンとなる。
+                        effective = workflow;
+                    } else {
+                        targets.add(workflow);
+                    }
+                }
+                if (effective != null) {
+                    targets.add(effective);
+                }
+
+                List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>();
+                for (SqlRow workflow : targets) {
+                    WorkflowDefinition workflowDefinition = createWorkflowDefinition(connection, workflow);
+                    logLoaded(workflowDefinition);
                     result.add(workflowDefinition);
                 }
                 return result;
@@ -121,6 +210,209 @@ public class DatabaseWorkflowDefinitionLoader
                 .doTransaction();
     }
 
+    /**
+     * ワークフローID及びバージョン番号に紐づくワークフロー定義をロードする。
+     *
+     * @param workflowId ワークフローID
+     * @param version バージョン番号
+     * @return ワークフロー定義(存在しない場合はnull)
+     */
+    @Override
+    public WorkflowDefinition load(final String workflowId, final long version) {
+        if (!isInitialized) {
+            // 初期化が行われていない場合には、強制的に初期化処理を実施する。
+            initialize();
+            isInitialized = true;
+        }
+
+        return new SimpleDbTransactionExecutor<WorkflowDefinition>(transactionManager) {
+            @Override
+            public WorkflowDefinition execute(AppDbConnection connection) {
+                SqlPStatement statement = connection.prepareStatement(findWorkflowSql);
+                statement.setString(1, workflowId);
+                statement.setLong(2, version);
+                for (SqlRow workflow : statement.executeQuery()) {
+                    WorkflowDefinition workflowDefinition = createWorkflowDefinition(connection, workflow);
+                    logLoaded(workflowDefinition);
+                    return workflowDefinition;
+                }
+                return null;
+            }
+        }
+                .doTransaction();
+    }
+
+    /**
+     * 定義テーブルの内容からチェックサムを算出する。
+     * <p/>
+     * チェックサムはスナップショットの鮮度の判定に使用するため、定義テーブルの全レコードは読み込まず、
+     * ワークフロー定義テーブルの全レコード(ワークフロー及びバージョンごとに1レコード)と、
+     * その他の定義テーブルのレコード件数(データベース側で集計した値)から算出する。
+     * <p/>
+     * ワークフロー定義はバージョン単位に追加されることを前提としているため、
+     * 既存バージョンの定義内容を、ワークフロー定義テーブルのレコード及び各テーブルのレコード件数を変えずに更新した場合は、
+     * チェックサムは変わらない。このような更新を行った場合は、スナップショットファイルを削除すること。
+     *
+     * @return チェックサム
+     */
+    @Override
+    public String getChecksum() {
+        if (!isInitialized) {
+            // 初期化が行われていない場合には、強制的に初期化処理を実施する。
+            initialize();
+            isInitialized = true;
+        }
+
+        return new SimpleDbTransactionExecutor<String>(transactionManager) {
+            @Override
+            public String execute(AppDbConnection connection) {
+                MessageDigest digest = createMessageDigest();
+                for (String sql : checksumSqls) {
+                    SqlPStatement statement = connection.prepareStatement(sql);
+                    for (SqlRow row : statement.executeQuery()) {
+                        updateDigest(digest, row);
+                    }
+                }
+
+                StringBuilder checksum = new StringBuilder();
+                for (byte b : digest.digest()) {
+                    checksum.append(String.format("%02x", b & 0xff));
+                }
+                return checksum.toString();
+            }
+        }
+                .doTransaction();
+    }
+
+    /**
+     * 検索結果の1行の内容をダイジェストに追加する。
+     * <p/>
+     * 検索結果のカラムの順序に依存しないよう、カラム名の昇順にカラム名と値を追加する。
+     *
+     * @param digest ダイジェスト
+     * @param row 検索結果の1行
+     */
+    private static void updateDigest(MessageDigest digest, SqlRow row) {
+        StringBuilder record = new StringBuilder();
+        for (Map.Entry<String, Object> column : new TreeMap<String, Object>(row).entrySet()) {
+            record.append(column.getKey())
+                    .append('=')
+                    .append(column.getValue())
+                    .append('\u0000');
+        }
+        record.append('\n');
+        digest.update(record.toString().getBytes(UTF_8));
+    }
+
+    /**
+     * チェックサムの算出に使用する{@link MessageDigest}を生成する。
+     *
+     * @return {@link MessageDigest}
+     */
+    private static MessageDigest createMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported.", e);
+        }
+    }
+
+    /**
+     * ワークフロー定義テーブルの1レコードに紐づく定義情報を取得し、ワークフロー定義を構築する。
+     *
+     * @param connection データベース接続
+     * @param workflow ワークフロー定義テーブルのレコード
+     * @return ワークフロー定義
+     */
+    protected WorkflowDefinition createWorkflowDefinition(AppDbConnection connection, SqlRow workflow) {
+        String workflowId = workflow.getString(
+                workflowDefinitionSchema.getWorkflowIdColumnName());
+        int version = workflow.getBigDecimal(
+                workflowDefinitionSchema.getVersionColumnName()).intValue();
+
+        WorkflowDefinition workflowDefinition = new WorkflowDefinition(
+                workflowId,
+                version,
+                workflow.getString(workflowDefinitionSchema.getWorkflowNameColumnName()),
+                workflow.getString(workflowDefinitionSchema.getEffectiveDateColumnName())
+        );
+
+        workflowDefinition.setLanes(
+                findLane(connection, workflowId, version));
+        List<SequenceFlow> sequenceFlows = findSequenceFlow(connection, workflowId, version);
+        workflowDefinition.setSequenceFlows(sequenceFlows);
+        // 遷移元フローノードIDごとのグループ化は、ワークフロー定義ごとに1度だけ行う。
+        List<SequenceFlow> groupedFlows = new GroupedSequenceFlows(sequenceFlows);
+        workflowDefinition.setEvents(
+                findEvent(connection, workflowId, version, groupedFlows));
+        workflowDefinition.setTasks(
+                findTask(connection, workflowId, version, groupedFlows));
+        workflowDefinition.setGateways(
+                findGateway(connection, workflowId, version, groupedFlows));
+        workflowDefinition.setBoundaryEvents(
+                findBoundaryEvent(connection, workflowId, version, groupedFlows)
+        );
+        workflowDefinition.initialize();
+        return workflowDefinition;
+    }
+
+    /**
+     * 定義テーブルごとに全レコードを一括で取得し、ワークフロー定義を構築する。
+     *
+     * @param connection データベース接続
+     * @return ワークフロー定義
+     */
+    protected List<WorkflowDefinition> loadAll(AppDbConnection connection) {
+        Map<DefinitionKey, List<Lane>> lanes = findAllLane(connection);
+        Map<DefinitionKey, List<SequenceFlow>> sequenceFlows = findAllSequenceFlow(connection);
+        Map<DefinitionKey, Map<String, List<SequenceFlow>>> outgoingFlows =
+                new HashMap<DefinitionKey, Map<String, List<SequenceFlow>>>();
+        for (Map.Entry<DefinitionKey, List<SequenceFlow>> entry : sequenceFlows.entrySet()) {
+            outgoingFlows.put(entry.getKey(), groupBySourceFlowNodeId(entry.getValue()));
+        }
+        Map<DefinitionKey, List<Event>> events = findAllEvent(connection, outgoingFlows);
+        Map<DefinitionKey, List<Task>> tasks = findAllTask(connection, outgoingFlows);
+        Map<DefinitionKey, List<Gateway>> gateways = findAllGateway(connection, outgoingFlows);
+        Map<DefinitionKey, List<BoundaryEvent>> boundaryEvents = findAllBoundaryEvent(connection, outgoingFlows);
+
+        List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>();
+        for (SqlRow workflow : findAllWorkflowDefinition(connection)) {
+            String workflowId = workflow.getString(workflowDefinitionSchema.getWorkflowIdColumnName());
+            int version = workflow.getBigDecimal(workflowDefinitionSchema.getVersionColumnName()).intValue();
+            DefinitionKey key = new DefinitionKey(workflowId, version);
+
+            WorkflowDefinition workflowDefinition = new WorkflowDefinition(
+                    workflowId,
+                    version,
+                    workflow.getString(workflowDefinitionSchema.getWorkflowNameColumnName()),
+                    workflow.getString(workflowDefinitionSchema.getEffectiveDateColumnName())
+            );
+            workflowDefinition.setLanes(get(lanes, key));
+            workflowDefinition.setSequenceFlows(get(sequenceFlows, key));
+            workflowDefinition.setEvents(get(events, key));
+            workflowDefinition.setTasks(get(tasks, key));
+            workflowDefinition.setGateways(get(gateways, key));
+            workflowDefinition.setBoundaryEvents(get(boundaryEvents, key));
+            workflowDefinition.initialize();
+
+            logLoaded(workflowDefinition);
+            result.add(workflowDefinition);
+        }
+        return result;
+    }
+
+    /**
+     * ワークフロー定義をロードしたことをログに出力する。
+     *
+     * @param workflowDefinition ロードしたワークフロー定義
+     */
+    private static void logLoaded(WorkflowDefinition workflowDefinition) {
+        LOG.logInfo(String.format(
+                "load workflow definition. workflowId = [%s], workflowName = [%s], version = [%d], effectiveDate = [%S]",
+                workflowDefinition.getWorkflowId(), workflowDefinition.getWorkflowName(), workflowDefinition.getVersion(),
+                workflowDefinition.getEffectiveDate()));
+    }
+
     /**
      * ワークフロー定義情報を全て取得する。
      *
@@ -148,10 +440,7 @@ public class DatabaseWorkflowDefinitionLoader
 
         List<Lane> result = new ArrayList<Lane>();
         for (SqlRow row : statement.executeQuery()) {
-            result.add(new Lane(
-                    row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
-                    row.getString(workflowDefinitionSchema.getLaneNameColumnName())
-            ));
+            result.add(createLane(row));
         }
         return result;
     }
@@ -174,18 +463,9 @@ public class DatabaseWorkflowDefinitionLoader
         statement.setLong(2, version);
 
         List<Event> result = new ArrayList<Event>();
+        Map<String, List<SequenceFlow>> outgoingFlows = groupBySourceFlowNodeId(sequenceFlows);
         for (SqlRow row : statement.executeQuery()) {
-            String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
-            List<SequenceFlow> connectionFlow = WorkflowUtil.filterList(
-                    sequenceFlows, new SequenceFlowListFilter(flowNodeId));
-            result.add(new Event(
-                            flowNodeId,
-                            row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
-                            row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
-                            row.getString(workflowDefinitionSchema.getEventTypeColumnName()),
-                            connectionFlow
-                    )
-            );
+            result.add(createEvent(row, outgoingFlows));
         }
         return result;
     }
@@ -208,17 +488,9 @@ public class DatabaseWorkflowDefinitionLoader
         ResultSetIterator resultSetIterator = statement.executeQuery();
 
         List<Task> result = new ArrayList<Task>();
+        Map<String, List<SequenceFlow>> outgoingFlows = groupBySourceFlowNodeId(sequenceFlows);
         for (SqlRow row : resultSetIterator) {
-            String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
-            List<SequenceFlow> connectionFlow = WorkflowUtil.filterList(
-                    sequenceFlows, new SequenceFlowListFilter(flowNodeId));
-            result.add(new Task(
-                    flowNodeId,
-                    row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
-                    row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
-                    row.getString(workflowDefinitionSchema.getMultiInstanceTypeColumnName()),
-                    row.getString(workflowDefinitionSchema.getCompletionConditionColumnName()),
-                    connectionFlow));
+            result.add(createTask(row, outgoingFlows));
         }
         return result;
     }
@@ -240,17 +512,9 @@ public class DatabaseWorkflowDefinitionLoader
         statement.setLong(2, version);
 
         List<Gateway> result = new ArrayList<Gateway>();
+        Map<String, List<SequenceFlow>> outgoingFlows = groupBySourceFlowNodeId(sequenceFlows);
         for (SqlRow row : statement.executeQuery()) {
-            String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
-            List<SequenceFlow> connectionFlow = WorkflowUtil.filterList(
-                    sequenceFlows, new SequenceFlowListFilter(flowNodeId));
-            result.add(new Gateway(
-                            flowNodeId,
-                            row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
-                            row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
-                            row.getString(workflowDefinitionSchema.getGatewayTypeColumnName()),
-                            connectionFlow)
-            );
+            result.add(createGateway(row, outgoingFlows));
         }
         return result;
     }
@@ -273,15 +537,7 @@ public class DatabaseWorkflowDefinitionLoader
 
         List<SequenceFlow> result = new ArrayList<SequenceFlow>();
         for (SqlRow row : resultSetIterator) {
-            result.add(
-                    new SequenceFlow(
-                            row.getString(workflowDefinitionSchema.getSequenceFlowIdColumnName()),
-                            row.getString(workflowDefinitionSchema.getSequenceFlowNameColumnName()),
-                            row.getString(workflowDefinitionSchema.getSourceFlowNodeIdColumnName()),
-                            row.getString(workflowDefinitionSchema.getTargetFlowNodeIdColumnName()),
-                            row.getString(workflowDefinitionSchema.getFlowProceedConditionColumnName())
-                    )
-            );
+            result.add(createSequenceFlow(row));
         }
         return result;
     }
@@ -302,23 +558,305 @@ public class DatabaseWorkflowDefinitionLoader
         statement.setLong(2, version);
 
         List<BoundaryEvent> result = new ArrayList<BoundaryEvent>();
+        Map<String, List<SequenceFlow>> outgoingFlows = groupBySourceFlowNodeId(sequenceFlows);
         for (SqlRow row : statement.executeQuery()) {
-            String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
-            List<SequenceFlow> connectionFlow = WorkflowUtil.filterList(
-                    sequenceFlows, new SequenceFlowListFilter(flowNodeId));
-            result.add(new BoundaryEvent(
-                            flowNodeId,
-                            row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
-                            row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
-                            row.getString(workflowDefinitionSchema.getBoundaryEventTriggerIdColumnName()),
-                            row.getString(workflowDefinitionSchema.getBoundaryEventTriggerNameColumnName()),
-                            row.getString(workflowDefinitionSchema.getAttachedTaskIdColumnName()),
-                            connectionFlow)
-            );
+            result.add(createBoundaryEvent(row, outgoingFlows));
+        }
+        return result;
+    }
+
+    /**
+     * 全ワークフローのレーン情報を一括で取得する。
+     *
+     * @param connection データベース接続
+     * @return ワークフローID及びバージョン番号ごとのレーン定義情報
+     */
+    protected Map<DefinitionKey, List<Lane>> findAllLane(AppDbConnection connection) {
+        SqlPStatement statement = connection.prepareStatement(findAllLaneSql);
+
+        Map<DefinitionKey, List<Lane>> result = new HashMap<DefinitionKey, List<Lane>>();
+        for (SqlRow row : statement.executeQuery()) {
+            add(result, createKey(row), createLane(row));
+        }
+        return result;
+    }
+
+    /**
+     * 全ワークフローのシーケンスフロー情報を一括で取得する。
+     *
+     * @param connection データベース接続
+     * @return ワークフローID及びバージョン番号ごとのシーケンスフロー情報
+     */
+    protected Map<DefinitionKey, List<SequenceFlow>> findAllSequenceFlow(AppDbConnection connection) {
+        SqlPStatement statement = connection.prepareStatement(findAllSequenceFlowSql);
+
+        Map<DefinitionKey, List<SequenceFlow>> result = new HashMap<DefinitionKey, List<SequenceFlow>>();
+        for (SqlRow row : statement.executeQuery()) {
+            add(result, createKey(row), createSequenceFlow(row));
+        }
+        return result;
+    }
+
+    /**
+     * 全ワークフローのイベント情報を一括で取得する。
+     *
+     * @param connection データベース接続
+     * @param outgoingFlows ワークフローID及びバージョン番号ごとの、遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return ワークフローID及びバージョン番号ごとのイベント情報
+     */
+    protected Map<DefinitionKey, List<Event>> findAllEvent(
+            AppDbConnection connection, Map<DefinitionKey, Map<String, List<SequenceFlow>>> outgoingFlows) {
+        SqlPStatement statement = connection.prepareStatement(findAllEventSql);
+
+        Map<DefinitionKey, List<Event>> result = new HashMap<DefinitionKey, List<Event>>();
+        for (SqlRow row : statement.executeQuery()) {
+            DefinitionKey key = createKey(row);
+            add(result, key, createEvent(row, getOutgoingFlows(outgoingFlows, key)));
+        }
+        return result;
+    }
+
+    /**
+     * 全ワークフローのタスク定義を一括で取得する。
+     *
+     * @param connection データベース接続
+     * @param outgoingFlows ワークフローID及びバージョン番号ごとの、遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return ワークフローID及びバージョン番号ごとのタスク定義
+     */
+    protected Map<DefinitionKey, List<Task>> findAllTask(
+            AppDbConnection connection, Map<DefinitionKey, Map<String, List<SequenceFlow>>> outgoingFlows) {
+        SqlPStatement statement = connection.prepareStatement(findAllTaskSql);
+
+        Map<DefinitionKey, List<Task>> result = new HashMap<DefinitionKey, List<Task>>();
+        for (SqlRow row : statement.executeQuery()) {
+            DefinitionKey key = createKey(row);
+            add(result, key, createTask(row, getOutgoingFlows(outgoingFlows, key)));
+        }
+        return result;
+    }
+
+    /**
+     * 全ワークフローのゲートウェイ情報を一括で取得する。
+     *
+     * @param connection データベース接続
+     * @param outgoingFlows ワークフローID及びバージョン番号ごとの、遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return ワークフローID及びバージョン番号ごとのゲートウェイ情報
+     */
+    protected Map<DefinitionKey, List<Gateway>> findAllGateway(
+            AppDbConnection connection, Map<DefinitionKey, Map<String, List<SequenceFlow>>> outgoingFlows) {
+        SqlPStatement statement = connection.prepareStatement(findAllGatewaySql);
+
+        Map<DefinitionKey, List<Gateway>> result = new HashMap<DefinitionKey, List<Gateway>>();
+        for (SqlRow row : statement.executeQuery()) {
+            DefinitionKey key = createKey(row);
+            add(result, key, createGateway(row, getOutgoingFlows(outgoingFlows, key)));
+        }
+        return result;
+    }
+
+    /**
+     * 全ワークフローの境界イベント情報を一括で取得する。
+     *
+     * @param connection データベース接続
+     * @param outgoingFlows ワークフローID及びバージョン番号ごとの、遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return ワークフローID及びバージョン番号ごとの境界イベント情報
+     */
+    protected Map<DefinitionKey, List<BoundaryEvent>> findAllBoundaryEvent(
+            AppDbConnection connection, Map<DefinitionKey, Map<String, List<SequenceFlow>>> outgoingFlows) {
+        SqlPStatement statement = connection.prepareStatement(findAllBoundaryEventSql);
+
+        Map<DefinitionKey, List<BoundaryEvent>> result = new HashMap<DefinitionKey, List<BoundaryEvent>>();
+        for (SqlRow row : statement.executeQuery()) {
+            DefinitionKey key = createKey(row);
+            add(result, key, createBoundaryEvent(row, getOutgoingFlows(outgoingFlows, key)));
+        }
+        return result;
+    }
+
+    /**
+     * 検索結果からレーン定義を生成する。
+     *
+     * @param row 検索結果の1行
+     * @return レーン定義
+     */
+    private Lane createLane(SqlRow row) {
+        return new Lane(
+                row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
+                row.getString(workflowDefinitionSchema.getLaneNameColumnName())
+        );
+    }
+
+    /**
+     * 検索結果からシーケンスフロー定義を生成する。
+     *
+     * @param row 検索結果の1行
+     * @return シーケンスフロー定義
+     */
+    private SequenceFlow createSequenceFlow(SqlRow row) {
+        return new SequenceFlow(
+                row.getString(workflowDefinitionSchema.getSequenceFlowIdColumnName()),
+                row.getString(workflowDefinitionSchema.getSequenceFlowNameColumnName()),
+                row.getString(workflowDefinitionSchema.getSourceFlowNodeIdColumnName()),
+                row.getString(workflowDefinitionSchema.getTargetFlowNodeIdColumnName()),
+                row.getString(workflowDefinitionSchema.getFlowProceedConditionColumnName())
+        );
+    }
+
+    /**
+     * 検索結果からイベント定義を生成する。
+     *
+     * @param row 検索結果の1行
+     * @param outgoingFlows 遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return イベント定義
+     */
+    private Event createEvent(SqlRow row, Map<String, List<SequenceFlow>> outgoingFlows) {
+        String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
+        List<SequenceFlow> connectionFlow = get(outgoingFlows, flowNodeId);
+        return new Event(
+                flowNodeId,
+                row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
+                row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
+                row.getString(workflowDefinitionSchema.getEventTypeColumnName()),
+                connectionFlow
+        );
+    }
+
+    /**
+     * 検索結果からタスク定義を生成する。
+     *
+     * @param row 検索結果の1行
+     * @param outgoingFlows 遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return タスク定義
+     */
+    private Task createTask(SqlRow row, Map<String, List<SequenceFlow>> outgoingFlows) {
+        String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
+        List<SequenceFlow> connectionFlow = get(outgoingFlows, flowNodeId);
+        return new Task(
+                flowNodeId,
+                row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
+                row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
+                row.getString(workflowDefinitionSchema.getMultiInstanceTypeColumnName()),
+                row.getString(workflowDefinitionSchema.getCompletionConditionColumnName()),
+                connectionFlow);
+    }
+
+    /**
+     * 検索結果からゲートウェイ定義を生成する。
+     *
+     * @param row 検索結果の1行
+     * @param outgoingFlows 遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return ゲートウェイ定義
+     */
+    private Gateway createGateway(SqlRow row, Map<String, List<SequenceFlow>> outgoingFlows) {
+        String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
+        List<SequenceFlow> connectionFlow = get(outgoingFlows, flowNodeId);
+        return new Gateway(
+                flowNodeId,
+                row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
+                row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
+                row.getString(workflowDefinitionSchema.getGatewayTypeColumnName()),
+                connectionFlow);
+    }
+
+    /**
+     * 検索結果から境界イベント定義を生成する。
+     *
+     * @param row 検索結果の1行
+     * @param outgoingFlows 遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @return 境界イベント定義
+     */
+    private BoundaryEvent createBoundaryEvent(SqlRow row, Map<String, List<SequenceFlow>> outgoingFlows) {
+        String flowNodeId = row.getString(workflowDefinitionSchema.getFlowNodeIdColumnName());
+        List<SequenceFlow> connectionFlow = get(outgoingFlows, flowNodeId);
+        return new BoundaryEvent(
+                flowNodeId,
+                row.getString(workflowDefinitionSchema.getFlowNodeNameColumnName()),
+                row.getString(workflowDefinitionSchema.getLaneIdColumnName()),
+                row.getString(workflowDefinitionSchema.getBoundaryEventTriggerIdColumnName()),
+                row.getString(workflowDefinitionSchema.getBoundaryEventTriggerNameColumnName()),
+                row.getString(workflowDefinitionSchema.getAttachedTaskIdColumnName()),
+                connectionFlow);
+    }
+
+    /**
+     * 検索結果からワークフローID及びバージョン番号を表すキーを生成する。
+     *
+     * @param row 検索結果の1行
+     * @return ワークフローID及びバージョン番号を表すキー
+     */
+    private DefinitionKey createKey(SqlRow row) {
+        return new DefinitionKey(
+                row.getString(workflowDefinitionSchema.getWorkflowIdColumnName()),
+                row.getBigDecimal(workflowDefinitionSchema.getVersionColumnName()).longValue());
+    }
+
+    /**
+     * シーケンスフロー定義を遷移元フローノードIDごとにグループ化する。
+     * <p/>
+     * {@link GroupedSequenceFlows}が指定された場合は、グループ化済みの結果を返却する。
+     * <p/>
+     * 各フローノードに対して遷移元が一致するシーケンスフローを都度抽出するのではなく、
+     * ワークフロー定義ごとに1度だけグループ化することで、フローノード数×シーケンスフロー数の走査を回避する。
+     *
+     * @param sequenceFlows シーケンスフロー定義リスト
+     * @return 遷移元フローノードIDをキーとしたシーケンスフロー定義
+     */
+    private static Map<String, List<SequenceFlow>> groupBySourceFlowNodeId(List<SequenceFlow> sequenceFlows) {
+        if (sequenceFlows instanceof GroupedSequenceFlows) {
+            return ((GroupedSequenceFlows) sequenceFlows).outgoingFlows;
+        }
+        Map<String, List<SequenceFlow>> result = new HashMap<String, List<SequenceFlow>>();
+        for (SequenceFlow sequenceFlow : sequenceFlows) {
+            add(result, sequenceFlow.getSourceFlowNodeId(), sequenceFlow);
         }
         return result;
     }
 
+    /**
+     * ワークフローID及びバージョン番号に対応する、遷移元フローノードIDごとのシーケンスフロー定義を取得する。
+     *
+     * @param outgoingFlows ワークフローID及びバージョン番号ごとの、遷移元フローノードIDをキーとしたシーケンスフロー定義
+     * @param key ワークフローID及びバージョン番号を表すキー
+     * @return 遷移元フローノードIDをキーとしたシーケンスフロー定義(存在しない場合は空のマップ)
+     */
+    private static Map<String, List<SequenceFlow>> getOutgoingFlows(
+            Map<DefinitionKey, Map<String, List<SequenceFlow>>> outgoingFlows, DefinitionKey key) {
+        Map<String, List<SequenceFlow>> result = outgoingFlows.get(key);
+        return result == null ? Collections.<String, List<SequenceFlow>>emptyMap() : result;
+    }
+
+    /**
+     * キーに対応するリストに要素を追加する。
+     *
+     * @param map キーとリストのマップ
+     * @param key キー
+     * @param value 追加する要素
+     * @param <K> キーの型
+     * @param <T> 要素の型
+     */
+    private static <K, T> void add(Map<K, List<T>> map, K key, T value) {
+        List<T> list = map.get(key);
+        if (list == null) {
+            list = new ArrayList<T>();
+            map.put(key, list);
+        }
+        list.add(value);
+    }
+
+    /**
+     * キーに対応するリストを取得する。
+     *
+     * @param map キーとリストのマップ
+     * @param key キー
+     * @param <K> キーの型
+     * @param <T> 要素の型
+     * @return キーに対応するリスト(存在しない場合は空のリスト)
+     */
+    private static <K, T> List<T> get(Map<K, List<T>> map, K key) {
+        List<T> list = map.get(key);
+        return list == null ? Collections.<T>emptyList() : list;
+    }
+
     /**
      * 初期化処理を行う。
      * <p/>
@@ -327,6 +865,7 @@ public class DatabaseWorkflowDefinitionLoader
     private void initialize() {
         isInitialized = true;
         findAllWorkflowSql = createFindAllWorkflowSql(workflowDefinitionSchema);
+        findWorkflowSql = createFindWorkflowSql(workflowDefinitionSchema);
         findLaneSql = createFindLaneSql(workflowDefinitionSchema);
         findEventSql = createFindEventSql(workflowDefinitionSchema);
         findTaskSql = createFindTaskSql(workflowDefinitionSchema);
@@ -334,6 +873,34 @@ public class DatabaseWorkflowDefinitionLoader
 
         findSequenceFlowSql = createFindSequenceFlowSql(workflowDefinitionSchema);
         findBoundaryEventSql = createFindBoundaryEventSql(workflowDefinitionSchema);
+
+        findAllLaneSql = createFindAllLaneSql(workflowDefinitionSchema);
+        findAllEventSql = createFindAllEventSql(workflowDefinitionSchema);
+        findAllTaskSql = createFindAllTaskSql(workflowDefinitionSchema);
+        findAllGatewaySql = createFindAllGatewaySql(workflowDefinitionSchema);
+        findAllSequenceFlowSql = createFindAllSequenceFlowSql(workflowDefinitionSchema);
+        findAllBoundaryEventSql = createFindAllBoundaryEventSql(workflowDefinitionSchema);
+
+        checksumSqls = Arrays.asList(
+                findAllWorkflowSql,
+                createCountSql(workflowDefinitionSchema.getLaneTableName()),
+                createCountSql(workflowDefinitionSchema.getFlowNodeTableName()),
+                createCountSql(workflowDefinitionSchema.getEventTableName()),
+                createCountSql(workflowDefinitionSchema.getTaskTableName()),
+                createCountSql(workflowDefinitionSchema.getGatewayTableName()),
+                createCountSql(workflowDefinitionSchema.getBoundaryEventTableName()),
+                createCountSql(workflowDefinitionSchema.getEventTriggerTableName()),
+                createCountSql(workflowDefinitionSchema.getSequenceFlowTableName()));
+    }
+
+    /**
+     * 定義テーブルのレコード件数を取得するためのSQL文を生成する。
+     *
+     * @param tableName テーブル名
+     * @return 生成したSQL文
+     */
+    protected String createCountSql(String tableName) {
+        return "SELECT COUNT(*) RECORD_COUNT FROM " + tableName;
     }
 
     /**
@@ -359,6 +926,29 @@ public class DatabaseWorkflowDefinitionLoader
                 .replaceAll("#workflow#", schema.getWorkflowDefinitionTableName());
     }
 
+    /**
+     * ワークフローID及びバージョン番号を条件にワークフロー定義を取得するSQL文を生成する。
+     *
+     * @param schema ワークフロー定義テーブル情報
+     * @return 生成したSQL文
+     */
+    protected String createFindWorkflowSql(WorkflowDefinitionSchema schema) {
+        String sqlTemplate = "SELECT "
+                + " #workflowId#,"
+                + " #version#,"
+                + " #workflowName#,"
+                + " #effectiveDate#"
+                + " FROM #workflow#"
+                + " WHERE #workflowId# = ?"
+                + " AND #version# = ?";
+
+        return sqlTemplate.replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#workflowName#", schema.getWorkflowNameColumnName())
+                .replaceAll("#effectiveDate#", schema.getEffectiveDateColumnName())
+                .replaceAll("#workflow#", schema.getWorkflowDefinitionTableName());
+    }
+
     /**
      * レーン情報を取得するためのSQL文を生成する。
      *
@@ -557,6 +1147,189 @@ public class DatabaseWorkflowDefinitionLoader
                 .replaceAll("#flowNode#", schema.getFlowNodeTableName());
     }
 
+    /**
+     * 全ワークフローのレーン情報を取得するためのSQL文を生成する。
+     *
+     * @param schema ワークフロー定義テーブル情報
+     * @return 生成したSQL文
+     */
+    protected String createFindAllLaneSql(WorkflowDefinitionSchema schema) {
+        String templateSql = "SELECT "
+                + " #workflowId#,"
+                + " #version#,"
+                + " #laneId#,"
+                + " #laneName#"
+                + " FROM #lane#"
+                + " ORDER BY #workflowId#, #version#, #laneId#";
+        return templateSql.replaceAll("#laneId#", schema.getLaneIdColumnName())
+                .replaceAll("#laneName#", schema.getLaneNameColumnName())
+                .replaceAll("#lane#", schema.getLaneTableName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName());
+    }
+
+    /**
+     * 全ワークフローのイベントノード情報を取得するためのSQL文を生成する。
+     *
+     * @param schema ワークフロー定義テーブル情報
+     * @return 生成したSQL文
+     */
+    protected String createFindAllEventSql(WorkflowDefinitionSchema schema) {
+        String templateSql = "SELECT"
+                + " flow.#workflowId#,"
+                + " flow.#version#,"
+                + " flow.#flowNodeId#,"
+                + " flow.#flowNodeName#,"
+                + " flow.#laneId#,"
+                + " event.#eventNodeType#"
+                + " FROM #flowNode# flow"
+                + " INNER JOIN #event# event"
+                + " ON flow.#workflowId# = event.#workflowId#"
+                + " AND flow.#version# = event.#version#"
+                + " AND flow.#flowNodeId# = event.#flowNodeId#"
+                + " ORDER BY flow.#workflowId#, flow.#version#, flow.#flowNodeId#";
+
+        return templateSql.replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#flowNodeName#", schema.getFlowNodeNameColumnName())
+                .replaceAll("#laneId#", schema.getLaneIdColumnName())
+                .replaceAll("#eventNodeType#", schema.getEventTypeColumnName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#flowNode#", schema.getFlowNodeTableName())
+                .replaceAll("#event#", schema.getEventTableName());
+    }
+
+    /**
+     * 全ワークフローのタスク情報を取得するためのSQL文を生成する。
+     *
+     * @param schema ワークフロー定義テーブル情報
+     * @return 生成したSQL文
+     */
+    protected String createFindAllTaskSql(WorkflowDefinitionSchema schema) {
+        String templateSql = "SELECT"
+                + " flow.#workflowId#,"
+                + " flow.#version#,"
+                + " flow.#flowNodeId#,"
+                + " flow.#flowNodeName#,"
+                + " flow.#laneId#,"
+                + " task.#multiInstanceType#,"
+                + " task.#completionCondition#"
+                + " FROM #flowNode# flow"
+                + " INNER JOIN #task# task"
+                + " ON flow.#workflowId# = task.#workflowId#"
+                + " AND flow.#version# = task.#version#"
+                + " AND flow.#flowNodeId# = task.#flowNodeId#"
+                + " ORDER BY flow.#workflowId#, flow.#version#, flow.#flowNodeId#";
+
+        return templateSql.replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#flowNodeName#", schema.getFlowNodeNameColumnName())
+                .replaceAll("#laneId#", schema.getLaneIdColumnName())
+                .replaceAll("#multiInstanceType#", schema.getMultiInstanceTypeColumnName())
+                .replaceAll("#completionCondition#", schema.getCompletionConditionColumnName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#flowNode#", schema.getFlowNodeTableName())
+                .replaceAll("#task#", schema.getTaskTableName());
+    }
+
+    /**
+     * 全ワークフローのゲートウェイ情報を取得するためのSQL文を生成する。
+     *
+     * @param schema ワークフロー定義テーブル情報
+     * @return 生成したSQL文
+     */
+    protected String createFindAllGatewaySql(WorkflowDefinitionSchema schema) {
+        String templateSql = "SELECT"
+                + " flow.#workflowId#,"
+                + " flow.#version#,"
+                + " flow.#flowNodeId#,"
+                + " flow.#flowNodeName#,"
+                + " flow.#laneId#,"
+                + " gateway.#gatewayType#"
+                + " FROM #flowNode# flow"
+                + " INNER JOIN #gateway# gateway"
+                + " ON flow.#workflowId# = gateway.#workflowId#"
+                + " AND flow.#version# = gateway.#version#"
+                + " AND flow.#flowNodeId# = gateway.#flowNodeId#"
+                + " ORDER BY flow.#workflowId#, flow.#version#, flow.#flowNodeId#";
+
+        return templateSql.replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#flowNodeName#", schema.getFlowNodeNameColumnName())
+                .replaceAll("#laneId#", schema.getLaneIdColumnName())
+                .replaceAll("#gatewayType#", schema.getGatewayTypeColumnName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#flowNode#", schema.getFlowNodeTableName())
+                .replaceAll("#gateway#", schema.getGatewayTableName());
+    }
+
+    /**
+     * 全ワークフローのシーケンスフロー情報を取得するためのSQL文を生成する。
+     *
+     * @param schema ワークフロー定義テーブル情報
+     * @return 生成したSQL文
+     */
+    protected String createFindAllSequenceFlowSql(WorkflowDefinitionSchema schema) {
+        String templateSql = "SELECT "
+                + " #workflowId#,"
+                + " #version#,"
+                + " #sequenceFlowId#,"
+                + " #sourceFlowNodeId#,"
+                + " #targetFlowNodeId#,"
+                + " #sequenceFlowName#,"
+                + " #flowCondition#"
+                + " FROM #sequenceFlow#"
+                + " ORDER BY #workflowId#, #version#, #sequenceFlowId#";
+        return templateSql.replaceAll("#sequenceFlowId#", schema.getSequenceFlowIdColumnName())
+                .replaceAll("#sourceFlowNodeId#", schema.getSourceFlowNodeIdColumnName())
+                .replaceAll("#targetFlowNodeId#", schema.getTargetFlowNodeIdColumnName())
+                .replaceAll("#sequenceFlowName#", schema.getSequenceFlowNameColumnName())
+                .replaceAll("#sequenceFlow#", schema.getSequenceFlowTableName())
+                .replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#flowCondition#", schema.getFlowProceedConditionColumnName());
+    }
+
+    /**
+     * 全ワークフローの境界イベント定義を取得するためのSQL文を生成する。
+     *
+     * @param schema ワークフロー定義テーブル情報
+     * @return 生成したSQL文
+     */
+    protected String createFindAllBoundaryEventSql(WorkflowDefinitionSchema schema) {
+        String templateSql = "SELECT "
+                + " eventTrigger.#workflowId#,"
+                + " eventTrigger.#version#,"
+                + " eventTrigger.#triggerId#,"
+                + " eventTrigger.#triggerName#,"
+                + " flow.#flowNodeId#,"
+                + " flow.#flowNodeName#,"
+                + " flow.#laneId#,"
+                + " #attachedTaskId#"
+                + " FROM #trigger# eventTrigger"
+                + " INNER JOIN #boundary# boundary"
+                + " ON eventTrigger.#workflowId# = boundary.#workflowId#"
+                + " AND eventTrigger.#version# = boundary.#version#"
+                + " AND eventTrigger.#triggerId# = boundary.#triggerId#"
+                + " INNER JOIN #flowNode# flow"
+                + " ON flow.#workflowId# = boundary.#workflowId#"
+                + " AND flow.#version# = boundary.#version#"
+                + " AND flow.#flowNodeId# = boundary.#flowNodeId#"
+                + " ORDER BY eventTrigger.#workflowId#, eventTrigger.#version#, eventTrigger.#triggerId#";
+
+        return templateSql.replaceAll("#workflowId#", schema.getWorkflowIdColumnName())
+                .replaceAll("#version#", schema.getVersionColumnName())
+                .replaceAll("#triggerId#", schema.getBoundaryEventTriggerIdColumnName())
+                .replaceAll("#triggerName#", schema.getBoundaryEventTriggerNameColumnName())
+                .replaceAll("#flowNodeId#", schema.getFlowNodeIdColumnName())
+                .replaceAll("#flowNodeName#", schema.getFlowNodeNameColumnName())
+                .replaceAll("#laneId#", schema.getLaneIdColumnName())
+                .replaceAll("#attachedTaskId#", schema.getAttachedTaskIdColumnName())
+                .replaceAll("#trigger#", schema.getEventTriggerTableName())
+                .replaceAll("#boundary#", schema.getBoundaryEventTableName())
+                .replaceAll("#flowNode#", schema.getFlowNodeTableName());
+    }
+
     /**
      * ワークフロー定義テーブルの定義情報を設定する。
      *
@@ -576,26 +1349,89 @@ public class DatabaseWorkflowDefinitionLoader
     }
 
     /**
-     * シーケンスフロー定義リストから遷移元フローノードIDが一致するシーケンスフローをフィルターするクラス。
+     * 一括ロードモードを設定する。
+     * <p/>
+     * trueを設定した場合、定義テーブルごとに全レコードを一括で取得してワークフロー定義を構築する。
+     * デフォルトはfalse(ワークフロー及びバージョン単位に定義テーブルを検索する)。
+     *
+     * @param bulkLoad 一括ロードモードの場合はtrue
+     */
+    public void setBulkLoad(boolean bulkLoad) {
+        this.bulkLoad = bulkLoad;
+    }
+
+    /**
+     * 遷移元フローノードIDごとのグループ化結果を保持するシーケンスフロー定義リスト。
+     * <p/>
+     * ワークフロー定義ごとに1度だけグループ化を行い、
+     * {@link #findEvent(AppDbConnection, String, long, List)}などのフローノードの取得処理で共有するために使用する。
      */
-    private static final class SequenceFlowListFilter implements WorkflowUtil.ListFilter<SequenceFlow> {
+    private static final class GroupedSequenceFlows extends AbstractList<SequenceFlow> {
+
+        /** シーケンスフロー定義リスト */
+        private final List<SequenceFlow> sequenceFlows;
 
-        /** フィルター条件のフローノードID */
-        private final String flowNodeId;
+        /** 遷移元フローノードIDをキーとしたシーケンスフロー定義 */
+        private final Map<String, List<SequenceFlow>> outgoingFlows;
 
         /**
-         * フローノードIDを条件にフィルタ条件を生成する。
+         * シーケンスフロー定義リストをグループ化する。
          *
-         * @param flowNodeId フローノードID
+         * @param sequenceFlows シーケンスフロー定義リスト
          */
-        private SequenceFlowListFilter(String flowNodeId) {
-            this.flowNodeId = flowNodeId;
+        private GroupedSequenceFlows(List<SequenceFlow> sequenceFlows) {
+            this.sequenceFlows = sequenceFlows;
+            outgoingFlows = groupBySourceFlowNodeId(sequenceFlows);
         }
 
         @Override
-        public boolean isMatch(SequenceFlow other) {
-            return flowNodeId.equals(other.getSourceFlowNodeId());
+        public SequenceFlow get(int index) {
+            return sequenceFlows.get(index);
+        }
+
+        @Override
+        public int size() {
+            return sequenceFlows.size();
         }
     }
-}
 
+    /**
+     * ワークフローID及びバージョン番号を表すキー。
+     */
+    protected static final class DefinitionKey {
+
+        /** ワークフローID */
+        private final String workflowId;
+
+        /** バージョン番号 */
+        private final long version;
+
+        /**
+         * キーを生成する。
+         *
+         * @param workflowId ワークフローID
+         * @param version バージョン番号
+         */
+        protected DefinitionKey(String workflowId, long version) {
+            this.workflowId = workflowId;
+            this.version = version;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DefinitionKey)) {
+                return false;
+            }
+            DefinitionKey other = (DefinitionKey) o;
+            return version == other.version && workflowId.equals(other.workflowId);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * workflowId.hashCode() + (int) (version ^ (version >>> 32));
+        }
+    }
+}
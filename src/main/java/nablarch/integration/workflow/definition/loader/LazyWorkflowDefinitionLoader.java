@@ -0,0 +1,36 @@
+package nablarch.integration.workflow.definition.loader;
+
+import java.util.List;
+
+import nablarch.integration.workflow.definition.WorkflowDefinition;
+
+/**
+ * ワークフロー定義情報の遅延ロードをサポートするロード処理のインタフェース。
+ * <p/>
+ * 基準日時点で使用されるワークフロー定義のみを事前にロードし、
+ * それ以前の古いバージョンのワークフロー定義は、必要となった時点でワークフローID及びバージョン番号を指定してロードする。
+ *
+ * @since 1.4.2
+ */
+public interface LazyWorkflowDefinitionLoader extends WorkflowDefinitionLoader {
+
+    /**
+     * 基準日時点で適用期間内のワークフロー定義をロードする。
+     * <p/>
+     * ワークフローIDごとに、基準日時点で適用期間内かつバージョン番号が最大のワークフロー定義と、
+     * 基準日時点でまだ適用開始日を迎えていないワークフロー定義をロードする。
+     *
+     * @param referenceDate 基準日(yyyyMMdd形式)
+     * @return ワークフロー定義
+     */
+    List<WorkflowDefinition> loadEffective(String referenceDate);
+
+    /**
+     * ワークフローID及びバージョン番号に紐づくワークフロー定義をロードする。
+     *
+     * @param workflowId ワークフローID
+     * @param version バージョン番号
+     * @return ワークフロー定義(存在しない場合はnull)
+     */
+    WorkflowDefinition load(String workflowId, long version);
+}
@@ -0,0 +1,87 @@
+package nablarch.integration.workflow.definition.loader;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import nablarch.core.log.Logger;
+import nablarch.core.log.LoggerManager;
+
+import nablarch.integration.workflow.definition.WorkflowDefinition;
+
+/**
+ * スナップショットファイルを使用してワークフロー定義をロードするクラス。
+ * <p/>
+ * ロード元の定義情報のチェックサムがスナップショットファイルの内容と一致する場合は、
+ * ロード元から定義情報をロードせずに、スナップショットファイルからワークフロー定義をロードする。
+ * このため、ロード元のチェックサムは、定義情報のロードよりも十分に軽い処理で算出できること。
+ * 一致しない場合やスナップショットファイルが存在しない場合は、ロード元からワークフロー定義をロードし、
+ * その内容でスナップショットファイルを作成する。
+ * <p/>
+ * スナップショットファイルの読み書きに失敗した場合は、ロード元からロードしたワークフロー定義を使用して処理を継続する。
+ *
+ * @since 1.4.2
+ */
+public class SnapshotWorkflowDefinitionLoader implements WorkflowDefinitionLoader {
+
+    /** ロガー */
+    private static final Logger LOG = LoggerManager.get(SnapshotWorkflowDefinitionLoader.class);
+
+    /** ロード元のワークフロー定義のロードクラス */
+    private ChecksumWorkflowDefinitionLoader workflowDefinitionLoader;
+
+    /** スナップショットファイルのパス */
+    private String snapshotFile;
+
+    /**
+     * ワークフロー定義をロードする。
+     *
+     * @return ワークフロー定義
+     */
+    @Override
+    public List<WorkflowDefinition> load() {
+        File file = new File(snapshotFile);
+        String checksum = workflowDefinitionLoader.getChecksum();
+        try {
+            List<WorkflowDefinition> snapshot = WorkflowDefinitionSnapshot.read(file, checksum);
+            if (snapshot != null) {
+                LOG.logInfo(String.format(
+                        "load workflow definition from snapshot. file = [%s], checksum = [%s], definition count = [%d]",
+                        file.getPath(), checksum, snapshot.size()));
+                return snapshot;
+            }
+        } catch (IOException e) {
+            LOG.logWarn(String.format("failed to read workflow definition snapshot. file = [%s]", file.getPath()), e);
+        } catch (IllegalStateException e) {
+            LOG.logWarn(String.format("failed to read workflow definition snapshot. file = [%s]", file.getPath()), e);
+        }
+
+        List<WorkflowDefinition> loaded = workflowDefinitionLoader.load();
+        try {
+            WorkflowDefinitionSnapshot.write(file, checksum, loaded);
+            LOG.logInfo(String.format(
+                    "workflow definition snapshot was written. file = [%s], checksum = [%s]", file.getPath(), checksum));
+        } catch (IOException e) {
+            LOG.logWarn(String.format("failed to write workflow definition snapshot. file = [%s]", file.getPath()), e);
+        }
+        return loaded;
+    }
+
+    /**
+     * ロード元のワークフロー定義のロードクラスを設定する。
+     *
+     * @param workflowDefinitionLoader ロード元のワークフロー定義のロードクラス
+     */
+    public void setWorkflowDefinitionLoader(ChecksumWorkflowDefinitionLoader workflowDefinitionLoader) {
+        this.workflowDefinitionLoader = workflowDefinitionLoader;
+    }
+
+    /**
+     * スナップショットファイルのパスを設定する。
+     *
+     * @param snapshotFile スナップショットファイルのパス
+     */
+    public void setSnapshotFile(String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+}
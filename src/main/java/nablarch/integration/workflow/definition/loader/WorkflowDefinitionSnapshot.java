@@ -0,0 +1,317 @@
+package nablarch.integration.workflow.definition.loader;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import nablarch.core.util.FileUtil;
+
+import nablarch.integration.workflow.definition.BoundaryEvent;
+import nablarch.integration.workflow.definition.Event;
+import nablarch.integration.workflow.definition.Gateway;
+import nablarch.integration.workflow.definition.Lane;
+import nablarch.integration.workflow.definition.SequenceFlow;
+import nablarch.integration.workflow.definition.Task;
+import nablarch.integration.workflow.definition.WorkflowDefinition;
+
+/**
+ * ワークフロー定義のスナップショットファイルの読み書きを行うクラス。
+ * <p/>
+ * スナップショットファイルは、ロード元の定義情報のチェックサムと、
+ * ワークフロー定義を構築するために必要な値のみをバイナリ形式で保持する。
+ * 読み込み時は、保持している値からワークフロー定義を再構築する。
+ *
+ * @since 1.4.2
+ */
+public final class WorkflowDefinitionSnapshot {
+
+    /** スナップショットファイルであることを表す値 */
+    private static final int MAGIC = 0x57464453;
+
+    /** ファイルフォーマットのバージョン */
+    private static final int FORMAT_VERSION = 1;
+
+    /** 文字列のエンコーディング */
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    /** nullを表す文字列長 */
+    private static final int NULL_LENGTH = -1;
+
+    /** 隠蔽コンストラクタ */
+    private WorkflowDefinitionSnapshot() {
+    }
+
+    /**
+     * スナップショットファイルを書き込む。
+     * <p/>
+     * 一時ファイルに書き込んだ後に置き換えるため、書き込み途中のファイルが読み込まれることはない。
+     *
+     * @param file スナップショットファイル
+     * @param checksum ロード元の定義情報のチェックサム
+     * @param workflowDefinitions ワークフロー定義
+     * @throws IOException 書き込みに失敗した場合
+     */
+    public static void write(File file, String checksum, List<WorkflowDefinition> workflowDefinitions)
+            throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("failed to create snapshot directory. directory = [" + parent + "]");
+        }
+        File temp = new File(parent, file.getName() + ".tmp");
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temp)));
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            writeString(out, checksum);
+            out.writeInt(workflowDefinitions.size());
+            for (WorkflowDefinition definition : workflowDefinitions) {
+                writeDefinition(out, definition);
+            }
+        } finally {
+            FileUtil.closeQuietly(out);
+        }
+        if (file.exists() && !file.delete()) {
+            temp.delete();
+            throw new IOException("failed to replace snapshot file. file = [" + file + "]");
+        }
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("failed to replace snapshot file. file = [" + file + "]");
+        }
+    }
+
+    /**
+     * スナップショットファイルを読み込む。
+     * <p/>
+     * スナップショットファイルが保持しているチェックサムが指定されたチェックサムと一致しない場合はnullを返却する。
+     *
+     * @param file スナップショットファイル
+     * @param checksum ロード元の定義情報のチェックサム
+     * @return ワークフロー定義(スナップショットファイルが存在しない場合やチェックサムが一致しない場合はnull)
+     * @throws IOException 読み込みに失敗した場合
+     * @throws IllegalStateException スナップショットファイルの形式が不正な場合
+     */
+    public static List<WorkflowDefinition> read(File file, String checksum) throws IOException, IllegalStateException {
+        if (!file.isFile()) {
+            return null;
+        }
+        FileInputStream in = new FileInputStream(file);
+        ByteBuffer buffer;
+        try {
+            FileChannel channel = in.getChannel();
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            FileUtil.closeQuietly(in);
+        }
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                throw new IllegalStateException("invalid snapshot file format. file = [" + file + "]");
+            }
+            if (!checksum.equals(readString(buffer))) {
+                return null;
+            }
+            int count = buffer.getInt();
+            List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(readDefinition(buffer));
+            }
+            return result;
+        } catch (RuntimeException e) {
+            if (e instanceof IllegalStateException) {
+                throw e;
+            }
+            throw new IllegalStateException("invalid snapshot file format. file = [" + file + "]", e);
+        }
+    }
+
+    /**
+     * ワークフロー定義を書き込む。
+     *
+     * @param out 出力先
+     * @param definition ワークフロー定義
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private static void writeDefinition(DataOutputStream out, WorkflowDefinition definition) throws IOException {
+        writeString(out, definition.getWorkflowId());
+        out.writeInt(definition.getVersion());
+        writeString(out, definition.getWorkflowName());
+        writeString(out, definition.getEffectiveDate());
+
+        out.writeInt(definition.getLanes().size());
+        for (Lane lane : definition.getLanes()) {
+            writeString(out, lane.getLaneId());
+            writeString(out, lane.getLaneName());
+        }
+        out.writeInt(definition.getSequenceFlows().size());
+        for (SequenceFlow sequenceFlow : definition.getSequenceFlows()) {
+            writeString(out, sequenceFlow.getSequenceFlowId());
+            writeString(out, sequenceFlow.getSequenceFlowName());
+            writeString(out, sequenceFlow.getSourceFlowNodeId());
+            writeString(out, sequenceFlow.getTargetFlowNodeId());
+            writeString(out, sequenceFlow.getFlowProceedConditionName());
+        }
+        out.writeInt(definition.getEvents().size());
+        for (Event event : definition.getEvents()) {
+            writeString(out, event.getFlowNodeId());
+            writeString(out, event.getFlowNodeName());
+            writeString(out, event.getLaneId());
+            writeString(out, event.getEventType().name());
+        }
+        out.writeInt(definition.getTasks().size());
+        for (Task task : definition.getTasks()) {
+            writeString(out, task.getFlowNodeId());
+            writeString(out, task.getFlowNodeName());
+            writeString(out, task.getLaneId());
+            writeString(out, task.getMultiInstanceType().name());
+            writeString(out, task.getCompletionConditionName());
+        }
+        out.writeInt(definition.getGateways().size());
+        for (Gateway gateway : definition.getGateways()) {
+            writeString(out, gateway.getFlowNodeId());
+            writeString(out, gateway.getFlowNodeName());
+            writeString(out, gateway.getLaneId());
+            writeString(out, gateway.getGatewayType().name());
+        }
+        out.writeInt(definition.getBoundaryEvents().size());
+        for (BoundaryEvent boundaryEvent : definition.getBoundaryEvents()) {
+            writeString(out, boundaryEvent.getFlowNodeId());
+            writeString(out, boundaryEvent.getFlowNodeName());
+            writeString(out, boundaryEvent.getLaneId());
+            writeString(out, boundaryEvent.getBoundaryEventTriggerId());
+            writeString(out, boundaryEvent.getBoundaryEventTriggerName());
+            writeString(out, boundaryEvent.getAttachedTaskId());
+        }
+    }
+
+    /**
+     * ワークフロー定義を読み込む。
+     * <p/>
+     * フローノードに紐づくシーケンスフローは、ワークフロー定義のシーケンスフローを遷移元フローノードIDごとにグループ化して再構築する。
+     *
+     * @param buffer 読み込み元
+     * @return ワークフロー定義
+     */
+    private static WorkflowDefinition readDefinition(ByteBuffer buffer) {
+        WorkflowDefinition definition = new WorkflowDefinition(
+                readString(buffer), buffer.getInt(), readString(buffer), readString(buffer));
+
+        int laneCount = buffer.getInt();
+        List<Lane> lanes = new ArrayList<Lane>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            lanes.add(new Lane(readString(buffer), readString(buffer)));
+        }
+        definition.setLanes(lanes);
+
+        int sequenceFlowCount = buffer.getInt();
+        List<SequenceFlow> sequenceFlows = new ArrayList<SequenceFlow>(sequenceFlowCount);
+        Map<String, List<SequenceFlow>> outgoingFlows = new HashMap<String, List<SequenceFlow>>();
+        for (int i = 0; i < sequenceFlowCount; i++) {
+            SequenceFlow sequenceFlow = new SequenceFlow(
+                    readString(buffer), readString(buffer), readString(buffer), readString(buffer), readString(buffer));
+            sequenceFlows.add(sequenceFlow);
+            List<SequenceFlow> outgoing = outgoingFlows.get(sequenceFlow.getSourceFlowNodeId());
+            if (outgoing == null) {
+                outgoing = new ArrayList<SequenceFlow>();
+                outgoingFlows.put(sequenceFlow.getSourceFlowNodeId(), outgoing);
+            }
+            outgoing.add(sequenceFlow);
+        }
+        definition.setSequenceFlows(sequenceFlows);
+
+        int eventCount = buffer.getInt();
+        List<Event> events = new ArrayList<Event>(eventCount);
+        for (int i = 0; i < eventCount; i++) {
+            String flowNodeId = readString(buffer);
+            events.add(new Event(flowNodeId, readString(buffer), readString(buffer), readString(buffer),
+                    getOutgoingFlows(outgoingFlows, flowNodeId)));
+        }
+        definition.setEvents(events);
+
+        int taskCount = buffer.getInt();
+        List<Task> tasks = new ArrayList<Task>(taskCount);
+        for (int i = 0; i < taskCount; i++) {
+            String flowNodeId = readString(buffer);
+            tasks.add(new Task(flowNodeId, readString(buffer), readString(buffer), readString(buffer),
+                    readString(buffer), getOutgoingFlows(outgoingFlows, flowNodeId)));
+        }
+        definition.setTasks(tasks);
+
+        int gatewayCount = buffer.getInt();
+        List<Gateway> gateways = new ArrayList<Gateway>(gatewayCount);
+        for (int i = 0; i < gatewayCount; i++) {
+            String flowNodeId = readString(buffer);
+            gateways.add(new Gateway(flowNodeId, readString(buffer), readString(buffer), readString(buffer),
+                    getOutgoingFlows(outgoingFlows, flowNodeId)));
+        }
+        definition.setGateways(gateways);
+
+        int boundaryEventCount = buffer.getInt();
+        List<BoundaryEvent> boundaryEvents = new ArrayList<BoundaryEvent>(boundaryEventCount);
+        for (int i = 0; i < boundaryEventCount; i++) {
+            String flowNodeId = readString(buffer);
+            boundaryEvents.add(new BoundaryEvent(flowNodeId, readString(buffer), readString(buffer),
+                    readString(buffer), readString(buffer), readString(buffer),
+                    getOutgoingFlows(outgoingFlows, flowNodeId)));
+        }
+        definition.setBoundaryEvents(boundaryEvents);
+        definition.initialize();
+        return definition;
+    }
+
+    /**
+     * 遷移元フローノードIDに紐づくシーケンスフローを取得する。
+     *
+     * @param outgoingFlows 遷移元フローノードIDをキーとしたシーケンスフロー
+     * @param flowNodeId フローノードID
+     * @return シーケンスフロー(存在しない場合は空のリスト)
+     */
+    private static List<SequenceFlow> getOutgoingFlows(Map<String, List<SequenceFlow>> outgoingFlows, String flowNodeId) {
+        List<SequenceFlow> result = outgoingFlows.get(flowNodeId);
+        return result == null ? Collections.<SequenceFlow>emptyList() : result;
+    }
+
+    /**
+     * 文字列を書き込む。
+     *
+     * @param out 出力先
+     * @param value 文字列
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 文字列を読み込む。
+     *
+     * @param buffer 読み込み元
+     * @return 文字列
+     */
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, UTF_8);
+    }
+}
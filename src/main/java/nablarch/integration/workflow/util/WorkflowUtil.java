@@ -2,11 +2,17 @@ package nablarch.integration.workflow.util;
 
 import java.lang.reflect.Constructor;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import nablarch.core.util.StringUtil;
+import nablarch.integration.workflow.condition.ConditionFactory;
+import nablarch.integration.workflow.condition.ConditionRegistry;
 
 /**
  * ワークフロー機能で使用するユティリティ群。
@@ -17,7 +23,11 @@ import nablarch.core.util.StringUtil;
 public final class WorkflowUtil {
 
     /** クラス名とコンストラクタ引数を抽出する正規表現 */
-    private static final Pattern CLASS_NAME_AND_PARAM_PATTERN = Pattern.compile("^([^\\(]+)(?:\\(([^\\)]+)\\))?$");
+    private static final Pattern CLASS_NAME_AND_PARAM_PATTERN = Pattern.compile("^([^\\(]+)(?:\\((.+)\\))?$");
+
+    /** クラス名を表す文字列をキーとした、解決済みのインスタンス生成処理 */
+    private static final ConcurrentMap<String, InstanceFactory> INSTANCE_FACTORIES =
+            new ConcurrentHashMap<String, InstanceFactory>();
 
     /**
      * 隠蔽コンストラクタ。
@@ -91,6 +101,12 @@ public final class WorkflowUtil {
      * 引数無しコンストラクタを持つクラスの場合: {@code package.subpackage.ClassName}
      * 引数有りコンストラクタを持つクラスの場合: {@code package.subpackage.ClassName2(arg1, args)}
      * <p/>
+     * クラス名部が{@link ConditionRegistry}に登録されたエイリアスと一致する場合は、
+     * エイリアスに紐づく{@link ConditionFactory}によりインスタンスを生成する。(例: {@code ge(amount, 1000)}, {@code or(2)})
+     * エイリアスの場合のみ、括弧の内側、及びシングルクォートで囲まれた範囲にあるカンマは引数の区切りとはみなさない。
+     * (例: {@code expr(amount >= 1000 && dept == 'SALES')})
+     * クラス名を指定した場合は、引数をカンマで単純に分割する。(例: {@code ClassName(name, O'Brien)})
+     * <p/>
      * 制約<br/>
      * コンストラクタの引数の方は全てStringであること。
      * クラスの責務としてString意外を要求する場合には、そのクラス内にて適切な型に変換すること。
@@ -103,6 +119,31 @@ public final class WorkflowUtil {
         if (StringUtil.isNullOrEmpty(classNamePattern)) {
             return null;
         }
+        InstanceFactory factory = INSTANCE_FACTORIES.get(classNamePattern);
+        if (factory == null) {
+            factory = createInstanceFactory(classNamePattern);
+            INSTANCE_FACTORIES.putIfAbsent(classNamePattern, factory);
+        }
+        try {
+            @SuppressWarnings("unchecked")
+            T instance = (T) factory.newInstance();
+            return instance;
+        } catch (Exception e) {
+            throw new IllegalArgumentException(
+                    String.format("failed to create instance. class name pattern = [%s]", classNamePattern), e);
+        }
+    }
+
+    /**
+     * クラス名を表す文字列を解析し、インスタンス生成処理を生成する。
+     * <p/>
+     * クラスとコンストラクタの解決は本メソッドでのみ行い、
+     * 生成したインスタンス生成処理はクラス名を表す文字列単位に再利用する。
+     *
+     * @param classNamePattern クラス名を表す文字列
+     * @return インスタンス生成処理
+     */
+    private static InstanceFactory createInstanceFactory(String classNamePattern) {
         Matcher matcher = CLASS_NAME_AND_PARAM_PATTERN.matcher(classNamePattern);
         if (!matcher.find()) {
             throw new IllegalArgumentException(
@@ -110,24 +151,63 @@ public final class WorkflowUtil {
         }
 
         String className = matcher.group(1);
+        ConditionFactory conditionFactory = ConditionRegistry.getConditionFactory(className);
         List<String> params = new ArrayList<String>();
         if (matcher.group(2) != null) {
-            String[] paramString = matcher.group(2).split(",");
+            List<String> paramString = (conditionFactory != null)
+                    ? splitParams(matcher.group(2))
+                    : Arrays.asList(matcher.group(2).split(","));
             for (String param : paramString) {
                 params.add(param.trim());
             }
         }
+        if (conditionFactory != null) {
+            return new AliasInstanceFactory(conditionFactory, params);
+        }
         try {
-            @SuppressWarnings("unchecked")
-            Class<T> clazz = (Class<T>) Class.forName(className);
-            Constructor<T> constructor = clazz.getConstructor(createStringClassArray(params.size()));
-            return constructor.newInstance(params.toArray(new String[params.size()]));
+            Class<?> clazz = Class.forName(className);
+            Constructor<?> constructor = clazz.getConstructor(createStringClassArray(params.size()));
+            return new ConstructorInstanceFactory(constructor, params.toArray(new String[params.size()]));
         } catch (Exception e) {
             throw new IllegalArgumentException(
                     String.format("failed to create instance. class name pattern = [%s]", classNamePattern), e);
         }
     }
 
+    /**
+     * エイリアスの引数を表す文字列をカンマで分割する。
+     * <p/>
+     * 括弧の内側、及びシングルクォートで囲まれた範囲にあるカンマは区切り文字とはみなさない。
+     * {@link String#split(String)}と同様に、末尾の空文字列は除去する。
+     *
+     * @param paramString エイリアスの引数を表す文字列
+     * @return 分割結果
+     */
+    private static List<String> splitParams(String paramString) {
+        List<String> result = new ArrayList<String>();
+        int depth = 0;
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < paramString.length(); i++) {
+            char c = paramString.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+            } else if (!quoted && c == '(') {
+                depth++;
+            } else if (!quoted && c == ')') {
+                depth--;
+            } else if (!quoted && depth == 0 && c == ',') {
+                result.add(paramString.substring(start, i));
+                start = i + 1;
+            }
+        }
+        result.add(paramString.substring(start));
+        while (!result.isEmpty() && result.get(result.size() - 1).length() == 0) {
+            result.remove(result.size() - 1);
+        }
+        return result;
+    }
+
     /**
      * 指定されたサイズのString.classを持つClass配列を生成する。
      *
@@ -142,6 +222,76 @@ public final class WorkflowUtil {
         return result;
     }
 
+    /**
+     * インスタンスを生成するクラス。
+     */
+    private abstract static class InstanceFactory {
+
+        /**
+         * インスタンスを生成する。
+         *
+         * @return 生成したインスタンス
+         * @throws Exception インスタンスの生成に失敗した場合
+         */
+        abstract Object newInstance() throws Exception;
+    }
+
+    /**
+     * 解決済みのコンストラクタとコンストラクタ引数によりインスタンスを生成するクラス。
+     */
+    private static final class ConstructorInstanceFactory extends InstanceFactory {
+
+        /** コンストラクタ */
+        private final Constructor<?> constructor;
+
+        /** コンストラクタ引数 */
+        private final String[] params;
+
+        /**
+         * インスタンス生成処理を生成する。
+         *
+         * @param constructor コンストラクタ
+         * @param params コンストラクタ引数
+         */
+        private ConstructorInstanceFactory(Constructor<?> constructor, String[] params) {
+            this.constructor = constructor;
+            this.params = params;
+        }
+
+        @Override
+        Object newInstance() throws Exception {
+            return constructor.newInstance((Object[]) params.clone());
+        }
+    }
+
+    /**
+     * エイリアスに紐づく{@link ConditionFactory}によりインスタンスを生成するクラス。
+     */
+    private static final class AliasInstanceFactory extends InstanceFactory {
+
+        /** 条件の生成処理 */
+        private final ConditionFactory conditionFactory;
+
+        /** 条件の引数 */
+        private final List<String> params;
+
+        /**
+         * インスタンス生成処理を生成する。
+         *
+         * @param conditionFactory 条件の生成処理
+         * @param params 条件の引数
+         */
+        private AliasInstanceFactory(ConditionFactory conditionFactory, List<String> params) {
+            this.conditionFactory = conditionFactory;
+            this.params = Collections.unmodifiableList(params);
+        }
+
+        @Override
+        Object newInstance() throws Exception {
+            return conditionFactory.create(params);
+        }
+    }
+
     /**
      * Listの要素をフィルタする際の条件。
      *
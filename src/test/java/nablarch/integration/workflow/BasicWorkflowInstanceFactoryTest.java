@@ -9,7 +9,11 @@ import static nablarch.integration.workflow.WorkflowTestSupport.assertCurrentTas
 import static nablarch.integration.workflow.WorkflowTestSupport.assertWorkflowInstance;
 import static nablarch.integration.workflow.WorkflowTestSupport.prepareWorkflowWithDb;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 
@@ -17,6 +21,9 @@ import org.junit.BeforeClass;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import nablarch.core.db.statement.SqlResultSet;
+import nablarch.core.db.statement.SqlRow;
+import nablarch.integration.workflow.condition.AllCompletionCondition;
 import nablarch.integration.workflow.condition.StringEqualFlowProceedCondition;
 import nablarch.integration.workflow.testhelper.WorkflowDbAccessSupport;
 import nablarch.integration.workflow.testhelper.WorkflowTestRule;
@@ -47,6 +54,9 @@ public class BasicWorkflowInstanceFactoryTest {
     private static final String TO_GATEWAY_WORKFLOW_ID = "WF002";
     private static final String TO_GATEWAY_ACTIVATE_TASK = "t90";
 
+    private static final String TO_TERMINATE_WORKFLOW_ID = "WF004";
+    private static final String TO_TERMINATE_TASK = "t10";
+
     private static final List<String> NOT_ASSIGNED = Collections.emptyList();
 
     @BeforeClass
@@ -56,7 +66,7 @@ public class BasicWorkflowInstanceFactoryTest {
         prepareWorkflowDefinition();
     }
 
-    private final WorkflowInstanceFactory sut = new BasicWorkflowInstanceFactory();
+    private final BulkWorkflowInstanceFactory sut = new BasicWorkflowInstanceFactory();
 
     /**
      * パラメータなしでワークフローを開始する場合の {@link WorkflowManager#startInstance(String)} のテスト。
@@ -99,6 +109,149 @@ public class BasicWorkflowInstanceFactoryTest {
         }
     }
 
+    /**
+     * 複数のワークフローをまとめて開始する場合の {@link BasicWorkflowInstanceFactory#startAll(String, List)} のテスト。
+     * <p/>
+     * バッチ更新の単位をまたいでも、パラメータごとに正しくワークフローが開始されること。
+     */
+    @Test
+    public void testStartAll() throws Exception {
+        BasicWorkflowInstanceFactory factory = new BasicWorkflowInstanceFactory();
+        factory.setStartBatchSize(2);
+
+        List<Map<String, String>> parameters = Arrays.asList(
+                Collections.singletonMap("toTask", "parallel"),
+                Collections.singletonMap("toTerminate", "true"),
+                Collections.singletonMap("toTask", "parallel"));
+        List<WorkflowInstance> workflows = factory.startAll(TO_GATEWAY_WORKFLOW_ID, parameters);
+        rule.commit();
+
+        assertThat("パラメータと同じ数のワークフローが開始されること。", workflows.size(), is(3));
+        assertWorkflowInstance("正しくワークフローが開始され、ワークフローインスタンスが生成されていること。", workflows.get(0));
+        assertActiveFlowNode("パラメータに応じた進行先フローノードが登録されていること。", workflows.get(0), TO_GATEWAY_ACTIVATE_TASK);
+        assertCurrentTasks("ユーザがアサインされていないタスクが正しくアクティブ化されていること。", workflows.get(0), NOT_ASSIGNED, NOT_ASSIGNED);
+        assertThat("停止イベントまで進行したワークフローは完了状態となること。", workflows.get(1).isCompleted(), is(true));
+        assertWorkflowInstance("バッチ更新の単位をまたいでも、正しくワークフローが開始されること。", workflows.get(2));
+        assertActiveFlowNode("バッチ更新の単位をまたいでも、進行先フローノードが登録されていること。", workflows.get(2), TO_GATEWAY_ACTIVATE_TASK);
+
+        assertThat("採番されたインスタンスIDはそれぞれ異なること。",
+                new HashSet<String>(Arrays.asList(workflows.get(0).getInstanceId(), workflows.get(1).getInstanceId(),
+                        workflows.get(2).getInstanceId())).size(), is(3));
+    }
+
+    /**
+     * {@link BasicWorkflowInstanceFactory#startAll(String, List)} で開始した場合と、
+     * 同じパラメータで {@link BasicWorkflowInstanceFactory#start(String, Map)} を繰り返し呼び出した場合とで、
+     * インスタンス系テーブルの状態が一致すること。
+     */
+    @Test
+    public void testStartAll_SameAsStart() throws Exception {
+        List<Map<String, String>> parameters = Arrays.asList(
+                Collections.singletonMap("toTask", "parallel"),
+                Collections.singletonMap("toTerminate", "true"),
+                Collections.singletonMap("toTask", "parallel"));
+
+        cleanupInstanceTables();
+        for (Map<String, String> parameter : parameters) {
+            sut.start(TO_GATEWAY_WORKFLOW_ID, parameter);
+        }
+        rule.commit();
+        List<List<Map<String, Object>>> expected = findInstanceTables();
+
+        cleanupInstanceTables();
+        sut.startAll(TO_GATEWAY_WORKFLOW_ID, parameters);
+        rule.commit();
+
+        assertThat("インスタンスIDを除き、同じデータが登録されていること。", findInstanceTables(), is(expected));
+    }
+
+    /**
+     * インスタンス系テーブルのデータを削除する。
+     */
+    private static void cleanupInstanceTables() {
+        db.cleanup("WF_ACTIVE_GROUP_TASK", "WF_ACTIVE_USER_TASK", "WF_ACTIVE_FLOW_NODE",
+                "WF_INSTANCE_FLOW_NODE", "WF_INSTANCE");
+    }
+
+    /**
+     * インスタンス系テーブルのデータを、インスタンスIDを除いて取得する。
+     *
+     * @return テーブルごとのデータ
+     */
+    private static List<List<Map<String, Object>>> findInstanceTables() {
+        List<List<Map<String, Object>>> tables = new ArrayList<List<Map<String, Object>>>();
+        for (SqlResultSet rows : Arrays.asList(db.findWorkflowInstance(), db.findInstanceFlowNode(),
+                db.findActiveFlowNode(), db.findActiveUserTask(), db.findActiveGroupTask())) {
+            List<Map<String, Object>> table = new ArrayList<Map<String, Object>>();
+            for (SqlRow row : rows) {
+                Map<String, Object> values = new HashMap<String, Object>(row);
+                values.remove("INSTANCE_ID");
+                table.add(values);
+            }
+            tables.add(table);
+        }
+        return tables;
+    }
+
+    /**
+     * {@link BasicWorkflowInstanceFactory#setStartBatchSize(int)} に1未満の値が指定された場合には、例外が発生すること。
+     */
+    @Test
+    public void testSetStartBatchSize_Invalid() throws Exception {
+        try {
+            new BasicWorkflowInstanceFactory().setStartBatchSize(0);
+            fail("ここは通らない");
+        } catch (IllegalArgumentException actual) {
+            assertThat(actual.getMessage(), is("start batch size must be greater than 0. start batch size = [0]"));
+        }
+    }
+
+    /**
+     * 複数のワークフローインスタンスのタスクをまとめて完了させる場合の
+     * {@link BasicWorkflowInstanceFactory#completeUserTasks(List, Map, String)} のテスト。
+     * <p/>
+     * 完了条件を満たしたワークフローインスタンスのみが進行し、重複したインスタンスIDは1回のみ処理されること。
+     */
+    @Test
+    public void testCompleteUserTasks() throws Exception {
+        WorkflowInstance remaining = sut.start(TO_TERMINATE_WORKFLOW_ID);
+        remaining.assignUsers(TO_TERMINATE_TASK, Arrays.asList("user1", "user2"));
+        WorkflowInstance completing = sut.start(TO_TERMINATE_WORKFLOW_ID);
+        completing.assignUsers(TO_TERMINATE_TASK, Arrays.asList("user1"));
+        rule.commit();
+
+        List<WorkflowInstance> workflows = sut.completeUserTasks(
+                Arrays.asList(remaining.getInstanceId(), completing.getInstanceId(), remaining.getInstanceId()),
+                Collections.<String, Object>emptyMap(), "user1");
+        rule.commit();
+
+        assertThat("重複したインスタンスIDは1回のみ処理されること。", workflows.size(), is(2));
+        assertActiveFlowNode("完了条件を満たさないワークフローは進行しないこと。", workflows.get(0), TO_TERMINATE_TASK);
+        assertCurrentTasks("完了させたユーザのアクティブタスクのみが削除されていること。", workflows.get(0), Arrays.asList("user2"), NOT_ASSIGNED);
+        assertThat("完了条件を満たしたワークフローは停止イベントまで進行すること。", workflows.get(1).isCompleted(), is(true));
+        assertThat("完了したワークフローはインスタンスが削除されていること。", sut.find(completing.getInstanceId()).isCompleted(), is(true));
+    }
+
+    /**
+     * {@link BasicWorkflowInstanceFactory#completeUserTasks(List, Map, String)} で、
+     * ユーザのアクティブタスクが存在しないワークフローインスタンスが含まれる場合には、
+     * どのタスクも完了させずに例外が発生すること。
+     */
+    @Test
+    public void testCompleteUserTasks_ActiveTaskNotFound() throws Exception {
+        WorkflowInstance workflow = sut.start(TO_TERMINATE_WORKFLOW_ID);
+        workflow.assignUsers(TO_TERMINATE_TASK, Arrays.asList("user1"));
+        rule.commit();
+
+        try {
+            sut.completeUserTasks(Arrays.asList(workflow.getInstanceId(), "notfound"), Collections.<String, Object>emptyMap(), "user1");
+            fail("ここは通らない");
+        } catch (IllegalStateException actual) {
+            assertThat(actual.getMessage(), is("Active task is not found for user = [user1]. instance ids = [notfound]."));
+        }
+        assertCurrentTasks("タスクが完了していないこと。", workflow, Arrays.asList("user1"), NOT_ASSIGNED);
+    }
+
     /**
      * 存在するワークフローインスタンスのインスタンスIDが渡された場合、データベースからワークフローインスタンス情報を取得して、
      * 正しく {@link BasicWorkflowInstance} オブジェクトの状態が復元されること。
@@ -128,6 +281,59 @@ public class BasicWorkflowInstanceFactoryTest {
         assertThat("アクティブフローノードは常にfalseを返却すること。", workflow.isActive("someId"), is(false));
     }
 
+    /**
+     * 複数のワークフローインスタンスをまとめて取得する場合の {@link BasicWorkflowInstanceFactory#findAll(List)} のテスト。
+     * <p/>
+     * 指定したインスタンスIDと同じ順に取得され、存在しないインスタンスIDは完了状態のワークフローインスタンスとなること。
+     */
+    @Test
+    public void testFindAll() throws Exception {
+        String task = prepareWorkflowWithDb(WORKFLOW_ID, TASK).getInstanceId();
+        String gateway = prepareWorkflowWithDb(TO_GATEWAY_WORKFLOW_ID, TO_GATEWAY_ACTIVATE_TASK).getInstanceId();
+        rule.commit();
+
+        List<WorkflowInstance> workflows = sut.findAll(Arrays.asList(gateway, "completed instance id", task, gateway));
+
+        assertThat("指定したインスタンスIDと同じ数が取得されること。", workflows.size(), is(4));
+        assertThat(workflows.get(0).getInstanceId(), is(gateway));
+        assertThat(workflows.get(0).getWorkflowId(), is(TO_GATEWAY_WORKFLOW_ID));
+        assertActiveFlowNode("アクティブフローノードが正しくDBから復元されていること。", workflows.get(0), TO_GATEWAY_ACTIVATE_TASK);
+        assertThat(workflows.get(1).getInstanceId(), is("completed instance id"));
+        assertThat("存在しないインスタンスIDは完了状態となること。", workflows.get(1).isCompleted(), is(true));
+        assertThat(workflows.get(2).getInstanceId(), is(task));
+        assertThat("ワークフロー定義が正しくDBから復元されていること：バージョン", workflows.get(2).getVersion(), is(2L));
+        assertActiveFlowNode("アクティブフローノードが正しくDBから復元されていること。", workflows.get(2), TASK);
+        assertThat("重複したインスタンスIDも取得されること。", workflows.get(3).getInstanceId(), is(gateway));
+        assertActiveFlowNode("重複したインスタンスIDも取得されること。", workflows.get(3), TO_GATEWAY_ACTIVATE_TASK);
+    }
+
+    /**
+     * 進行状態を一括取得する設定の場合の {@link BasicWorkflowInstanceFactory#find(String)} のテスト。
+     * <p/>
+     * 取得後は、アクティブタスク及び担当者の参照がデータベースにアクセスせずに行われること。
+     */
+    @Test
+    public void testFind_EagerLoad() throws Exception {
+        String id = prepareWorkflowWithDb(WORKFLOW_ID, TASK).getInstanceId();
+        sut.find(id).assignUsers(TASK, Arrays.asList("user1"));
+        rule.commit();
+
+        BasicWorkflowInstanceFactory factory = new BasicWorkflowInstanceFactory();
+        factory.setEagerLoad(true);
+        WorkflowInstance workflow = factory.find(id);
+        db.cleanup("WF_ACTIVE_USER_TASK", "WF_TASK_ASSIGNED_USER");
+
+        assertActiveFlowNode("アクティブフローノードが正しくDBから復元されていること。", workflow, TASK);
+        assertThat("ワークフロー定義が正しくDBから復元されていること：バージョン", workflow.getVersion(), is(2L));
+        assertThat("一括取得したアクティブユーザタスクで判定されること。", workflow.hasActiveUserTask("user1"), is(true));
+        assertThat(workflow.hasActiveUserTask("user2"), is(false));
+        assertThat(workflow.hasActiveGroupTask("group1"), is(false));
+        assertThat("一括取得した担当ユーザが取得できること。", workflow.getAssignedUsers(TASK), is(Arrays.asList("user1")));
+        assertThat(workflow.getAssignedGroups(TASK), is(NOT_ASSIGNED));
+
+        assertThat("存在しないインスタンスIDは完了状態となること。", factory.find("completed instance id").isCompleted(), is(true));
+    }
+
     // ----- support methods -----
     private static void prepareWorkflowDefinition() {
         db.cleanupAll();
@@ -164,6 +370,20 @@ public class BasicWorkflowInstanceFactoryTest {
                     new SequenceFlowEntity(workflow, "000000003", "Gateway -> Task", "g01", TO_GATEWAY_ACTIVATE_TASK, toParTaskCondition)
             );
         }
+        // タスク後に停止イベントがあるパターン
+        {
+            WorkflowEntity workflow = new WorkflowEntity(TO_TERMINATE_WORKFLOW_ID, 1L, "タスク後に停止イベントがあるワークフロー定義", "19700101");
+            db.insertWorkflowEntity(workflow);
+            LaneEntity lane = new LaneEntity(workflow, "l01", "Lane");
+            db.insertLaneEntity(lane);
+            db.insertEventEntity(new EventEntity("e01", lane, "StartEvent", "START"));
+            db.insertTaskEntity(new TaskEntity(TO_TERMINATE_TASK, lane, "Task", "PARALLEL", AllCompletionCondition.class.getName()));
+            db.insertEventEntity(new EventEntity(TERMINATE_EVENT, lane, "TerminateEvent", "TERMINATE"));
+            db.insertSequenceEntity(
+                    new SequenceFlowEntity(workflow, "000000001", "StartEvent -> Task", "e01", TO_TERMINATE_TASK, null),
+                    new SequenceFlowEntity(workflow, "000000002", "Task -> TerminateEvent", TO_TERMINATE_TASK, TERMINATE_EVENT, null)
+            );
+        }
         rule.reloadProcessDefinitions();
     }
 }
@@ -8,7 +8,9 @@ import static nablarch.integration.workflow.WorkflowTestSupport.assertActiveFlow
 import static nablarch.integration.workflow.WorkflowTestSupport.assertWorkflowInstance;
 import static nablarch.integration.workflow.WorkflowTestSupport.prepareWorkflowWithDb;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import nablarch.integration.workflow.condition.StringEqualFlowProceedCondition;
@@ -108,6 +110,24 @@ public class WorkflowManagerTest {
         assertActiveFlowNode("ゲートウェイにパラメータが渡され、進行先フローノードを正しく取得できていること。", workflow, TO_GATEWAY_ACTIVATE_TASK);
     }
 
+    /**
+     * {@link WorkflowManager#startInstances(String, List)} のテスト
+     *
+     * {@link WorkflowInstanceFactory} に委譲しているので、最低限のテストのみ行う。
+     */
+    @Test
+    public void testStartInstances() throws Exception {
+        List<WorkflowInstance> workflows = WorkflowManager.startInstances(TO_GATEWAY_WORKFLOW_ID,
+                Arrays.asList(Collections.singletonMap("toTask", "parallel"), Collections.singletonMap("toTask", "parallel")));
+        rule.commit();
+
+        assertThat(workflows.size(), is(2));
+        for (WorkflowInstance workflow : workflows) {
+            assertWorkflowInstance("正しくワークフローが開始され、ワークフローインスタンスが生成されていること。", workflow);
+            assertActiveFlowNode("ゲートウェイにパラメータが渡され、進行先フローノードを正しく取得できていること。", workflow, TO_GATEWAY_ACTIVATE_TASK);
+        }
+    }
+
     /**
      * {@link WorkflowManager#findInstance(String)} のテスト
      *
@@ -124,6 +144,116 @@ public class WorkflowManagerTest {
         assertThat("ワークフロー定義が正しくDBから復元されていること：バージョン", workflow.getVersion(), is(2L));
     }
 
+    /**
+     * {@link WorkflowManager#findInstances(List)} のテスト
+     *
+     * {@link WorkflowInstanceFactory} に委譲しているので、最低限のテストのみ行う。
+     */
+    @Test
+    public void testFindInstances() throws Exception {
+        String id = prepareWorkflowWithDb(WORKFLOW_ID, TASK).getInstanceId();
+        rule.commit();
+
+        List<WorkflowInstance> workflows = WorkflowManager.findInstances(Arrays.asList(id, "completed instance id"));
+
+        assertThat(workflows.size(), is(2));
+        assertThat("ワークフロー定義が正しくDBから復元されていること：ワークフローID", workflows.get(0).getWorkflowId(), is(WORKFLOW_ID));
+        assertThat("存在しないインスタンスIDは完了状態となること。", workflows.get(1).isCompleted(), is(true));
+    }
+
+    /**
+     * {@link BulkWorkflowInstanceFactory} を実装していないファクトリが設定されている場合の、
+     * {@link WorkflowManager#startInstances(String, List)} 、 {@link WorkflowManager#findInstances(List)} 、
+     * {@link WorkflowManager#completeUserTasks(List, Map, String)} のテスト。
+     * <p/>
+     * ワークフローインスタンスごとの呼び出しで処理され、アクティブタスクが存在しないインスタンスが含まれる場合には、
+     * どのタスクも完了させずに例外が発生すること。
+     */
+    @Test
+    public void testBulkOperations_NotBulkFactory() throws Exception {
+        WorkflowConfig config = WorkflowConfig.get();
+        WorkflowInstanceFactory original = config.getWorkflowInstanceFactory();
+        config.setWorkflowInstanceFactory(new NotBulkWorkflowInstanceFactory(original));
+        try {
+            List<WorkflowInstance> started = WorkflowManager.startInstances(TO_GATEWAY_WORKFLOW_ID,
+                    Arrays.asList(Collections.singletonMap("toTask", "parallel"), Collections.singletonMap("toTask", "parallel")));
+            started.get(0).assignUser(TO_GATEWAY_ACTIVATE_TASK, "user1");
+            rule.commit();
+
+            assertThat(started.size(), is(2));
+            for (WorkflowInstance workflow : started) {
+                assertWorkflowInstance("正しくワークフローが開始され、ワークフローインスタンスが生成されていること。", workflow);
+                assertActiveFlowNode("ゲートウェイにパラメータが渡され、進行先フローノードを正しく取得できていること。", workflow, TO_GATEWAY_ACTIVATE_TASK);
+            }
+
+            List<WorkflowInstance> found = WorkflowManager.findInstances(
+                    Arrays.asList(started.get(0).getInstanceId(), "completed instance id"));
+            assertThat(found.size(), is(2));
+            assertThat("ワークフロー定義が正しくDBから復元されていること：ワークフローID", found.get(0).getWorkflowId(), is(TO_GATEWAY_WORKFLOW_ID));
+            assertThat("存在しないインスタンスIDは完了状態となること。", found.get(1).isCompleted(), is(true));
+
+            try {
+                WorkflowManager.completeUserTasks(
+                        Arrays.asList(started.get(0).getInstanceId(), started.get(1).getInstanceId()),
+                        Collections.<String, Object>emptyMap(), "user1");
+                fail("ここは通らない");
+            } catch (IllegalStateException actual) {
+                assertThat(actual.getMessage(), is("Active task is not found for user = [user1]. instance ids = ["
+                        + started.get(1).getInstanceId() + "]."));
+            }
+            assertThat("タスクが完了していないこと。",
+                    WorkflowManager.findInstance(started.get(0).getInstanceId()).hasActiveUserTask("user1"), is(true));
+        } finally {
+            config.setWorkflowInstanceFactory(original);
+        }
+    }
+
+    /**
+     * {@link WorkflowManager#filterInstancesWithActiveUserTask(String, java.util.Collection)} のテスト。
+     * <p/>
+     * アクティブユーザタスクが存在するインスタンスIDのみが、指定した順に取得されること。
+     */
+    @Test
+    public void testFilterInstancesWithActiveUserTask() throws Exception {
+        WorkflowInstance assigned1 = prepareWorkflowWithDb(WORKFLOW_ID, TASK);
+        assigned1.assignUsers(TASK, Arrays.asList("user1", "user2"));
+        WorkflowInstance other = prepareWorkflowWithDb(WORKFLOW_ID, TASK);
+        other.assignUsers(TASK, Arrays.asList("user2"));
+        WorkflowInstance assigned2 = prepareWorkflowWithDb(WORKFLOW_ID, TASK);
+        assigned2.assignUsers(TASK, Arrays.asList("user1"));
+        rule.commit();
+
+        List<String> actual = WorkflowManager.filterInstancesWithActiveUserTask("user1", Arrays.asList(
+                assigned2.getInstanceId(), other.getInstanceId(), "completed instance id", assigned1.getInstanceId()));
+        assertThat(actual, is(Arrays.asList(assigned2.getInstanceId(), assigned1.getInstanceId())));
+
+        assertThat("重複して指定されたインスタンスIDは1件のみ取得されること。",
+                WorkflowManager.filterInstancesWithActiveUserTask("user1", Arrays.asList(
+                        assigned1.getInstanceId(), assigned2.getInstanceId(), assigned1.getInstanceId())),
+                is(Arrays.asList(assigned1.getInstanceId(), assigned2.getInstanceId())));
+
+        assertThat("インスタンスIDが指定されない場合は空のリストとなること。",
+                WorkflowManager.filterInstancesWithActiveUserTask("user1", Collections.<String>emptyList()).isEmpty(), is(true));
+    }
+
+    /**
+     * {@link WorkflowManager#filterInstancesWithActiveGroupTask(String, java.util.Collection)} のテスト。
+     * <p/>
+     * アクティブグループタスクが存在するインスタンスIDのみが、指定した順に取得されること。
+     */
+    @Test
+    public void testFilterInstancesWithActiveGroupTask() throws Exception {
+        WorkflowInstance assigned = prepareWorkflowWithDb(WORKFLOW_ID, TASK);
+        assigned.assignGroups(TASK, Arrays.asList("group1"));
+        WorkflowInstance other = prepareWorkflowWithDb(WORKFLOW_ID, TASK);
+        other.assignGroups(TASK, Arrays.asList("group2"));
+        rule.commit();
+
+        List<String> actual = WorkflowManager.filterInstancesWithActiveGroupTask("group1", Arrays.asList(
+                other.getInstanceId(), assigned.getInstanceId()));
+        assertThat(actual, is(Arrays.asList(assigned.getInstanceId())));
+    }
+
     /**
      * {@link WorkflowManager#getCurrentVersion(String)} のテスト。
      */
@@ -149,4 +279,31 @@ public class WorkflowManagerTest {
             assertThat(e.getMessage(), containsString("workflow id = [" + notExistingWorkflowId + "]"));
         }
     }
+
+    /**
+     * {@link BulkWorkflowInstanceFactory} を実装していない {@link WorkflowInstanceFactory}。
+     */
+    private static final class NotBulkWorkflowInstanceFactory implements WorkflowInstanceFactory {
+
+        private final WorkflowInstanceFactory delegate;
+
+        NotBulkWorkflowInstanceFactory(WorkflowInstanceFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WorkflowInstance start(String workflowId) {
+            return delegate.start(workflowId);
+        }
+
+        @Override
+        public WorkflowInstance start(String workflowId, Map<String, ?> parameter) {
+            return delegate.start(workflowId, parameter);
+        }
+
+        @Override
+        public WorkflowInstance find(String instanceId) {
+            return delegate.find(instanceId);
+        }
+    }
 }
@@ -7,6 +7,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import nablarch.integration.workflow.WorkflowConfig;
 import nablarch.integration.workflow.definition.SequenceFlow;
 import nablarch.integration.workflow.definition.Task;
 import nablarch.integration.workflow.testhelper.WorkflowTestRule;
@@ -17,6 +18,7 @@ import org.junit.Test;
 import nablarch.core.repository.SystemRepository;
 
 import nablarch.integration.workflow.dao.WorkflowInstanceDao;
+import nablarch.integration.workflow.dao.WorkflowInstanceSchema;
 
 /**
  * {@link AllCompletionCondition}のテストクラス。
@@ -137,6 +139,49 @@ public class AllCompletionConditionTest {
         assertThat(actual, is(false));
     }
 
+    /**
+     * タスク進捗テーブルを設定する前に担当者が割り当てられていて、タスク進捗が登録されていない場合は、
+     * アクティブユーザタスクの件数で判定されること。
+     */
+    @Test
+    public void testTaskProgressNotRegistered() throws Exception {
+
+        // ----- setup -----
+        // タスク進捗テーブルを設定する前に、担当者の割り当てとアクティブユーザタスクの作成を行う。
+        WorkflowInstanceDao workflowInstanceDao = getWorkflowInstanceDao();
+        workflowInstanceDao.saveAssignedUser("0000000001", "001", Arrays.asList("user1", "user2"));
+        workflowInstanceDao.saveActiveUserTask("0000000001", "001", Arrays.asList("user1", "user2"));
+        workflowTestRule.commit();
+
+        WorkflowConfig config = WorkflowConfig.get();
+        WorkflowInstanceSchema schema = SystemRepository.get("workflowInstanceSchema");
+        schema.setTaskProgressTableName("WF_TASK_PROGRESS");
+        schema.setAssignedCountColumnName("ASSIGNED_COUNT");
+        schema.setCompletedCountColumnName("COMPLETED_COUNT");
+        try {
+            WorkflowInstanceDao progressEnabled = new WorkflowInstanceDao();
+            progressEnabled.setWorkflowInstanceSchema(schema);
+            progressEnabled.initialize();
+            config.setWorkflowInstanceDao(progressEnabled);
+            Task task = new Task("001", "", "", "PARALLEL",
+                    "nablarch.integration.workflow.condition.AllCompletionCondition", SEQUENCE_FLOWS);
+
+            // ----- execute & assert -----
+            progressEnabled.deleteActiveUserTaskByUserId("0000000001", "001", "user1");
+            assertThat("未処理のアクティブユーザタスクが残っているため、完了とならないこと。",
+                    sut.isCompletedUserTask(null, "0000000001", task), is(false));
+
+            progressEnabled.deleteActiveUserTaskByUserId("0000000001", "001", "user2");
+            assertThat("全てのアクティブユーザタスクが処理済みのため、完了となること。",
+                    sut.isCompletedUserTask(null, "0000000001", task), is(true));
+        } finally {
+            config.setWorkflowInstanceDao(workflowInstanceDao);
+            schema.setTaskProgressTableName(null);
+            schema.setAssignedCountColumnName(null);
+            schema.setCompletedCountColumnName(null);
+        }
+    }
+
     /**
      * テスト対象のインスタンスを取得する。
      *
@@ -0,0 +1,140 @@
+package nablarch.integration.workflow.condition;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+
+import nablarch.integration.workflow.definition.SequenceFlow;
+
+import org.junit.Test;
+
+/**
+ * {@link ExpressionFlowProceedCondition}のテスト。
+ */
+public class ExpressionFlowProceedConditionTest {
+
+    private final SequenceFlow dummyFlow = new SequenceFlow("000", "フロー", "001", "002", null);
+
+    /**
+     * 数値の比較が行えること。
+     */
+    @Test
+    public void testNumberComparison() throws Exception {
+        Map<String, Object> param = new HashMap<String, Object>();
+        param.put("intVal", 1000);
+        param.put("bigDecimalVal", new BigDecimal("100"));
+        param.put("strVal", "12345");
+        param.put("invalidNum", "a");
+        param.put("otherType", new ArrayList<String>());
+
+        assertThat(isMatch("intVal >= 1000", param), is(true));
+        assertThat(isMatch("intVal > 1000", param), is(false));
+        assertThat(isMatch("intVal == 1000", param), is(true));
+        assertThat(isMatch("intVal != 1000", param), is(false));
+        assertThat(isMatch("bigDecimalVal < 101", param), is(true));
+        assertThat(isMatch("bigDecimalVal <= 99", param), is(false));
+        assertThat(isMatch("strVal == 12345", param), is(true));
+        assertThat("リテラルが左辺の場合は演算子を反転して比較すること", isMatch("1001 > intVal", param), is(true));
+        assertThat(isMatch("-1 < intVal", param), is(true));
+        assertThat("パラメータ同士の比較", isMatch("strVal > intVal", param), is(true));
+
+        assertThat("数値に変換できない場合は一致しない", isMatch("invalidNum != 1", param), is(false));
+        assertThat("許容しない型の場合は一致しない", isMatch("otherType == 1", param), is(false));
+        assertThat("パラメータが存在しない場合は一致しない", isMatch("notFound <= 1", param), is(false));
+        assertThat("パラメータ自体がnullの場合は一致しない", isMatch("intVal >= 1000", null), is(false));
+    }
+
+    /**
+     * 文字列及びnullとの比較が行えること。
+     */
+    @Test
+    public void testEquality() throws Exception {
+        Map<String, Object> param = new HashMap<String, Object>();
+        param.put("dept", "SALES");
+        param.put("dept2", "SALES");
+        param.put("name", "it's");
+        param.put("code", 1);
+
+        assertThat(isMatch("dept == 'SALES'", param), is(true));
+        assertThat(isMatch("dept != 'SALES'", param), is(false));
+        assertThat(isMatch("'SALES' == dept", param), is(true));
+        assertThat(isMatch("name == 'it''s'", param), is(true));
+        assertThat("文字列以外は一致しない", isMatch("code == '1'", param), is(false));
+        assertThat(isMatch("dept == dept2", param), is(true));
+        assertThat(isMatch("dept != code", param), is(true));
+        assertThat(isMatch("notFound == null", param), is(true));
+        assertThat(isMatch("dept != null", param), is(true));
+        assertThat(isMatch("'A' == 'A'", param), is(true));
+        assertThat(isMatch("1 == 2", param), is(false));
+    }
+
+    /**
+     * 論理演算子と括弧を組み合わせた条件式が評価できること。
+     */
+    @Test
+    public void testLogicalOperator() throws Exception {
+        Map<String, Object> param = new HashMap<String, Object>();
+        param.put("amount", "1500");
+        param.put("dept", "SALES");
+
+        assertThat(isMatch("amount >= 1000 && dept == 'SALES'", param), is(true));
+        assertThat(isMatch("amount >= 2000 && dept == 'SALES'", param), is(false));
+        assertThat(isMatch("amount >= 2000 || dept == 'SALES'", param), is(true));
+        assertThat(isMatch("!(amount >= 2000) && !dept == 'ADMIN'", param), is(true));
+        assertThat("&&は||より優先されること", isMatch("dept == 'SALES' || amount > 2000 && dept == 'ADMIN'", param), is(true));
+        assertThat(isMatch("(dept == 'SALES' || amount > 2000) && dept == 'ADMIN'", param), is(false));
+    }
+
+    /**
+     * 不正な条件式の場合、生成時に例外が発生すること。
+     */
+    @Test
+    public void testInvalidExpression() throws Exception {
+        assertInvalid("amount >=", "operand is expected");
+        assertInvalid("amount", "comparison operator is expected");
+        assertInvalid("amount = 1", "'==' is expected");
+        assertInvalid("(amount == 1", "')' is expected");
+        assertInvalid("amount == 1 amount", "unexpected token");
+        assertInvalid("dept == 'SALES", "string literal is not closed");
+        assertInvalid("amount == 99999999999999999999", "number is out of range");
+        assertInvalid("amount # 1", "unexpected character");
+        assertInvalid("dept > 'SALES'", "operator '>' requires numeric operands");
+        assertInvalid("null <= 1", "operator '<=' requires numeric operands");
+    }
+
+    /**
+     * エイリアスを指定してフロー進行条件を生成できること。
+     */
+    @Test
+    public void testCreateFromAlias() throws Exception {
+        SequenceFlow flow = new SequenceFlow("000", "フロー", "001", "002",
+                "expr(amount >= 1000 && (dept == 'SALES' || dept == 'A,B'))");
+        Map<String, Object> param = new HashMap<String, Object>();
+        param.put("amount", 1000);
+        param.put("dept", "A,B");
+        assertThat(flow.canProceed(null, param), is(true));
+
+        param.put("dept", "A");
+        assertThat(flow.canProceed(null, param), is(false));
+    }
+
+    private boolean isMatch(String expression, Map<String, ?> param) {
+        return new ExpressionFlowProceedCondition(expression).isMatch(null, param, dummyFlow);
+    }
+
+    private static void assertInvalid(String expression, String message) {
+        try {
+            new ExpressionFlowProceedCondition(expression);
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString(message));
+            assertThat(e.getMessage(), containsString("expression = [" + expression + "]"));
+        }
+    }
+}
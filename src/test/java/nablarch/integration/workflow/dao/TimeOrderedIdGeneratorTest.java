@@ -0,0 +1,180 @@
+package nablarch.integration.workflow.dao;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+
+import nablarch.common.idgenerator.IdFormatter;
+
+/**
+ * {@link TimeOrderedIdGenerator}のテスト。
+ *
+ * @since 1.4.2
+ */
+public class TimeOrderedIdGeneratorTest {
+
+    /**
+     * 基準時刻からの経過ミリ秒、ノードID、連番から構成される19桁のIDが採番されること。
+     */
+    @Test
+    public void testGenerateId() throws Exception {
+        StubTimeGenerator sut = new StubTimeGenerator(1000L);
+        sut.setEpoch(0L);
+        sut.setNodeId(5);
+
+        assertThat(sut.generateId("01"), is(String.format("%019d", (1000L << 22) | (5L << 12))));
+        assertThat("同一ミリ秒内は連番が加算されること", sut.generateId("02"), is(String.format("%019d", (1000L << 22) | (5L << 12) | 1)));
+
+        sut.now = 1001L;
+        assertThat("時刻が進んだ場合は連番が0に戻ること", sut.generateId("01"), is(String.format("%019d", (1001L << 22) | (5L << 12))));
+    }
+
+    /**
+     * 同一ミリ秒内の連番を使い切った場合、次のミリ秒の値で採番されること。
+     */
+    @Test
+    public void testGenerateIdSequenceOverflow() throws Exception {
+        StubTimeGenerator sut = new StubTimeGenerator(1000L);
+        sut.setEpoch(0L);
+        sut.setNodeId(0);
+        for (int i = 0; i < 4096; i++) {
+            sut.generateId("01");
+        }
+        sut.advanceOnRead = true;
+
+        assertThat(sut.generateId("01"), is(String.format("%019d", 1001L << 22)));
+    }
+
+    /**
+     * システム時刻が戻った場合でも、採番済みのIDより大きいIDが採番されること。
+     */
+    @Test
+    public void testGenerateIdClockMovedBackwards() throws Exception {
+        StubTimeGenerator sut = new StubTimeGenerator(1000L);
+        sut.setEpoch(0L);
+        sut.setNodeId(1);
+        String before = sut.generateId("01");
+
+        sut.now = 900L;
+        String after = sut.generateId("01");
+
+        assertThat(after.compareTo(before) > 0, is(true));
+        assertThat(after, is(String.format("%019d", (1000L << 22) | (1L << 12) | 1)));
+    }
+
+    /**
+     * システム時刻が戻った状態で連番を使い切った場合、システム時刻の進みを待たずに、
+     * 最後に採番した時刻の次のミリ秒の値で採番されること。
+     */
+    @Test(timeout = 10000)
+    public void testGenerateIdSequenceOverflowAfterClockMovedBackwards() throws Exception {
+        StubTimeGenerator sut = new StubTimeGenerator(1000L);
+        sut.setEpoch(0L);
+        sut.setNodeId(2);
+        sut.generateId("01");
+
+        sut.now = 900L;
+        for (int i = 1; i < 4096; i++) {
+            sut.generateId("01");
+        }
+
+        assertThat(sut.generateId("01"), is(String.format("%019d", (1001L << 22) | (2L << 12))));
+        assertThat("借用した時刻内では連番が加算されること",
+                sut.generateId("01"), is(String.format("%019d", (1001L << 22) | (2L << 12) | 1)));
+    }
+
+    /**
+     * 採番したIDは重複せず、文字列として採番順に並ぶこと。
+     */
+    @Test
+    public void testGenerateIdOrdered() throws Exception {
+        TimeOrderedIdGenerator sut = new TimeOrderedIdGenerator();
+        sut.setNodeId(1023);
+        List<String> ids = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++) {
+            ids.add(sut.generateId("01"));
+        }
+        List<String> sorted = new ArrayList<String>(ids);
+        Collections.sort(sorted);
+
+        assertThat(ids, is(sorted));
+        assertThat(new HashSet<String>(ids).size(), is(10000));
+        assertThat(ids.get(0).length(), is(19));
+    }
+
+    /**
+     * フォーマッタを指定した場合、採番したIDがフォーマットされること。
+     */
+    @Test
+    public void testGenerateIdWithFormatter() throws Exception {
+        StubTimeGenerator sut = new StubTimeGenerator(1L);
+        sut.setEpoch(0L);
+        sut.setNodeId(0);
+
+        assertThat(sut.generateId("01", new IdFormatter() {
+            @Override
+            public String format(String id, String no) {
+                return id + '-' + no;
+            }
+        }), is("01-0000000000004194304"));
+        assertThat(sut.generateId("01", null), is("0000000000004194305"));
+    }
+
+    /**
+     * ノードIDを設定せずに採番した場合、例外が送出されること。
+     */
+    @Test
+    public void testGenerateIdWithoutNodeId() throws Exception {
+        try {
+            new TimeOrderedIdGenerator().generateId("01");
+            fail("ここは通らない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("node id was not set. must set node id before generating id."));
+        }
+    }
+
+    /**
+     * 範囲外のノードIDを設定した場合、例外が送出されること。
+     */
+    @Test
+    public void testInvalidNodeId() throws Exception {
+        try {
+            new TimeOrderedIdGenerator().setNodeId(1024);
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("node id must be between 0 and 1023. node id = [1024]"));
+        }
+        try {
+            new TimeOrderedIdGenerator().setNodeId(-1);
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("node id must be between 0 and 1023. node id = [-1]"));
+        }
+    }
+
+    /**
+     * 現在時刻を任意に指定できる{@link TimeOrderedIdGenerator}。
+     */
+    private static class StubTimeGenerator extends TimeOrderedIdGenerator {
+
+        private long now;
+
+        private boolean advanceOnRead;
+
+        private StubTimeGenerator(long now) {
+            this.now = now;
+        }
+
+        @Override
+        protected long currentTimeMillis() {
+            return advanceOnRead ? now++ : now;
+        }
+    }
+}
@@ -3,9 +3,11 @@ package nablarch.integration.workflow.dao;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -13,10 +15,16 @@ import java.util.List;
 import nablarch.integration.workflow.WorkflowConfig;
 import nablarch.integration.workflow.definition.Task;
 import nablarch.integration.workflow.testhelper.WorkflowTestRule;
+import org.junit.Assume;
 import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import nablarch.common.idgenerator.IdFormatter;
+import nablarch.common.idgenerator.IdGenerator;
+import nablarch.core.db.connection.DbConnectionContext;
+import nablarch.core.db.dialect.Dialect;
+import nablarch.core.db.dialect.H2Dialect;
 import nablarch.core.db.statement.SqlResultSet;
 import nablarch.core.db.statement.SqlRow;
 import nablarch.core.repository.SystemRepository;
@@ -431,6 +439,223 @@ public class WorkflowInstanceDaoTest {
         assertThat(userTask.get(0).getBigDecimal("execution_order").intValue(), is(0));
     }
 
+    /**
+     * UPSERT文のダイアレクトを設定した場合、アクティブフローノードがMERGE文で登録・置き換えされること。
+     */
+    @Test
+    public void testSaveActiveFlowNodeWithUpsertDialect() throws Exception {
+        WorkflowInstanceDao workflowInstanceDao = getWorkflowInstanceDao();
+        workflowInstanceDao.setUpsertDialect(new MergeUpsertDialect());
+        workflowInstanceDao.initialize();
+        try {
+            // ----- execute -----
+            workflowInstanceDao.saveActiveFlowNode("0000000001",
+                    new Task("001", "置き換えされない", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+            workflowInstanceDao.saveActiveFlowNode("0000000002",
+                    new Task("__1", "最初", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+            workflowInstanceDao.saveActiveFlowNode("0000000002",
+                    new Task("_99", "上書き", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+            workflowTestRule.commit();
+        } finally {
+            workflowInstanceDao.setUpsertDialect(null);
+            workflowInstanceDao.initialize();
+        }
+
+        // ----- assert -----
+        SqlResultSet flowNode = workflowDbAccessSupport.findActiveFlowNode();
+        assertThat(flowNode.size(), is(2));
+        assertThat(flowNode.get(0).getString("instance_id"), is("0000000001"));
+        assertThat(flowNode.get(0).getString("flow_node_id"), is("001"));
+        assertThat(flowNode.get(1).getString("instance_id"), is("0000000002"));
+        assertThat("置き換えられていること", flowNode.get(1).getString("flow_node_id"), is("_99"));
+    }
+
+    /**
+     * {@link OnConflictUpsertDialect}を設定した場合に、アクティブフローノードがINSERT ... ON CONFLICT文で置き換えられること。
+     * <p/>
+     * ON CONFLICT句はPostgreSQLでのみ実行できるため、他のデータベースではスキップする。
+     */
+    @Test
+    public void testSaveActiveFlowNodeWithOnConflictUpsertDialect() throws Exception {
+        Assume.assumeThat(DbConnectionContext.getTransactionManagerConnection()
+                .getConnection().getMetaData().getDatabaseProductName(), is("PostgreSQL"));
+
+        WorkflowInstanceDao workflowInstanceDao = getWorkflowInstanceDao();
+        workflowInstanceDao.setUpsertDialect(new OnConflictUpsertDialect());
+        workflowInstanceDao.initialize();
+        try {
+            // ----- execute -----
+            workflowInstanceDao.saveActiveFlowNode("0000000001",
+                    new Task("001", "置き換えされない", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+            workflowInstanceDao.saveActiveFlowNode("0000000002",
+                    new Task("__1", "最初", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+            workflowInstanceDao.saveActiveFlowNode("0000000002",
+                    new Task("_99", "上書き", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+            workflowTestRule.commit();
+        } finally {
+            workflowInstanceDao.setUpsertDialect(null);
+            workflowInstanceDao.initialize();
+        }
+
+        // ----- assert -----
+        SqlResultSet flowNode = workflowDbAccessSupport.findActiveFlowNode();
+        assertThat(flowNode.size(), is(2));
+        assertThat(flowNode.get(0).getString("instance_id"), is("0000000001"));
+        assertThat(flowNode.get(0).getString("flow_node_id"), is("001"));
+        assertThat(flowNode.get(1).getString("instance_id"), is("0000000002"));
+        assertThat("置き換えられていること", flowNode.get(1).getString("flow_node_id"), is("_99"));
+    }
+
+    /**
+     * 各ダイアレクトが、キー項目、値項目の順にバインド変数を持つUPSERT文を生成すること。
+     */
+    @Test
+    public void testCreateUpsertSql() throws Exception {
+        MergeUpsertDialect merge = new MergeUpsertDialect();
+        merge.setDualTableName("DUAL");
+        assertThat(merge.createUpsertSql("AFN", Arrays.asList("INSTANCE_ID"), Arrays.asList("FLOW_NODE_ID")),
+                is("MERGE INTO AFN USING (SELECT ? AS INSTANCE_ID, ? AS FLOW_NODE_ID FROM DUAL) SRC"
+                        + " ON (AFN.INSTANCE_ID = SRC.INSTANCE_ID)"
+                        + " WHEN MATCHED THEN UPDATE SET FLOW_NODE_ID = SRC.FLOW_NODE_ID"
+                        + " WHEN NOT MATCHED THEN INSERT (INSTANCE_ID, FLOW_NODE_ID)"
+                        + " VALUES (SRC.INSTANCE_ID, SRC.FLOW_NODE_ID)"));
+
+        assertThat(new OnConflictUpsertDialect().createUpsertSql(
+                        "AFN", Arrays.asList("INSTANCE_ID"), Arrays.asList("FLOW_NODE_ID")),
+                is("INSERT INTO AFN (INSTANCE_ID, FLOW_NODE_ID) VALUES (?, ?)"
+                        + " ON CONFLICT (INSTANCE_ID) DO UPDATE SET FLOW_NODE_ID = EXCLUDED.FLOW_NODE_ID"));
+    }
+
+    /**
+     * ユニットオブワークの開始中は更新が保持され、終了時にまとめて反映されること。
+     */
+    @Test
+    public void testWriteBehindUnitOfWork() throws Exception {
+        // ----- setup -----
+        WorkflowInstanceDao workflowInstanceDao = getWorkflowInstanceDao();
+        workflowInstanceDao.saveActiveUserTask("0000000002", "__1", Arrays.asList("aaaaaaaaaa"));
+        workflowTestRule.commit();
+
+        workflowInstanceDao.setWriteBehind(true);
+        try {
+            // ----- execute -----
+            workflowInstanceDao.beginUnitOfWork();
+            boolean success = false;
+            try {
+                workflowInstanceDao.saveActiveFlowNode("0000000002",
+                        new Task("__2", "次のタスク", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+                workflowInstanceDao.saveActiveUserTask("0000000002", "__2", Arrays.asList("bbbbbbbbbb", "cccccccccc"));
+                workflowTestRule.commit();
+
+                assertThat("終了前は反映されないこと", workflowDbAccessSupport.findActiveFlowNode().size(), is(0));
+                assertThat("終了前は反映されないこと", workflowDbAccessSupport.findActiveUserTask().size(), is(1));
+                success = true;
+            } finally {
+                workflowInstanceDao.endUnitOfWork(success);
+            }
+            workflowTestRule.commit();
+        } finally {
+            workflowInstanceDao.setWriteBehind(false);
+        }
+
+        // ----- assert -----
+        SqlResultSet flowNode = workflowDbAccessSupport.findActiveFlowNode();
+        assertThat(flowNode.size(), is(1));
+        assertThat(flowNode.get(0).getString("flow_node_id"), is("__2"));
+
+        SqlResultSet userTask = workflowDbAccessSupport.findActiveUserTask();
+        assertThat(userTask.size(), is(2));
+        assertThat(userTask.get(0).getString("flow_node_id"), is("__2"));
+        assertThat(userTask.get(0).getString("assigned_user_id"), is("bbbbbbbbbb"));
+        assertThat(userTask.get(1).getString("assigned_user_id"), is("cccccccccc"));
+    }
+
+    /**
+     * ユニットオブワークの開始中でも、参照時には保持中の更新が反映されること。
+     * 処理が失敗した場合、保持中の更新は破棄されること。
+     */
+    @Test
+    public void testWriteBehindUnitOfWorkReadAndDiscard() throws Exception {
+        WorkflowInstanceDao workflowInstanceDao = getWorkflowInstanceDao();
+        workflowInstanceDao.setWriteBehind(true);
+        try {
+            workflowInstanceDao.beginUnitOfWork();
+            try {
+                workflowInstanceDao.saveActiveUserTask("0000000002", "__1", Arrays.asList("aaaaaaaaaa", "bbbbbbbbbb"));
+                workflowInstanceDao.deleteActiveUserTaskByUserId("0000000002", "__1", "aaaaaaaaaa");
+                assertThat("参照時に保持中の更新が反映されること",
+                        workflowInstanceDao.getActiveUserTaskCount("0000000002"), is(1));
+
+                workflowInstanceDao.saveActiveGroupTask("0000000002", "__1", Arrays.asList("gggggggggg"));
+            } finally {
+                // 処理が失敗した場合を想定して、保持中の更新を破棄する。
+                workflowInstanceDao.endUnitOfWork(false);
+            }
+            workflowTestRule.commit();
+        } finally {
+            workflowInstanceDao.setWriteBehind(false);
+        }
+
+        assertThat("参照前の更新は反映されていること", workflowDbAccessSupport.findActiveUserTask().size(), is(1));
+        assertThat("失敗時は保持中の更新が破棄されること", workflowDbAccessSupport.findActiveGroupTask().size(), is(0));
+    }
+
+    /**
+     * ユニットオブワークの開始中は参照結果がキャッシュされ、更新時にはキャッシュが無効化(置き換え)されること。
+     */
+    @Test
+    public void testReadCacheUnitOfWork() throws Exception {
+        // ----- setup -----
+        WorkflowInstanceDao workflowInstanceDao = getWorkflowInstanceDao();
+        workflowInstanceDao.saveAssignedSequentialUser("0000000002", "__1", Arrays.asList("aaaaaaaaaa", "bbbbbbbbbb"));
+        workflowInstanceDao.saveActiveFlowNode("0000000002",
+                new Task("__1", "最初のタスク", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+        workflowTestRule.commit();
+
+        workflowInstanceDao.setReadCache(true);
+        try {
+            // ----- execute -----
+            workflowInstanceDao.beginUnitOfWork();
+            List<TaskAssignedUserEntity> users = workflowInstanceDao.findTaskAssignedUser("0000000002", "__1");
+            assertThat(users.size(), is(2));
+            assertThat("キャッシュした結果が返却されること",
+                    workflowInstanceDao.findTaskAssignedUser("0000000002", "__1"), is(sameInstance(users)));
+            assertThat(workflowInstanceDao.getTaskAssignedUserCount("0000000002", "__1"), is(2));
+            ActiveFlowNodeEntity activeFlowNode = workflowInstanceDao.findActiveFlowNode("0000000002");
+            assertThat("キャッシュした結果が返却されること",
+                    workflowInstanceDao.findActiveFlowNode("0000000002"), is(sameInstance(activeFlowNode)));
+
+            workflowInstanceDao.changeAssignedUser("0000000002", "__1", "aaaaaaaaaa", "cccccccccc");
+            List<TaskAssignedUserEntity> changed = workflowInstanceDao.findTaskAssignedUser("0000000002", "__1");
+            assertThat("更新後は再取得されること", changed.get(0).getUserId(), is("cccccccccc"));
+            assertThat(changed.get(0).getExecutionOrder(), is(1));
+
+            workflowInstanceDao.saveAssignedGroup("0000000002", "__1", Arrays.asList("gggggggggg"));
+            assertThat("担当グループの登録で担当ユーザも無効化されること",
+                    workflowInstanceDao.findTaskAssignedUser("0000000002", "__1").size(), is(0));
+            assertThat(workflowInstanceDao.getTaskAssignedUserCount("0000000002", "__1"), is(0));
+            assertThat(workflowInstanceDao.findTaskAssignedGroup("0000000002", "__1").size(), is(1));
+
+            workflowInstanceDao.saveActiveFlowNode("0000000002",
+                    new Task("__2", "次のタスク", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+            assertThat("アクティブフローノードは登録内容で置き換えられること",
+                    workflowInstanceDao.findActiveFlowNode("0000000002").getFlowNodeId(), is("__2"));
+            workflowInstanceDao.endUnitOfWork(true);
+            workflowTestRule.commit();
+
+            // ----- assert -----
+            assertThat("終了後はキャッシュが破棄されること",
+                    workflowInstanceDao.findTaskAssignedGroup("0000000002", "__1"),
+                    is(not(sameInstance(workflowInstanceDao.findTaskAssignedGroup("0000000002", "__1")))));
+        } finally {
+            workflowInstanceDao.setReadCache(false);
+        }
+
+        SqlResultSet flowNode = workflowDbAccessSupport.findActiveFlowNode();
+        assertThat(flowNode.size(), is(1));
+        assertThat(flowNode.get(0).getString("flow_node_id"), is("__2"));
+    }
+
     /**
      * アクティブタスクのユーザ情報が登録されている場合、
      * 削除後に登録されること
@@ -482,7 +707,6 @@ public class WorkflowInstanceDaoTest {
         assertThat(activeUserTask.get(0).getBigDecimal("execution_order").intValue(), is(99));
     }
 
-
     /**
      * アクティブタスクのユーザ情報が登録されている場合、
      * 削除後に登録されること
@@ -710,6 +934,281 @@ public class WorkflowInstanceDaoTest {
         }
     }
 
+    /**
+     * インスタンスIDをブロック単位に確保する場合、ブロックを使い切るまで採番が行われず、
+     * 採番結果にブロックサイズを乗じた値からのインスタンスIDが、従来と同じ形式で払い出されること。
+     */
+    @Test
+    public void testCreateWorkflowInstancesWithInstanceIdBlock() throws Exception {
+        // ----- setup -----
+        final List<String> generated = new ArrayList<String>();
+        WorkflowInstanceDao dao = new WorkflowInstanceDao();
+        dao.setWorkflowInstanceSchema(SystemRepository.<WorkflowInstanceSchema>get("workflowInstanceSchema"));
+        dao.setInstanceIdGenerateId("01");
+        dao.setInstanceIdBlockSize(3);
+        dao.setInstanceIdGenerator(new IdGenerator() {
+            @Override
+            public String generateId(String id) {
+                generated.add(id);
+                return String.valueOf(6 + generated.size());
+            }
+
+            @Override
+            public String generateId(String id, IdFormatter formatter) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        dao.initialize();
+
+        // ----- execute -----
+        List<String> instanceIds = dao.createWorkflowInstances("00001", 1, Arrays.asList(
+                new Task("001", "001", null, "NONE", null, Collections.<SequenceFlow>emptyList())), 4);
+        workflowTestRule.commit();
+
+        // ----- assert -----
+        assertThat(instanceIds, is(Arrays.asList("0000000021", "0000000022", "0000000023", "0000000024")));
+        assertThat("ブロックを使い切った時のみ採番されること", generated, is(Arrays.asList("01", "01")));
+        assertThat(workflowDbAccessSupport.findWorkflowInstance().size(), is(4));
+        assertThat(workflowDbAccessSupport.findInstanceFlowNode().size(), is(4));
+    }
+
+    /**
+     * ブロックサイズに1未満の値を指定した場合、例外が送出されること。
+     */
+    @Test
+    public void testInvalidInstanceIdBlockSize() throws Exception {
+        try {
+            new WorkflowInstanceDao().setInstanceIdBlockSize(0);
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("instance id block size must be greater than 0. instance id block size = [0]"));
+        }
+    }
+
+    /**
+     * 確保するブロックのインスタンスIDが、インスタンスIDの桁数を超える場合、例外が送出されること。
+     */
+    @Test
+    public void testInstanceIdBlockExceedsInstanceIdLength() throws Exception {
+        WorkflowInstanceDao dao = createInstanceIdBlockDao("10000000", 1000);
+        try {
+            dao.createWorkflowInstances("00001", 1, Arrays.asList(
+                    new Task("001", "001", null, "NONE", null, Collections.<SequenceFlow>emptyList())), 1);
+            fail("ここは通らない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("instance id block exceeded instance id length. generated id = [10000000], "
+                    + "block size = [1000], instance id length = [10]"));
+        }
+    }
+
+    /**
+     * 採番結果にブロックサイズを乗じた値がlongの範囲を超える場合、例外が送出されること。
+     */
+    @Test
+    public void testInstanceIdBlockOverflow() throws Exception {
+        String hi = String.valueOf(Long.MAX_VALUE / 2);
+        WorkflowInstanceDao dao = createInstanceIdBlockDao(hi, 3);
+        dao.setInstanceIdLength(30);
+        try {
+            dao.createWorkflowInstances("00001", 1, Arrays.asList(
+                    new Task("001", "001", null, "NONE", null, Collections.<SequenceFlow>emptyList())), 1);
+            fail("ここは通らない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("instance id block overflowed. generated id = [" + hi + "], block size = [3]"));
+        }
+    }
+
+    /**
+     * インスタンスIDをブロック単位に確保する{@link WorkflowInstanceDao}を生成する。
+     *
+     * @param hi {@link IdGenerator}が採番する値
+     * @param blockSize ブロックサイズ
+     * @return {@link WorkflowInstanceDao}
+     */
+    private static WorkflowInstanceDao createInstanceIdBlockDao(final String hi, int blockSize) {
+        WorkflowInstanceDao dao = new WorkflowInstanceDao();
+        dao.setWorkflowInstanceSchema(SystemRepository.<WorkflowInstanceSchema>get("workflowInstanceSchema"));
+        dao.setInstanceIdGenerateId("01");
+        dao.setInstanceIdBlockSize(blockSize);
+        dao.setInstanceIdGenerator(new IdGenerator() {
+            @Override
+            public String generateId(String id) {
+                return hi;
+            }
+
+            @Override
+            public String generateId(String id, IdFormatter formatter) {
+                throw new UnsupportedOperationException();
+            }
+        });
+        dao.initialize();
+        return dao;
+    }
+
+    /**
+     * タスク進捗テーブルを設定した場合、担当者の登録、アクティブタスクの作成及び完了に合わせて、
+     * 担当数と処理済み数が更新されること。
+     */
+    @Test
+    public void testTaskProgress() throws Exception {
+        // ----- setup -----
+        WorkflowInstanceSchema schema = SystemRepository.get("workflowInstanceSchema");
+        schema.setTaskProgressTableName("WF_TASK_PROGRESS");
+        schema.setAssignedCountColumnName("ASSIGNED_COUNT");
+        schema.setCompletedCountColumnName("COMPLETED_COUNT");
+        try {
+            WorkflowInstanceDao dao = new WorkflowInstanceDao();
+            dao.setWorkflowInstanceSchema(schema);
+            dao.initialize();
+            assertThat(dao.isTaskProgressEnabled(), is(true));
+
+            // ----- execute & assert -----
+            dao.saveAssignedUser("0000000001", "001", Arrays.asList("user1", "user2", "user3"));
+            assertTaskProgress("アクティブタスクが存在しないため、全て処理済みとなること。",
+                    dao.findTaskProgress("0000000001", "001"), 3, 3);
+
+            dao.saveActiveUserTask("0000000001", "001", Arrays.asList("user1", "user2", "user3"));
+            assertTaskProgress("作成したアクティブタスクの数だけ未処理となること。", dao.findTaskProgress("0000000001", "001"), 3, 0);
+            assertThat(dao.findTaskProgress("0000000001", "001").isAllCompleted(), is(false));
+
+            dao.deleteActiveUserTaskByUserId("0000000001", "001", "user2");
+            assertTaskProgress("完了したアクティブタスクの数だけ処理済み数が加算されること。",
+                    dao.findTaskProgress("0000000001", "001"), 3, 1);
+
+            dao.saveActiveUserTask("0000000001", "001", "user3", 3);
+            assertTaskProgress("順次タスクでは、作成した1件のみが未処理となること。", dao.findTaskProgress("0000000001", "001"), 3, 2);
+            dao.deleteActiveUserTaskByUserId("0000000001", "001", "user3");
+            assertThat(dao.findTaskProgress("0000000001", "001").isAllCompleted(), is(true));
+
+            dao.saveAssignedGroup("0000000001", "002", Arrays.asList("group1", "group2"));
+            dao.saveActiveGroupTask("0000000001", "002", Arrays.asList("group1", "group2"));
+            dao.deleteActiveGroupTaskByGroupId("0000000001", "002", "group1");
+            assertTaskProgress("グループでも同様に更新されること。", dao.findTaskProgress("0000000001", "002"), 2, 1);
+
+            assertThat("登録されていない場合は、nullとなること。", dao.findTaskProgress("0000000001", "003"), is(nullValue()));
+
+            dao.deleteInstance("0000000001");
+            assertThat("インスタンスの削除に合わせて削除されること。", dao.findTaskProgress("0000000001", "001"), is(nullValue()));
+        } finally {
+            schema.setTaskProgressTableName(null);
+            schema.setAssignedCountColumnName(null);
+            schema.setCompletedCountColumnName(null);
+        }
+    }
+
+    /**
+     * タスク進捗テーブルを設定していない場合、タスク進捗は取得できないこと。
+     */
+    @Test
+    public void testTaskProgressDisabled() throws Exception {
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        assertThat(dao.isTaskProgressEnabled(), is(false));
+        try {
+            dao.findTaskProgress("0000000001", "001");
+            fail("ここは通らない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is(
+                    "task progress table name was not set. must set task progress table name to workflow instance schema."));
+        }
+    }
+
+    /**
+     * ユーザ及びグループのアクティブタスクが、インスタンスID、フローノードIDの順にシーク方式でページングして取得できること。
+     */
+    @Test
+    public void testFindActiveTasks() throws Exception {
+        // ----- setup -----
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        List<Task> tasks = Arrays.asList(new Task("t01", "001", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+        String userTask = dao.createWorkflowInstance("00001", 1, tasks);
+        dao.saveActiveUserTask(userTask, "t01", Arrays.asList("user1"));
+        String groupOnly = dao.createWorkflowInstance("00001", 1, tasks);
+        dao.saveActiveGroupTask(groupOnly, "t02", Arrays.asList("group1", "group2"));
+        String otherUser = dao.createWorkflowInstance("00002", 2, tasks);
+        dao.saveActiveUserTask(otherUser, "t01", Arrays.asList("user2"));
+        String userOnly = dao.createWorkflowInstance("00002", 2, tasks);
+        dao.saveActiveUserTask(userOnly, "t03", Arrays.asList("user1"));
+        workflowTestRule.commit();
+
+        // ----- execute & assert -----
+        List<ActiveTaskEntity> firstPage = dao.findActiveTasks("user1", Arrays.asList("group1", "group2"), null, 2);
+        assertThat("複数のグループにあるタスクは1件として取得されること", firstPage.size(), is(2));
+        assertThat(firstPage.get(0).getInstanceId(), is(userTask));
+        assertThat(firstPage.get(0).getFlowNodeId(), is("t01"));
+        assertThat(firstPage.get(0).getWorkflowId(), is("00001"));
+        assertThat(firstPage.get(0).getVersion(), is(1L));
+        assertThat(firstPage.get(1).getInstanceId(), is(groupOnly));
+        assertThat(firstPage.get(1).getFlowNodeId(), is("t02"));
+
+        List<ActiveTaskEntity> secondPage = dao.findActiveTasks("user1", Arrays.asList("group1", "group2"), firstPage.get(1), 2);
+        assertThat("前ページの最後のタスクより後ろのタスクが取得されること", secondPage.size(), is(1));
+        assertThat(secondPage.get(0).getInstanceId(), is(userOnly));
+        assertThat(secondPage.get(0).getFlowNodeId(), is("t03"));
+        assertThat(secondPage.get(0).getWorkflowId(), is("00002"));
+        assertThat(secondPage.get(0).getVersion(), is(2L));
+
+        assertThat("最後のページの次は空", dao.findActiveTasks("user1", Arrays.asList("group1", "group2"), secondPage.get(0), 2).isEmpty(), is(true));
+
+        List<ActiveTaskEntity> groupTasks = dao.findActiveTasks(null, Arrays.asList("group2"), null, 10);
+        assertThat("グループのみでも取得できること", groupTasks.size(), is(1));
+        assertThat(groupTasks.get(0).getInstanceId(), is(groupOnly));
+
+        assertThat("ユーザもグループも指定しない場合は空", dao.findActiveTasks(null, Collections.<String>emptyList(), null, 10).isEmpty(), is(true));
+    }
+
+    /**
+     * ダイアレクトがページングをサポートしている場合、テーブルごとに件数を制限しても、
+     * ユーザ及びグループのアクティブタスクがインスタンスID、フローノードIDの順に取得できること。
+     */
+    @Test
+    public void testFindActiveTasksWithPaginationDialect() throws Exception {
+        // ----- setup -----
+        WorkflowInstanceDao dao = getWorkflowInstanceDao();
+        List<Task> tasks = Arrays.asList(new Task("t01", "001", null, "NONE", null, Collections.<SequenceFlow>emptyList()));
+        String user1 = dao.createWorkflowInstance("00001", 1, tasks);
+        dao.saveActiveUserTask(user1, "t01", Arrays.asList("user1"));
+        String group1 = dao.createWorkflowInstance("00001", 1, tasks);
+        dao.saveActiveGroupTask(group1, "t01", Arrays.asList("group1", "group2"));
+        String user2 = dao.createWorkflowInstance("00001", 1, tasks);
+        dao.saveActiveUserTask(user2, "t01", Arrays.asList("user1"));
+        String group2 = dao.createWorkflowInstance("00001", 1, tasks);
+        dao.saveActiveGroupTask(group2, "t01", Arrays.asList("group1"));
+        workflowTestRule.commit();
+
+        ActiveTaskDao sut = new ActiveTaskDao(SystemRepository.<WorkflowInstanceSchema>get("workflowInstanceSchema")) {
+            @Override
+            protected Dialect getDialect() {
+                return new H2Dialect();
+            }
+        };
+
+        // ----- execute & assert -----
+        List<ActiveTaskEntity> firstPage = sut.find("user1", Arrays.asList("group1", "group2"), null, 2);
+        assertThat(firstPage.size(), is(2));
+        assertThat(firstPage.get(0).getInstanceId(), is(user1));
+        assertThat("複数のグループにあるタスクは1件として取得されること", firstPage.get(1).getInstanceId(), is(group1));
+
+        List<ActiveTaskEntity> secondPage = sut.find("user1", Arrays.asList("group1", "group2"), firstPage.get(1), 2);
+        assertThat(secondPage.size(), is(2));
+        assertThat(secondPage.get(0).getInstanceId(), is(user2));
+        assertThat(secondPage.get(1).getInstanceId(), is(group2));
+
+        assertThat("最後のページの次は空", sut.find("user1", Arrays.asList("group1", "group2"), secondPage.get(1), 2).isEmpty(), is(true));
+    }
+
+    /**
+     * アクティブタスクの最大取得件数に1未満の値を指定した場合、例外が送出されること。
+     */
+    @Test
+    public void testFindActiveTasksInvalidLimit() throws Exception {
+        try {
+            getWorkflowInstanceDao().findActiveTasks("user1", Collections.<String>emptyList(), null, 0);
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("limit must be greater than 0. limit = [0]"));
+        }
+    }
+
     /**
      * ワークフローインスタンの情報が取得できること
      */
@@ -1535,5 +2034,9 @@ public class WorkflowInstanceDaoTest {
 
         return instance3;
     }
-}
 
+    private static void assertTaskProgress(String message, TaskProgressEntity actual, int assignedCount, int completedCount) {
+        assertThat(message + ":担当数", actual.getAssignedCount(), is(assignedCount));
+        assertThat(message + ":処理済み数", actual.getCompletedCount(), is(completedCount));
+    }
+}
@@ -1,5 +1,6 @@
 package nablarch.integration.workflow.definition;
 
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
@@ -59,4 +60,84 @@ public class GatewayTest {
             assertThat(e.getMessage(), is("The sequence flow to proceed was not found. instance id = [11], gateway id = [G01]"));
         }
     }
+
+    /**
+     * SWITCHの場合、パラメータの値に対応する遷移先フローノードIDが取得できること。
+     */
+    @Test
+    public void testGetNextFlowNodeSwitch() throws Exception {
+        List<SequenceFlow> sequenceFlows = new ArrayList<SequenceFlow>();
+        sequenceFlows.add(new SequenceFlow("001", "A", "G01", "002", "case(category, A)"));
+        sequenceFlows.add(new SequenceFlow("002", "B", "G01", "003",
+                "nablarch.integration.workflow.condition.SwitchCaseFlowProceedCondition(category, 100)"));
+        sequenceFlows.add(new SequenceFlow("003", "default", "G01", "004", null));
+        sequenceFlows.add(new SequenceFlow("004", "C", "G01", "005", "case(category, C)"));
+
+        Gateway sut = new Gateway("G01", "1", "001", "SWITCH", sequenceFlows);
+        assertThat(sut.getGatewayType(), is(Gateway.GatewayType.SWITCH));
+
+        Map<String, Object> parameter = new HashMap<String, Object>();
+        parameter.put("category", "A");
+        assertThat(sut.getNextFlowNodeId("11", parameter), is("002"));
+        parameter.put("category", 100);
+        assertThat("文字列表現で比較されること", sut.getNextFlowNodeId("11", parameter), is("003"));
+        parameter.put("category", "C");
+        assertThat(sut.getNextFlowNodeId("11", parameter), is("005"));
+        parameter.put("category", "Z");
+        assertThat("一致しない場合はデフォルトフロー", sut.getNextFlowNodeId("11", parameter), is("004"));
+        parameter.remove("category");
+        assertThat("パラメータが存在しない場合はデフォルトフロー", sut.getNextFlowNodeId("11", parameter), is("004"));
+        assertThat(sut.getNextFlowNodeId("11", null), is("004"));
+    }
+
+    /**
+     * SWITCHでデフォルトフローが存在せず、遷移先が特定できない場合、例外が送出されること。
+     */
+    @Test
+    public void testGetNextFlowNodeSwitchNotFound() throws Exception {
+        List<SequenceFlow> sequenceFlows = new ArrayList<SequenceFlow>();
+        sequenceFlows.add(new SequenceFlow("001", "A", "G01", "002", "case(category, A)"));
+
+        Gateway sut = new Gateway("G01", "1", "001", "SWITCH", sequenceFlows);
+        Map<String, Object> parameter = new HashMap<String, Object>();
+        parameter.put("category", "B");
+        try {
+            sut.getNextFlowNodeId("11", parameter);
+            fail("ここはとおらない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), is("The sequence flow to proceed was not found. instance id = [11], gateway id = [G01]"));
+        }
+    }
+
+    /**
+     * SWITCHで分岐表として不正なシーケンスフローが定義されている場合、例外が送出されること。
+     */
+    @Test
+    public void testSwitchInvalidDefinition() throws Exception {
+        assertInvalidSwitch("switch gateway must have at most one default sequence flow. gateway id = [G01]",
+                new SequenceFlow("001", "1", "G01", "002", null),
+                new SequenceFlow("002", "2", "G01", "003", null));
+        assertInvalidSwitch("switch gateway supports only nablarch.integration.workflow.condition.SwitchCaseFlowProceedCondition",
+                new SequenceFlow("001", "1", "G01", "002", "case(category, A)"),
+                new SequenceFlow("002", "2", "G01", "003", "eq(category, 1)"));
+        assertInvalidSwitch("switch gateway must route on a single parameter key. gateway id = [G01], keys = [category, type]",
+                new SequenceFlow("001", "1", "G01", "002", "case(category, A)"),
+                new SequenceFlow("002", "2", "G01", "003", "case(type, B)"));
+        assertInvalidSwitch("switch gateway case value is duplicated. gateway id = [G01], case value = [A]",
+                new SequenceFlow("001", "1", "G01", "002", "case(category, A)"),
+                new SequenceFlow("002", "2", "G01", "003", "case(category, A)"));
+    }
+
+    private static void assertInvalidSwitch(String message, SequenceFlow... sequenceFlows) {
+        List<SequenceFlow> flows = new ArrayList<SequenceFlow>();
+        for (SequenceFlow sequenceFlow : sequenceFlows) {
+            flows.add(sequenceFlow);
+        }
+        try {
+            new Gateway("G01", "1", "001", "SWITCH", flows);
+            fail("ここはとおらない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString(message));
+        }
+    }
 }
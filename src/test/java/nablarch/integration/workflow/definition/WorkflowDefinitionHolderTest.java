@@ -5,8 +5,15 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
 import org.junit.Test;
 
+import nablarch.integration.workflow.definition.loader.LazyWorkflowDefinitionLoader;
+import nablarch.integration.workflow.definition.loader.WorkflowDefinitionLoader;
 import nablarch.integration.workflow.testhelper.SystemTimeProviderImpl;
 
 /**
@@ -124,5 +131,172 @@ public class WorkflowDefinitionHolderTest {
             assertThat(e.getMessage(), containsString("workflow id = [process1], version = [11]"));
         }
     }
-}
 
+    /**
+     * 基準日が変わった場合、新たに適用期間内となったバージョンが取得できること。
+     */
+    @Test
+    public void testReferenceDateChanged() {
+        WorkflowDefinitionHolder holder = new WorkflowDefinitionHolder();
+        holder.setSystemTimeProvider(new SystemTimeProviderImpl());
+        holder.addWorkflow(new WorkflowDefinition("process1", 1, "プロセス名", "20140701"));
+        holder.addWorkflow(new WorkflowDefinition("process1", 2, "最新プロセス", "20140710"));
+
+        SystemTimeProviderImpl.now = "20140709";
+        assertThat(holder.getWorkflowDefinition("process1").getVersion(), is(1));
+        assertThat("同一基準日の場合は同じ定義が返却される。",
+                holder.getWorkflowDefinition("process1").getVersion(), is(1));
+
+        SystemTimeProviderImpl.now = "20140710";
+        assertThat(holder.getWorkflowDefinition("process1").getVersion(), is(2));
+    }
+
+    /**
+     * 再読み込みを行った場合、再読み込み後のワークフロー定義が取得できること。
+     */
+    @Test
+    public void testReload() throws Exception {
+        final List<WorkflowDefinition> definitions = new ArrayList<WorkflowDefinition>();
+        definitions.add(new WorkflowDefinition("process1", 1, "プロセス名", "20140101"));
+
+        WorkflowDefinitionHolder holder = new WorkflowDefinitionHolder();
+        holder.setSystemTimeProvider(new SystemTimeProviderImpl());
+        holder.setWorkflowDefinitionLoader(new WorkflowDefinitionLoader() {
+            @Override
+            public List<WorkflowDefinition> load() {
+                return new ArrayList<WorkflowDefinition>(definitions);
+            }
+        });
+        SystemTimeProviderImpl.now = "20140725";
+        holder.initialize();
+        assertThat(holder.getWorkflowDefinition("process1").getVersion(), is(1));
+
+        definitions.add(new WorkflowDefinition("process1", 2, "新バージョン", "20140701"));
+        holder.reload();
+        assertThat(holder.getWorkflowDefinition("process1").getVersion(), is(2));
+        assertThat(holder.getWorkflowDefinition("process1", 1).getVersion(), is(1));
+
+        definitions.add(new WorkflowDefinition("process2", 1, "新規プロセス", "20140701"));
+        holder.reloadInBackground().get();
+        assertThat(holder.getWorkflowDefinition("process2").getVersion(), is(1));
+    }
+
+    /**
+     * 再読み込みに失敗した場合、再読み込み前のワークフロー定義が保持されること。
+     */
+    @Test
+    public void testReloadFailed() throws Exception {
+        final boolean[] fail = {false};
+        WorkflowDefinitionHolder holder = new WorkflowDefinitionHolder();
+        holder.setSystemTimeProvider(new SystemTimeProviderImpl());
+        holder.setWorkflowDefinitionLoader(new WorkflowDefinitionLoader() {
+            @Override
+            public List<WorkflowDefinition> load() {
+                if (fail[0]) {
+                    throw new IllegalStateException("load error");
+                }
+                List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>();
+                result.add(new WorkflowDefinition("process1", 1, "プロセス名", "20140101"));
+                return result;
+            }
+        });
+        SystemTimeProviderImpl.now = "20140725";
+        holder.initialize();
+
+        fail[0] = true;
+        try {
+            holder.reloadInBackground().get();
+            fail("ここは通らない");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause().getMessage(), is("load error"));
+        }
+        assertThat(holder.getWorkflowDefinition("process1").getVersion(), is(1));
+    }
+
+    /**
+     * 遅延ロードモードの場合、古いバージョンのワークフロー定義は初めて取得された時点でロードされ、
+     * 上限件数を超えた場合は最も長く参照されていないものから破棄されること。
+     */
+    @Test
+    public void testLazyLoad() throws Exception {
+        final List<String> loaded = new ArrayList<String>();
+        WorkflowDefinitionHolder holder = new WorkflowDefinitionHolder();
+        holder.setSystemTimeProvider(new SystemTimeProviderImpl());
+        holder.setLazyLoad(true);
+        holder.setOldVersionCacheSize(2);
+        holder.setWorkflowDefinitionLoader(new LazyWorkflowDefinitionLoader() {
+            @Override
+            public List<WorkflowDefinition> loadEffective(String referenceDate) {
+                assertThat(referenceDate, is("20140725"));
+                List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>();
+                result.add(new WorkflowDefinition("process1", 4, "適用中", "20140701"));
+                result.add(new WorkflowDefinition("process1", 5, "適用前", "20140801"));
+                return result;
+            }
+
+            @Override
+            public WorkflowDefinition load(String workflowId, long version) {
+                loaded.add(workflowId + ":" + version);
+                if (version > 3) {
+                    return null;
+                }
+                return new WorkflowDefinition(workflowId, (int) version, "旧バージョン", "20140101");
+            }
+
+            @Override
+            public List<WorkflowDefinition> load() {
+                throw new UnsupportedOperationException();
+            }
+        });
+        SystemTimeProviderImpl.now = "20140725";
+        holder.initialize();
+
+        assertThat(holder.getWorkflowDefinition("process1").getVersion(), is(4));
+        assertThat(holder.getWorkflowDefinition("process1", 5).getVersion(), is(5));
+        assertThat(loaded.size(), is(0));
+
+        // 古いバージョンは初回のみロードされる。
+        assertThat(holder.getWorkflowDefinition("process1", 1).getVersion(), is(1));
+        assertThat(holder.getWorkflowDefinition("process1", 1).getVersion(), is(1));
+        assertThat(loaded, is(Arrays.asList("process1:1")));
+
+        // 上限件数を超えた場合、最も長く参照されていないバージョン2が破棄される。
+        assertThat(holder.getWorkflowDefinition("process1", 2).getVersion(), is(2));
+        assertThat(holder.getWorkflowDefinition("process1", 1).getVersion(), is(1));
+        assertThat(holder.getWorkflowDefinition("process1", 3).getVersion(), is(3));
+        assertThat(holder.getWorkflowDefinition("process1", 1).getVersion(), is(1));
+        assertThat(holder.getWorkflowDefinition("process1", 2).getVersion(), is(2));
+        assertThat(loaded, is(Arrays.asList("process1:1", "process1:2", "process1:3", "process1:2")));
+
+        // ロードクラスにも存在しない場合はエラー
+        try {
+            holder.getWorkflowDefinition("process1", 9);
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("Workflow definition was not found. workflow id = [process1], version = [9]"));
+        }
+    }
+
+    /**
+     * 遅延ロードモードで、ロードクラスが遅延ロードをサポートしていない場合は初期化時にエラーとなること。
+     */
+    @Test
+    public void testLazyLoadNotSupported() {
+        WorkflowDefinitionHolder holder = new WorkflowDefinitionHolder();
+        holder.setSystemTimeProvider(new SystemTimeProviderImpl());
+        holder.setLazyLoad(true);
+        holder.setWorkflowDefinitionLoader(new WorkflowDefinitionLoader() {
+            @Override
+            public List<WorkflowDefinition> load() {
+                return new ArrayList<WorkflowDefinition>();
+            }
+        });
+        try {
+            holder.initialize();
+            fail("ここは通らない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("workflowDefinitionLoader must implement "
+                    + LazyWorkflowDefinitionLoader.class.getName()));
+        }
+    }
+}
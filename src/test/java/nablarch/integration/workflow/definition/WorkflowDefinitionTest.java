@@ -5,6 +5,9 @@ import static org.hamcrest.CoreMatchers.is;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import nablarch.core.repository.SystemRepository;
@@ -274,5 +277,103 @@ public class WorkflowDefinitionTest {
                     " version = [" + workflowDefinition.getVersion()+"], flow node id = [a03]"));
         }
     }
-}
 
+    /**
+     * フローノードの種類に関わらず、フローノードIDに対応するフローノードが取得できること。
+     */
+    @Test
+    public void testFindFlowNodeAllTypes() throws Exception {
+        WorkflowDbAccessSupport testDao = workflowTestRule.getWorkflowDao();
+        testDao.createSimpleProcess();
+
+        DatabaseWorkflowDefinitionLoader workflowLoader = SystemRepository.get("workflowLoader");
+        WorkflowDefinition workflowDefinition = workflowLoader.load().get(0);
+
+        assertThat(workflowDefinition.findFlowNode("e01") instanceof Event, is(true));
+        assertThat(workflowDefinition.findFlowNode("a02") instanceof Task, is(true));
+        assertThat(workflowDefinition.findFlowNode("g01") instanceof Gateway, is(true));
+        assertThat(workflowDefinition.findFlowNode("g01").getFlowNodeName(), is("承認・差し戻し"));
+    }
+
+    /**
+     * タスクIDに対応するタスクが取得できること。
+     * タスク以外のフローノードIDを指定した場合は例外が発生すること。
+     */
+    @Test
+    public void testFindTask() throws Exception {
+        WorkflowDbAccessSupport testDao = workflowTestRule.getWorkflowDao();
+        testDao.createSimpleProcess();
+
+        DatabaseWorkflowDefinitionLoader workflowLoader = SystemRepository.get("workflowLoader");
+        WorkflowDefinition workflowDefinition = workflowLoader.load().get(0);
+
+        assertThat(workflowDefinition.findTask("a01").getFlowNodeName(), is("承認"));
+        try {
+            workflowDefinition.findTask("g01");
+            fail("ここはとおらない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), is("task definition was not found. " + "workflow id = [" + workflowDefinition.getWorkflowId() + "]," +
+                    " version = [" + workflowDefinition.getVersion() + "], task id = [g01]"));
+        }
+    }
+
+    /**
+     * パラメータに依存しない中間のフローノードを読み飛ばした到達先が取得できること。
+     */
+    @Test
+    public void testFindDestinationFlowNode() throws Exception {
+        WorkflowDefinition sut = new WorkflowDefinition("proc1", 1, "プロセス1", "20140501");
+        sut.setEvents(Arrays.asList(
+                new Event("e01", "開始", "l01", "START", Arrays.asList(new SequenceFlow("f01", "", "e01", "g01", null))),
+                new Event("e02", "終了", "l01", "TERMINATE", Collections.<SequenceFlow>emptyList())));
+        sut.setGateways(Arrays.asList(
+                new Gateway("g01", "無条件", "l01", "EXCLUSIVE", Arrays.asList(
+                        new SequenceFlow("f02", "", "g01", "g02", null),
+                        new SequenceFlow("f03", "", "g01", "e02", "eq(var, 1)"))),
+                new Gateway("g02", "無条件(SWITCH)", "l01", "SWITCH", Arrays.asList(
+                        new SequenceFlow("f04", "", "g02", "g03", null))),
+                new Gateway("g03", "条件あり", "l01", "EXCLUSIVE", Arrays.asList(
+                        new SequenceFlow("f05", "", "g03", "a01", "eq(var, 1)"),
+                        new SequenceFlow("f06", "", "g03", "g04", null))),
+                new Gateway("g04", "遷移先なし", "l01", "EXCLUSIVE", Arrays.asList(
+                        new SequenceFlow("f07", "", "g04", "xxx", null)))));
+        sut.setTasks(Arrays.asList(
+                new Task("a01", "タスク", "l01", "NONE", null, Arrays.asList(
+                        new SequenceFlow("f08", "", "a01", "e02", null)))));
+
+        assertThat("条件ありのゲートウェイまで読み飛ばされること", sut.findDestinationFlowNode("e01").getFlowNodeId(), is("g03"));
+        assertThat(sut.findDestinationFlowNode("g01").getFlowNodeId(), is("g03"));
+        assertThat(sut.findDestinationFlowNode("g03").getFlowNodeId(), is("g03"));
+        assertThat("タスクは自身が到達先となること", sut.findDestinationFlowNode("a01").getFlowNodeId(), is("a01"));
+        assertThat(sut.findDestinationFlowNode("e02").getFlowNodeId(), is("e02"));
+        assertThat("遷移先が存在しない場合はその手前で止まること", sut.findDestinationFlowNode("g04").getFlowNodeId(), is("g04"));
+        try {
+            sut.findDestinationFlowNode("xxx");
+            fail("ここはとおらない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("flow node definitions was not found."));
+        }
+    }
+
+    /**
+     * パラメータに依存しないループが存在する場合、定義の設定完了時に例外が発生すること。
+     */
+    @Test
+    public void testUnconditionalLoop() throws Exception {
+        WorkflowDefinition sut = new WorkflowDefinition("proc1", 1, "プロセス1", "20140501");
+        List<Gateway> gateways = new ArrayList<Gateway>();
+        gateways.add(new Gateway("g01", "1", "l01", "EXCLUSIVE", Arrays.asList(
+                new SequenceFlow("f01", "", "g01", "g02", null))));
+        gateways.add(new Gateway("g02", "2", "l01", "EXCLUSIVE", Arrays.asList(
+                new SequenceFlow("f02", "", "g02", "g01", null),
+                new SequenceFlow("f03", "", "g02", "a01", "eq(var, 1)"))));
+        sut.setGateways(gateways);
+        try {
+            sut.initialize();
+            fail("ここはとおらない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString(
+                    "unconditional sequence flow loop was detected. workflow id = [proc1], version = [1], flow node id = [g0"));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package nablarch.integration.workflow.definition.loader;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import nablarch.integration.workflow.definition.BoundaryEvent;
+import nablarch.integration.workflow.definition.Event;
+import nablarch.integration.workflow.definition.Gateway;
+import nablarch.integration.workflow.definition.Task;
+import nablarch.integration.workflow.definition.WorkflowDefinition;
+import nablarch.integration.workflow.testhelper.OnMemoryLogWriter;
+
+/**
+ * {@link BpmnWorkflowDefinitionLoader}のテスト。
+ *
+ * @since 1.4.2
+ */
+public class BpmnWorkflowDefinitionLoaderTest {
+
+    private static final String BASE_PATH = "classpath:nablarch/integration/workflow/definition/loader/";
+
+    private BpmnWorkflowDefinitionLoader sut;
+
+    @Before
+    public void setUp() throws Exception {
+        sut = new BpmnWorkflowDefinitionLoader();
+        OnMemoryLogWriter.clear();
+    }
+
+    /**
+     * BPMNファイルからワークフロー定義がロードできること。
+     */
+    @Test
+    public void testLoad() throws Exception {
+        sut.setBpmnFiles(Arrays.asList(BASE_PATH + "BPMN0001_ver3_20140801.bpmn"));
+
+        List<WorkflowDefinition> workflowDefinitions = sut.load();
+
+        assertThat(workflowDefinitions.size(), is(1));
+        WorkflowDefinition definition = workflowDefinitions.get(0);
+        assertThat(definition.getWorkflowId(), is("BPMN0001"));
+        assertThat(definition.getWorkflowName(), is("経費申請"));
+        assertThat(definition.getVersion(), is(3));
+        assertThat(definition.getEffectiveDate(), is("20140801"));
+
+        // ----- lane -----
+        assertThat(definition.getLanes().size(), is(2));
+        assertThat(definition.getLanes().get(0).getLaneId(), is("l01"));
+        assertThat(definition.getLanes().get(0).getLaneName(), is("申請者"));
+        assertThat(definition.getLanes().get(1).getLaneId(), is("l02"));
+        assertThat(definition.getLanes().get(1).getLaneName(), is("承認者"));
+
+        // ----- event -----
+        assertThat(definition.getEvents().size(), is(3));
+        Event start = definition.getStartEvent();
+        assertThat(start.getFlowNodeId(), is("e01"));
+        assertThat(start.getFlowNodeName(), is("開始"));
+        assertThat(start.getLaneId(), is("l01"));
+        assertThat(start.getSequenceFlows().size(), is(1));
+        assertThat(start.getSequenceFlows().get(0).getTargetFlowNodeId(), is("t01"));
+        Event terminate = definition.getEvents().get(2);
+        assertThat(terminate.getFlowNodeId(), is("e03"));
+        assertThat(terminate.getEventType(), is(Event.EventType.TERMINATE));
+        assertThat(terminate.getLaneId(), is("l02"));
+
+        // ----- task -----
+        assertThat(definition.getTasks().size(), is(3));
+        Task single = definition.findTask("t01");
+        assertThat(single.getFlowNodeName(), is("申請"));
+        assertThat(single.getMultiInstanceType(), is(Task.MultiInstanceType.NONE));
+        assertThat(single.getCompletionConditionName(), is(nullValue()));
+        Task parallel = definition.findTask("t02");
+        assertThat(parallel.getMultiInstanceType(), is(Task.MultiInstanceType.PARALLEL));
+        assertThat(parallel.getCompletionConditionName(),
+                is("nablarch.integration.workflow.condition.OrCompletionCondition(2)"));
+        Task sequential = definition.findTask("t03");
+        assertThat(sequential.getMultiInstanceType(), is(Task.MultiInstanceType.SEQUENTIAL));
+        assertThat(sequential.getCompletionConditionName(),
+                is("nablarch.integration.workflow.condition.AllCompletionCondition"));
+
+        // ----- gateway -----
+        assertThat(definition.getGateways().size(), is(1));
+        Gateway gateway = definition.getGateways().get(0);
+        assertThat(gateway.getFlowNodeId(), is("g01"));
+        assertThat(gateway.getGatewayType(), is(Gateway.GatewayType.EXCLUSIVE));
+        assertThat(gateway.getSequenceFlows().size(), is(2));
+        Map<String, Object> parameter = new HashMap<String, Object>();
+        parameter.put("var", 9);
+        assertThat(gateway.getNextFlowNodeId("instance", parameter), is("e03"));
+        parameter.put("var", 1);
+        assertThat(gateway.getNextFlowNodeId("instance", parameter), is("t03"));
+
+        // ----- boundary event -----
+        List<BoundaryEvent> boundaryEvents = definition.getBoundaryEvent("m01");
+        assertThat(boundaryEvents.size(), is(1));
+        BoundaryEvent boundaryEvent = boundaryEvents.get(0);
+        assertThat(boundaryEvent.getFlowNodeId(), is("b01"));
+        assertThat(boundaryEvent.getBoundaryEventTriggerName(), is("引戻し"));
+        assertThat(boundaryEvent.getAttachedTaskId(), is("t02"));
+        assertThat(boundaryEvent.getLaneId(), is("l01"));
+        assertThat(boundaryEvent.getSequenceFlows().get(0).getTargetFlowNodeId(), is("t01"));
+
+        // ----- sequence flow -----
+        assertThat(definition.getSequenceFlows().size(), is(7));
+        assertThat(definition.getSequenceFlows().get(1).getSequenceFlowName(), is("申請"));
+        assertThat(definition.getSequenceFlows().get(0).getFlowProceedConditionName(), is(nullValue()));
+
+        List<String> messages = OnMemoryLogWriter.getMessages("writer.workflow");
+        assertThat(messages.size(), is(1));
+        assertThat(messages.get(0), containsString(
+                "workflowId = [BPMN0001], workflowName = [経費申請], version = [3], effectiveDate = [20140801]"));
+    }
+
+    /**
+     * 結合テストで使用しているBPMNファイルからワークフロー定義がロードできること。
+     * <p/>
+     * collaboration及びtextAnnotationは読み飛ばされ、マルチインスタンスタスクの完了条件や、
+     * フローコンディションのエイリアスが定義に反映されること。
+     */
+    @Test
+    public void testLoadIntegrationTestBpmn() throws Exception {
+        sut.setBpmnFiles(Arrays.asList(
+                "file:src/test/java/nablarch/integration/workflow/integration/P0002_ver1_20140805.bpmn"));
+
+        List<WorkflowDefinition> workflowDefinitions = sut.load();
+
+        assertThat(workflowDefinitions.size(), is(1));
+        WorkflowDefinition definition = workflowDefinitions.get(0);
+        assertThat(definition.getWorkflowId(), is("P0002"));
+        assertThat(definition.getWorkflowName(), is("申し込み審査"));
+        assertThat(definition.getVersion(), is(1));
+        assertThat(definition.getEffectiveDate(), is("20140805"));
+
+        // ----- lane -----
+        assertThat(definition.getLanes().size(), is(4));
+        assertThat(definition.getLanes().get(0).getLaneId(), is("l01"));
+        assertThat(definition.getLanes().get(3).getLaneId(), is("l04"));
+        assertThat(definition.getLanes().get(3).getLaneName(), is("調査担当者"));
+
+        // ----- event -----
+        assertThat(definition.getEvents().size(), is(3));
+        assertThat(definition.getStartEvent().getFlowNodeId(), is("e01"));
+        assertThat(definition.getStartEvent().getLaneId(), is("l01"));
+        assertThat(definition.getStartEvent().getSequenceFlows().get(0).getTargetFlowNodeId(), is("t01"));
+        Event terminate = (Event) definition.findFlowNode("e02");
+        assertThat(terminate.getEventType(), is(Event.EventType.TERMINATE));
+        assertThat(terminate.getLaneId(), is("l04"));
+
+        // ----- task -----
+        assertThat(definition.getTasks().size(), is(5));
+        Task single = definition.findTask("t03");
+        assertThat(single.getMultiInstanceType(), is(Task.MultiInstanceType.NONE));
+        assertThat(single.getLaneId(), is("l03"));
+        Task parallel = definition.findTask("t02");
+        assertThat(parallel.getMultiInstanceType(), is(Task.MultiInstanceType.PARALLEL));
+        assertThat(parallel.getCompletionConditionName(), is("or(2)"));
+        assertThat(parallel.getLaneId(), is("l04"));
+        Task sequential = definition.findTask("t05");
+        assertThat(sequential.getMultiInstanceType(), is(Task.MultiInstanceType.SEQUENTIAL));
+        assertThat(sequential.getCompletionConditionName(), is("all"));
+
+        // ----- gateway -----
+        assertThat(definition.getGateways().size(), is(5));
+        Gateway gateway = (Gateway) definition.findFlowNode("g04");
+        assertThat(gateway.getLaneId(), is("l03"));
+        Map<String, Object> parameter = new HashMap<String, Object>();
+        parameter.put("amount", 99999);
+        assertThat(gateway.getNextFlowNodeId("instance", parameter), is("t05"));
+        parameter.put("amount", 100000);
+        assertThat(gateway.getNextFlowNodeId("instance", parameter), is("t04"));
+
+        // ----- sequence flow -----
+        assertThat(definition.getSequenceFlows().size(), is(17));
+    }
+
+    /**
+     * レーンがchildLaneSetにより入れ子になっている場合、フローノードのレーンには最も内側のレーンが設定されること。
+     * <p/>
+     * 外側のレーンのflowNodeRefがchildLaneSetの後に定義されている場合も、外側のレーンが設定されること。
+     */
+    @Test
+    public void testLoadNestedLanes() throws Exception {
+        sut.setBpmnFiles(Arrays.asList(BASE_PATH + "BPMN0003_ver1_20140801.bpmn"));
+
+        WorkflowDefinition definition = sut.load().get(0);
+
+        assertThat(definition.getLanes().size(), is(3));
+        assertThat(definition.findTask("t01").getLaneId(), is("l02"));
+        assertThat(definition.findTask("t02").getLaneId(), is("l03"));
+        assertThat(definition.getStartEvent().getLaneId(), is("l01"));
+        assertThat(definition.findFlowNode("e02").getLaneId(), is("l01"));
+    }
+
+    /**
+     * BPMNファイルが指定されていない場合は、ワークフロー定義が空となること。
+     */
+    @Test
+    public void testNoFiles() throws Exception {
+        sut.setBpmnFiles(Collections.<String>emptyList());
+        assertThat(sut.load().size(), is(0));
+    }
+
+    /**
+     * ファイル名からバージョン番号と適用開始日が取得できない場合はエラーとなること。
+     */
+    @Test
+    public void testInvalidFileName() throws Exception {
+        sut.setBpmnFiles(Arrays.asList("classpath:nablarch/integration/workflow/integration/simple_process.bpmn"));
+        try {
+            sut.load();
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("bpmn file name must be [name]_ver[version]_[yyyyMMdd].bpmn."));
+        }
+    }
+
+    /**
+     * サポートしていない要素が定義されている場合はエラーとなること。
+     */
+    @Test
+    public void testUnsupportedElement() throws Exception {
+        sut.setBpmnFiles(Arrays.asList(BASE_PATH + "BPMN0002_ver1_20140801.bpmn"));
+        try {
+            sut.load();
+            fail("ここは通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString(
+                    "unsupported bpmn element. element = [parallelGateway], process id = [BPMN0002]"));
+        }
+    }
+}
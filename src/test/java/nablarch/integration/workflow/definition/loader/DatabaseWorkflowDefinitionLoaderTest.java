@@ -23,10 +23,12 @@ import org.junit.Before;
 import org.junit.ClassRule;
 import org.junit.Test;
 
+import nablarch.core.db.transaction.SimpleDbTransactionManager;
 import nablarch.core.repository.SystemRepository;
 
 import nablarch.integration.workflow.definition.BoundaryEvent;
 import nablarch.integration.workflow.definition.Event;
+import nablarch.integration.workflow.definition.FlowNode;
 import nablarch.integration.workflow.definition.Gateway;
 import nablarch.integration.workflow.definition.WorkflowDefinition;
 import nablarch.integration.workflow.testhelper.OnMemoryLogWriter;
@@ -499,6 +501,255 @@ public class DatabaseWorkflowDefinitionLoaderTest {
                 "workflowId = [proc2], workflowName = [プロセス2], version = [2], effectiveDate = [20141001]"));
     }
 
+    /**
+     * 一括ロードモードの場合でも、ワークフロー及びバージョン単位にロードした場合と同じ定義情報がロードできること。
+     */
+    @Test
+    public void testBulkLoad() throws Exception {
+
+        //----- setup db -----
+        WorkflowEntity proc1v1 = new WorkflowEntity("proc1", 1, "プロセス1", "20140401");
+        WorkflowEntity proc1v2 = new WorkflowEntity("proc1", 2, "プロセス1-2", "20140501");
+        WorkflowEntity proc2 = new WorkflowEntity("proc2", 1, "プロセス2", "20141001");
+        workflowDbAccessSupport.insertWorkflowEntity(proc1v1, proc1v2, proc2);
+
+        LaneEntity proc1v1Lane = new LaneEntity(proc1v1, "001", "申請者");
+        LaneEntity proc1v2Lane = new LaneEntity(proc1v2, "001", "申請者2");
+        LaneEntity proc2Lane = new LaneEntity(proc2, "a01", "申請者");
+        workflowDbAccessSupport.insertLaneEntity(proc1v1Lane, proc1v2Lane, proc2Lane);
+
+        workflowDbAccessSupport.insertEventEntity(
+                new EventEntity("f01", proc1v1Lane, "開始イベント", "START"),
+                new EventEntity("f02", proc1v1Lane, "終了イベント", "TERMINATE"),
+                new EventEntity("f01", proc1v2Lane, "開始イベント2", "START"),
+                new EventEntity("f02", proc1v2Lane, "終了イベント2", "TERMINATE"),
+                new EventEntity("aaa", proc2Lane, "開始", "START"),
+                new EventEntity("zzz", proc2Lane, "終了", "TERMINATE")
+        );
+
+        TaskEntity proc1v2Task = new TaskEntity("f03", proc1v2Lane, "申請2", "PARALLEL",
+                "nablarch.integration.workflow.condition.AllCompletionCondition");
+        workflowDbAccessSupport.insertTaskEntity(
+                new TaskEntity("f03", proc1v1Lane, "申請", "NONE", null),
+                proc1v2Task,
+                new TaskEntity("aab", proc2Lane, "申請", "NONE", null)
+        );
+
+        workflowDbAccessSupport.insertGatewayEntity(
+                new GatewayEntity("g01", proc1v2Lane, "承認・破棄分岐", "EXCLUSIVE")
+        );
+
+        workflowDbAccessSupport.insertSequenceEntity(
+                new SequenceFlowEntity(proc1v1, "seq000001", "申請書作成", "f01", "f03", null),
+                new SequenceFlowEntity(proc1v1, "seq000002", "申請", "f03", "f02", null),
+                new SequenceFlowEntity(proc1v2, "seq000001", "申請書作成", "f01", "f03", null),
+                new SequenceFlowEntity(proc1v2, "seq000002", "承認依頼", "f03", "g01", null),
+                new SequenceFlowEntity(proc1v2, "seq000003", "承認", "g01", "f02",
+                        "nablarch.integration.workflow.condition.EqFlowProceedCondition(var, 1000)"),
+                new SequenceFlowEntity(proc1v2, "seq000004", "破棄", "g01", "f02",
+                        "nablarch.integration.workflow.condition.NeFlowProceedCondition(var, 1000)"),
+                new SequenceFlowEntity(proc1v2, "seq000005", "引き戻し", "e01", "f01", null),
+                new SequenceFlowEntity(proc2, "seqa00001", "シーケンス1", "aaa", "aab", null),
+                new SequenceFlowEntity(proc2, "seqa00002", "シーケンス2", "aab", "zzz", null)
+        );
+
+        BoundaryEventTriggerEntity trigger = new BoundaryEventTriggerEntity(proc1v2, "__1", "引き戻しメッセージ");
+        workflowDbAccessSupport.insertBoundaryEventTriggerEntity(trigger);
+        workflowDbAccessSupport.insertBoundaryEventEntity(
+                new BoundaryEventEntity("e01", "引き戻し", proc1v2Lane, proc1v2Task, trigger)
+        );
+
+        // ----- execute -----
+        DatabaseWorkflowDefinitionLoader workflowLoader = SystemRepository.get("workflowLoader");
+        List<WorkflowDefinition> expected = workflowLoader.load();
+
+        DatabaseWorkflowDefinitionLoader bulkLoader = new DatabaseWorkflowDefinitionLoader();
+        bulkLoader.setTransactionManager(SystemRepository.<SimpleDbTransactionManager>get("tran"));
+        bulkLoader.setWorkflowDefinitionSchema(SystemRepository.<WorkflowDefinitionSchema>get("workflowDefinitionSchema"));
+        bulkLoader.setBulkLoad(true);
+        List<WorkflowDefinition> actual = bulkLoader.load();
+
+        // ----- assert result -----
+        assertThat(actual.size(), is(3));
+        assertThat(actual.size(), is(expected.size()));
+        for (int i = 0; i < expected.size(); i++) {
+            assertWorkflowDefinition(actual.get(i), expected.get(i));
+        }
+
+        WorkflowDefinition definition = actual.get(1);
+        assertThat(definition.getWorkflowId(), is("proc1"));
+        assertThat(definition.getVersion(), is(2));
+        assertThat(definition.findFlowNode("g01").getSequenceFlows().size(), is(2));
+        assertThat(definition.getBoundaryEvents().get(0).getAttachedTaskId(), is("f03"));
+        assertThat(definition.getBoundaryEvents().get(0).getSequenceFlows().get(0).getTargetFlowNodeId(), is("f01"));
+    }
+
+    /**
+     * 基準日時点で適用期間内の最新バージョンと適用開始前のバージョンのみがロードされること。
+     * また、ワークフローID及びバージョン番号を指定して古いバージョンがロードできること。
+     */
+    @Test
+    public void testLoadEffective() throws Exception {
+
+        //----- setup db -----
+        WorkflowEntity proc1v1 = new WorkflowEntity("proc1", 1, "プロセス1-1", "20140101");
+        WorkflowEntity proc1v2 = new WorkflowEntity("proc1", 2, "プロセス1-2", "20140501");
+        WorkflowEntity proc1v3 = new WorkflowEntity("proc1", 3, "プロセス1-3", "20140801");
+        WorkflowEntity proc2v1 = new WorkflowEntity("proc2", 1, "プロセス2-1", "20140101");
+        WorkflowEntity proc3v1 = new WorkflowEntity("proc3", 1, "プロセス3-1", "20141001");
+        workflowDbAccessSupport.insertWorkflowEntity(proc1v1, proc1v2, proc1v3, proc2v1, proc3v1);
+
+        LaneEntity lane = new LaneEntity(proc1v1, "001", "申請者");
+        workflowDbAccessSupport.insertLaneEntity(lane);
+        workflowDbAccessSupport.insertEventEntity(
+                new EventEntity("f01", lane, "開始イベント", "START"),
+                new EventEntity("f02", lane, "終了イベント", "TERMINATE")
+        );
+        workflowDbAccessSupport.insertSequenceEntity(
+                new SequenceFlowEntity(proc1v1, "seq000001", "終了", "f01", "f02", null)
+        );
+
+        // ----- execute -----
+        DatabaseWorkflowDefinitionLoader workflowLoader = SystemRepository.get("workflowLoader");
+        List<WorkflowDefinition> workflowDefinitions = workflowLoader.loadEffective("20140725");
+
+        // ----- assert result -----
+        assertThat(workflowDefinitions.size(), is(4));
+        assertThat(workflowDefinitions.get(0).getWorkflowId(), is("proc1"));
+        assertThat(workflowDefinitions.get(0).getVersion(), is(3));
+        assertThat(workflowDefinitions.get(1).getWorkflowId(), is("proc1"));
+        assertThat(workflowDefinitions.get(1).getVersion(), is(2));
+        assertThat(workflowDefinitions.get(2).getWorkflowId(), is("proc2"));
+        assertThat(workflowDefinitions.get(2).getVersion(), is(1));
+        assertThat(workflowDefinitions.get(3).getWorkflowId(), is("proc3"));
+        assertThat(workflowDefinitions.get(3).getVersion(), is(1));
+
+        WorkflowDefinition old = workflowLoader.load("proc1", 1);
+        assertThat(old.getWorkflowName(), is("プロセス1-1"));
+        assertThat(old.getLanes().size(), is(1));
+        assertThat(old.findFlowNode("f01").getSequenceFlows().get(0).getTargetFlowNodeId(), is("f02"));
+
+        assertThat(workflowLoader.load("proc1", 9), is(nullValue()));
+    }
+
+    /**
+     * パラメータに依存しないループを持つワークフロー定義をロードした場合、ロード時に例外が発生すること。
+     */
+    @Test
+    public void testLoadUnconditionalLoop() throws Exception {
+
+        //----- setup db -----
+        WorkflowEntity process = new WorkflowEntity("proc1", 1, "ループ", "20140401");
+        workflowDbAccessSupport.insertWorkflowEntity(process);
+        LaneEntity lane = new LaneEntity(process, "001", "申請者");
+        workflowDbAccessSupport.insertLaneEntity(lane);
+        workflowDbAccessSupport.insertEventEntity(new EventEntity("f01", lane, "開始イベント", "START"));
+        workflowDbAccessSupport.insertGatewayEntity(
+                new GatewayEntity("g01", lane, "分岐1", "EXCLUSIVE"),
+                new GatewayEntity("g02", lane, "分岐2", "EXCLUSIVE"));
+        workflowDbAccessSupport.insertSequenceEntity(
+                new SequenceFlowEntity(process, "seq000001", "開始", "f01", "g01", null),
+                new SequenceFlowEntity(process, "seq000002", "ループ1", "g01", "g02", null),
+                new SequenceFlowEntity(process, "seq000003", "ループ2", "g02", "g01", null));
+
+        // ----- execute -----
+        DatabaseWorkflowDefinitionLoader workflowLoader = SystemRepository.get("workflowLoader");
+        try {
+            workflowLoader.load();
+            fail("ここはとおらない");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString(
+                    "unconditional sequence flow loop was detected. workflow id = [proc1], version = [1]"));
+        }
+    }
+
+    /**
+     * 定義テーブルが変更されていない場合は同じチェックサムが、変更された場合は異なるチェックサムが算出されること。
+     */
+    @Test
+    public void testGetChecksum() throws Exception {
+
+        //----- setup db -----
+        WorkflowEntity proc1 = new WorkflowEntity("proc1", 1, "プロセス1", "20140401");
+        workflowDbAccessSupport.insertWorkflowEntity(proc1);
+        LaneEntity lane = new LaneEntity(proc1, "001", "申請者");
+        workflowDbAccessSupport.insertLaneEntity(lane);
+
+        // ----- execute -----
+        DatabaseWorkflowDefinitionLoader workflowLoader = SystemRepository.get("workflowLoader");
+        String checksum = workflowLoader.getChecksum();
+
+        // ----- assert result -----
+        assertThat(checksum.length(), is(64));
+        assertThat(workflowLoader.getChecksum(), is(checksum));
+
+        workflowDbAccessSupport.insertEventEntity(new EventEntity("f01", lane, "開始イベント", "START"));
+        String eventAdded = workflowLoader.getChecksum();
+        assertThat(eventAdded.equals(checksum), is(false));
+
+        workflowDbAccessSupport.insertWorkflowEntity(new WorkflowEntity("proc1", 2, "プロセス1", "20140501"));
+        assertThat(workflowLoader.getChecksum().equals(eventAdded), is(false));
+    }
+
+    /**
+     * ワークフロー定義の内容が一致していることを検証する。
+     *
+     * @param actual 実際の値
+     * @param expected 期待値
+     */
+    private static void assertWorkflowDefinition(WorkflowDefinition actual, WorkflowDefinition expected) {
+        assertThat(actual.getWorkflowId(), is(expected.getWorkflowId()));
+        assertThat(actual.getVersion(), is(expected.getVersion()));
+        assertThat(actual.getWorkflowName(), is(expected.getWorkflowName()));
+        assertThat(actual.getEffectiveDate(), is(expected.getEffectiveDate()));
+
+        assertThat(actual.getLanes().size(), is(expected.getLanes().size()));
+        for (int i = 0; i < expected.getLanes().size(); i++) {
+            assertThat(actual.getLanes().get(i).getLaneId(), is(expected.getLanes().get(i).getLaneId()));
+            assertThat(actual.getLanes().get(i).getLaneName(), is(expected.getLanes().get(i).getLaneName()));
+        }
+
+        assertThat(actual.getSequenceFlows().size(), is(expected.getSequenceFlows().size()));
+        for (int i = 0; i < expected.getSequenceFlows().size(); i++) {
+            assertThat(actual.getSequenceFlows().get(i).getSequenceFlowId(),
+                    is(expected.getSequenceFlows().get(i).getSequenceFlowId()));
+        }
+
+        assertThat(actual.getEvents().size(), is(expected.getEvents().size()));
+        for (int i = 0; i < expected.getEvents().size(); i++) {
+            assertFlowNode(actual.getEvents().get(i), expected.getEvents().get(i));
+        }
+        assertThat(actual.getTasks().size(), is(expected.getTasks().size()));
+        for (int i = 0; i < expected.getTasks().size(); i++) {
+            assertFlowNode(actual.getTasks().get(i), expected.getTasks().get(i));
+        }
+        assertThat(actual.getGateways().size(), is(expected.getGateways().size()));
+        for (int i = 0; i < expected.getGateways().size(); i++) {
+            assertFlowNode(actual.getGateways().get(i), expected.getGateways().get(i));
+        }
+        assertThat(actual.getBoundaryEvents().size(), is(expected.getBoundaryEvents().size()));
+        for (int i = 0; i < expected.getBoundaryEvents().size(); i++) {
+            assertFlowNode(actual.getBoundaryEvents().get(i), expected.getBoundaryEvents().get(i));
+        }
+    }
+
+    /**
+     * フローノードの内容が一致していることを検証する。
+     *
+     * @param actual 実際の値
+     * @param expected 期待値
+     */
+    private static void assertFlowNode(FlowNode actual, FlowNode expected) {
+        assertThat(actual.getFlowNodeId(), is(expected.getFlowNodeId()));
+        assertThat(actual.getFlowNodeName(), is(expected.getFlowNodeName()));
+        assertThat(actual.getLaneId(), is(expected.getLaneId()));
+        assertThat(actual.getSequenceFlows().size(), is(expected.getSequenceFlows().size()));
+        for (int i = 0; i < expected.getSequenceFlows().size(); i++) {
+            assertThat(actual.getSequenceFlows().get(i).getSequenceFlowId(),
+                    is(expected.getSequenceFlows().get(i).getSequenceFlowId()));
+        }
+    }
+
     /**
      * シングルタスク(非マルチインスタンス)に、終了条件が指定されていた場合はエラーとなること。
      *
@@ -0,0 +1,198 @@
+package nablarch.integration.workflow.definition.loader;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import nablarch.integration.workflow.definition.BoundaryEvent;
+import nablarch.integration.workflow.definition.Event;
+import nablarch.integration.workflow.definition.Gateway;
+import nablarch.integration.workflow.definition.Lane;
+import nablarch.integration.workflow.definition.SequenceFlow;
+import nablarch.integration.workflow.definition.Task;
+import nablarch.integration.workflow.definition.WorkflowDefinition;
+
+/**
+ * {@link SnapshotWorkflowDefinitionLoader}のテスト。
+ *
+ * @since 1.4.2
+ */
+public class SnapshotWorkflowDefinitionLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private StubLoader stubLoader;
+
+    private SnapshotWorkflowDefinitionLoader sut;
+
+    private File snapshotFile;
+
+    @Before
+    public void setUp() throws Exception {
+        stubLoader = new StubLoader();
+        snapshotFile = new File(folder.getRoot(), "snapshot/workflow.snapshot");
+        sut = new SnapshotWorkflowDefinitionLoader();
+        sut.setWorkflowDefinitionLoader(stubLoader);
+        sut.setSnapshotFile(snapshotFile.getPath());
+    }
+
+    /**
+     * スナップショットファイルが存在しない場合は、ロード元からロードしてスナップショットファイルが作成されること。
+     * チェックサムが一致する場合は、ロード元にアクセスせずにスナップショットファイルからロードされること。
+     */
+    @Test
+    public void testLoadFromSnapshot() throws Exception {
+        List<WorkflowDefinition> first = sut.load();
+        assertThat(stubLoader.loadCount, is(1));
+        assertThat(snapshotFile.isFile(), is(true));
+        assertThat(first.get(0).getWorkflowName(), is("交通費申請"));
+
+        List<WorkflowDefinition> second = sut.load();
+        assertThat("スナップショットからロードされるため、ロード元は呼び出されない", stubLoader.loadCount, is(1));
+
+        assertThat(second.size(), is(1));
+        WorkflowDefinition definition = second.get(0);
+        assertThat(definition.getWorkflowId(), is("proc1"));
+        assertThat(definition.getVersion(), is(2));
+        assertThat(definition.getWorkflowName(), is("交通費申請"));
+        assertThat(definition.getEffectiveDate(), is("20140701"));
+
+        assertThat(definition.getLanes().size(), is(2));
+        assertThat(definition.getLanes().get(1).getLaneId(), is("l02"));
+        assertThat(definition.getLanes().get(1).getLaneName(), is("承認者"));
+
+        assertThat(definition.getSequenceFlows().size(), is(6));
+        SequenceFlow sequenceFlow = definition.getSequenceFlows().get(3);
+        assertThat(sequenceFlow.getSequenceFlowId(), is("s04"));
+        assertThat(sequenceFlow.getSequenceFlowName(), is(nullValue()));
+        assertThat(sequenceFlow.getFlowProceedConditionName(),
+                is("nablarch.integration.workflow.condition.NeFlowProceedCondition(var, 1000)"));
+
+        Event start = definition.getStartEvent();
+        assertThat(start.getFlowNodeName(), is("開始"));
+        assertThat(start.getLaneId(), is("l01"));
+        assertThat(start.getSequenceFlows().size(), is(1));
+        assertThat(start.getSequenceFlows().get(0).getTargetFlowNodeId(), is("t01"));
+
+        Task task = definition.findTask("t01");
+        assertThat(task.getMultiInstanceType(), is(Task.MultiInstanceType.PARALLEL));
+        assertThat(task.getCompletionConditionName(),
+                is("nablarch.integration.workflow.condition.OrCompletionCondition(2)"));
+
+        Gateway gateway = (Gateway) definition.findFlowNode("g01");
+        assertThat(gateway.getGatewayType(), is(Gateway.GatewayType.EXCLUSIVE));
+        Map<String, Object> parameter = new HashMap<String, Object>();
+        parameter.put("var", 1000);
+        assertThat(gateway.getNextFlowNodeId("instance", parameter), is("e02"));
+        parameter.put("var", 999);
+        assertThat(gateway.getNextFlowNodeId("instance", parameter), is("e03"));
+
+        BoundaryEvent boundaryEvent = definition.getBoundaryEvent("m01").get(0);
+        assertThat(boundaryEvent.getFlowNodeId(), is("b01"));
+        assertThat(boundaryEvent.getBoundaryEventTriggerName(), is("引戻"));
+        assertThat(boundaryEvent.getSequenceFlows().get(0).getTargetFlowNodeId(), is("e01"));
+    }
+
+    /**
+     * チェックサムが一致しない場合は、ロード元からロードしてスナップショットファイルが更新されること。
+     */
+    @Test
+    public void testChecksumChanged() throws Exception {
+        sut.load();
+        assertThat(stubLoader.loadCount, is(1));
+
+        stubLoader.checksum = "changed";
+        stubLoader.workflowName = "変更後";
+        assertThat(sut.load().get(0).getWorkflowName(), is("変更後"));
+        assertThat(stubLoader.loadCount, is(2));
+
+        assertThat(sut.load().get(0).getWorkflowName(), is("変更後"));
+        assertThat(stubLoader.loadCount, is(2));
+    }
+
+    /**
+     * スナップショットファイルの形式が不正な場合は、ロード元からロードされること。
+     */
+    @Test
+    public void testInvalidSnapshot() throws Exception {
+        snapshotFile.getParentFile().mkdirs();
+        FileOutputStream out = new FileOutputStream(snapshotFile);
+        try {
+            out.write(new byte[] {0x57, 0x46, 0x44, 0x53, 0x00});
+        } finally {
+            out.close();
+        }
+
+        assertThat(sut.load().get(0).getWorkflowName(), is("交通費申請"));
+        assertThat(stubLoader.loadCount, is(1));
+
+        // 不正なファイルは正しい内容で置き換えられる。
+        sut.load();
+        assertThat(stubLoader.loadCount, is(1));
+    }
+
+    /**
+     * テスト用のロード元。
+     */
+    private static class StubLoader implements ChecksumWorkflowDefinitionLoader {
+
+        private int loadCount;
+
+        private String checksum = "checksum";
+
+        private String workflowName = "交通費申請";
+
+        @Override
+        public String getChecksum() {
+            return checksum;
+        }
+
+        @Override
+        public List<WorkflowDefinition> load() {
+            loadCount++;
+            WorkflowDefinition definition = new WorkflowDefinition("proc1", 2, workflowName, "20140701");
+            definition.setLanes(Arrays.asList(new Lane("l01", "申請者"), new Lane("l02", "承認者")));
+
+            SequenceFlow s01 = new SequenceFlow("s01", "申請", "e01", "t01", null);
+            SequenceFlow s02 = new SequenceFlow("s02", "承認依頼", "t01", "g01", null);
+            SequenceFlow s03 = new SequenceFlow("s03", "承認", "g01", "e02",
+                    "nablarch.integration.workflow.condition.EqFlowProceedCondition(var, 1000)");
+            SequenceFlow s04 = new SequenceFlow("s04", null, "g01", "e03",
+                    "nablarch.integration.workflow.condition.NeFlowProceedCondition(var, 1000)");
+            SequenceFlow s05 = new SequenceFlow("s05", "引戻", "b01", "e01", null);
+            SequenceFlow s06 = new SequenceFlow("s06", "未使用", "x01", "e01", null);
+            definition.setSequenceFlows(Arrays.asList(s01, s02, s03, s04, s05, s06));
+
+            definition.setEvents(Arrays.asList(
+                    new Event("e01", "開始", "l01", "START", Arrays.asList(s01)),
+                    new Event("e02", "承認終了", "l02", "TERMINATE", Collections.<SequenceFlow>emptyList()),
+                    new Event("e03", "却下終了", "l02", "TERMINATE", Collections.<SequenceFlow>emptyList())));
+            definition.setTasks(Arrays.asList(
+                    new Task("t01", "承認", "l02", "PARALLEL",
+                            "nablarch.integration.workflow.condition.OrCompletionCondition(2)", Arrays.asList(s02))));
+            definition.setGateways(Arrays.asList(
+                    new Gateway("g01", "承認判定", "l02", "EXCLUSIVE", Arrays.asList(s03, s04))));
+            definition.setBoundaryEvents(Arrays.asList(
+                    new BoundaryEvent("b01", "引戻", "l01", "m01", "引戻", "t01", Arrays.asList(s05))));
+
+            List<WorkflowDefinition> result = new ArrayList<WorkflowDefinition>();
+            result.add(definition);
+            return result;
+        }
+    }
+}
@@ -46,6 +46,7 @@ public class WorkflowDbAccessSupport {
                 "WF_ACTIVE_FLOW_NODE",
                 "WF_TASK_ASSIGNED_GROUP",
                 "WF_TASK_ASSIGNED_USER",
+                "WF_TASK_PROGRESS",
                 "WF_INSTANCE_FLOW_NODE",
                 "WF_INSTANCE",
                 "WF_SEQUENCE_FLOW",
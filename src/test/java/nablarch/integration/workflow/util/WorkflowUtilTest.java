@@ -9,12 +9,18 @@ import static org.junit.Assert.fail;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
+import nablarch.integration.workflow.condition.AllCompletionCondition;
+import nablarch.integration.workflow.condition.CompletionCondition;
 import nablarch.integration.workflow.condition.FlowProceedCondition;
 import nablarch.integration.workflow.condition.FlowProceedCondition2;
 import nablarch.integration.workflow.condition.FlowProceedCondition1;
 import nablarch.integration.workflow.condition.FlowProceedCondition3;
+import nablarch.integration.workflow.condition.GeFlowProceedCondition;
+import nablarch.integration.workflow.condition.OrCompletionCondition;
+import nablarch.integration.workflow.condition.StringEqualFlowProceedCondition;
 import nablarch.integration.workflow.util.WorkflowUtil.ListFilter;
 
 import org.junit.Test;
@@ -163,6 +169,78 @@ public class WorkflowUtilTest {
         assertThat(((FlowProceedCondition3) instance).arg2, is("　"));
     }
 
+    /**
+     * 同じクラス名を表す文字列を複数回指定した場合でも、呼び出しごとに新しいインスタンスが生成されること。
+     */
+    @Test
+    public void testCreateInstanceRepeatedly() throws Exception {
+        FlowProceedCondition first = WorkflowUtil.createInstance(
+                "nablarch.integration.workflow.condition.FlowProceedCondition3(abc, def)");
+        FlowProceedCondition second = WorkflowUtil.createInstance(
+                "nablarch.integration.workflow.condition.FlowProceedCondition3(abc, def)");
+        assertThat(first == second, is(false));
+        assertThat(((FlowProceedCondition3) second).arg1, is("abc"));
+        assertThat(((FlowProceedCondition3) second).arg2, is("def"));
+
+        FlowProceedCondition other = WorkflowUtil.createInstance(
+                "nablarch.integration.workflow.condition.FlowProceedCondition3(ghi, jkl)");
+        assertThat(((FlowProceedCondition3) other).arg1, is("ghi"));
+        assertThat(((FlowProceedCondition3) other).arg2, is("jkl"));
+    }
+
+    /**
+     * クラス名を指定した場合、引数に含まれるシングルクォートや括弧は区切りの判定に影響しないこと。
+     */
+    @Test
+    public void testCreateInstanceClassNameWithQuote() throws Exception {
+        FlowProceedCondition condition = WorkflowUtil.createInstance(
+                "nablarch.integration.workflow.condition.StringEqualFlowProceedCondition(name, O'Brien)");
+        assertThat(condition, instanceOf(StringEqualFlowProceedCondition.class));
+        assertThat(condition.isMatch("0000000001", Collections.singletonMap("name", "O'Brien"), null), is(true));
+
+        FlowProceedCondition3 instance = WorkflowUtil.createInstance(
+                "nablarch.integration.workflow.condition.FlowProceedCondition3(O'Brien, d'Arcy)");
+        assertThat(instance.arg1, is("O'Brien"));
+        assertThat(instance.arg2, is("d'Arcy"));
+
+        instance = WorkflowUtil.createInstance(
+                "nablarch.integration.workflow.condition.FlowProceedCondition3(a(b, c))");
+        assertThat(instance.arg1, is("a(b"));
+        assertThat(instance.arg2, is("c)"));
+    }
+
+    /**
+     * エイリアスを指定した場合、エイリアスに紐づく条件が生成されること。
+     */
+    @Test
+    public void testCreateInstanceAlias() throws Exception {
+        FlowProceedCondition ge = WorkflowUtil.createInstance("ge(amount, 1000)");
+        assertThat(ge, instanceOf(GeFlowProceedCondition.class));
+        assertThat(ge.isMatch("0000000001", Collections.singletonMap("amount", "1000"), null), is(true));
+        assertThat(ge.isMatch("0000000001", Collections.singletonMap("amount", "999"), null), is(false));
+
+        CompletionCondition or = WorkflowUtil.createInstance("or(2)");
+        assertThat(or, instanceOf(OrCompletionCondition.class));
+
+        CompletionCondition all = WorkflowUtil.createInstance("all");
+        assertThat(all, instanceOf(AllCompletionCondition.class));
+    }
+
+    /**
+     * エイリアスに対する引数の数が不正な場合例外が発生すること。
+     */
+    @Test
+    public void testCreateInstanceAliasInvalidArgs() throws Exception {
+        try {
+            WorkflowUtil.createInstance("ge(amount)");
+            fail("通らない");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("failed to create instance. class name pattern = [ge(amount)]"));
+            assertThat(e.getCause().getMessage(), containsString(
+                    "invalid number of condition arguments. alias = [ge], expected = [2], actual = [1]"));
+        }
+    }
+
     /**
      * クラス名形式として不正な形式を指定した場合例外が発生すること
      */
@@ -9,6 +9,9 @@ CREATE TABLE WF_ACTIVE_FLOW_NODE
 ALTER TABLE WF_ACTIVE_FLOW_NODE
     ADD CONSTRAINT PK_WF_ACTIVE_FLOW_NODE PRIMARY KEY (INSTANCE_ID, FLOW_NODE_ID)
 /
+ALTER TABLE WF_ACTIVE_FLOW_NODE
+    ADD CONSTRAINT UK_WF_ACTIVE_FLOW_NODE UNIQUE (INSTANCE_ID)
+/
 CREATE INDEX WF_ACTIVE_FLOW_NODE_INDEX ON WF_ACTIVE_FLOW_NODE(INSTANCE_ID, FLOW_NODE_ID)
 /
 DROP TABLE WF_ACTIVE_GROUP_TASK
@@ -26,6 +29,8 @@ ALTER TABLE WF_ACTIVE_GROUP_TASK
 /
 CREATE INDEX WF_ACTIVE_GROUP_TASK_INDEX ON WF_ACTIVE_GROUP_TASK(INSTANCE_ID, FLOW_NODE_ID, ASSIGNED_GROUP_ID)
 /
+CREATE INDEX WF_ACTIVE_GROUP_TASK_GROUP_INDEX ON WF_ACTIVE_GROUP_TASK(ASSIGNED_GROUP_ID, INSTANCE_ID, FLOW_NODE_ID)
+/
 DROP TABLE WF_ACTIVE_USER_TASK
 /
 CREATE TABLE WF_ACTIVE_USER_TASK
@@ -41,6 +46,8 @@ ALTER TABLE WF_ACTIVE_USER_TASK
 /
 CREATE INDEX WF_ACTIVE_USER_TASK_INDEX ON WF_ACTIVE_USER_TASK(INSTANCE_ID, FLOW_NODE_ID, ASSIGNED_USER_ID)
 /
+CREATE INDEX WF_ACTIVE_USER_TASK_USER_INDEX ON WF_ACTIVE_USER_TASK(ASSIGNED_USER_ID, INSTANCE_ID, FLOW_NODE_ID)
+/
 DROP TABLE WF_BOUNDARY_EVENT
 /
 CREATE TABLE WF_BOUNDARY_EVENT
@@ -226,6 +233,19 @@ ALTER TABLE WF_TASK_ASSIGNED_USER
 /
 CREATE INDEX WF_TASK_ASSIGNED_USER_INDEX ON WF_TASK_ASSIGNED_USER(INSTANCE_ID, FLOW_NODE_ID, ASSIGNED_USER_ID)
 /
+DROP TABLE WF_TASK_PROGRESS
+/
+CREATE TABLE WF_TASK_PROGRESS
+(
+    INSTANCE_ID                     NCHAR(10) NOT NULL,
+    FLOW_NODE_ID                    NVARCHAR(20) NOT NULL,
+    ASSIGNED_COUNT                  NUMBER(4,0) NOT NULL,
+    COMPLETED_COUNT                 NUMBER(4,0) NOT NULL
+)
+/
+ALTER TABLE WF_TASK_PROGRESS
+    ADD CONSTRAINT PK_WF_TASK_PROGRESS PRIMARY KEY (INSTANCE_ID, FLOW_NODE_ID)
+/
 DROP TABLE WF_WORKFLOW_DEFINITION
 /
 CREATE TABLE WF_WORKFLOW_DEFINITION